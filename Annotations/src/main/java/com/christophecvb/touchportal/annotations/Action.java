@@ -129,4 +129,60 @@ public @interface Action {
      * @return boolean hasHoldFunctionality
      */
     boolean hasHoldFunctionality() default false;
+
+    /**
+     * Action executionPolicy
+     * <p>
+     * Default is {@link ExecutionPolicy#POOLED}
+     * </p>
+     *
+     * @return {@link ExecutionPolicy} executionPolicy
+     */
+    ExecutionPolicy executionPolicy() default ExecutionPolicy.POOLED;
+
+    /**
+     * Action timeout in milliseconds
+     * <p>
+     * Default is 0, meaning the Plugin default handler timeout is used, itself disabled unless set with setDefaultHandlerTimeout
+     * </p>
+     *
+     * @return long timeout
+     */
+    long timeout() default 0;
+
+    /**
+     * Action interruptOnTimeout
+     * <p>
+     * Default is false
+     * </p>
+     * <p>
+     * Not supported with {@link ExecutionPolicy#INLINE}, an overdue inline handler is only logged
+     * </p>
+     *
+     * @return boolean interruptOnTimeout
+     */
+    boolean interruptOnTimeout() default false;
+
+    /**
+     * Action repeatInterval in milliseconds
+     * <p>
+     * Default is 0, meaning the Action is not repeated while held.
+     * Otherwise the Action is invoked again at this rate between its Hold Down and its Hold Up, it requires hasHoldFunctionality.
+     * Repetitions always run off the timer Thread, on the interactive lane for an {@link ExecutionPolicy#INLINE} Action
+     * </p>
+     *
+     * @return long repeatInterval
+     */
+    long repeatInterval() default 0;
+
+    /**
+     * Action repeatDelay in milliseconds, before the first repetition
+     * <p>
+     * Default is 0, meaning the first repetition happens after repeatInterval.
+     * The delay starts once the Hold Down invocation completed
+     * </p>
+     *
+     * @return long repeatDelay
+     */
+    long repeatDelay() default 0;
 }
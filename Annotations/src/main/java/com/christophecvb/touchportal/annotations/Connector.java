@@ -86,4 +86,37 @@ public @interface Connector {
      * @return String categoryId
      */
     String categoryId();
+
+    /**
+     * Connector executionPolicy
+     * <p>
+     * Default is {@link ExecutionPolicy#POOLED}
+     * </p>
+     *
+     * @return {@link ExecutionPolicy} executionPolicy
+     */
+    ExecutionPolicy executionPolicy() default ExecutionPolicy.POOLED;
+
+    /**
+     * Connector timeout in milliseconds
+     * <p>
+     * Default is 0, meaning the Plugin default handler timeout is used, itself disabled unless set with setDefaultHandlerTimeout
+     * </p>
+     *
+     * @return long timeout
+     */
+    long timeout() default 0;
+
+    /**
+     * Connector interruptOnTimeout
+     * <p>
+     * Default is false
+     * </p>
+     * <p>
+     * Not supported with {@link ExecutionPolicy#INLINE}, an overdue inline handler is only logged
+     * </p>
+     *
+     * @return boolean interruptOnTimeout
+     */
+    boolean interruptOnTimeout() default false;
 }
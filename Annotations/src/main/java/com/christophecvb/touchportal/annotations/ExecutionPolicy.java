@@ -0,0 +1,43 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.christophecvb.touchportal.annotations;
+
+/**
+ * How the SDK runs an {@link Action} or a {@link Connector}
+ */
+public enum ExecutionPolicy {
+    /**
+     * Run on the Thread reading the messages, only for trivial and non-blocking handlers
+     */
+    INLINE,
+    /**
+     * Run on the shared pool of the interactive lane (default)
+     */
+    POOLED,
+    /**
+     * Run on its own Thread, virtual when the runtime supports it, for blocking handlers
+     */
+    VIRTUAL,
+    /**
+     * Run on the shared pool, one call at a time per Action or Connector id
+     */
+    SERIAL
+}
@@ -47,6 +47,12 @@ public class ActionProcessor {
             jsonAction.addProperty(ActionHelper.TRY_INLINE, true);
         }
         jsonAction.addProperty(ActionHelper.HAS_HOLD_FUNCTIONALITY, action.hasHoldFunctionality());
+        if (action.repeatInterval() > 0 && !action.hasHoldFunctionality()) {
+            processor.getMessager().printMessage(Diagnostic.Kind.WARNING, "Action " + actionElement.getSimpleName() + " has a repeatInterval but no hold functionality, it will never be repeated", actionElement);
+        }
+        if (action.interruptOnTimeout() && action.executionPolicy() == ExecutionPolicy.INLINE) {
+            processor.getMessager().printMessage(Diagnostic.Kind.ERROR, "Action " + actionElement.getSimpleName() + " cannot interruptOnTimeout with the INLINE executionPolicy, it would interrupt the Thread reading the messages", actionElement);
+        }
 
         ActionTranslation[] actionTranslations = actionElement.getAnnotationsByType(ActionTranslation.class);
         if (actionTranslations.length > 0) {
@@ -40,6 +40,9 @@ public class ConnectorProcessor {
         jsonConnector.addProperty(ConnectorHelper.ID, ConnectorHelper.getConnectorId(pluginElement, categoryElement, category, connectorElement, connector));
         jsonConnector.addProperty(ConnectorHelper.NAME, ConnectorHelper.getConnectorName(connectorElement, connector));
         jsonConnector.addProperty(ConnectorHelper.FORMAT, connector.format());
+        if (connector.interruptOnTimeout() && connector.executionPolicy() == ExecutionPolicy.INLINE) {
+            processor.getMessager().printMessage(Diagnostic.Kind.ERROR, "Connector " + connectorElement.getSimpleName() + " cannot interruptOnTimeout with the INLINE executionPolicy, it would interrupt the Thread reading the messages", connectorElement);
+        }
 
         String classMethod = pluginElement.getSimpleName() + "." + connectorElement.getSimpleName();
         boolean connectorValueFound = false;
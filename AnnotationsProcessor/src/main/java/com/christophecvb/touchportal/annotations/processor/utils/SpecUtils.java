@@ -82,6 +82,7 @@ public class SpecUtils {
         actionTypeSpecBuilder.addField(SpecUtils.getStaticFinalStringFieldSpec("type", action.type()));
         actionTypeSpecBuilder.addField(SpecUtils.getStaticFinalStringFieldSpec("format", action.format()));
         actionTypeSpecBuilder.addField(SpecUtils.getStaticFinalBooleanFieldSpec("has_hold_functionality", action.hasHoldFunctionality()));
+        actionTypeSpecBuilder.addField(SpecUtils.getStaticFinalStringFieldSpec("execution_policy", action.executionPolicy().name()));
 
         return actionTypeSpecBuilder;
     }
@@ -105,6 +106,7 @@ public class SpecUtils {
         actionTypeSpecBuilder.addField(SpecUtils.getStaticFinalStringFieldSpec("id", ConnectorHelper.getConnectorId(pluginElement, categoryElement, category, connectorElement, connector)));
         actionTypeSpecBuilder.addField(SpecUtils.getStaticFinalStringFieldSpec("name", ConnectorHelper.getConnectorName(connectorElement, connector)));
         actionTypeSpecBuilder.addField(SpecUtils.getStaticFinalStringFieldSpec("format", connector.format()));
+        actionTypeSpecBuilder.addField(SpecUtils.getStaticFinalStringFieldSpec("execution_policy", connector.executionPolicy().name()));
 
         return actionTypeSpecBuilder;
     }
@@ -0,0 +1,143 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.benchmarks;
+
+import com.christophecvb.touchportal.TPAction;
+import com.christophecvb.touchportal.TPConnector;
+import com.christophecvb.touchportal.TouchPortalPlugin;
+import com.christophecvb.touchportal.annotations.*;
+import com.christophecvb.touchportal.helpers.ActionHelper;
+import com.christophecvb.touchportal.helpers.ConnectorHelper;
+import com.christophecvb.touchportal.helpers.DataHelper;
+import com.christophecvb.touchportal.helpers.PluginHelper;
+import com.christophecvb.touchportal.helpers.StateHelper;
+import com.christophecvb.touchportal.model.TPListChangedMessage;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plugin exercised by the benchmarks
+ * <p>
+ * Its Actions and Connectors run {@link ExecutionPolicy#INLINE} and count their invocations,
+ * so a benchmark knows a batch of messages has been decoded and dispatched once the count is reached.
+ * The same handler is declared both as an annotated method, looked up by reflection for each message,
+ * and as a registered class.
+ * </p>
+ */
+@SuppressWarnings("unused")
+public class BenchmarkPlugin extends TouchPortalPlugin {
+    static final String CATEGORY_ID = "BenchmarkCategory";
+    static final String PLUGIN_ID = PluginHelper.getPluginId(BenchmarkPlugin.class);
+    static final String METHOD_ACTION_ID = ActionHelper.getActionId(BenchmarkPlugin.class, "methodAction");
+    static final String METHOD_ACTION_TEXT_ID = DataHelper.getDataId(BenchmarkPlugin.class, "methodAction", "text");
+    static final String METHOD_ACTION_NUMBER_ID = DataHelper.getDataId(BenchmarkPlugin.class, "methodAction", "number");
+    static final String CLASS_ACTION_ID = ActionHelper.getActionId(BenchmarkPlugin.class, BenchmarkPlugin.getDeclaredField(ClassAction.class, "text"));
+    static final String CLASS_ACTION_TEXT_ID = DataHelper.getDataId(BenchmarkPlugin.class, BenchmarkPlugin.getDeclaredField(ClassAction.class, "text"));
+    static final String CLASS_ACTION_NUMBER_ID = DataHelper.getDataId(BenchmarkPlugin.class, BenchmarkPlugin.getDeclaredField(ClassAction.class, "number"));
+    static final String METHOD_CONNECTOR_ID = ConnectorHelper.getConnectorId(BenchmarkPlugin.class, "methodConnector");
+    static final String METHOD_CONNECTOR_MODE_ID = DataHelper.getDataId(BenchmarkPlugin.class, "methodConnector", "mode");
+    static final String CLASS_CONNECTOR_ID = ConnectorHelper.getConnectorId(BenchmarkPlugin.class, ClassConnector.class, ClassConnector.class.getAnnotation(Connector.class));
+    static final String CLASS_CONNECTOR_MODE_ID = DataHelper.getDataId(BenchmarkPlugin.class, BenchmarkPlugin.getDeclaredField(ClassConnector.class, "mode"));
+    static final String DEDUPLICATED_STATE_ID = StateHelper.getStateId(BenchmarkPlugin.class, BenchmarkPlugin.CATEGORY_ID, "deduplicatedState");
+    static final String TOGGLED_STATE_ID = StateHelper.getStateId(BenchmarkPlugin.class, BenchmarkPlugin.CATEGORY_ID, "toggledState");
+
+    /**
+     * Number of Actions and Connectors handled
+     */
+    final AtomicLong handledCount = new AtomicLong();
+
+    @State(defaultValue = "", categoryId = BenchmarkPlugin.CATEGORY_ID)
+    private String deduplicatedState;
+
+    @State(defaultValue = "", categoryId = BenchmarkPlugin.CATEGORY_ID)
+    private String toggledState;
+
+    @Setting(defaultValue = "localhost")
+    String host = "localhost";
+
+    /**
+     * Constructor
+     */
+    public BenchmarkPlugin() {
+        super(1, 1);
+        this.registerInvokable(BenchmarkPlugin.CLASS_ACTION_ID, ClassAction.class);
+        this.registerInvokable(BenchmarkPlugin.CLASS_CONNECTOR_ID, ClassConnector.class);
+    }
+
+    private static Field getDeclaredField(Class<?> declaringClass, String fieldName) {
+        try {
+            return declaringClass.getDeclaredField(fieldName);
+        }
+        catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Action(categoryId = BenchmarkPlugin.CATEGORY_ID, executionPolicy = ExecutionPolicy.INLINE)
+    private void methodAction(@Data String text, @Data Integer number) {
+        this.handledCount.incrementAndGet();
+    }
+
+    @Connector(format = "Set to {$mode$}", categoryId = BenchmarkPlugin.CATEGORY_ID, executionPolicy = ExecutionPolicy.INLINE)
+    private void methodConnector(@ConnectorValue Integer value, @Data String mode) {
+        this.handledCount.incrementAndGet();
+    }
+
+    @Action(categoryId = BenchmarkPlugin.CATEGORY_ID, executionPolicy = ExecutionPolicy.INLINE)
+    public static class ClassAction extends TPAction<BenchmarkPlugin> {
+        @Data
+        private String text;
+        @Data
+        private Integer number;
+
+        public ClassAction(BenchmarkPlugin benchmarkPlugin) {
+            super(benchmarkPlugin);
+        }
+
+        @Override
+        public void onInvoke() {
+            this.touchPortalPlugin.handledCount.incrementAndGet();
+        }
+
+        @Override
+        public void onListChanged(TPListChangedMessage tpListChangedMessage) {}
+    }
+
+    @Connector(format = "Set to {$mode$}", categoryId = BenchmarkPlugin.CATEGORY_ID, executionPolicy = ExecutionPolicy.INLINE)
+    public static class ClassConnector extends TPConnector<BenchmarkPlugin> {
+        @ConnectorValue
+        private Integer value;
+        @Data
+        private String mode;
+
+        public ClassConnector(BenchmarkPlugin benchmarkPlugin) {
+            super(benchmarkPlugin);
+        }
+
+        @Override
+        public void onInvoke() {
+            this.touchPortalPlugin.handledCount.incrementAndGet();
+        }
+
+        @Override
+        public void onListChanged(TPListChangedMessage tpListChangedMessage) {}
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a Choice update by number of choices, alternating two lists so it is never deduplicated
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ChoiceUpdateBenchmark {
+    @Param({"10", "1000", "10000"})
+    public int choiceCount;
+
+    private PluginFixture pluginFixture;
+    private String[] choices;
+    private String[] otherChoices;
+    private boolean toggle;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException, IOException {
+        this.pluginFixture = new PluginFixture();
+        this.pluginFixture.start();
+        this.choices = new String[this.choiceCount];
+        this.otherChoices = new String[this.choiceCount];
+        for (int i = 0; i < this.choiceCount; i++) {
+            this.choices[i] = "Choice " + i;
+            this.otherChoices[i] = "Choice " + i;
+        }
+        this.otherChoices[this.choiceCount - 1] = "Other Choice";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException, IOException {
+        this.pluginFixture.stop();
+    }
+
+    @Benchmark
+    public boolean sendChoiceUpdate() {
+        this.toggle = !this.toggle;
+        return this.pluginFixture.getPlugin().sendChoiceUpdate(BenchmarkPlugin.METHOD_ACTION_TEXT_ID, this.toggle ? this.choices : this.otherChoices);
+    }
+}
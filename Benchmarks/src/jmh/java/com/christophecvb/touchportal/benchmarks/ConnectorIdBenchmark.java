@@ -0,0 +1,110 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.benchmarks;
+
+import com.christophecvb.touchportal.helpers.ConnectorHelper;
+import com.christophecvb.touchportal.helpers.ReceivedMessageHelper;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building a constructed Connector ID and of a Connector update looking up its Short ID among N mappings
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConnectorIdBenchmark {
+    /**
+     * Data of the constructed Connector ID
+     */
+    @State(Scope.Benchmark)
+    public static class ConnectorData {
+        @Param({"1", "3", "10"})
+        public int dataCount;
+
+        private Map<String, Object> data;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            this.data = new LinkedHashMap<>();
+            for (int i = 0; i < this.dataCount; i++) {
+                this.data.put("data" + i, "Value " + i);
+            }
+        }
+    }
+
+    /**
+     * Plugin that received N Short ID notifications
+     */
+    @State(Scope.Benchmark)
+    public static class ShortIdMappings {
+        @Param({"1", "10", "100"})
+        public int mappingCount;
+
+        private PluginFixture pluginFixture;
+        private Map<String, Object> data;
+        private int value;
+
+        @Setup(Level.Trial)
+        public void setUp() throws InterruptedException, IOException {
+            this.pluginFixture = new PluginFixture();
+            this.pluginFixture.start();
+
+            ByteArrayOutputStream notifications = new ByteArrayOutputStream();
+            for (int i = 0; i < this.mappingCount; i++) {
+                JsonObject notification = new JsonObject();
+                notification.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_SHORT_CONNECTOR_ID_NOTIFICATION);
+                notification.addProperty(ReceivedMessageHelper.PLUGIN_ID, BenchmarkPlugin.PLUGIN_ID);
+                notification.addProperty(ReceivedMessageHelper.CONNECTOR_ID, ConnectorHelper.getConstructedId(BenchmarkPlugin.PLUGIN_ID, BenchmarkPlugin.METHOD_CONNECTOR_ID, 0, Collections.singletonMap("mode", "Mode " + i)));
+                notification.addProperty(ReceivedMessageHelper.SHORT_ID, "short" + i);
+                notifications.write(PluginFixture.lines(notification, 1));
+            }
+            notifications.write(PluginFixture.lines(PluginFixture.actionMessage(BenchmarkPlugin.METHOD_ACTION_ID, BenchmarkPlugin.METHOD_ACTION_TEXT_ID, BenchmarkPlugin.METHOD_ACTION_NUMBER_ID), 1));
+            long handledCount = this.pluginFixture.getPlugin().handledCount.get() + 1;
+            this.pluginFixture.write(notifications.toByteArray());
+            this.pluginFixture.awaitHandled(handledCount);
+
+            this.data = Collections.singletonMap("mode", "Mode " + (this.mappingCount - 1));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws InterruptedException, IOException {
+            this.pluginFixture.stop();
+        }
+    }
+
+    @Benchmark
+    public String getConstructedId(ConnectorData connectorData) {
+        return ConnectorHelper.getConstructedId(BenchmarkPlugin.PLUGIN_ID, BenchmarkPlugin.METHOD_CONNECTOR_ID, 50, connectorData.data);
+    }
+
+    @Benchmark
+    public boolean sendConnectorUpdateWithShortId(ShortIdMappings shortIdMappings) {
+        // A new value each time, so the update is not deduplicated
+        shortIdMappings.value = (shortIdMappings.value + 1) % 101;
+        return shortIdMappings.pluginFixture.getPlugin().sendConnectorUpdate(BenchmarkPlugin.PLUGIN_ID, BenchmarkPlugin.METHOD_CONNECTOR_ID, shortIdMappings.value, shortIdMappings.data);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to decode and dispatch an Action or Connector change to its handler
+ * <p>
+ * Compares the annotated methods, looked up by reflection on each message, with the registered classes, found in a map.
+ * Handlers run inline on the listener Thread and only count their invocations.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class DispatchBenchmark {
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"actionMethod", "actionClass", "connectorMethod", "connectorClass"})
+    public String handler;
+
+    private PluginFixture pluginFixture;
+    private byte[] batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException, IOException {
+        this.pluginFixture = new PluginFixture();
+        this.pluginFixture.start();
+
+        switch (this.handler) {
+            case "actionMethod":
+                this.batch = PluginFixture.lines(PluginFixture.actionMessage(BenchmarkPlugin.METHOD_ACTION_ID, BenchmarkPlugin.METHOD_ACTION_TEXT_ID, BenchmarkPlugin.METHOD_ACTION_NUMBER_ID), DispatchBenchmark.BATCH_SIZE);
+                break;
+
+            case "actionClass":
+                this.batch = PluginFixture.lines(PluginFixture.actionMessage(BenchmarkPlugin.CLASS_ACTION_ID, BenchmarkPlugin.CLASS_ACTION_TEXT_ID, BenchmarkPlugin.CLASS_ACTION_NUMBER_ID), DispatchBenchmark.BATCH_SIZE);
+                break;
+
+            case "connectorMethod":
+                this.batch = PluginFixture.lines(PluginFixture.connectorChangeMessage(BenchmarkPlugin.METHOD_CONNECTOR_ID, BenchmarkPlugin.METHOD_CONNECTOR_MODE_ID), DispatchBenchmark.BATCH_SIZE);
+                break;
+
+            case "connectorClass":
+                this.batch = PluginFixture.lines(PluginFixture.connectorChangeMessage(BenchmarkPlugin.CLASS_CONNECTOR_ID, BenchmarkPlugin.CLASS_CONNECTOR_MODE_ID), DispatchBenchmark.BATCH_SIZE);
+                break;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException, IOException {
+        this.pluginFixture.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DispatchBenchmark.BATCH_SIZE)
+    public void dispatch() throws IOException {
+        long handledCount = this.pluginFixture.getPlugin().handledCount.get() + DispatchBenchmark.BATCH_SIZE;
+        this.pluginFixture.write(this.batch);
+        this.pluginFixture.awaitHandled(handledCount);
+    }
+}
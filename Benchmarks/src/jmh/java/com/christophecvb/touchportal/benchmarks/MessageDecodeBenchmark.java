@@ -0,0 +1,126 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.benchmarks;
+
+import com.christophecvb.touchportal.helpers.ReceivedMessageHelper;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for the Plugin to read, decode and route a received message, by message type
+ * <p>
+ * A batch of messages is written to the Plugin followed by an Action, once the Action is handled the whole batch has been processed.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MessageDecodeBenchmark {
+    private static final int BATCH_SIZE = 100;
+
+    @Param({
+            ReceivedMessageHelper.TYPE_ACTION,
+            ReceivedMessageHelper.TYPE_CONNECTOR_CHANGE,
+            ReceivedMessageHelper.TYPE_LIST_CHANGED,
+            ReceivedMessageHelper.TYPE_BROADCAST,
+            ReceivedMessageHelper.TYPE_SETTINGS,
+            ReceivedMessageHelper.TYPE_SHORT_CONNECTOR_ID_NOTIFICATION,
+            ReceivedMessageHelper.TYPE_NOTIFICATION_OPTION_CLICKED
+    })
+    public String messageType;
+
+    private PluginFixture pluginFixture;
+    private byte[] batch;
+    private int handledPerBatch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException, IOException {
+        this.pluginFixture = new PluginFixture();
+        this.pluginFixture.start();
+
+        JsonObject message = new JsonObject();
+        message.addProperty(ReceivedMessageHelper.TYPE, this.messageType);
+        message.addProperty(ReceivedMessageHelper.PLUGIN_ID, BenchmarkPlugin.PLUGIN_ID);
+        this.handledPerBatch = 1;
+        switch (this.messageType) {
+            case ReceivedMessageHelper.TYPE_ACTION:
+                message = PluginFixture.actionMessage(BenchmarkPlugin.METHOD_ACTION_ID, BenchmarkPlugin.METHOD_ACTION_TEXT_ID, BenchmarkPlugin.METHOD_ACTION_NUMBER_ID);
+                this.handledPerBatch += MessageDecodeBenchmark.BATCH_SIZE;
+                break;
+
+            case ReceivedMessageHelper.TYPE_CONNECTOR_CHANGE:
+                message = PluginFixture.connectorChangeMessage(BenchmarkPlugin.METHOD_CONNECTOR_ID, BenchmarkPlugin.METHOD_CONNECTOR_MODE_ID);
+                this.handledPerBatch += MessageDecodeBenchmark.BATCH_SIZE;
+                break;
+
+            case ReceivedMessageHelper.TYPE_LIST_CHANGED:
+                message.addProperty(ReceivedMessageHelper.ACTION_ID, BenchmarkPlugin.METHOD_ACTION_ID);
+                message.addProperty(ReceivedMessageHelper.LIST_ID, BenchmarkPlugin.METHOD_ACTION_TEXT_ID);
+                message.addProperty(ReceivedMessageHelper.INSTANCE_ID, "instance");
+                message.addProperty(ReceivedMessageHelper.VALUE, "Second");
+                break;
+
+            case ReceivedMessageHelper.TYPE_BROADCAST:
+                message.addProperty(ReceivedMessageHelper.EVENT, ReceivedMessageHelper.EVENT_PAGE_CHANGE);
+                message.addProperty(ReceivedMessageHelper.PAGE_NAME, "(main)");
+                break;
+
+            case ReceivedMessageHelper.TYPE_SETTINGS:
+                JsonArray values = new JsonArray();
+                JsonObject setting = new JsonObject();
+                setting.addProperty("host", "127.0.0.1");
+                values.add(setting);
+                message.add(ReceivedMessageHelper.VALUES, values);
+                break;
+
+            case ReceivedMessageHelper.TYPE_SHORT_CONNECTOR_ID_NOTIFICATION:
+                message.addProperty(ReceivedMessageHelper.CONNECTOR_ID, "pc_" + BenchmarkPlugin.PLUGIN_ID + "_" + BenchmarkPlugin.METHOD_CONNECTOR_ID + "|mode=Fast");
+                message.addProperty(ReceivedMessageHelper.SHORT_ID, "AbCdEf");
+                break;
+
+            case ReceivedMessageHelper.TYPE_NOTIFICATION_OPTION_CLICKED:
+                message.addProperty("notificationId", "notification");
+                message.addProperty("optionId", "option");
+                break;
+        }
+        byte[] messages = PluginFixture.lines(message, MessageDecodeBenchmark.BATCH_SIZE);
+        byte[] sentinel = PluginFixture.lines(PluginFixture.actionMessage(BenchmarkPlugin.METHOD_ACTION_ID, BenchmarkPlugin.METHOD_ACTION_TEXT_ID, BenchmarkPlugin.METHOD_ACTION_NUMBER_ID), 1);
+        this.batch = new byte[messages.length + sentinel.length];
+        System.arraycopy(messages, 0, this.batch, 0, messages.length);
+        System.arraycopy(sentinel, 0, this.batch, messages.length, sentinel.length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException, IOException {
+        this.pluginFixture.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MessageDecodeBenchmark.BATCH_SIZE)
+    public void receive() throws IOException {
+        long handledCount = this.pluginFixture.getPlugin().handledCount.get() + this.handledPerBatch;
+        this.pluginFixture.write(this.batch);
+        this.pluginFixture.awaitHandled(handledCount);
+    }
+}
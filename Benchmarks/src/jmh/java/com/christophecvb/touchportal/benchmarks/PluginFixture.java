@@ -0,0 +1,197 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.benchmarks;
+
+import com.christophecvb.touchportal.TPConnection;
+import com.christophecvb.touchportal.TPInMemoryTransport;
+import com.christophecvb.touchportal.TouchPortalPlugin;
+import com.christophecvb.touchportal.helpers.ActionHelper;
+import com.christophecvb.touchportal.helpers.ConnectorHelper;
+import com.christophecvb.touchportal.helpers.ReceivedMessageHelper;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link BenchmarkPlugin} connected to an in-memory peer
+ * <p>
+ * The peer drains everything the Plugin sends and writes the messages of the benchmarks to the Plugin.
+ * The Plugin logs are limited to warnings, so the console does not weigh on the measurements.
+ * </p>
+ */
+class PluginFixture {
+    /**
+     * Kept so the level is not lost when the Logger is garbage collected
+     */
+    private static final Logger PLUGIN_LOGGER = Logger.getLogger(TouchPortalPlugin.class.getName());
+    /**
+     * Maximum time waiting for the Plugin to handle a batch
+     */
+    private static final long AWAIT_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final BenchmarkPlugin plugin = new BenchmarkPlugin();
+    private final TPInMemoryTransport transport = new TPInMemoryTransport();
+    private TPConnection peerConnection;
+    private Thread drainThread;
+
+    /**
+     * Connect the Plugin and start draining what it sends
+     *
+     * @throws InterruptedException If interrupted while connecting
+     * @throws IOException          If the peer end could not be opened
+     */
+    void start() throws InterruptedException, IOException {
+        PluginFixture.PLUGIN_LOGGER.setLevel(Level.WARNING);
+        this.plugin.setTransport(this.transport);
+        if (!this.plugin.connectThenPairAndListen(new TouchPortalPlugin.TouchPortalPluginListenerAdapter() {})) {
+            throw new IllegalStateException("Plugin could not connect");
+        }
+        this.peerConnection = this.transport.accept(1, TimeUnit.SECONDS);
+        InputStream fromPlugin = this.peerConnection.getInputStream();
+        this.drainThread = new Thread(() -> {
+            byte[] buffer = new byte[16 * 1024];
+            try {
+                while (fromPlugin.read(buffer, 0, buffer.length) >= 0) {
+                    // Discarded
+                }
+            }
+            catch (IOException ignored) {}
+        }, "BenchmarkPeerDrain");
+        this.drainThread.setDaemon(true);
+        this.drainThread.start();
+    }
+
+    /**
+     * Close the Plugin and the peer
+     *
+     * @throws InterruptedException If interrupted while waiting for the drain Thread
+     * @throws IOException          If the peer end could not be closed
+     */
+    void stop() throws InterruptedException, IOException {
+        this.plugin.close(null);
+        this.peerConnection.close();
+        this.drainThread.join(1000);
+    }
+
+    /**
+     * Get the connected Plugin
+     *
+     * @return {@link BenchmarkPlugin} plugin
+     */
+    BenchmarkPlugin getPlugin() {
+        return this.plugin;
+    }
+
+    /**
+     * Write messages to the Plugin, as the Touch Portal Plugin System would
+     *
+     * @param lines byte[] - UTF-8 messages, each ending with a new line
+     * @throws IOException If the connection is closed
+     */
+    void write(byte[] lines) throws IOException {
+        OutputStream toPlugin = this.peerConnection.getOutputStream();
+        toPlugin.write(lines);
+        toPlugin.flush();
+    }
+
+    /**
+     * Spin until the Plugin handled a number of Actions and Connectors
+     *
+     * @param handledCount long
+     */
+    void awaitHandled(long handledCount) {
+        long startedAt = System.nanoTime();
+        while (this.plugin.handledCount.get() < handledCount) {
+            if (System.nanoTime() - startedAt > PluginFixture.AWAIT_TIMEOUT_NANOS) {
+                throw new IllegalStateException("Plugin handled " + this.plugin.handledCount.get() + " of " + handledCount + " messages");
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Repeat a message into a batch of lines
+     *
+     * @param message JsonObject
+     * @param count   int
+     * @return byte[] lines
+     */
+    static byte[] lines(JsonObject message, int count) {
+        StringBuilder lines = new StringBuilder();
+        String line = message.toString();
+        for (int i = 0; i < count; i++) {
+            lines.append(line).append('\n');
+        }
+        return lines.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Create an Action message of the {@link BenchmarkPlugin}
+     *
+     * @param actionId String
+     * @param textId   String - Text Data ID
+     * @param numberId String - Number Data ID
+     * @return JsonObject actionMessage
+     */
+    static JsonObject actionMessage(String actionId, String textId, String numberId) {
+        JsonObject actionMessage = new JsonObject();
+        actionMessage.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_ACTION);
+        actionMessage.addProperty(ReceivedMessageHelper.PLUGIN_ID, BenchmarkPlugin.PLUGIN_ID);
+        actionMessage.addProperty(ReceivedMessageHelper.ACTION_ID, actionId);
+        JsonArray data = new JsonArray();
+        data.add(PluginFixture.datum(textId, "Benchmark"));
+        data.add(PluginFixture.datum(numberId, "42"));
+        actionMessage.add(ActionHelper.DATA, data);
+        return actionMessage;
+    }
+
+    /**
+     * Create a Connector change message of the {@link BenchmarkPlugin}
+     *
+     * @param connectorId String
+     * @param modeId      String - Mode Data ID
+     * @return JsonObject connectorChangeMessage
+     */
+    static JsonObject connectorChangeMessage(String connectorId, String modeId) {
+        JsonObject connectorChangeMessage = new JsonObject();
+        connectorChangeMessage.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_CONNECTOR_CHANGE);
+        connectorChangeMessage.addProperty(ReceivedMessageHelper.PLUGIN_ID, BenchmarkPlugin.PLUGIN_ID);
+        connectorChangeMessage.addProperty(ReceivedMessageHelper.CONNECTOR_ID, connectorId);
+        connectorChangeMessage.addProperty(ReceivedMessageHelper.VALUE, 50);
+        JsonArray data = new JsonArray();
+        data.add(PluginFixture.datum(modeId, "Fast"));
+        connectorChangeMessage.add(ConnectorHelper.DATA, data);
+        return connectorChangeMessage;
+    }
+
+    private static JsonObject datum(String id, String value) {
+        JsonObject datum = new JsonObject();
+        datum.addProperty(ReceivedMessageHelper.ACTION_DATA_ID, id);
+        datum.addProperty(ReceivedMessageHelper.ACTION_DATA_VALUE, value);
+        return datum;
+    }
+}
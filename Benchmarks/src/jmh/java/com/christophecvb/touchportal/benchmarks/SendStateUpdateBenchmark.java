@@ -0,0 +1,59 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a State update, skipped because the value did not change or serialized and written
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class SendStateUpdateBenchmark {
+    private PluginFixture pluginFixture;
+    private boolean toggle;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException, IOException {
+        this.pluginFixture = new PluginFixture();
+        this.pluginFixture.start();
+        this.pluginFixture.getPlugin().sendStateUpdate(BenchmarkPlugin.DEDUPLICATED_STATE_ID, "Unchanged");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException, IOException {
+        this.pluginFixture.stop();
+    }
+
+    @Benchmark
+    public boolean dedupHit() {
+        return this.pluginFixture.getPlugin().sendStateUpdate(BenchmarkPlugin.DEDUPLICATED_STATE_ID, "Unchanged");
+    }
+
+    @Benchmark
+    public boolean dedupMiss() {
+        this.toggle = !this.toggle;
+        return this.pluginFixture.getPlugin().sendStateUpdate(BenchmarkPlugin.TOGGLED_STATE_ID, this.toggle ? "On" : "Off");
+    }
+}
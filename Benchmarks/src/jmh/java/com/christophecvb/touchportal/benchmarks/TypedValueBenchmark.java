@@ -0,0 +1,69 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.benchmarks;
+
+import com.christophecvb.touchportal.helpers.ReceivedMessageHelper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of converting a received Data value to the type of its parameter or field
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class TypedValueBenchmark {
+    @Param({"java.lang.String", "int", "java.lang.Double", "boolean", "java.lang.String[]", "java.io.File"})
+    public String rawType;
+
+    private String rawValue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (this.rawType) {
+            case "int":
+            case "java.lang.Double":
+                this.rawValue = "42.5";
+                break;
+
+            case "boolean":
+                this.rawValue = "On";
+                break;
+
+            case "java.lang.String[]":
+                this.rawValue = "First Choice";
+                break;
+
+            case "java.io.File":
+                this.rawValue = "C:\\Users\\Touch Portal\\file.txt";
+                break;
+
+            default:
+                this.rawValue = "Benchmark";
+                break;
+        }
+    }
+
+    @Benchmark
+    public Object getTypedValue() {
+        return ReceivedMessageHelper.getTypedValue(this.rawType, this.rawValue);
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Log Handler writing to the console from a background Thread
+ * <p>
+ * The logging Thread only queues the record in a bounded ring buffer, records are dropped and counted when it is full.
+ * The writer Thread formats them into a reused StringBuilder as <code>[LEVEL  ] Class.method message</code>.
+ * The queued records are written before the JVM exits and when the handler is closed.
+ * </p>
+ */
+public class AsyncConsoleHandler extends Handler {
+    /**
+     * Default number of records the buffer can hold
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+    /**
+     * Width the level name is padded to
+     */
+    private static final int LEVEL_WIDTH = 7;
+
+    private final ArrayBlockingQueue<LogRecord> records;
+    private final Writer writer;
+    private final Thread writerThread;
+    /**
+     * Simple names of the source classes by class name, only accessed by the writer Thread
+     */
+    private final HashMap<String, String> simpleClassNames = new HashMap<>();
+    /**
+     * Line being formatted and its copy handed to the Writer, reused for every record
+     */
+    private final StringBuilder lineBuilder = new StringBuilder(256);
+    private char[] lineChars = new char[256];
+    private final LongAdder droppedCount = new LongAdder();
+    /**
+     * Number of records queued
+     */
+    private final AtomicLong queuedCount = new AtomicLong();
+    /**
+     * Number of queued records taken by the writer, guarded by the writer lock which is notified on every change
+     */
+    private long writtenCount = 0;
+    /**
+     * Writes the queued records when the JVM exits
+     */
+    private final Thread shutdownHook;
+    /**
+     * Dropped count already reported in the output, only accessed by the writer Thread
+     */
+    private long reportedDroppedCount = 0;
+    private volatile boolean closed = false;
+
+    /**
+     * Constructor writing to System.out
+     */
+    public AsyncConsoleHandler() {
+        this(System.out, AsyncConsoleHandler.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param outputStream OutputStream
+     * @param capacity     int - Number of records the buffer can hold
+     */
+    public AsyncConsoleHandler(OutputStream outputStream, int capacity) {
+        this.records = new ArrayBlockingQueue<>(capacity);
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream));
+        this.setLevel(Level.INFO);
+        this.writerThread = new Thread(this::writeLoop, "TPLogWriter");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        this.shutdownHook = new Thread(this::flush, "TPLogFlush");
+        Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (!this.closed && this.isLoggable(record)) {
+            // The source is inferred from the stack of the logging Thread
+            record.getSourceClassName();
+            if (this.records.offer(record)) {
+                this.queuedCount.incrementAndGet();
+            }
+            else {
+                this.droppedCount.increment();
+            }
+        }
+    }
+
+    /**
+     * Get the number of records dropped because the buffer was full
+     *
+     * @return long droppedCount
+     */
+    public long getDroppedCount() {
+        return this.droppedCount.sum();
+    }
+
+    /**
+     * Wait for the records queued so far to be written
+     */
+    @Override
+    public void flush() {
+        long flushedCount = this.queuedCount.get();
+        try {
+            synchronized (this.writer) {
+                // The writer Thread notifies after each batch, the timed wait only guards against its death
+                while (this.writtenCount < flushedCount && this.writerThread.isAlive() && Thread.currentThread() != this.writerThread) {
+                    this.writer.wait(100);
+                }
+                this.writer.flush();
+            }
+        }
+        catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        catch (IOException ioException) {
+            this.reportError(null, ioException, ErrorManager.FLUSH_FAILURE);
+        }
+    }
+
+    /**
+     * Write the queued records then stop the writer Thread
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.flush();
+        this.writerThread.interrupt();
+        try {
+            this.writerThread.join(TimeUnit.SECONDS.toMillis(1));
+        }
+        catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        // Records the writer Thread could not take before stopping are written by the closing Thread
+        synchronized (this.writer) {
+            try {
+                this.writeQueuedRecords(this.records.poll());
+            }
+            catch (IOException ioException) {
+                this.reportError(null, ioException, ErrorManager.CLOSE_FAILURE);
+            }
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(this.shutdownHook);
+        }
+        catch (IllegalStateException ignored) {}
+    }
+
+    private void writeLoop() {
+        while (!this.closed || !this.records.isEmpty()) {
+            try {
+                LogRecord record = this.records.take();
+                synchronized (this.writer) {
+                    this.writeQueuedRecords(record);
+                }
+            }
+            catch (InterruptedException interruptedException) {
+                if (this.closed) {
+                    break;
+                }
+            }
+            catch (IOException ioException) {
+                this.reportError(null, ioException, ErrorManager.WRITE_FAILURE);
+            }
+        }
+    }
+
+    /**
+     * Internal - Write a record and the ones queued after it, then notify the flushing Threads, must hold the writer lock
+     *
+     * @param record LogRecord - null if none
+     * @throws IOException If the writer failed
+     */
+    private void writeQueuedRecords(LogRecord record) throws IOException {
+        try {
+            while (record != null) {
+                // Counted even if writing fails, so flushing never waits for a lost record
+                this.writtenCount++;
+                this.write(record);
+                record = this.records.poll();
+            }
+            this.writeDroppedCount();
+            this.writer.flush();
+        }
+        finally {
+            this.writer.notifyAll();
+        }
+    }
+
+    private void write(LogRecord record) throws IOException {
+        StringBuilder line = this.lineBuilder;
+        line.setLength(0);
+        String levelName = record.getLevel().getName();
+        line.append('[').append(levelName);
+        for (int i = levelName.length(); i < AsyncConsoleHandler.LEVEL_WIDTH; i++) {
+            line.append(' ');
+        }
+        line.append("] ");
+        if (record.getSourceClassName() != null) {
+            line.append(this.simpleClassNames.computeIfAbsent(record.getSourceClassName(), className -> className.substring(className.lastIndexOf('.') + 1)));
+        }
+        line.append('.').append(record.getSourceMethodName()).append(' ').append(record.getMessage()).append(' ').append(System.lineSeparator());
+        if (this.lineChars.length < line.length()) {
+            this.lineChars = new char[Math.max(this.lineChars.length * 2, line.length())];
+        }
+        line.getChars(0, line.length(), this.lineChars, 0);
+        this.writer.write(this.lineChars, 0, line.length());
+        if (record.getThrown() != null) {
+            StringWriter stackTrace = new StringWriter();
+            record.getThrown().printStackTrace(new PrintWriter(stackTrace));
+            this.writer.write(stackTrace.toString());
+        }
+    }
+
+    private void writeDroppedCount() throws IOException {
+        long droppedCount = this.droppedCount.sum();
+        if (droppedCount > this.reportedDroppedCount) {
+            this.writer.write("[WARNING] " + (droppedCount - this.reportedDroppedCount) + " log records dropped" + System.lineSeparator());
+            this.reportedDroppedCount = droppedCount;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.christophecvb.touchportal;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fixed size Executor backing a {@link TouchPortalPlugin.DispatchLane}
+ * <p>
+ * Every task is timed from its submission until a lane thread picks it up.
+ * A failing task is logged instead of killing its lane thread.
+ * </p>
+ */
+class DispatchLaneExecutor extends ThreadPoolExecutor {
+    /**
+     * Logger
+     */
+    private final static Logger LOGGER = Logger.getLogger(TouchPortalPlugin.class.getName());
+    /**
+     * Dispatch Lane served by this Executor
+     */
+    private final TouchPortalPlugin.DispatchLane dispatchLane;
+    /**
+     * Number of tasks that started running
+     */
+    private final LongAdder dispatchedCount = new LongAdder();
+    /**
+     * Sum of the queue latencies of started tasks in nanoseconds
+     */
+    private final LongAdder totalQueueLatencyNanos = new LongAdder();
+    /**
+     * Highest queue latency in nanoseconds
+     */
+    private final AtomicLong maxQueueLatencyNanos = new AtomicLong();
+
+    /**
+     * Number of tasks submitted while all the lane threads were busy
+     */
+    private final LongAdder saturatedCount = new LongAdder();
+
+    /**
+     * Lane Executor of the current Thread, if any
+     */
+    private static final ThreadLocal<DispatchLaneExecutor> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Constructor
+     *
+     * @param dispatchLane {@link TouchPortalPlugin.DispatchLane}
+     * @param size         int - Number of threads
+     */
+    DispatchLaneExecutor(TouchPortalPlugin.DispatchLane dispatchLane, int size) {
+        super(size, size, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), new LaneThreadFactory(dispatchLane));
+        this.dispatchLane = dispatchLane;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        long submittedAt = System.nanoTime();
+        if (this.getActiveCount() >= this.getMaximumPoolSize()) {
+            this.saturatedCount.increment();
+        }
+        super.execute(() -> {
+            this.recordQueueLatency(System.nanoTime() - submittedAt);
+            try {
+                command.run();
+            }
+            catch (RuntimeException runtimeException) {
+                DispatchLaneExecutor.LOGGER.log(Level.WARNING, "Callback failed on the " + this.dispatchLane.name() + " lane", runtimeException);
+            }
+        });
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable runnable) {
+        DispatchLaneExecutor.CURRENT.set(this);
+        super.beforeExecute(thread, runnable);
+    }
+
+    /**
+     * Check if the current Thread is one of this lane threads
+     *
+     * @return boolean isCurrentThreadInLane
+     */
+    boolean isCurrentThreadInLane() {
+        return DispatchLaneExecutor.CURRENT.get() == this;
+    }
+
+    private void recordQueueLatency(long queueLatencyNanos) {
+        this.dispatchedCount.increment();
+        this.totalQueueLatencyNanos.add(queueLatencyNanos);
+        long currentMax;
+        while (queueLatencyNanos > (currentMax = this.maxQueueLatencyNanos.get())) {
+            if (this.maxQueueLatencyNanos.compareAndSet(currentMax, queueLatencyNanos)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Take a snapshot of this lane queue latency metrics
+     *
+     * @return {@link DispatchLaneStats} dispatchLaneStats
+     */
+    DispatchLaneStats getStats() {
+        return new DispatchLaneStats(this.dispatchLane, this.getCorePoolSize(), this.getActiveCount(), this.getQueue().size(), this.dispatchedCount.sum(), this.saturatedCount.sum(), this.totalQueueLatencyNanos.sum(), this.maxQueueLatencyNanos.get());
+    }
+
+    /**
+     * ThreadFactory naming threads after their lane
+     */
+    private static class LaneThreadFactory implements ThreadFactory {
+        private final String namePrefix;
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        LaneThreadFactory(TouchPortalPlugin.DispatchLane dispatchLane) {
+            this.namePrefix = "TPDispatch-" + dispatchLane.name().toLowerCase() + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return new Thread(runnable, this.namePrefix + this.threadCount.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.christophecvb.touchportal;
+
+/**
+ * Snapshot of the queue latency metrics of a {@link TouchPortalPlugin.DispatchLane}
+ * <p>
+ * The queue latency is the time spent by a callback between its submission and the moment a lane thread starts running it
+ * </p>
+ */
+public class DispatchLaneStats {
+    private final TouchPortalPlugin.DispatchLane dispatchLane;
+    private final int size;
+    private final int activeCount;
+    private final int queuedCount;
+    private final long dispatchedCount;
+    private final long saturatedCount;
+    private final long totalQueueLatencyNanos;
+    private final long maxQueueLatencyNanos;
+
+    DispatchLaneStats(TouchPortalPlugin.DispatchLane dispatchLane, int size, int activeCount, int queuedCount, long dispatchedCount, long saturatedCount, long totalQueueLatencyNanos, long maxQueueLatencyNanos) {
+        this.dispatchLane = dispatchLane;
+        this.size = size;
+        this.activeCount = activeCount;
+        this.queuedCount = queuedCount;
+        this.dispatchedCount = dispatchedCount;
+        this.saturatedCount = saturatedCount;
+        this.totalQueueLatencyNanos = totalQueueLatencyNanos;
+        this.maxQueueLatencyNanos = maxQueueLatencyNanos;
+    }
+
+    /**
+     * Get the Dispatch Lane
+     *
+     * @return {@link TouchPortalPlugin.DispatchLane} dispatchLane
+     */
+    public TouchPortalPlugin.DispatchLane getDispatchLane() {
+        return this.dispatchLane;
+    }
+
+    /**
+     * Get the number of threads of the lane
+     *
+     * @return int size
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Get the number of threads currently running a callback
+     *
+     * @return int activeCount
+     */
+    public int getActiveCount() {
+        return this.activeCount;
+    }
+
+    /**
+     * Get the number of callbacks waiting in the lane queue
+     *
+     * @return int queuedCount
+     */
+    public int getQueuedCount() {
+        return this.queuedCount;
+    }
+
+    /**
+     * Get the number of callbacks that started running
+     *
+     * @return long dispatchedCount
+     */
+    public long getDispatchedCount() {
+        return this.dispatchedCount;
+    }
+
+    /**
+     * Get the number of callbacks submitted while all the lane threads were busy
+     *
+     * @return long saturatedCount
+     */
+    public long getSaturatedCount() {
+        return this.saturatedCount;
+    }
+
+    /**
+     * Get the average queue latency in nanoseconds
+     *
+     * @return long averageQueueLatencyNanos
+     */
+    public long getAverageQueueLatencyNanos() {
+        return this.dispatchedCount > 0 ? this.totalQueueLatencyNanos / this.dispatchedCount : 0;
+    }
+
+    /**
+     * Get the highest queue latency in nanoseconds
+     *
+     * @return long maxQueueLatencyNanos
+     */
+    public long getMaxQueueLatencyNanos() {
+        return this.maxQueueLatencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "DispatchLaneStats{" +
+                "dispatchLane=" + this.dispatchLane +
+                ", size=" + this.size +
+                ", activeCount=" + this.activeCount +
+                ", queuedCount=" + this.queuedCount +
+                ", dispatchedCount=" + this.dispatchedCount +
+                ", saturatedCount=" + this.saturatedCount +
+                ", averageQueueLatencyNanos=" + this.getAverageQueueLatencyNanos() +
+                ", maxQueueLatencyNanos=" + this.maxQueueLatencyNanos +
+                '}';
+    }
+}
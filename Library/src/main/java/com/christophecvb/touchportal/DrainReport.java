@@ -0,0 +1,99 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.christophecvb.touchportal;
+
+/**
+ * Report of the drain phase run when the connection is closed
+ * <p>
+ * Pending callbacks and messages are drained until the close timeout, the remaining ones are dropped
+ * </p>
+ */
+public class DrainReport {
+    private final int drainedCallbacks;
+    private final int droppedCallbacks;
+    private final int drainedMessages;
+    private final int droppedMessages;
+    private final long durationMillis;
+
+    DrainReport(int drainedCallbacks, int droppedCallbacks, int drainedMessages, int droppedMessages, long durationMillis) {
+        this.drainedCallbacks = drainedCallbacks;
+        this.droppedCallbacks = droppedCallbacks;
+        this.drainedMessages = drainedMessages;
+        this.droppedMessages = droppedMessages;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * Get the number of queued or running callbacks that were left to complete
+     *
+     * @return int drainedCallbacks
+     */
+    public int getDrainedCallbacks() {
+        return this.drainedCallbacks;
+    }
+
+    /**
+     * Get the number of queued callbacks that never ran
+     *
+     * @return int droppedCallbacks
+     */
+    public int getDroppedCallbacks() {
+        return this.droppedCallbacks;
+    }
+
+    /**
+     * Get the number of pending messages that were written
+     *
+     * @return int drainedMessages
+     */
+    public int getDrainedMessages() {
+        return this.drainedMessages;
+    }
+
+    /**
+     * Get the number of pending messages that were never written
+     *
+     * @return int droppedMessages
+     */
+    public int getDroppedMessages() {
+        return this.droppedMessages;
+    }
+
+    /**
+     * Get the duration of the drain phase
+     *
+     * @return long durationMillis
+     */
+    public long getDurationMillis() {
+        return this.durationMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "DrainReport{" +
+                "drainedCallbacks=" + this.drainedCallbacks +
+                ", droppedCallbacks=" + this.droppedCallbacks +
+                ", drainedMessages=" + this.drainedMessages +
+                ", droppedMessages=" + this.droppedMessages +
+                ", durationMillis=" + this.durationMillis +
+                '}';
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+/**
+ * Emits the JDK Flight Recorder events of the Plugin runtime
+ * <p>
+ * The event classes are only loaded when the runtime has JFR, older Java 8 runtimes get no-ops.
+ * Each begin method returns null when its event is not enabled in a running recording, so a disabled event costs a field read.
+ * </p>
+ */
+final class FlightRecorderEvents {
+    private static final boolean AVAILABLE = FlightRecorderEvents.isAvailable();
+
+    private FlightRecorderEvents() {}
+
+    private static boolean isAvailable() {
+        boolean available = false;
+        try {
+            ClassLoader classLoader = FlightRecorderEvents.class.getClassLoader();
+            Class.forName("jdk.jfr.Event", false, classLoader);
+            // Registers the event types
+            Class.forName(MessageReceivedEvent.class.getName(), true, classLoader);
+            Class.forName(HandlerDispatchedEvent.class.getName(), true, classLoader);
+            Class.forName(MessageSentEvent.class.getName(), true, classLoader);
+            available = true;
+        }
+        catch (ReflectiveOperationException | LinkageError | IllegalStateException ignored) {}
+        return available;
+    }
+
+    /**
+     * Start timing the decode of a received message
+     *
+     * @return Object event - null if not recorded
+     */
+    static Object beginMessageReceived() {
+        return FlightRecorderEvents.AVAILABLE ? MessageReceivedEvent.beginIfEnabled() : null;
+    }
+
+    /**
+     * @param event Object - Returned by {@link #beginMessageReceived()}
+     * @param type  String - Message type
+     * @param size  int - Message size in bytes
+     */
+    static void commitMessageReceived(Object event, String type, int size) {
+        if (event != null) {
+            MessageReceivedEvent.endAndCommit(event, type, size);
+        }
+    }
+
+    /**
+     * Start timing an Action or Connector handler run
+     *
+     * @return Object event - null if not recorded
+     */
+    static Object beginHandlerDispatched() {
+        return FlightRecorderEvents.AVAILABLE ? HandlerDispatchedEvent.beginIfEnabled() : null;
+    }
+
+    /**
+     * @param event          Object - Returned by {@link #beginHandlerDispatched()}
+     * @param handlerId      String - Action or Connector ID
+     * @param queueWaitNanos long - Time from dispatch until the run started
+     */
+    static void commitHandlerDispatched(Object event, String handlerId, long queueWaitNanos) {
+        if (event != null) {
+            HandlerDispatchedEvent.endAndCommit(event, handlerId, queueWaitNanos);
+        }
+    }
+
+    /**
+     * Start timing a sent message until it is flushed
+     *
+     * @return Object event - null if not recorded
+     */
+    static Object beginMessageSent() {
+        return FlightRecorderEvents.AVAILABLE ? MessageSentEvent.beginIfEnabled() : null;
+    }
+
+    /**
+     * @param event Object - Returned by {@link #beginMessageSent()}
+     * @param type  String - Message type
+     * @param id    String - State, Choice or Connector ID, if any
+     * @param bytes int - Message size in bytes
+     */
+    static void commitMessageSent(Object event, String type, String id, int bytes) {
+        if (event != null) {
+            MessageSentEvent.endAndCommit(event, type, id, bytes);
+        }
+    }
+
+    /**
+     * Get the UTF-8 encoded length of a message, without encoding it
+     *
+     * @param message CharSequence
+     * @return int utf8Length
+     */
+    static int utf8Length(CharSequence message) {
+        int utf8Length = 0;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c < 0x80) {
+                utf8Length++;
+            }
+            else if (c < 0x800) {
+                utf8Length += 2;
+            }
+            else if (Character.isHighSurrogate(c)) {
+                utf8Length += 4;
+                i++;
+            }
+            else {
+                utf8Length += 3;
+            }
+        }
+        return utf8Length;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Accounts the CPU time and allocated bytes of the Action and Connector handlers by ID
+ * <p>
+ * The handler Thread is measured with the {@link ThreadMXBean} before and after the handler runs.
+ * Work the handler hands off to other Threads is not accounted.
+ * Allocated bytes need the HotSpot <code>com.sun.management.ThreadMXBean</code>, they are reported as -1 on other runtimes.
+ * </p>
+ */
+class HandlerAccounting {
+    /**
+     * Logger
+     */
+    private final static Logger LOGGER = Logger.getLogger(TouchPortalPlugin.class.getName());
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final ConcurrentHashMap<String, HandlerAccount> handlerAccounts = new ConcurrentHashMap<>();
+    private final boolean cpuTimeSupported;
+    private final com.sun.management.ThreadMXBean allocationThreadMXBean;
+    private volatile boolean enabled = false;
+
+    /**
+     * Constructor
+     */
+    HandlerAccounting() {
+        this.cpuTimeSupported = this.threadMXBean.isCurrentThreadCpuTimeSupported();
+        this.allocationThreadMXBean = HandlerAccounting.getAllocationThreadMXBean(this.threadMXBean);
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationThreadMXBean(ThreadMXBean threadMXBean) {
+        com.sun.management.ThreadMXBean allocationThreadMXBean = null;
+        try {
+            if (threadMXBean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported()) {
+                allocationThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            }
+        }
+        catch (LinkageError ignored) {}
+        return allocationThreadMXBean;
+    }
+
+    /**
+     * Enable or disable the accounting, enables the Thread CPU time and allocated memory measurements of the JVM if needed
+     *
+     * @param enabled boolean
+     */
+    synchronized void setEnabled(boolean enabled) {
+        if (enabled) {
+            try {
+                if (this.cpuTimeSupported && !this.threadMXBean.isThreadCpuTimeEnabled()) {
+                    this.threadMXBean.setThreadCpuTimeEnabled(true);
+                }
+                if (this.allocationThreadMXBean != null && !this.allocationThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+                    this.allocationThreadMXBean.setThreadAllocatedMemoryEnabled(true);
+                }
+            }
+            catch (UnsupportedOperationException | SecurityException e) {
+                HandlerAccounting.LOGGER.log(Level.WARNING, "Thread CPU time or allocated memory measurement could not be enabled", e);
+            }
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * Is the accounting enabled
+     *
+     * @return boolean isEnabled
+     */
+    boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Get the CPU time of the current Thread
+     *
+     * @return long cpuTimeNanos - -1 if not measured
+     */
+    long currentThreadCpuTime() {
+        return this.enabled && this.cpuTimeSupported ? this.threadMXBean.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * Get the bytes allocated by the current Thread since it started
+     *
+     * @return long allocatedBytes - -1 if not measured
+     */
+    long currentThreadAllocatedBytes() {
+        return this.enabled && this.allocationThreadMXBean != null ? this.allocationThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+
+    /**
+     * Account a handler run measured on the current Thread
+     *
+     * @param handlerId           String - Action or Connector ID
+     * @param startCpuTimeNanos   long - Returned by {@link #currentThreadCpuTime()} before the run
+     * @param startAllocatedBytes long - Returned by {@link #currentThreadAllocatedBytes()} before the run
+     * @param wallTimeNanos       long - Duration of the run
+     */
+    void record(String handlerId, long startCpuTimeNanos, long startAllocatedBytes, long wallTimeNanos) {
+        if (startCpuTimeNanos >= 0 || startAllocatedBytes >= 0) {
+            HandlerAccount handlerAccount = this.handlerAccounts.get(handlerId);
+            if (handlerAccount == null) {
+                handlerAccount = new HandlerAccount();
+                HandlerAccount existingHandlerAccount = this.handlerAccounts.putIfAbsent(handlerId, handlerAccount);
+                if (existingHandlerAccount != null) {
+                    handlerAccount = existingHandlerAccount;
+                }
+            }
+            handlerAccount.invocationCount.increment();
+            handlerAccount.wallTimeNanos.add(wallTimeNanos);
+            if (startCpuTimeNanos >= 0) {
+                handlerAccount.cpuTimeNanos.add(this.threadMXBean.getCurrentThreadCpuTime() - startCpuTimeNanos);
+            }
+            if (startAllocatedBytes >= 0) {
+                handlerAccount.allocatedBytes.add(this.allocationThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - startAllocatedBytes);
+            }
+        }
+    }
+
+    /**
+     * Get the reports of the accounted handlers, highest CPU time first
+     *
+     * @return List&lt;{@link HandlerAccountingReport}&gt; handlerAccountingReports
+     */
+    List<HandlerAccountingReport> getReports() {
+        List<HandlerAccountingReport> handlerAccountingReports = new ArrayList<>();
+        this.handlerAccounts.forEach((handlerId, handlerAccount) -> handlerAccountingReports.add(new HandlerAccountingReport(
+                handlerId,
+                handlerAccount.invocationCount.sum(),
+                this.cpuTimeSupported ? handlerAccount.cpuTimeNanos.sum() : -1,
+                this.allocationThreadMXBean != null ? handlerAccount.allocatedBytes.sum() : -1,
+                handlerAccount.wallTimeNanos.sum()
+        )));
+        handlerAccountingReports.sort(Comparator.comparingLong(HandlerAccountingReport::getCpuTimeNanos).thenComparingLong(HandlerAccountingReport::getAllocatedBytes).reversed());
+        return handlerAccountingReports;
+    }
+
+    /**
+     * Forget the accounted handlers
+     */
+    void reset() {
+        this.handlerAccounts.clear();
+    }
+
+    /**
+     * Accumulated measurements of a handler
+     */
+    private static class HandlerAccount {
+        private final LongAdder invocationCount = new LongAdder();
+        private final LongAdder cpuTimeNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder wallTimeNanos = new LongAdder();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+/**
+ * CPU time and allocated bytes accounted to an Action or Connector handler
+ *
+ * @see TouchPortalPlugin#setHandlerAccounting(boolean)
+ */
+public class HandlerAccountingReport {
+    private final String handlerId;
+    private final long invocationCount;
+    private final long cpuTimeNanos;
+    private final long allocatedBytes;
+    private final long wallTimeNanos;
+
+    HandlerAccountingReport(String handlerId, long invocationCount, long cpuTimeNanos, long allocatedBytes, long wallTimeNanos) {
+        this.handlerId = handlerId;
+        this.invocationCount = invocationCount;
+        this.cpuTimeNanos = cpuTimeNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.wallTimeNanos = wallTimeNanos;
+    }
+
+    /**
+     * Get the Action or Connector ID
+     *
+     * @return String handlerId
+     */
+    public String getHandlerId() {
+        return this.handlerId;
+    }
+
+    /**
+     * Get the number of accounted runs
+     *
+     * @return long invocationCount
+     */
+    public long getInvocationCount() {
+        return this.invocationCount;
+    }
+
+    /**
+     * Get the total CPU time of the runs
+     *
+     * @return long cpuTimeNanos - -1 if not supported by the JVM
+     */
+    public long getCpuTimeNanos() {
+        return this.cpuTimeNanos;
+    }
+
+    /**
+     * Get the total bytes allocated by the runs
+     *
+     * @return long allocatedBytes - -1 if not supported by the JVM
+     */
+    public long getAllocatedBytes() {
+        return this.allocatedBytes;
+    }
+
+    /**
+     * Get the total wall clock time of the runs, including the time blocked or waiting
+     *
+     * @return long wallTimeNanos
+     */
+    public long getWallTimeNanos() {
+        return this.wallTimeNanos;
+    }
+
+    /**
+     * Get the average CPU time of a run
+     *
+     * @return long averageCpuTimeNanos - -1 if not supported by the JVM
+     */
+    public long getAverageCpuTimeNanos() {
+        return this.cpuTimeNanos >= 0 && this.invocationCount > 0 ? this.cpuTimeNanos / this.invocationCount : this.cpuTimeNanos;
+    }
+
+    /**
+     * Get the average bytes allocated by a run
+     *
+     * @return long averageAllocatedBytes - -1 if not supported by the JVM
+     */
+    public long getAverageAllocatedBytes() {
+        return this.allocatedBytes >= 0 && this.invocationCount > 0 ? this.allocatedBytes / this.invocationCount : this.allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "HandlerAccountingReport{" +
+                "handlerId='" + this.handlerId + '\'' +
+                ", invocationCount=" + this.invocationCount +
+                ", cpuTimeNanos=" + this.cpuTimeNanos +
+                ", allocatedBytes=" + this.allocatedBytes +
+                ", wallTimeNanos=" + this.wallTimeNanos +
+                '}';
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event of an Action or Connector handler run, its duration is the run time
+ * <p>
+ * Only loaded through {@link FlightRecorderEvents}
+ * </p>
+ */
+@Name("com.christophecvb.touchportal.HandlerDispatched")
+@Label("Handler Dispatched")
+@Category("Touch Portal")
+@StackTrace(false)
+class HandlerDispatchedEvent extends Event {
+    private static final EventType EVENT_TYPE = EventType.getEventType(HandlerDispatchedEvent.class);
+
+    @Label("Action or Connector ID")
+    String handlerId;
+
+    @Label("Queue Wait")
+    @Timespan
+    long queueWait;
+
+    static Object beginIfEnabled() {
+        HandlerDispatchedEvent handlerDispatchedEvent = null;
+        if (HandlerDispatchedEvent.EVENT_TYPE.isEnabled()) {
+            handlerDispatchedEvent = new HandlerDispatchedEvent();
+            handlerDispatchedEvent.begin();
+        }
+        return handlerDispatchedEvent;
+    }
+
+    static void endAndCommit(Object event, String handlerId, long queueWaitNanos) {
+        HandlerDispatchedEvent handlerDispatchedEvent = (HandlerDispatchedEvent) event;
+        handlerDispatchedEvent.end();
+        if (handlerDispatchedEvent.shouldCommit()) {
+            handlerDispatchedEvent.handlerId = handlerId;
+            handlerDispatchedEvent.queueWait = queueWaitNanos;
+            handlerDispatchedEvent.commit();
+        }
+    }
+}
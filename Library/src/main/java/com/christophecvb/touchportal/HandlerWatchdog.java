@@ -0,0 +1,198 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.christophecvb.touchportal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches the running Action and Connector handlers and reports the ones running past their timeout
+ * <p>
+ * A single daemon Thread checks the running handlers periodically, it is started with the first watched handler
+ * </p>
+ */
+class HandlerWatchdog {
+    /**
+     * Logger
+     */
+    private final static Logger LOGGER = Logger.getLogger(TouchPortalPlugin.class.getName());
+    /**
+     * Period between two checks
+     */
+    static final long CHECK_PERIOD_MILLIS = 250;
+    /**
+     * Maximum number of kept reports
+     */
+    private static final int MAX_REPORTS = 50;
+
+    /**
+     * Currently running handlers
+     */
+    private final Set<RunningHandler> runningHandlers = ConcurrentHashMap.newKeySet();
+    /**
+     * Latest reports, oldest first
+     */
+    private final ConcurrentLinkedDeque<SlowHandlerReport> slowHandlerReports = new ConcurrentLinkedDeque<>();
+    /**
+     * Scheduler running the checks
+     */
+    private ScheduledExecutorService scheduler;
+    /**
+     * No handler is watched anymore once closed
+     */
+    private boolean closed = false;
+
+    /**
+     * Wrap a handler so it is watched while running
+     *
+     * @param handlerId          String - Action or Connector ID
+     * @param timeoutMillis      long - 0 to not watch the handler
+     * @param interruptOnTimeout boolean
+     * @param handler            Runnable
+     * @return Runnable watchedHandler
+     */
+    Runnable watch(String handlerId, long timeoutMillis, boolean interruptOnTimeout, Runnable handler) {
+        Runnable watchedHandler = handler;
+        if (timeoutMillis > 0 && this.startScheduler()) {
+            watchedHandler = () -> {
+                RunningHandler runningHandler = new RunningHandler(handlerId, Thread.currentThread(), timeoutMillis, interruptOnTimeout);
+                this.runningHandlers.add(runningHandler);
+                try {
+                    handler.run();
+                }
+                finally {
+                    this.runningHandlers.remove(runningHandler);
+                    runningHandler.complete();
+                }
+            };
+        }
+        return watchedHandler;
+    }
+
+    /**
+     * Get the latest reports
+     *
+     * @return List&lt;{@link SlowHandlerReport}&gt; slowHandlerReports
+     */
+    List<SlowHandlerReport> getSlowHandlerReports() {
+        return new ArrayList<>(this.slowHandlerReports);
+    }
+
+    /**
+     * Stop watching
+     */
+    synchronized void close() {
+        this.closed = true;
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+            this.scheduler = null;
+        }
+    }
+
+    private synchronized boolean startScheduler() {
+        if (!this.closed && this.scheduler == null) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "TPHandlerWatchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleAtFixedRate(this::check, HandlerWatchdog.CHECK_PERIOD_MILLIS, HandlerWatchdog.CHECK_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return !this.closed;
+    }
+
+    private void check() {
+        long now = System.nanoTime();
+        for (RunningHandler runningHandler : this.runningHandlers) {
+            SlowHandlerReport newSlowHandlerReport = runningHandler.checkTimeout(now);
+            if (newSlowHandlerReport != null) {
+                this.slowHandlerReports.addLast(newSlowHandlerReport);
+                while (this.slowHandlerReports.size() > HandlerWatchdog.MAX_REPORTS) {
+                    this.slowHandlerReports.pollFirst();
+                }
+                HandlerWatchdog.LOGGER.log(Level.WARNING, "Handler [" + newSlowHandlerReport.getHandlerId() + "] is running for " + newSlowHandlerReport.getElapsedMillis() + "ms on [" + newSlowHandlerReport.getThreadName() + "], timeout is " + newSlowHandlerReport.getTimeoutMillis() + "ms");
+            }
+        }
+    }
+
+    /**
+     * Handler being run
+     */
+    private static class RunningHandler {
+        private final String handlerId;
+        private final Thread thread;
+        private final long timeoutMillis;
+        private final boolean interruptOnTimeout;
+        private final long startedAt = System.nanoTime();
+        private SlowHandlerReport slowHandlerReport;
+        private boolean completed = false;
+
+        RunningHandler(String handlerId, Thread thread, long timeoutMillis, boolean interruptOnTimeout) {
+            this.handlerId = handlerId;
+            this.thread = thread;
+            this.timeoutMillis = timeoutMillis;
+            this.interruptOnTimeout = interruptOnTimeout;
+        }
+
+        /**
+         * Sample the handler Thread if overdue, and interrupt it if needed
+         * <p>
+         * Synchronized with {@link #complete()} so a pooled Thread is never sampled nor interrupted once its handler completed
+         * </p>
+         *
+         * @param now long - System.nanoTime()
+         * @return {@link SlowHandlerReport} newSlowHandlerReport - null if the handler was already reported or is not overdue
+         */
+        private synchronized SlowHandlerReport checkTimeout(long now) {
+            SlowHandlerReport newSlowHandlerReport = null;
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(now - this.startedAt);
+            if (!this.completed && elapsedMillis >= this.timeoutMillis) {
+                if (this.slowHandlerReport == null) {
+                    newSlowHandlerReport = this.slowHandlerReport = new SlowHandlerReport(this.handlerId, this.thread.getName(), this.timeoutMillis);
+                }
+                this.slowHandlerReport.addStackSample(this.thread.getStackTrace(), elapsedMillis);
+                if (this.interruptOnTimeout && !this.slowHandlerReport.isInterrupted()) {
+                    this.slowHandlerReport.setInterrupted();
+                    this.thread.interrupt();
+                }
+            }
+            return newSlowHandlerReport;
+        }
+
+        /**
+         * Called by the handler Thread once the handler completed
+         */
+        private synchronized void complete() {
+            this.completed = true;
+            if (this.slowHandlerReport != null) {
+                this.slowHandlerReport.setCompleted(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.startedAt));
+                if (this.slowHandlerReport.isInterrupted()) {
+                    // Do not leak the interruption to what runs next on this Thread
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+}
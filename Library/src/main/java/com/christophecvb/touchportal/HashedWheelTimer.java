@@ -0,0 +1,243 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Timer scheduling many short tasks on a single Thread
+ * <p>
+ * Tasks are stored in the bucket of the wheel matching their deadline, the Thread only wakes up once per tick to run the expired ones.
+ * Tasks run on the timer Thread and must not block. The Thread is started with the first scheduled task.
+ * </p>
+ */
+class HashedWheelTimer {
+    /**
+     * Logger
+     */
+    private final static Logger LOGGER = Logger.getLogger(TouchPortalPlugin.class.getName());
+
+    private final String threadName;
+    private final long tickNanos;
+    private final int wheelSize;
+    /**
+     * Tasks scheduled since the last tick, moved to the wheel by the timer Thread
+     */
+    private final ConcurrentLinkedQueue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private Thread workerThread;
+
+    /**
+     * Constructor
+     *
+     * @param threadName String - Name of the timer Thread
+     * @param tickMillis long - Precision of the timer
+     * @param wheelSize  int - Number of buckets, rounded up to a power of 2
+     */
+    HashedWheelTimer(String threadName, long tickMillis, int wheelSize) {
+        if (tickMillis < 1 || wheelSize < 1) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        this.threadName = threadName;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.wheelSize = Integer.highestOneBit(wheelSize) == wheelSize ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+    }
+
+    /**
+     * Schedule a task after a delay
+     *
+     * @param task  Runnable
+     * @param delay long
+     * @param unit  TimeUnit
+     * @return {@link Timeout} timeout
+     */
+    Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return this.scheduleAt(task, System.nanoTime() + unit.toNanos(Math.max(0, delay)));
+    }
+
+    /**
+     * Schedule a task at a deadline, allows fixed rate repetitions without drift
+     *
+     * @param task          Runnable
+     * @param deadlineNanos long - Based on {@link System#nanoTime()}
+     * @return {@link Timeout} timeout
+     */
+    Timeout scheduleAt(Runnable task, long deadlineNanos) {
+        Timeout timeout = new Timeout(task, deadlineNanos);
+        this.pendingTimeouts.add(timeout);
+        this.start();
+        return timeout;
+    }
+
+    /**
+     * Cancel all the tasks and stop the timer Thread
+     * <p>
+     * Scheduling a task afterwards starts a new Thread
+     * </p>
+     */
+    synchronized void stop() {
+        if (this.workerThread != null) {
+            this.workerThread.interrupt();
+            this.workerThread = null;
+        }
+        Timeout timeout;
+        while ((timeout = this.pendingTimeouts.poll()) != null) {
+            timeout.cancel();
+        }
+    }
+
+    private synchronized void start() {
+        if (this.workerThread == null) {
+            this.workerThread = new Thread(this::work, this.threadName);
+            this.workerThread.setDaemon(true);
+            this.workerThread.start();
+        }
+    }
+
+    private synchronized boolean isWorker(Thread thread) {
+        return this.workerThread == thread;
+    }
+
+    private void work() {
+        // Each timer Thread owns its wheel, a stopping Thread never shares it with its successor
+        List<List<Timeout>> wheel = new ArrayList<>(this.wheelSize);
+        for (int bucketIndex = 0; bucketIndex < this.wheelSize; bucketIndex++) {
+            wheel.add(new ArrayList<>());
+        }
+        int mask = this.wheelSize - 1;
+        Thread currentThread = Thread.currentThread();
+        long startedAt = System.nanoTime();
+        long tick = 0;
+        while (this.isWorker(currentThread)) {
+            long sleepNanos = startedAt + (tick + 1) * this.tickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                }
+                catch (InterruptedException e) {
+                    break;
+                }
+            }
+            this.transferPendingTimeouts(wheel, startedAt, tick);
+            this.expireTimeouts(wheel.get((int) (tick & mask)));
+            tick++;
+        }
+        for (List<Timeout> bucket : wheel) {
+            for (Timeout timeout : bucket) {
+                timeout.cancel();
+            }
+            bucket.clear();
+        }
+    }
+
+    private void transferPendingTimeouts(List<List<Timeout>> wheel, long startedAt, long currentTick) {
+        Timeout timeout;
+        while ((timeout = this.pendingTimeouts.poll()) != null) {
+            if (!timeout.isCancelled()) {
+                // Ticks in the past expire on the current one
+                long deadlineTick = Math.max(currentTick, (timeout.deadlineNanos - startedAt + this.tickNanos - 1) / this.tickNanos - 1);
+                timeout.remainingRounds = (deadlineTick - currentTick) / wheel.size();
+                wheel.get((int) (deadlineTick & (wheel.size() - 1))).add(timeout);
+            }
+        }
+    }
+
+    private void expireTimeouts(List<Timeout> bucket) {
+        Iterator<Timeout> bucketIterator = bucket.iterator();
+        List<Timeout> expiredTimeouts = null;
+        while (bucketIterator.hasNext()) {
+            Timeout timeout = bucketIterator.next();
+            if (timeout.isCancelled()) {
+                bucketIterator.remove();
+            }
+            else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            }
+            else {
+                bucketIterator.remove();
+                if (expiredTimeouts == null) {
+                    expiredTimeouts = new ArrayList<>();
+                }
+                expiredTimeouts.add(timeout);
+            }
+        }
+        if (expiredTimeouts != null) {
+            for (Timeout expiredTimeout : expiredTimeouts) {
+                expiredTimeout.expire();
+            }
+        }
+    }
+
+    /**
+     * Task scheduled in a {@link HashedWheelTimer}
+     */
+    static class Timeout {
+        private final Runnable task;
+        private final long deadlineNanos;
+        private long remainingRounds;
+        private volatile boolean cancelled = false;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Get the deadline of the task
+         *
+         * @return long deadlineNanos - Based on {@link System#nanoTime()}
+         */
+        long getDeadlineNanos() {
+            return this.deadlineNanos;
+        }
+
+        /**
+         * Is the task cancelled
+         *
+         * @return boolean isCancelled
+         */
+        boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        /**
+         * Cancel the task if it has not run yet
+         */
+        void cancel() {
+            this.cancelled = true;
+        }
+
+        private void expire() {
+            if (!this.cancelled) {
+                try {
+                    this.task.run();
+                }
+                catch (Exception e) {
+                    HashedWheelTimer.LOGGER.log(Level.SEVERE, "Timer task failed", e);
+                }
+            }
+        }
+    }
+}
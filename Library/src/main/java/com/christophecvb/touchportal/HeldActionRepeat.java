@@ -0,0 +1,100 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Repeats the invocation of a held Action at a fixed rate until it is released
+ * <p>
+ * Repetitions are triggered by a shared {@link HashedWheelTimer}, no Thread waits between them.
+ * A repetition is skipped while the previous one is still running.
+ * </p>
+ */
+class HeldActionRepeat implements Runnable {
+    /**
+     * Logger
+     */
+    private final static Logger LOGGER = Logger.getLogger(TouchPortalPlugin.class.getName());
+
+    private final HashedWheelTimer repeatTimer;
+    private final TPHoldSession tpHoldSession;
+    private final long repeatIntervalNanos;
+    private final Consumer<Runnable> dispatcher;
+    private final Runnable invocation;
+    private final AtomicBoolean repetitionRunning = new AtomicBoolean(false);
+    private volatile HashedWheelTimer.Timeout timeout;
+
+    /**
+     * Constructor
+     *
+     * @param repeatTimer          {@link HashedWheelTimer}
+     * @param tpHoldSession        {@link TPHoldSession} - Repetitions stop once released
+     * @param repeatIntervalMillis long
+     * @param dispatcher           Consumer&lt;Runnable&gt; - Dispatches a repetition off the timer Thread
+     * @param invocation           Runnable - Invokes the Action
+     */
+    HeldActionRepeat(HashedWheelTimer repeatTimer, TPHoldSession tpHoldSession, long repeatIntervalMillis, Consumer<Runnable> dispatcher, Runnable invocation) {
+        this.repeatTimer = repeatTimer;
+        this.tpHoldSession = tpHoldSession;
+        this.repeatIntervalNanos = TimeUnit.MILLISECONDS.toNanos(repeatIntervalMillis);
+        this.dispatcher = dispatcher;
+        this.invocation = invocation;
+    }
+
+    /**
+     * Schedule the first repetition
+     *
+     * @param repeatDelayMillis long - Delay before the first repetition
+     */
+    void start(long repeatDelayMillis) {
+        this.timeout = this.repeatTimer.schedule(this, repeatDelayMillis, TimeUnit.MILLISECONDS);
+        this.tpHoldSession.onRelease(() -> this.timeout.cancel());
+    }
+
+    @Override
+    public void run() {
+        if (this.tpHoldSession.isHeld()) {
+            if (this.repetitionRunning.compareAndSet(false, true)) {
+                try {
+                    this.dispatcher.accept(() -> {
+                        try {
+                            this.invocation.run();
+                        }
+                        finally {
+                            this.tpHoldSession.detach();
+                            this.repetitionRunning.set(false);
+                        }
+                    });
+                }
+                catch (RuntimeException runtimeException) {
+                    // Not dispatched, a later tick can try again
+                    this.repetitionRunning.set(false);
+                    HeldActionRepeat.LOGGER.log(Level.WARNING, "Held Action repetition could not be dispatched", runtimeException);
+                }
+            }
+            this.timeout = this.repeatTimer.scheduleAt(this, this.timeout.getDeadlineNanos() + this.repeatIntervalNanos);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free latency histogram with power of two buckets
+ * <p>
+ * Recording is a few atomic increments without allocation. Percentiles are reported as the upper bound of their bucket,
+ * so they are at most twice the real value.
+ * </p>
+ */
+class LatencyHistogram {
+    /**
+     * One bucket per bit length of a duration in nanoseconds
+     */
+    private static final int BUCKET_COUNT = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(LatencyHistogram.BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Record a duration
+     *
+     * @param nanos long
+     */
+    void record(long nanos) {
+        nanos = Math.max(0, nanos);
+        this.buckets.incrementAndGet(LatencyHistogram.BUCKET_COUNT - Long.numberOfLeadingZeros(nanos));
+        this.count.increment();
+        this.totalNanos.add(nanos);
+        long currentMax;
+        while (nanos > (currentMax = this.maxNanos.get())) {
+            if (this.maxNanos.compareAndSet(currentMax, nanos)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Take a snapshot of the recorded durations
+     *
+     * @return {@link LatencyStats} latencyStats
+     */
+    LatencyStats getStats() {
+        long[] bucketCounts = new long[LatencyHistogram.BUCKET_COUNT];
+        long bucketsTotal = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            bucketCounts[i] = this.buckets.get(i);
+            bucketsTotal += bucketCounts[i];
+        }
+        long maxNanos = this.maxNanos.get();
+        return new LatencyStats(this.count.sum(), this.totalNanos.sum(), maxNanos,
+                LatencyHistogram.percentile(bucketCounts, bucketsTotal, 0.5, maxNanos),
+                LatencyHistogram.percentile(bucketCounts, bucketsTotal, 0.9, maxNanos),
+                LatencyHistogram.percentile(bucketCounts, bucketsTotal, 0.99, maxNanos));
+    }
+
+    private static long percentile(long[] bucketCounts, long bucketsTotal, double fraction, long maxNanos) {
+        long percentileNanos = 0;
+        long rank = (long) Math.ceil(bucketsTotal * fraction);
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length && bucketsTotal > 0; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                // Bucket i holds the durations of bit length i, up to 2^i - 1
+                percentileNanos = Math.min((1L << i) - 1, maxNanos);
+                break;
+            }
+        }
+        return percentileNanos;
+    }
+}
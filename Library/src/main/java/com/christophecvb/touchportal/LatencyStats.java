@@ -0,0 +1,110 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+/**
+ * Snapshot of a latency histogram
+ * <p>
+ * Percentiles are approximated by power of two buckets, they are at most twice the real value
+ * </p>
+ */
+public class LatencyStats {
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long medianNanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+
+    LatencyStats(long count, long totalNanos, long maxNanos, long medianNanos, long p90Nanos, long p99Nanos) {
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.medianNanos = medianNanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+    }
+
+    /**
+     * Get the number of recorded durations
+     *
+     * @return long count
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Get the average duration in nanoseconds
+     *
+     * @return long averageNanos
+     */
+    public long getAverageNanos() {
+        return this.count > 0 ? this.totalNanos / this.count : 0;
+    }
+
+    /**
+     * Get the highest duration in nanoseconds
+     *
+     * @return long maxNanos
+     */
+    public long getMaxNanos() {
+        return this.maxNanos;
+    }
+
+    /**
+     * Get the median duration in nanoseconds
+     *
+     * @return long medianNanos
+     */
+    public long getMedianNanos() {
+        return this.medianNanos;
+    }
+
+    /**
+     * Get the 90th percentile duration in nanoseconds
+     *
+     * @return long p90Nanos
+     */
+    public long getP90Nanos() {
+        return this.p90Nanos;
+    }
+
+    /**
+     * Get the 99th percentile duration in nanoseconds
+     *
+     * @return long p99Nanos
+     */
+    public long getP99Nanos() {
+        return this.p99Nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyStats{" +
+                "count=" + this.count +
+                ", averageNanos=" + this.getAverageNanos() +
+                ", medianNanos=" + this.medianNanos +
+                ", p90Nanos=" + this.p90Nanos +
+                ", p99Nanos=" + this.p99Nanos +
+                ", maxNanos=" + this.maxNanos +
+                '}';
+    }
+}
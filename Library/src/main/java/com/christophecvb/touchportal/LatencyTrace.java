@@ -0,0 +1,119 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Trace of a received Action or Connector change, from its line arriving at the socket until its first feedback is flushed
+ * <p>
+ * The trace is bound to the Thread handling the message, then carried to the handler Thread by the dispatch.
+ * State and Connector updates sent while it is bound are attributed to it.
+ * </p>
+ */
+final class LatencyTrace {
+    /**
+     * Trace bound to the current Thread, if any
+     */
+    private static final ThreadLocal<LatencyTrace> CURRENT = new ThreadLocal<>();
+
+    private final String invokableId;
+    private final long receivedAt;
+    private final AtomicBoolean completed = new AtomicBoolean(false);
+
+    /**
+     * Constructor
+     *
+     * @param invokableId String - Action or Connector ID
+     * @param receivedAt  long - System.nanoTime() when the message line was read
+     */
+    LatencyTrace(String invokableId, long receivedAt) {
+        this.invokableId = invokableId;
+        this.receivedAt = receivedAt;
+    }
+
+    /**
+     * Get the trace bound to the current Thread
+     *
+     * @return {@link LatencyTrace} latencyTrace - null if none
+     */
+    static LatencyTrace current() {
+        return LatencyTrace.CURRENT.get();
+    }
+
+    /**
+     * Bind a trace to the current Thread
+     *
+     * @param latencyTrace {@link LatencyTrace} - null unbinds
+     * @return {@link LatencyTrace} previousLatencyTrace - To restore afterwards
+     */
+    static LatencyTrace bind(LatencyTrace latencyTrace) {
+        LatencyTrace previousLatencyTrace = LatencyTrace.CURRENT.get();
+        if (latencyTrace != null) {
+            LatencyTrace.CURRENT.set(latencyTrace);
+        }
+        else {
+            LatencyTrace.CURRENT.remove();
+        }
+        return previousLatencyTrace;
+    }
+
+    /**
+     * Carry the trace of the current Thread, if any, to the Thread running a callback
+     *
+     * @param callback Runnable
+     * @return Runnable propagatingCallback - The callback itself when there is no trace
+     */
+    static Runnable propagate(Runnable callback) {
+        LatencyTrace latencyTrace = LatencyTrace.CURRENT.get();
+        Runnable propagatingCallback = callback;
+        if (latencyTrace != null) {
+            propagatingCallback = () -> {
+                LatencyTrace previousLatencyTrace = LatencyTrace.bind(latencyTrace);
+                try {
+                    callback.run();
+                }
+                finally {
+                    LatencyTrace.bind(previousLatencyTrace);
+                }
+            };
+        }
+        return propagatingCallback;
+    }
+
+    /**
+     * Get the Action or Connector ID
+     *
+     * @return String invokableId
+     */
+    String getInvokableId() {
+        return this.invokableId;
+    }
+
+    /**
+     * Complete the trace when its first feedback is flushed
+     *
+     * @param flushedAt long - System.nanoTime() after the flush
+     * @return long latencyNanos - -1 if a feedback was already flushed
+     */
+    long complete(long flushedAt) {
+        return this.completed.compareAndSet(false, true) ? flushedAt - this.receivedAt : -1;
+    }
+}
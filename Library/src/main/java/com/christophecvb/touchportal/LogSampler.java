@@ -0,0 +1,214 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Decides which sent messages get a log line and counts them all for the periodic summary
+ * <p>
+ * Callers hand the log line as a Supplier to {@link #log(String, String, boolean, Supplier)}, it is only built when sampled,
+ * so a message that is not logged costs a few counter increments and no String.
+ * </p>
+ */
+class LogSampler {
+    /**
+     * Maximum number of IDs rate limited at once per message type, windows idle for a second are evicted past it
+     */
+    private static final int MAX_RATE_WINDOWS = 1024;
+
+    private final Logger logger;
+    private final Level level;
+    private final ConcurrentHashMap<String, TypeSampler> typeSamplers = new ConcurrentHashMap<>();
+    /**
+     * Start of the current summary period
+     */
+    private volatile long periodStartedAt = System.nanoTime();
+
+    /**
+     * Constructor
+     *
+     * @param logger Logger
+     * @param level  Level - Level of the sampled log lines
+     */
+    LogSampler(Logger logger, Level level) {
+        this.logger = logger;
+        this.level = level;
+    }
+
+    /**
+     * Set the sampling of a message type
+     *
+     * @param messageType String
+     * @param logSampling {@link LogSampling}
+     */
+    void setSampling(String messageType, LogSampling logSampling) {
+        this.getTypeSampler(messageType).logSampling = logSampling;
+    }
+
+    /**
+     * Count a sent message and decide if it is logged
+     *
+     * @param messageType String
+     * @param id          String - State, Choice or Connector ID
+     * @param sent        boolean
+     * @return boolean log - True if the log line should be written
+     */
+    boolean sample(String messageType, String id, boolean sent) {
+        TypeSampler typeSampler = this.getTypeSampler(messageType);
+        (sent ? typeSampler.sentCount : typeSampler.notSentCount).increment();
+        boolean log = this.logger.isLoggable(this.level) && typeSampler.sample(id);
+        if (log) {
+            typeSampler.loggedCount.increment();
+        }
+        return log;
+    }
+
+    /**
+     * Count a sent message and log the line built by the Supplier followed by the sent flag if it is sampled
+     *
+     * @param messageType String
+     * @param id          String - State, Choice or Connector ID
+     * @param sent        boolean
+     * @param message     Supplier&lt;String&gt; - Only called if the line is logged
+     */
+    void log(String messageType, String id, boolean sent, Supplier<String> message) {
+        if (this.sample(messageType, id, sent)) {
+            LogRecord logRecord = new LogRecord(this.level, message.get() + " Sent [" + sent + "]");
+            logRecord.setLoggerName(this.logger.getName());
+            // The source is the caller of the sampler, as if it had logged the line itself
+            for (StackTraceElement stackTraceElement : new Throwable().getStackTrace()) {
+                if (!LogSampler.class.getName().equals(stackTraceElement.getClassName())) {
+                    logRecord.setSourceClassName(stackTraceElement.getClassName());
+                    logRecord.setSourceMethodName(stackTraceElement.getMethodName());
+                    break;
+                }
+            }
+            this.logger.log(logRecord);
+        }
+    }
+
+    /**
+     * Get the counts since the last summary, then start a new period
+     *
+     * @return String summary - null if no message was counted
+     */
+    String summarize() {
+        Map<String, String> typeSummaries = new TreeMap<>();
+        this.typeSamplers.forEach((messageType, typeSampler) -> {
+            long sentCount = typeSampler.sentCount.sumThenReset();
+            long notSentCount = typeSampler.notSentCount.sumThenReset();
+            long loggedCount = typeSampler.loggedCount.sumThenReset();
+            if (sentCount > 0 || notSentCount > 0) {
+                typeSummaries.put(messageType, messageType + " [sent " + sentCount + ", not sent " + notSentCount + ", logged " + loggedCount + "]");
+            }
+        });
+        long now = System.nanoTime();
+        this.typeSamplers.values().forEach(typeSampler -> typeSampler.evictIdleRateWindows(now));
+        long periodMillis = TimeUnit.NANOSECONDS.toMillis(now - this.periodStartedAt);
+        this.periodStartedAt = now;
+
+        return typeSummaries.isEmpty() ? null : "Sent in the last " + periodMillis + " ms: " + String.join(", ", typeSummaries.values());
+    }
+
+    private TypeSampler getTypeSampler(String messageType) {
+        TypeSampler typeSampler = this.typeSamplers.get(messageType);
+        if (typeSampler == null) {
+            typeSampler = new TypeSampler();
+            TypeSampler existingTypeSampler = this.typeSamplers.putIfAbsent(messageType, typeSampler);
+            if (existingTypeSampler != null) {
+                typeSampler = existingTypeSampler;
+            }
+        }
+        return typeSampler;
+    }
+
+    /**
+     * Sampling state and counters of a message type
+     */
+    private static class TypeSampler {
+        private volatile LogSampling logSampling = LogSampling.ALL;
+        private final LongAdder sentCount = new LongAdder();
+        private final LongAdder notSentCount = new LongAdder();
+        private final LongAdder loggedCount = new LongAdder();
+        private final AtomicLong sequence = new AtomicLong();
+        private final ConcurrentHashMap<String, RateWindow> rateWindows = new ConcurrentHashMap<>();
+
+        private boolean sample(String id) {
+            LogSampling logSampling = this.logSampling;
+            boolean sampled = false;
+            if (logSampling.getOneIn() > 0) {
+                sampled = this.sequence.getAndIncrement() % logSampling.getOneIn() == 0;
+            }
+            else if (logSampling.getMaxPerSecondPerId() > 0) {
+                String windowKey = id != null ? id : "";
+                RateWindow rateWindow = this.rateWindows.get(windowKey);
+                if (rateWindow == null && this.rateWindows.size() >= LogSampler.MAX_RATE_WINDOWS) {
+                    this.evictIdleRateWindows(System.nanoTime());
+                }
+                if (rateWindow == null && this.rateWindows.size() < LogSampler.MAX_RATE_WINDOWS) {
+                    rateWindow = new RateWindow();
+                    RateWindow existingRateWindow = this.rateWindows.putIfAbsent(windowKey, rateWindow);
+                    if (existingRateWindow != null) {
+                        rateWindow = existingRateWindow;
+                    }
+                }
+                // Not logged when every window is in use, the message is still counted in the summary
+                sampled = rateWindow != null && rateWindow.tryAcquire(logSampling.getMaxPerSecondPerId());
+            }
+            return sampled;
+        }
+
+        private void evictIdleRateWindows(long now) {
+            long currentSecond = TimeUnit.NANOSECONDS.toSeconds(now);
+            this.rateWindows.values().removeIf(rateWindow -> rateWindow.isIdle(currentSecond));
+        }
+    }
+
+    /**
+     * Number of lines logged for an ID during the current second
+     */
+    private static class RateWindow {
+        private long second = Long.MIN_VALUE;
+        private int count = 0;
+
+        private synchronized boolean tryAcquire(int maxPerSecond) {
+            long currentSecond = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+            if (currentSecond != this.second) {
+                this.second = currentSecond;
+                this.count = 0;
+            }
+            return this.count++ < maxPerSecond;
+        }
+
+        private synchronized boolean isIdle(long currentSecond) {
+            return this.second < currentSecond;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+/**
+ * Sampling of the log lines written for each sent message of a type
+ *
+ * @see TouchPortalPlugin#setLogSampling(String, LogSampling)
+ */
+public final class LogSampling {
+    /**
+     * Log every message, the default
+     */
+    public static final LogSampling ALL = new LogSampling(1, 0);
+    /**
+     * Log no message, they are still counted in the summary
+     */
+    public static final LogSampling NONE = new LogSampling(0, 0);
+
+    private final long oneIn;
+    private final int maxPerSecondPerId;
+
+    private LogSampling(long oneIn, int maxPerSecondPerId) {
+        this.oneIn = oneIn;
+        this.maxPerSecondPerId = maxPerSecondPerId;
+    }
+
+    /**
+     * Log the first message then one in every n messages of the type
+     *
+     * @param n long
+     * @return {@link LogSampling} logSampling
+     */
+    public static LogSampling oneIn(long n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        return new LogSampling(n, 0);
+    }
+
+    /**
+     * Log at most a number of messages per second for each State, Choice or Connector ID
+     *
+     * @param maxPerSecond int
+     * @return {@link LogSampling} logSampling
+     */
+    public static LogSampling maxPerSecondPerId(int maxPerSecond) {
+        if (maxPerSecond < 1) {
+            throw new IllegalArgumentException("Max per second must be positive");
+        }
+        return new LogSampling(0, maxPerSecond);
+    }
+
+    long getOneIn() {
+        return this.oneIn;
+    }
+
+    int getMaxPerSecondPerId() {
+        return this.maxPerSecondPerId;
+    }
+
+    @Override
+    public String toString() {
+        return "LogSampling{" +
+                "oneIn=" + this.oneIn +
+                ", maxPerSecondPerId=" + this.maxPerSecondPerId +
+                '}';
+    }
+}
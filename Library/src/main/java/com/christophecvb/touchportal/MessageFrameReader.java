@@ -0,0 +1,235 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Splits the incoming bytes into line delimited messages
+ * <p>
+ * Bytes are read into a reusable direct buffer, scanned for the newline delimiter, then the bytes of each message are decoded
+ * into a reusable char buffer. No String is created per message. Messages larger than the maximum size are skipped
+ * up to their delimiter, so a corrupt stream cannot allocate unbounded memory.
+ * </p>
+ */
+class MessageFrameReader implements Closeable {
+    /**
+     * Logger
+     */
+    private final static Logger LOGGER = Logger.getLogger(TouchPortalPlugin.class.getName());
+    /**
+     * Size of the direct buffer the channel is read into
+     */
+    static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(MessageFrameReader.READ_BUFFER_SIZE);
+    private final int maxFrameSize;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final FrameReader frameReader = new FrameReader();
+    /**
+     * Bytes of the current message, grown up to the maximum size and reused
+     */
+    private byte[] frame = new byte[1024];
+    private int frameLength = 0;
+    /**
+     * Size in bytes of the last returned message
+     */
+    private int lastFrameSize = 0;
+    /**
+     * Chars of the last decoded message, reused
+     */
+    private CharBuffer frameChars = CharBuffer.allocate(1024);
+    /**
+     * The current message is too large and skipped up to its delimiter
+     */
+    private boolean skippingFrame = false;
+    private long skippedFrameCount = 0;
+
+    /**
+     * Constructor
+     *
+     * @param channel      ReadableByteChannel
+     * @param maxFrameSize int - Maximum size of a message in bytes
+     */
+    MessageFrameReader(ReadableByteChannel channel, int maxFrameSize) {
+        this.channel = channel;
+        this.maxFrameSize = maxFrameSize;
+        this.readBuffer.flip();
+    }
+
+    /**
+     * Read the next message
+     * <p>
+     * The returned Reader is reused, it is only valid until the next call
+     * </p>
+     *
+     * @return Reader frameReader - null at the end of the stream
+     * @throws IOException If reading failed
+     */
+    Reader nextFrame() throws IOException {
+        while (true) {
+            if (!this.readBuffer.hasRemaining()) {
+                this.readBuffer.clear();
+                int readCount = this.channel.read(this.readBuffer);
+                this.readBuffer.flip();
+                if (readCount < 0) {
+                    return null;
+                }
+            }
+            int position = this.readBuffer.position();
+            int limit = this.readBuffer.limit();
+            int delimiterIndex = position;
+            while (delimiterIndex < limit && this.readBuffer.get(delimiterIndex) != '\n') {
+                delimiterIndex++;
+            }
+            this.append(delimiterIndex - position);
+            if (delimiterIndex < limit) {
+                // Consume the delimiter
+                this.readBuffer.get();
+                boolean skippedFrame = this.skippingFrame;
+                this.skippingFrame = false;
+                if (this.frameLength > 0 && this.frame[this.frameLength - 1] == '\r') {
+                    this.frameLength--;
+                }
+                if (!skippedFrame && this.frameLength > 0) {
+                    Reader frameReader = this.decode();
+                    this.lastFrameSize = this.frameLength;
+                    this.frameLength = 0;
+                    return frameReader;
+                }
+                this.frameLength = 0;
+            }
+        }
+    }
+
+    /**
+     * Get the size in bytes of the last returned message
+     *
+     * @return int lastFrameSize
+     */
+    int getLastFrameSize() {
+        return this.lastFrameSize;
+    }
+
+    /**
+     * Get the bytes of the last returned message, from 0 to {@link #getLastFrameSize()}
+     * <p>
+     * The returned array is reused, it is only valid until the next call to {@link #nextFrame()}
+     * </p>
+     *
+     * @return byte[] lastFrame
+     */
+    byte[] getLastFrame() {
+        return this.frame;
+    }
+
+    /**
+     * Get the number of messages skipped because they were larger than the maximum size
+     *
+     * @return long skippedFrameCount
+     */
+    long getSkippedFrameCount() {
+        return this.skippedFrameCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Internal - Append bytes of the read buffer to the current message, or skip them if it is too large
+     *
+     * @param count int
+     */
+    private void append(int count) {
+        if (!this.skippingFrame && this.frameLength + count > this.maxFrameSize) {
+            this.skippingFrame = true;
+            this.skippedFrameCount++;
+            this.frameLength = 0;
+            MessageFrameReader.LOGGER.log(Level.WARNING, "Message larger than " + this.maxFrameSize + " bytes skipped");
+        }
+        if (this.skippingFrame) {
+            this.readBuffer.position(this.readBuffer.position() + count);
+        }
+        else {
+            if (this.frameLength + count > this.frame.length) {
+                byte[] grownFrame = new byte[Math.min(this.maxFrameSize, Math.max(this.frame.length * 2, this.frameLength + count))];
+                System.arraycopy(this.frame, 0, grownFrame, 0, this.frameLength);
+                this.frame = grownFrame;
+            }
+            this.readBuffer.get(this.frame, this.frameLength, count);
+            this.frameLength += count;
+        }
+    }
+
+    /**
+     * Internal - Decode the current message
+     *
+     * @return Reader frameReader
+     */
+    private Reader decode() {
+        // UTF-8 never decodes to more chars than bytes
+        if (this.frameChars.capacity() < this.frameLength) {
+            this.frameChars = CharBuffer.allocate(Math.max(this.frameChars.capacity() * 2, this.frameLength));
+        }
+        this.frameChars.clear();
+        this.decoder.reset();
+        this.decoder.decode(ByteBuffer.wrap(this.frame, 0, this.frameLength), this.frameChars, true);
+        this.decoder.flush(this.frameChars);
+        this.frameChars.flip();
+        this.frameReader.chars = this.frameChars;
+        return this.frameReader;
+    }
+
+    /**
+     * Reader over the chars of the last decoded message
+     */
+    private static class FrameReader extends Reader {
+        private CharBuffer chars;
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            int readCount = -1;
+            if (this.chars.hasRemaining()) {
+                readCount = Math.min(length, this.chars.remaining());
+                this.chars.get(buffer, offset, readCount);
+            }
+            else if (length == 0) {
+                readCount = 0;
+            }
+            return readCount;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
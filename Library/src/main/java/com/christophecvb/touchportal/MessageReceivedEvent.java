@@ -0,0 +1,62 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event of a message received from the Touch Portal Plugin System, its duration is the decode time
+ * <p>
+ * Only loaded through {@link FlightRecorderEvents}
+ * </p>
+ */
+@Name("com.christophecvb.touchportal.MessageReceived")
+@Label("Message Received")
+@Category("Touch Portal")
+@StackTrace(false)
+class MessageReceivedEvent extends Event {
+    private static final EventType EVENT_TYPE = EventType.getEventType(MessageReceivedEvent.class);
+
+    @Label("Type")
+    String type;
+
+    @Label("Size")
+    @DataAmount
+    int size;
+
+    static Object beginIfEnabled() {
+        MessageReceivedEvent messageReceivedEvent = null;
+        if (MessageReceivedEvent.EVENT_TYPE.isEnabled()) {
+            messageReceivedEvent = new MessageReceivedEvent();
+            messageReceivedEvent.begin();
+        }
+        return messageReceivedEvent;
+    }
+
+    static void endAndCommit(Object event, String type, int size) {
+        MessageReceivedEvent messageReceivedEvent = (MessageReceivedEvent) event;
+        messageReceivedEvent.end();
+        if (messageReceivedEvent.shouldCommit()) {
+            messageReceivedEvent.type = type;
+            messageReceivedEvent.size = size;
+            messageReceivedEvent.commit();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event of a message sent to the Touch Portal Plugin System, its duration goes from the send call until the socket flush
+ * <p>
+ * Only loaded through {@link FlightRecorderEvents}
+ * </p>
+ */
+@Name("com.christophecvb.touchportal.MessageSent")
+@Label("Message Sent")
+@Category("Touch Portal")
+@StackTrace(false)
+class MessageSentEvent extends Event {
+    private static final EventType EVENT_TYPE = EventType.getEventType(MessageSentEvent.class);
+
+    @Label("Type")
+    String type;
+
+    @Label("ID")
+    String id;
+
+    @Label("Bytes")
+    @DataAmount
+    int bytes;
+
+    static Object beginIfEnabled() {
+        MessageSentEvent messageSentEvent = null;
+        if (MessageSentEvent.EVENT_TYPE.isEnabled()) {
+            messageSentEvent = new MessageSentEvent();
+            messageSentEvent.begin();
+        }
+        return messageSentEvent;
+    }
+
+    static void endAndCommit(Object event, String type, String id, int bytes) {
+        MessageSentEvent messageSentEvent = (MessageSentEvent) event;
+        messageSentEvent.end();
+        if (messageSentEvent.shouldCommit()) {
+            messageSentEvent.type = type;
+            messageSentEvent.id = id;
+            messageSentEvent.bytes = bytes;
+            messageSentEvent.commit();
+        }
+    }
+}
@@ -0,0 +1,458 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.christophecvb.touchportal;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes messages to the Touch Portal Plugin System from a dedicated Thread
+ * <p>
+ * Pending {@link TouchPortalPlugin.SendPriority#HIGH} messages are always written before pending {@link TouchPortalPlugin.SendPriority#LOW} ones.
+ * Messages of the same priority keep their order.
+ * A message never passes a pending lower priority message with the same ordering key (State, Choice or Connector ID): these are promoted ahead of it.
+ * </p>
+ */
+class MessageWriter {
+    /**
+     * Logger
+     */
+    private final static Logger LOGGER = Logger.getLogger(TouchPortalPlugin.class.getName());
+    /**
+     * Time given to the writer Thread to stop once the pending messages are dropped on close
+     */
+    private static final long WRITER_STOP_TIMEOUT_MILLIS = 100;
+    /**
+     * Pending messages per priority
+     */
+    private final EnumMap<TouchPortalPlugin.SendPriority, ArrayDeque<PendingMessage>> pendingMessages = new EnumMap<>(TouchPortalPlugin.SendPriority.class);
+    /**
+     * Number of pending messages per ordering key, for the priorities that can be passed by a higher one
+     */
+    private final EnumMap<TouchPortalPlugin.SendPriority, HashMap<String, Integer>> pendingOrderingKeys = new EnumMap<>(TouchPortalPlugin.SendPriority.class);
+    /**
+     * Futures of the written messages waiting for the next flush, only accessed by the writer Thread
+     */
+    private final List<CompletableFuture<Boolean>> unflushedFutures = new ArrayList<>();
+    /**
+     * Socket OutputStream, closed directly to abort a blocked write
+     */
+    private final OutputStream outputStream;
+    /**
+     * Socket Writer
+     */
+    private final Writer writer;
+    /**
+     * Called with the cause when writing fails
+     */
+    private final Consumer<IOException> onWriteError;
+    /**
+     * Called with each message written, on the writer Thread
+     */
+    private final Consumer<String> onWritten;
+    /**
+     * Thread writing the pending messages
+     */
+    private final Thread writerThread;
+    /**
+     * Priority of the last taken message, only accessed by the writer Thread
+     */
+    private TouchPortalPlugin.SendPriority takenPriority;
+    /**
+     * No more messages are accepted once closed
+     */
+    private boolean closed = false;
+    /**
+     * The writer Thread is done, either because everything was written after close or because writing failed
+     */
+    private boolean stopped = false;
+
+    /**
+     * Constructor
+     *
+     * @param outputStream OutputStream
+     * @param onWriteError Consumer&lt;IOException&gt;
+     * @param onWritten    Consumer&lt;String&gt;
+     */
+    MessageWriter(OutputStream outputStream, Consumer<IOException> onWriteError, Consumer<String> onWritten) {
+        for (TouchPortalPlugin.SendPriority sendPriority : TouchPortalPlugin.SendPriority.values()) {
+            this.pendingMessages.put(sendPriority, new ArrayDeque<>());
+            this.pendingOrderingKeys.put(sendPriority, new HashMap<>());
+        }
+        this.outputStream = outputStream;
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        this.onWriteError = onWriteError;
+        this.onWritten = onWritten;
+        this.writerThread = new Thread(this::writeLoop, "TPMessageWriter");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queue a message
+     *
+     * @param message      String
+     * @param orderingKey  String - ID of the State, Choice or Connector updated by the message, null if none
+     * @param sendPriority {@link TouchPortalPlugin.SendPriority}
+     * @return boolean queued
+     */
+    synchronized boolean write(String message, String orderingKey, TouchPortalPlugin.SendPriority sendPriority) {
+        boolean queued = false;
+        if (!this.closed) {
+            this.enqueue(new PendingMessage(message, orderingKey, null), sendPriority);
+            this.notifyAll();
+            queued = true;
+        }
+        return queued;
+    }
+
+    /**
+     * Queue several messages at once, they are flushed together
+     *
+     * @param messages     List&lt;String&gt;
+     * @param orderingKeys List&lt;String&gt; - Ordering key of each message, null if none
+     * @param sendPriority {@link TouchPortalPlugin.SendPriority}
+     * @return boolean queued
+     */
+    synchronized boolean write(List<String> messages, List<String> orderingKeys, TouchPortalPlugin.SendPriority sendPriority) {
+        boolean queued = false;
+        if (!this.closed) {
+            for (int i = 0; i < messages.size(); i++) {
+                this.enqueue(new PendingMessage(messages.get(i), orderingKeys.get(i), null), sendPriority);
+            }
+            this.notifyAll();
+            queued = true;
+        }
+        return queued;
+    }
+
+    /**
+     * Queue a message and get notified once it is flushed to the socket
+     *
+     * @param message      String
+     * @param orderingKey  String - ID of the State, Choice or Connector updated by the message, null if none
+     * @param sendPriority {@link TouchPortalPlugin.SendPriority}
+     * @return CompletableFuture&lt;Boolean&gt; flushed - Completes with true once flushed, exceptionally with an IOException if it could not be written
+     */
+    synchronized CompletableFuture<Boolean> writeAsync(String message, String orderingKey, TouchPortalPlugin.SendPriority sendPriority) {
+        CompletableFuture<Boolean> flushed = new CompletableFuture<>();
+        if (!this.closed) {
+            this.enqueue(new PendingMessage(message, orderingKey, flushed), sendPriority);
+            this.notifyAll();
+        }
+        else {
+            flushed.completeExceptionally(new IOException("Message Writer is closed"));
+        }
+        return flushed;
+    }
+
+    /**
+     * Queue several messages at once and get notified once each is flushed to the socket, they are flushed together
+     *
+     * @param messages     List&lt;String&gt;
+     * @param orderingKeys List&lt;String&gt; - Ordering key of each message, null if none
+     * @param sendPriority {@link TouchPortalPlugin.SendPriority}
+     * @return List&lt;CompletableFuture&lt;Boolean&gt;&gt; flushed - In the order of the messages
+     */
+    synchronized List<CompletableFuture<Boolean>> writeAsync(List<String> messages, List<String> orderingKeys, TouchPortalPlugin.SendPriority sendPriority) {
+        List<CompletableFuture<Boolean>> flushed = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            CompletableFuture<Boolean> messageFlushed = new CompletableFuture<>();
+            if (!this.closed) {
+                this.enqueue(new PendingMessage(messages.get(i), orderingKeys.get(i), messageFlushed), sendPriority);
+            }
+            else {
+                messageFlushed.completeExceptionally(new IOException("Message Writer is closed"));
+            }
+            flushed.add(messageFlushed);
+        }
+        this.notifyAll();
+        return flushed;
+    }
+
+    /**
+     * Get the number of messages waiting to be written
+     *
+     * @return int pendingCount
+     */
+    synchronized int getPendingCount() {
+        return this.pendingMessages.values().stream().mapToInt(ArrayDeque::size).sum();
+    }
+
+    /**
+     * Stop accepting messages and wait for the pending ones to be written
+     * <p>
+     * The stream is only closed once the writer Thread has stopped.
+     * If it is still blocked writing after the timeout, the socket stream is closed to abort the write first.
+     * </p>
+     *
+     * @param timeoutMillis long - Maximum time to wait
+     * @return int droppedCount - Number of pending messages that could not be written in time
+     */
+    int close(long timeoutMillis) {
+        synchronized (this) {
+            this.closed = true;
+            this.notifyAll();
+        }
+        int droppedCount;
+        synchronized (this) {
+            if (Thread.currentThread() != this.writerThread) {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+                long remainingMillis;
+                try {
+                    while (!this.stopped && (remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) > 0) {
+                        this.wait(remainingMillis);
+                    }
+                }
+                catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            droppedCount = this.getPendingCount();
+            this.failPendingMessages(new IOException("Message dropped on close"));
+        }
+        if (Thread.currentThread() != this.writerThread) {
+            try {
+                this.writerThread.join(MessageWriter.WRITER_STOP_TIMEOUT_MILLIS);
+                if (this.writerThread.isAlive()) {
+                    try {
+                        this.outputStream.close();
+                    }
+                    catch (IOException ignored) {}
+                    this.writerThread.join(MessageWriter.WRITER_STOP_TIMEOUT_MILLIS);
+                }
+            }
+            catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            this.writer.close();
+        }
+        catch (IOException ignored) {}
+        return droppedCount;
+    }
+
+    /**
+     * Internal - Queue a message after promoting the lower priority pending messages with the same ordering key, must hold the lock
+     *
+     * @param message      {@link PendingMessage}
+     * @param sendPriority {@link TouchPortalPlugin.SendPriority}
+     */
+    private void enqueue(PendingMessage message, TouchPortalPlugin.SendPriority sendPriority) {
+        if (message.orderingKey != null) {
+            for (TouchPortalPlugin.SendPriority lowerPriority : TouchPortalPlugin.SendPriority.values()) {
+                if (lowerPriority.ordinal() > sendPriority.ordinal()) {
+                    this.promote(message.orderingKey, lowerPriority, sendPriority);
+                }
+            }
+            if (sendPriority.ordinal() > 0) {
+                this.pendingOrderingKeys.get(sendPriority).merge(message.orderingKey, 1, Integer::sum);
+            }
+        }
+        this.pendingMessages.get(sendPriority).addLast(message);
+    }
+
+    /**
+     * Internal - Move the pending messages with an ordering key to a higher priority, keeping their order, must hold the lock
+     *
+     * @param orderingKey  String
+     * @param fromPriority {@link TouchPortalPlugin.SendPriority}
+     * @param toPriority   {@link TouchPortalPlugin.SendPriority}
+     */
+    private void promote(String orderingKey, TouchPortalPlugin.SendPriority fromPriority, TouchPortalPlugin.SendPriority toPriority) {
+        HashMap<String, Integer> fromOrderingKeys = this.pendingOrderingKeys.get(fromPriority);
+        Integer pendingCount = fromOrderingKeys.isEmpty() ? null : fromOrderingKeys.remove(orderingKey);
+        if (pendingCount != null) {
+            int remainingCount = pendingCount;
+            Iterator<PendingMessage> fromMessages = this.pendingMessages.get(fromPriority).iterator();
+            while (remainingCount > 0 && fromMessages.hasNext()) {
+                PendingMessage pendingMessage = fromMessages.next();
+                if (orderingKey.equals(pendingMessage.orderingKey)) {
+                    fromMessages.remove();
+                    this.pendingMessages.get(toPriority).addLast(pendingMessage);
+                    remainingCount--;
+                }
+            }
+            if (toPriority.ordinal() > 0) {
+                this.pendingOrderingKeys.get(toPriority).merge(orderingKey, pendingCount, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Internal - Take the next message, highest priority first
+     *
+     * @return {@link PendingMessage} message - null when closed and nothing is pending
+     * @throws InterruptedException If interrupted while waiting
+     */
+    private synchronized PendingMessage take() throws InterruptedException {
+        PendingMessage message = null;
+        while (message == null) {
+            for (TouchPortalPlugin.SendPriority sendPriority : TouchPortalPlugin.SendPriority.values()) {
+                message = this.pendingMessages.get(sendPriority).pollFirst();
+                if (message != null) {
+                    this.takenPriority = sendPriority;
+                    if (message.orderingKey != null && sendPriority.ordinal() > 0) {
+                        this.pendingOrderingKeys.get(sendPriority).computeIfPresent(message.orderingKey, (orderingKey, pendingCount) -> pendingCount > 1 ? pendingCount - 1 : null);
+                    }
+                    break;
+                }
+            }
+            if (message == null) {
+                if (this.closed) {
+                    break;
+                }
+                this.wait();
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Internal - Check if there is nothing left to write
+     *
+     * @return boolean isIdle
+     */
+    private synchronized boolean isIdle() {
+        return this.pendingMessages.values().stream().allMatch(ArrayDeque::isEmpty);
+    }
+
+    /**
+     * Internal - Check if there is no pending message of a priority
+     *
+     * @param sendPriority {@link TouchPortalPlugin.SendPriority}
+     * @return boolean isIdle
+     */
+    private synchronized boolean isIdle(TouchPortalPlugin.SendPriority sendPriority) {
+        return this.pendingMessages.get(sendPriority).isEmpty();
+    }
+
+    private void writeLoop() {
+        try {
+            PendingMessage message;
+            while ((message = this.take()) != null) {
+                this.writer.write(message.message);
+                this.writer.write('\n');
+                this.onWritten.accept(message.message);
+                if (message.flushed != null) {
+                    this.unflushedFutures.add(message.flushed);
+                }
+                // Low priority messages are flushed in batches, high priority ones as soon as no other high priority one is pending
+                if ((this.takenPriority == TouchPortalPlugin.SendPriority.HIGH && this.isIdle(TouchPortalPlugin.SendPriority.HIGH)) || this.isIdle()) {
+                    this.flush();
+                }
+            }
+            this.flush();
+            this.stop();
+        }
+        catch (InterruptedException interruptedException) {
+            this.failUnflushedMessages(new IOException("Message Writer interrupted"));
+            this.stop();
+        }
+        catch (IOException ioException) {
+            MessageWriter.LOGGER.log(Level.WARNING, "Message could not be written", ioException);
+            this.failUnflushedMessages(ioException);
+            this.stop();
+            synchronized (this) {
+                this.failPendingMessages(ioException);
+            }
+            this.onWriteError.accept(ioException);
+        }
+    }
+
+    /**
+     * Internal - Flush the socket then complete the futures of the flushed messages
+     *
+     * @throws IOException If the flush failed
+     */
+    private void flush() throws IOException {
+        this.writer.flush();
+        for (CompletableFuture<Boolean> flushed : this.unflushedFutures) {
+            flushed.complete(true);
+        }
+        this.unflushedFutures.clear();
+    }
+
+    private void failUnflushedMessages(IOException ioException) {
+        for (CompletableFuture<Boolean> flushed : this.unflushedFutures) {
+            flushed.completeExceptionally(ioException);
+        }
+        this.unflushedFutures.clear();
+    }
+
+    /**
+     * Internal - Drop the pending messages, must hold the lock
+     *
+     * @param ioException IOException - Failure of the futures waiting for these messages
+     */
+    private void failPendingMessages(IOException ioException) {
+        for (ArrayDeque<PendingMessage> priorityPendingMessages : this.pendingMessages.values()) {
+            for (PendingMessage pendingMessage : priorityPendingMessages) {
+                if (pendingMessage.flushed != null) {
+                    pendingMessage.flushed.completeExceptionally(ioException);
+                }
+            }
+            priorityPendingMessages.clear();
+        }
+        for (HashMap<String, Integer> priorityOrderingKeys : this.pendingOrderingKeys.values()) {
+            priorityOrderingKeys.clear();
+        }
+    }
+
+    private synchronized void stop() {
+        this.closed = true;
+        this.stopped = true;
+        this.notifyAll();
+    }
+
+    /**
+     * Message waiting to be written
+     */
+    private static class PendingMessage {
+        private final String message;
+        /**
+         * ID of the State, Choice or Connector updated by the message, null if none
+         */
+        private final String orderingKey;
+        /**
+         * Completed once flushed, null when nobody waits for it
+         */
+        private final CompletableFuture<Boolean> flushed;
+
+        private PendingMessage(String message, String orderingKey, CompletableFuture<Boolean> flushed) {
+            this.message = message;
+            this.orderingKey = orderingKey;
+            this.flushed = flushed;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.util.Map;
+
+/**
+ * JMX view of the metrics of a {@link TouchPortalPlugin}
+ * <p>
+ * Registered with {@link TouchPortalPlugin#registerMetricsMBean()} under <code>com.christophecvb.touchportal:type=Metrics,name=&lt;Plugin ID&gt;</code>
+ * </p>
+ *
+ * @see MetricsSnapshot
+ */
+public interface MetricsMXBean {
+    /**
+     * @return Map&lt;String, Long&gt; inboundMessageCounts - By message type
+     */
+    Map<String, Long> getInboundMessageCounts();
+
+    /**
+     * @return Map&lt;String, Long&gt; outboundMessageCounts - By message type
+     */
+    Map<String, Long> getOutboundMessageCounts();
+
+    /**
+     * @return long bytesWritten
+     */
+    long getBytesWritten();
+
+    /**
+     * @return long stateDedupHits
+     */
+    long getStateDedupHits();
+
+    /**
+     * @return long choiceDedupHits
+     */
+    long getChoiceDedupHits();
+
+    /**
+     * @return long connectorValueDedupHits
+     */
+    long getConnectorValueDedupHits();
+
+    /**
+     * @return Map&lt;String, Integer&gt; cacheSizes - By cache name
+     */
+    Map<String, Integer> getCacheSizes();
+
+    /**
+     * @return Map&lt;String, {@link LatencyStats}&gt; dispatchLatencies - By Action or Connector ID
+     */
+    Map<String, LatencyStats> getDispatchLatencies();
+
+    /**
+     * @return Map&lt;String, {@link LatencyStats}&gt; feedbackLatencies - By Action or Connector ID
+     */
+    Map<String, LatencyStats> getFeedbackLatencies();
+
+    /**
+     * @return Map&lt;{@link TouchPortalPlugin.DispatchLane}, {@link DispatchLaneStats}&gt; dispatchLaneStats
+     */
+    Map<TouchPortalPlugin.DispatchLane, DispatchLaneStats> getDispatchLaneStats();
+}
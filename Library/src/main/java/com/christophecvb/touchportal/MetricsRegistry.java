@@ -0,0 +1,228 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Metrics recorded by a {@link TouchPortalPlugin}
+ * <p>
+ * Recording only increments existing counters on the hot path, a new counter is created the first time a key is seen
+ * </p>
+ */
+class MetricsRegistry {
+    private final ConcurrentHashMap<String, LongAdder> inboundMessageCounts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> outboundMessageCounts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> dispatchLatencies = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> feedbackLatencies = new ConcurrentHashMap<>();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder stateDedupHits = new LongAdder();
+    private final LongAdder choiceDedupHits = new LongAdder();
+    private final LongAdder connectorValueDedupHits = new LongAdder();
+
+    /**
+     * Count a received message
+     *
+     * @param type String - Message type
+     */
+    void recordInbound(String type) {
+        MetricsRegistry.counter(this.inboundMessageCounts, type).increment();
+    }
+
+    /**
+     * Count a queued message
+     *
+     * @param type String - Message type
+     */
+    void recordOutbound(String type) {
+        MetricsRegistry.counter(this.outboundMessageCounts, type).increment();
+    }
+
+    /**
+     * Record the time from dispatch until an Action or Connector handler returned
+     *
+     * @param invokableId String - Action or Connector ID
+     * @param nanos       long
+     */
+    void recordDispatchLatency(String invokableId, long nanos) {
+        MetricsRegistry.histogram(this.dispatchLatencies, invokableId).record(nanos);
+    }
+
+    /**
+     * Record the time from a received Action or Connector change until its first feedback was flushed
+     *
+     * @param invokableId String - Action or Connector ID
+     * @param nanos       long
+     */
+    void recordFeedbackLatency(String invokableId, long nanos) {
+        MetricsRegistry.histogram(this.feedbackLatencies, invokableId).record(nanos);
+    }
+
+    void recordStateDedupHit() {
+        this.stateDedupHits.increment();
+    }
+
+    void recordChoiceDedupHit() {
+        this.choiceDedupHits.increment();
+    }
+
+    void recordConnectorValueDedupHit() {
+        this.connectorValueDedupHits.increment();
+    }
+
+    /**
+     * Wrap a connection stream to count the written bytes
+     *
+     * @param outputStream OutputStream
+     * @return OutputStream countingOutputStream
+     */
+    OutputStream countWrittenBytes(OutputStream outputStream) {
+        return new FilterOutputStream(outputStream) {
+            @Override
+            public void write(int singleByte) throws IOException {
+                this.out.write(singleByte);
+                MetricsRegistry.this.bytesWritten.increment();
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) throws IOException {
+                this.out.write(buffer, offset, length);
+                MetricsRegistry.this.bytesWritten.add(length);
+            }
+        };
+    }
+
+    /**
+     * Take a snapshot of the metrics
+     *
+     * @param cacheSizes        Map&lt;String, Integer&gt; - Current size of the Plugin caches
+     * @param dispatchLaneStats Map&lt;{@link TouchPortalPlugin.DispatchLane}, {@link DispatchLaneStats}&gt;
+     * @return {@link MetricsSnapshot} metricsSnapshot
+     */
+    MetricsSnapshot getSnapshot(Map<String, Integer> cacheSizes, Map<TouchPortalPlugin.DispatchLane, DispatchLaneStats> dispatchLaneStats) {
+        return new MetricsSnapshot(MetricsRegistry.sums(this.inboundMessageCounts), MetricsRegistry.sums(this.outboundMessageCounts), this.bytesWritten.sum(),
+                this.stateDedupHits.sum(), this.choiceDedupHits.sum(), this.connectorValueDedupHits.sum(), cacheSizes,
+                MetricsRegistry.stats(this.dispatchLatencies), MetricsRegistry.stats(this.feedbackLatencies), dispatchLaneStats);
+    }
+
+    private static LatencyHistogram histogram(ConcurrentHashMap<String, LatencyHistogram> histograms, String key) {
+        LatencyHistogram histogram = histograms.get(key);
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            LatencyHistogram existingHistogram = histograms.putIfAbsent(key, histogram);
+            if (existingHistogram != null) {
+                histogram = existingHistogram;
+            }
+        }
+        return histogram;
+    }
+
+    private static Map<String, LatencyStats> stats(ConcurrentHashMap<String, LatencyHistogram> histograms) {
+        Map<String, LatencyStats> stats = new TreeMap<>();
+        histograms.forEach((key, histogram) -> stats.put(key, histogram.getStats()));
+        return stats;
+    }
+
+    private static LongAdder counter(ConcurrentHashMap<String, LongAdder> counters, String key) {
+        LongAdder counter = counters.get(key);
+        if (counter == null) {
+            counter = new LongAdder();
+            LongAdder existingCounter = counters.putIfAbsent(key, counter);
+            if (existingCounter != null) {
+                counter = existingCounter;
+            }
+        }
+        return counter;
+    }
+
+    private static Map<String, Long> sums(ConcurrentHashMap<String, LongAdder> counters) {
+        Map<String, Long> sums = new TreeMap<>();
+        counters.forEach((key, counter) -> sums.put(key, counter.sum()));
+        return sums;
+    }
+
+    /**
+     * MXBean taking a new snapshot on every read
+     */
+    static class LiveMetrics implements MetricsMXBean {
+        private final Supplier<MetricsSnapshot> snapshotSupplier;
+
+        LiveMetrics(Supplier<MetricsSnapshot> snapshotSupplier) {
+            this.snapshotSupplier = snapshotSupplier;
+        }
+
+        @Override
+        public Map<String, Long> getInboundMessageCounts() {
+            return this.snapshotSupplier.get().getInboundMessageCounts();
+        }
+
+        @Override
+        public Map<String, Long> getOutboundMessageCounts() {
+            return this.snapshotSupplier.get().getOutboundMessageCounts();
+        }
+
+        @Override
+        public long getBytesWritten() {
+            return this.snapshotSupplier.get().getBytesWritten();
+        }
+
+        @Override
+        public long getStateDedupHits() {
+            return this.snapshotSupplier.get().getStateDedupHits();
+        }
+
+        @Override
+        public long getChoiceDedupHits() {
+            return this.snapshotSupplier.get().getChoiceDedupHits();
+        }
+
+        @Override
+        public long getConnectorValueDedupHits() {
+            return this.snapshotSupplier.get().getConnectorValueDedupHits();
+        }
+
+        @Override
+        public Map<String, Integer> getCacheSizes() {
+            return this.snapshotSupplier.get().getCacheSizes();
+        }
+
+        @Override
+        public Map<String, LatencyStats> getDispatchLatencies() {
+            return this.snapshotSupplier.get().getDispatchLatencies();
+        }
+
+        @Override
+        public Map<String, LatencyStats> getFeedbackLatencies() {
+            return this.snapshotSupplier.get().getFeedbackLatencies();
+        }
+
+        @Override
+        public Map<TouchPortalPlugin.DispatchLane, DispatchLaneStats> getDispatchLaneStats() {
+            return this.snapshotSupplier.get().getDispatchLaneStats();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Snapshot of the metrics of a {@link TouchPortalPlugin}
+ * <p>
+ * Counters are cumulative since the Plugin was created
+ * </p>
+ */
+public class MetricsSnapshot implements MetricsMXBean {
+    private final Map<String, Long> inboundMessageCounts;
+    private final Map<String, Long> outboundMessageCounts;
+    private final long bytesWritten;
+    private final long stateDedupHits;
+    private final long choiceDedupHits;
+    private final long connectorValueDedupHits;
+    private final Map<String, Integer> cacheSizes;
+    private final Map<String, LatencyStats> dispatchLatencies;
+    private final Map<String, LatencyStats> feedbackLatencies;
+    private final Map<TouchPortalPlugin.DispatchLane, DispatchLaneStats> dispatchLaneStats;
+
+    MetricsSnapshot(Map<String, Long> inboundMessageCounts, Map<String, Long> outboundMessageCounts, long bytesWritten, long stateDedupHits, long choiceDedupHits, long connectorValueDedupHits, Map<String, Integer> cacheSizes, Map<String, LatencyStats> dispatchLatencies, Map<String, LatencyStats> feedbackLatencies, Map<TouchPortalPlugin.DispatchLane, DispatchLaneStats> dispatchLaneStats) {
+        this.inboundMessageCounts = Collections.unmodifiableMap(inboundMessageCounts);
+        this.outboundMessageCounts = Collections.unmodifiableMap(outboundMessageCounts);
+        this.bytesWritten = bytesWritten;
+        this.stateDedupHits = stateDedupHits;
+        this.choiceDedupHits = choiceDedupHits;
+        this.connectorValueDedupHits = connectorValueDedupHits;
+        this.cacheSizes = Collections.unmodifiableMap(cacheSizes);
+        this.dispatchLatencies = Collections.unmodifiableMap(dispatchLatencies);
+        this.feedbackLatencies = Collections.unmodifiableMap(feedbackLatencies);
+        this.dispatchLaneStats = Collections.unmodifiableMap(dispatchLaneStats);
+    }
+
+    /**
+     * Get the number of received messages by type
+     *
+     * @return Map&lt;String, Long&gt; inboundMessageCounts
+     */
+    @Override
+    public Map<String, Long> getInboundMessageCounts() {
+        return this.inboundMessageCounts;
+    }
+
+    /**
+     * Get the number of queued messages by type
+     *
+     * @return Map&lt;String, Long&gt; outboundMessageCounts
+     */
+    @Override
+    public Map<String, Long> getOutboundMessageCounts() {
+        return this.outboundMessageCounts;
+    }
+
+    /**
+     * Get the number of bytes written to the connections
+     *
+     * @return long bytesWritten
+     */
+    @Override
+    public long getBytesWritten() {
+        return this.bytesWritten;
+    }
+
+    /**
+     * Get the number of State updates not sent because the value did not change
+     *
+     * @return long stateDedupHits
+     */
+    @Override
+    public long getStateDedupHits() {
+        return this.stateDedupHits;
+    }
+
+    /**
+     * Get the number of Choice updates not sent because the values did not change
+     *
+     * @return long choiceDedupHits
+     */
+    @Override
+    public long getChoiceDedupHits() {
+        return this.choiceDedupHits;
+    }
+
+    /**
+     * Get the number of Connector updates not sent because the value did not change
+     *
+     * @return long connectorValueDedupHits
+     */
+    @Override
+    public long getConnectorValueDedupHits() {
+        return this.connectorValueDedupHits;
+    }
+
+    /**
+     * Get the number of entries of the Plugin caches by name
+     *
+     * @return Map&lt;String, Integer&gt; cacheSizes
+     */
+    @Override
+    public Map<String, Integer> getCacheSizes() {
+        return this.cacheSizes;
+    }
+
+    /**
+     * Get the time from dispatch until the handler returned, by Action or Connector ID
+     *
+     * @return Map&lt;String, {@link LatencyStats}&gt; dispatchLatencies
+     */
+    @Override
+    public Map<String, LatencyStats> getDispatchLatencies() {
+        return this.dispatchLatencies;
+    }
+
+    /**
+     * Get the time from a received Action or Connector change until its first State or Connector update was flushed, by Action or Connector ID
+     * <p>
+     * Only recorded while {@link TouchPortalPlugin#setLatencyTracing(boolean)} is enabled
+     * </p>
+     *
+     * @return Map&lt;String, {@link LatencyStats}&gt; feedbackLatencies
+     */
+    @Override
+    public Map<String, LatencyStats> getFeedbackLatencies() {
+        return this.feedbackLatencies;
+    }
+
+    /**
+     * Get the queue depth and queue latency of each {@link TouchPortalPlugin.DispatchLane}
+     *
+     * @return Map&lt;{@link TouchPortalPlugin.DispatchLane}, {@link DispatchLaneStats}&gt; dispatchLaneStats
+     */
+    @Override
+    public Map<TouchPortalPlugin.DispatchLane, DispatchLaneStats> getDispatchLaneStats() {
+        return this.dispatchLaneStats;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsSnapshot{" +
+                "inboundMessageCounts=" + this.inboundMessageCounts +
+                ", outboundMessageCounts=" + this.outboundMessageCounts +
+                ", bytesWritten=" + this.bytesWritten +
+                ", stateDedupHits=" + this.stateDedupHits +
+                ", choiceDedupHits=" + this.choiceDedupHits +
+                ", connectorValueDedupHits=" + this.connectorValueDedupHits +
+                ", cacheSizes=" + this.cacheSizes +
+                ", dispatchLatencies=" + this.dispatchLatencies +
+                ", feedbackLatencies=" + this.feedbackLatencies +
+                ", dispatchLaneStats=" + this.dispatchLaneStats +
+                '}';
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.christophecvb.touchportal;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executor running its tasks one at a time, in submission order, on a backing Executor
+ */
+class SerialExecutor implements Executor {
+    /**
+     * Tasks waiting for the running one to complete
+     */
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    /**
+     * Executor actually running the tasks
+     */
+    private final Executor executor;
+    /**
+     * Task currently submitted to the backing Executor
+     */
+    private Runnable active;
+
+    /**
+     * Constructor
+     *
+     * @param executor Executor
+     */
+    SerialExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public synchronized void execute(Runnable command) {
+        this.tasks.addLast(() -> {
+            try {
+                command.run();
+            }
+            finally {
+                this.scheduleNext();
+            }
+        });
+        if (this.active == null) {
+            this.scheduleNext();
+        }
+    }
+
+    private synchronized void scheduleNext() {
+        if ((this.active = this.tasks.pollFirst()) != null) {
+            try {
+                this.executor.execute(this.active);
+            }
+            catch (RejectedExecutionException rejectedExecutionException) {
+                // The backing Executor is shut down, nothing will run anymore
+                this.tasks.clear();
+                this.active = null;
+            }
+        }
+    }
+}
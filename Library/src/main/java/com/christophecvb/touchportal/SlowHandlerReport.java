@@ -0,0 +1,144 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.christophecvb.touchportal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Report of an Action or Connector handler that ran past its timeout
+ * <p>
+ * Stack samples of the handler Thread are added while it is still running
+ * </p>
+ */
+public class SlowHandlerReport {
+    /**
+     * Maximum number of kept stack samples
+     */
+    static final int MAX_STACK_SAMPLES = 10;
+
+    private final String handlerId;
+    private final String threadName;
+    private final long timeoutMillis;
+    private final List<StackTraceElement[]> stackSamples = new ArrayList<>();
+    private long elapsedMillis;
+    private boolean interrupted;
+    private boolean completed;
+
+    SlowHandlerReport(String handlerId, String threadName, long timeoutMillis) {
+        this.handlerId = handlerId;
+        this.threadName = threadName;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    synchronized void addStackSample(StackTraceElement[] stackSample, long elapsedMillis) {
+        if (this.stackSamples.size() == SlowHandlerReport.MAX_STACK_SAMPLES) {
+            this.stackSamples.remove(0);
+        }
+        this.stackSamples.add(stackSample);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    synchronized void setInterrupted() {
+        this.interrupted = true;
+    }
+
+    synchronized void setCompleted(long elapsedMillis) {
+        this.completed = true;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Get the Action or Connector ID
+     *
+     * @return String handlerId
+     */
+    public String getHandlerId() {
+        return this.handlerId;
+    }
+
+    /**
+     * Get the name of the Thread running the handler
+     *
+     * @return String threadName
+     */
+    public String getThreadName() {
+        return this.threadName;
+    }
+
+    /**
+     * Get the timeout of the handler
+     *
+     * @return long timeoutMillis
+     */
+    public long getTimeoutMillis() {
+        return this.timeoutMillis;
+    }
+
+    /**
+     * Get the time the handler has been running, total time once completed
+     *
+     * @return long elapsedMillis
+     */
+    public synchronized long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    /**
+     * Get the latest stack samples of the handler Thread, oldest first
+     *
+     * @return List&lt;StackTraceElement[]&gt; stackSamples
+     */
+    public synchronized List<StackTraceElement[]> getStackSamples() {
+        return new ArrayList<>(this.stackSamples);
+    }
+
+    /**
+     * Has the handler Thread been interrupted
+     *
+     * @return boolean interrupted
+     */
+    public synchronized boolean isInterrupted() {
+        return this.interrupted;
+    }
+
+    /**
+     * Has the handler completed
+     *
+     * @return boolean completed
+     */
+    public synchronized boolean isCompleted() {
+        return this.completed;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SlowHandlerReport{" +
+                "handlerId='" + this.handlerId + '\'' +
+                ", threadName='" + this.threadName + '\'' +
+                ", timeoutMillis=" + this.timeoutMillis +
+                ", elapsedMillis=" + this.elapsedMillis +
+                ", stackSamples=" + this.stackSamples.size() +
+                ", interrupted=" + this.interrupted +
+                ", completed=" + this.completed +
+                '}';
+    }
+}
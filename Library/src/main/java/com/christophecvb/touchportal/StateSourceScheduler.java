@@ -0,0 +1,169 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Polls all the {@link TPStateSource}s from a single Thread
+ * <p>
+ * Each source is polled on the multiples of its refresh interval, shifted by a random phase picked once per scheduler.
+ * Sources due within the same coalescing window are polled together so their changes are sent in a single batch.
+ * </p>
+ */
+class StateSourceScheduler {
+    /**
+     * Sources due within this window are polled by the same tick
+     */
+    static final long COALESCE_WINDOW_MILLIS = 50;
+
+    private final List<TPStateSource> stateSources = new ArrayList<>();
+    /**
+     * Polls the due sources and sends their changes
+     */
+    private final Consumer<List<TPStateSource>> poller;
+    /**
+     * Random phase so the ticks of several Plugins do not all happen at the same time
+     */
+    private final long phaseMillis = ThreadLocalRandom.current().nextLong(StateSourceScheduler.COALESCE_WINDOW_MILLIS);
+    private Thread schedulerThread;
+    private boolean running = false;
+
+    /**
+     * Constructor
+     *
+     * @param poller Consumer&lt;List&lt;{@link TPStateSource}&gt;&gt; - Called from the scheduler Thread with the due sources
+     */
+    StateSourceScheduler(Consumer<List<TPStateSource>> poller) {
+        this.poller = poller;
+    }
+
+    /**
+     * Add a source, polled right away when the scheduler is running
+     *
+     * @param tpStateSource {@link TPStateSource}
+     */
+    synchronized void add(TPStateSource tpStateSource) {
+        tpStateSource.nextPollMillis = System.currentTimeMillis();
+        this.stateSources.add(tpStateSource);
+        this.startThread();
+        this.notifyAll();
+    }
+
+    /**
+     * Remove a source
+     *
+     * @param tpStateSource {@link TPStateSource}
+     */
+    synchronized void remove(TPStateSource tpStateSource) {
+        this.stateSources.remove(tpStateSource);
+        this.notifyAll();
+    }
+
+    /**
+     * Start polling the sources, all of them are polled right away
+     */
+    synchronized void start() {
+        this.running = true;
+        long now = System.currentTimeMillis();
+        for (TPStateSource tpStateSource : this.stateSources) {
+            tpStateSource.nextPollMillis = now;
+        }
+        this.startThread();
+        this.notifyAll();
+    }
+
+    /**
+     * Stop polling the sources, they stay registered
+     */
+    synchronized void stop() {
+        this.running = false;
+        this.schedulerThread = null;
+        this.notifyAll();
+    }
+
+    private void startThread() {
+        if (this.running && this.schedulerThread == null && !this.stateSources.isEmpty()) {
+            this.schedulerThread = new Thread(this::schedule, "TPStateSources");
+            this.schedulerThread.setDaemon(true);
+            this.schedulerThread.start();
+        }
+    }
+
+    private void schedule() {
+        Thread currentThread = Thread.currentThread();
+        try {
+            List<TPStateSource> dueStateSources;
+            while ((dueStateSources = this.awaitDueStateSources(currentThread)) != null) {
+                this.poller.accept(dueStateSources);
+            }
+        }
+        catch (InterruptedException ignored) {}
+    }
+
+    /**
+     * Internal - Wait for the next tick then collect the sources due within the coalescing window
+     *
+     * @param currentThread Thread
+     * @return List&lt;{@link TPStateSource}&gt; dueStateSources - null once this Thread is not the scheduler Thread anymore
+     * @throws InterruptedException If interrupted while waiting
+     */
+    private synchronized List<TPStateSource> awaitDueStateSources(Thread currentThread) throws InterruptedException {
+        List<TPStateSource> dueStateSources = null;
+        while (this.schedulerThread == currentThread && dueStateSources == null) {
+            long now = System.currentTimeMillis();
+            long nextTickMillis = Long.MAX_VALUE;
+            for (TPStateSource tpStateSource : this.stateSources) {
+                nextTickMillis = Math.min(nextTickMillis, tpStateSource.nextPollMillis);
+            }
+            if (nextTickMillis == Long.MAX_VALUE) {
+                this.wait();
+            }
+            else if (nextTickMillis > now) {
+                this.wait(nextTickMillis - now);
+            }
+            else {
+                dueStateSources = new ArrayList<>();
+                for (TPStateSource tpStateSource : this.stateSources) {
+                    if (tpStateSource.nextPollMillis <= now + StateSourceScheduler.COALESCE_WINDOW_MILLIS) {
+                        dueStateSources.add(tpStateSource);
+                        tpStateSource.nextPollMillis = this.alignNextPoll(Math.max(now, tpStateSource.nextPollMillis), tpStateSource.getRefreshInterval());
+                    }
+                }
+            }
+        }
+        return dueStateSources;
+    }
+
+    /**
+     * Internal - Get the next multiple of the refresh interval, shifted by the phase, strictly after the last poll
+     *
+     * @param lastPollMillis        long
+     * @param refreshIntervalMillis long
+     * @return long nextPollMillis
+     */
+    private long alignNextPoll(long lastPollMillis, long refreshIntervalMillis) {
+        long earliestMillis = lastPollMillis + 1 - this.phaseMillis;
+        return (earliestMillis + refreshIntervalMillis - 1) / refreshIntervalMillis * refreshIntervalMillis + this.phaseMillis;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Connection opened by a {@link TPTransport}, carrying line delimited JSON messages in both directions
+ */
+public interface TPConnection extends Closeable {
+    /**
+     * Get the stream of the incoming messages
+     *
+     * @return InputStream inputStream
+     * @throws IOException If the connection is closed
+     */
+    InputStream getInputStream() throws IOException;
+
+    /**
+     * Get the stream of the outgoing messages
+     *
+     * @return OutputStream outputStream
+     * @throws IOException If the connection is closed
+     */
+    OutputStream getOutputStream() throws IOException;
+
+    /**
+     * Get the channel of the incoming messages
+     * <p>
+     * Default wraps the InputStream, override it when the connection is backed by a channel
+     * </p>
+     *
+     * @return ReadableByteChannel readableChannel
+     * @throws IOException If the connection is closed
+     */
+    default ReadableByteChannel getReadableChannel() throws IOException {
+        return Channels.newChannel(this.getInputStream());
+    }
+
+    /**
+     * Is the connection still open
+     *
+     * @return boolean isOpen
+     */
+    boolean isOpen();
+}
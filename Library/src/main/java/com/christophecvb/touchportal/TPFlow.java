@@ -0,0 +1,116 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+/**
+ * Reactive Streams interfaces of the incoming messages
+ * <p>
+ * Same contracts and signatures as java.util.concurrent.Flow, which is not available on Java 8.
+ * On Java 9 and later, adapting them to Flow only needs to forward each call.
+ * </p>
+ *
+ * @see TouchPortalPlugin#getPublisher(Class)
+ */
+public final class TPFlow {
+    private TPFlow() {}
+
+    /**
+     * What happens to the messages received while a subscriber is not requesting and its buffer is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * Keep all the messages, the buffer grows without limit
+         */
+        BUFFER,
+        /**
+         * Drop the oldest buffered message to make room for the new one
+         */
+        DROP_OLDEST,
+        /**
+         * Drop the new message
+         */
+        DROP_LATEST
+    }
+
+    /**
+     * Producer of messages received by {@link Subscriber}s
+     *
+     * @param <T> Message Type
+     */
+    @FunctionalInterface
+    public interface Publisher<T> {
+        /**
+         * Add a Subscriber, its onSubscribe method is called with a new {@link Subscription}
+         *
+         * @param subscriber {@link Subscriber}
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * Receiver of messages, only called for as many messages as requested
+     *
+     * @param <T> Message Type
+     */
+    public interface Subscriber<T> {
+        /**
+         * Called once before any other method
+         *
+         * @param subscription {@link Subscription}
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Called with the next message
+         *
+         * @param item T
+         */
+        void onNext(T item);
+
+        /**
+         * Called once when the subscription fails, no other method is called afterwards
+         *
+         * @param throwable Throwable
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * Called once when no more messages will be sent, no other method is called afterwards
+         */
+        void onComplete();
+    }
+
+    /**
+     * Link between a {@link Publisher} and a {@link Subscriber}
+     */
+    public interface Subscription {
+        /**
+         * Request more messages
+         *
+         * @param n long - Must be positive, Long.MAX_VALUE for unbounded
+         */
+        void request(long n);
+
+        /**
+         * Stop receiving messages, pending ones are dropped
+         */
+        void cancel();
+    }
+}
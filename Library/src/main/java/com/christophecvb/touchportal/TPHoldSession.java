@@ -0,0 +1,198 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.christophecvb.touchportal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hold of an Action with hold functionality, from its Hold Down until its Hold Up
+ * <p>
+ * Add a parameter (or a field in a {@link TPAction}) of this type to receive it instead of polling {@link TouchPortalPlugin#isActionBeingHeld(String)}.
+ * A press, or the Hold Up itself, receives an already released session.
+ * </p>
+ */
+public class TPHoldSession {
+    /**
+     * Logger
+     */
+    private final static Logger LOGGER = Logger.getLogger(TouchPortalPlugin.class.getName());
+
+    private final String actionId;
+    private final CountDownLatch releaseLatch = new CountDownLatch(1);
+    private final CompletableFuture<Void> releaseFuture = new CompletableFuture<>();
+    private final List<Runnable> releaseHooks = new ArrayList<>();
+    private Thread interruptibleThread;
+    private boolean released = false;
+
+    /**
+     * Constructor
+     *
+     * @param actionId String
+     */
+    TPHoldSession(String actionId) {
+        this.actionId = actionId;
+    }
+
+    /**
+     * Create an already released session
+     *
+     * @param actionId String
+     * @return TPHoldSession releasedHoldSession
+     */
+    static TPHoldSession released(String actionId) {
+        TPHoldSession tpHoldSession = new TPHoldSession(actionId);
+        tpHoldSession.release();
+        return tpHoldSession;
+    }
+
+    /**
+     * Get the held Action ID
+     *
+     * @return String actionId
+     */
+    public String getActionId() {
+        return this.actionId;
+    }
+
+    /**
+     * Is the Action still held
+     *
+     * @return boolean isHeld
+     */
+    public synchronized boolean isHeld() {
+        return !this.released;
+    }
+
+    /**
+     * Wait until the Action is released
+     *
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public void awaitRelease() throws InterruptedException {
+        this.releaseLatch.await();
+    }
+
+    /**
+     * Wait until the Action is released or the timeout elapses
+     *
+     * @param timeout long
+     * @param unit    TimeUnit
+     * @return boolean released
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public boolean awaitRelease(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.releaseLatch.await(timeout, unit);
+    }
+
+    /**
+     * Get a future completing when the Action is released
+     *
+     * @return CompletableFuture&lt;Void&gt; releaseFuture
+     */
+    public CompletableFuture<Void> getReleaseFuture() {
+        return this.releaseFuture;
+    }
+
+    /**
+     * Register a hook called when the Action is released, right away if it already is
+     * <p>
+     * Hooks are called on the Thread reading the messages and must not block
+     * </p>
+     *
+     * @param releaseHook Runnable
+     */
+    public void onRelease(Runnable releaseHook) {
+        boolean runNow;
+        synchronized (this) {
+            runNow = this.released;
+            if (!runNow) {
+                this.releaseHooks.add(releaseHook);
+            }
+        }
+        if (runNow) {
+            TPHoldSession.runReleaseHook(releaseHook);
+        }
+    }
+
+    /**
+     * Interrupt the current Thread when the Action is released, as long as the handler is running
+     */
+    public void interruptOnRelease() {
+        boolean interruptNow;
+        synchronized (this) {
+            interruptNow = this.released;
+            if (!interruptNow) {
+                this.interruptibleThread = Thread.currentThread();
+            }
+        }
+        if (interruptNow) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Release the Action: interrupt the registered Thread, call the hooks and complete the waits
+     */
+    void release() {
+        List<Runnable> releaseHooks;
+        synchronized (this) {
+            if (this.released) {
+                return;
+            }
+            this.released = true;
+            releaseHooks = new ArrayList<>(this.releaseHooks);
+            this.releaseHooks.clear();
+            if (this.interruptibleThread != null) {
+                this.interruptibleThread.interrupt();
+                this.interruptibleThread = null;
+            }
+        }
+        for (Runnable releaseHook : releaseHooks) {
+            TPHoldSession.runReleaseHook(releaseHook);
+        }
+        this.releaseLatch.countDown();
+        this.releaseFuture.complete(null);
+    }
+
+    /**
+     * Called once a handler completed so its Thread is not interrupted anymore
+     */
+    synchronized void detach() {
+        if (this.interruptibleThread == Thread.currentThread()) {
+            this.interruptibleThread = null;
+        }
+    }
+
+    private static void runReleaseHook(Runnable releaseHook) {
+        try {
+            releaseHook.run();
+        }
+        catch (Exception e) {
+            TPHoldSession.LOGGER.log(Level.SEVERE, "Release hook failed", e);
+        }
+    }
+}
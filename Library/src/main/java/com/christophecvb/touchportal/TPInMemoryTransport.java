@@ -0,0 +1,227 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TPTransport} connecting the Plugin to an in-memory peer, without any Socket
+ * <p>
+ * Each connection of the Plugin creates a pair of pipes, the peer end is retrieved with {@link #accept()}.
+ * Closing either end closes the connection for both, like a Socket. Lets tests and benchmarks drive the whole
+ * decode, dispatch and encode path at memory speed and in parallel.
+ * </p>
+ */
+public class TPInMemoryTransport implements TPTransport {
+    /**
+     * Capacity of each pipe, writers wait when it is full
+     */
+    private static final int PIPE_CAPACITY = 64 * 1024;
+
+    private final BlockingQueue<TPConnection> peerConnections = new LinkedBlockingQueue<>();
+
+    @Override
+    public TPConnection connect() {
+        Pipe toPeer = new Pipe(TPInMemoryTransport.PIPE_CAPACITY);
+        Pipe toPlugin = new Pipe(TPInMemoryTransport.PIPE_CAPACITY);
+        this.peerConnections.add(new PipeConnection(toPeer, toPlugin));
+        return new PipeConnection(toPlugin, toPeer);
+    }
+
+    /**
+     * Wait for the Plugin to connect and get the peer end of the connection
+     *
+     * @return {@link TPConnection} peerConnection
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public TPConnection accept() throws InterruptedException {
+        return this.peerConnections.take();
+    }
+
+    /**
+     * Wait for the Plugin to connect and get the peer end of the connection
+     *
+     * @param timeout long
+     * @param unit    TimeUnit
+     * @return {@link TPConnection} peerConnection - null if the Plugin did not connect in time
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public TPConnection accept(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.peerConnections.poll(timeout, unit);
+    }
+
+    /**
+     * End of a connection, reading from one pipe and writing to the other
+     */
+    private static class PipeConnection implements TPConnection {
+        private final Pipe incomingPipe;
+        private final Pipe outgoingPipe;
+        private final InputStream inputStream;
+        private final OutputStream outputStream;
+
+        private PipeConnection(Pipe incomingPipe, Pipe outgoingPipe) {
+            this.incomingPipe = incomingPipe;
+            this.outgoingPipe = outgoingPipe;
+            this.inputStream = new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    byte[] singleByte = new byte[1];
+                    return this.read(singleByte, 0, 1) < 0 ? -1 : singleByte[0] & 0xFF;
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) throws IOException {
+                    return incomingPipe.read(bytes, offset, length);
+                }
+
+                @Override
+                public int available() {
+                    return incomingPipe.available();
+                }
+
+                @Override
+                public void close() {
+                    PipeConnection.this.close();
+                }
+            };
+            this.outputStream = new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    this.write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    outgoingPipe.write(bytes, offset, length);
+                }
+
+                @Override
+                public void close() {
+                    PipeConnection.this.close();
+                }
+            };
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return this.inputStream;
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return this.outputStream;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return this.incomingPipe.isOpen() && this.outgoingPipe.isOpen();
+        }
+
+        @Override
+        public void close() {
+            this.incomingPipe.close();
+            this.outgoingPipe.close();
+        }
+    }
+
+    /**
+     * Bounded byte ring buffer between a writer and a reader
+     */
+    private static class Pipe {
+        private final byte[] buffer;
+        private int readIndex = 0;
+        private int size = 0;
+        private boolean open = true;
+
+        private Pipe(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        private synchronized int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            try {
+                while (this.size == 0 && this.open) {
+                    this.wait();
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading");
+            }
+            int readCount = -1;
+            if (this.size > 0) {
+                readCount = Math.min(length, Math.min(this.size, this.buffer.length - this.readIndex));
+                System.arraycopy(this.buffer, this.readIndex, bytes, offset, readCount);
+                this.readIndex = (this.readIndex + readCount) % this.buffer.length;
+                this.size -= readCount;
+                this.notifyAll();
+            }
+            return readCount;
+        }
+
+        private synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+            try {
+                while (length > 0) {
+                    while (this.size == this.buffer.length && this.open) {
+                        this.wait();
+                    }
+                    if (!this.open) {
+                        throw new IOException("Pipe closed");
+                    }
+                    int writeIndex = (this.readIndex + this.size) % this.buffer.length;
+                    int writeCount = Math.min(length, Math.min(this.buffer.length - this.size, this.buffer.length - writeIndex));
+                    System.arraycopy(bytes, offset, this.buffer, writeIndex, writeCount);
+                    this.size += writeCount;
+                    offset += writeCount;
+                    length -= writeCount;
+                    this.notifyAll();
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while writing");
+            }
+        }
+
+        private synchronized int available() {
+            return this.size;
+        }
+
+        private synchronized boolean isOpen() {
+            return this.open;
+        }
+
+        /**
+         * Close the pipe, the pending bytes can still be read
+         */
+        private synchronized void close() {
+            this.open = false;
+            this.notifyAll();
+        }
+    }
+}
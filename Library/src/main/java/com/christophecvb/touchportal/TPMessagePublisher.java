@@ -0,0 +1,221 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Publishes one type of incoming messages to its subscribers, according to their demand
+ * <p>
+ * Each subscription buffers the messages received while its subscriber is not requesting, up to the buffer size,
+ * then applies the {@link TPFlow.OverflowPolicy}. Messages are delivered from the given Executor, one at a time per subscription.
+ * </p>
+ *
+ * @param <T> Message Type
+ */
+class TPMessagePublisher<T> implements TPFlow.Publisher<T> {
+    /**
+     * Logger
+     */
+    private final static Logger LOGGER = Logger.getLogger(TouchPortalPlugin.class.getName());
+
+    private final Executor executor;
+    private final Set<MessageSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private volatile TPFlow.OverflowPolicy overflowPolicy;
+    private volatile int bufferSize;
+
+    /**
+     * Constructor
+     *
+     * @param executor       Executor - Delivers the messages
+     * @param overflowPolicy {@link TPFlow.OverflowPolicy}
+     * @param bufferSize     int
+     */
+    TPMessagePublisher(Executor executor, TPFlow.OverflowPolicy overflowPolicy, int bufferSize) {
+        this.executor = executor;
+        this.setOverflowPolicy(overflowPolicy, bufferSize);
+    }
+
+    /**
+     * Set the overflow policy of the next subscriptions
+     *
+     * @param overflowPolicy {@link TPFlow.OverflowPolicy}
+     * @param bufferSize     int
+     */
+    void setOverflowPolicy(TPFlow.OverflowPolicy overflowPolicy, int bufferSize) {
+        this.overflowPolicy = overflowPolicy;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Check if there is at least one subscriber
+     *
+     * @return boolean hasSubscribers
+     */
+    boolean hasSubscribers() {
+        return !this.subscriptions.isEmpty();
+    }
+
+    /**
+     * Publish a message to all the subscribers
+     *
+     * @param message T
+     */
+    void publish(T message) {
+        for (MessageSubscription messageSubscription : this.subscriptions) {
+            messageSubscription.offer(message);
+        }
+    }
+
+    @Override
+    public void subscribe(TPFlow.Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber is null");
+        }
+        MessageSubscription messageSubscription = new MessageSubscription(subscriber, this.overflowPolicy, this.bufferSize);
+        this.subscriptions.add(messageSubscription);
+        try {
+            subscriber.onSubscribe(messageSubscription);
+        }
+        catch (Exception e) {
+            TPMessagePublisher.LOGGER.log(Level.SEVERE, "Subscriber onSubscribe failed", e);
+            messageSubscription.cancel();
+        }
+    }
+
+    /**
+     * Subscription of a single subscriber
+     */
+    private class MessageSubscription implements TPFlow.Subscription {
+        private final TPFlow.Subscriber<? super T> subscriber;
+        private final TPFlow.OverflowPolicy overflowPolicy;
+        private final int bufferSize;
+        private final ArrayDeque<T> buffer = new ArrayDeque<>();
+        private final AtomicLong requested = new AtomicLong();
+        /**
+         * Number of drain requests, the drain loop only runs on one Thread at a time
+         */
+        private final AtomicInteger drainRequests = new AtomicInteger();
+        private volatile boolean cancelled = false;
+        private Throwable error;
+
+        private MessageSubscription(TPFlow.Subscriber<? super T> subscriber, TPFlow.OverflowPolicy overflowPolicy, int bufferSize) {
+            this.subscriber = subscriber;
+            this.overflowPolicy = overflowPolicy;
+            this.bufferSize = bufferSize;
+        }
+
+        private void offer(T message) {
+            synchronized (this.buffer) {
+                if (this.cancelled) {
+                    return;
+                }
+                if (this.overflowPolicy != TPFlow.OverflowPolicy.BUFFER && this.buffer.size() >= this.bufferSize) {
+                    if (this.overflowPolicy == TPFlow.OverflowPolicy.DROP_LATEST) {
+                        return;
+                    }
+                    this.buffer.pollFirst();
+                }
+                this.buffer.addLast(message);
+            }
+            this.drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                synchronized (this.buffer) {
+                    this.error = new IllegalArgumentException("Requested " + n + " messages, must be positive");
+                }
+            }
+            else {
+                this.requested.getAndUpdate(requested -> requested + n < 0 ? Long.MAX_VALUE : requested + n);
+            }
+            this.drain();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            TPMessagePublisher.this.subscriptions.remove(this);
+            synchronized (this.buffer) {
+                this.buffer.clear();
+            }
+        }
+
+        private void drain() {
+            if (this.drainRequests.getAndIncrement() == 0) {
+                try {
+                    TPMessagePublisher.this.executor.execute(this::drainLoop);
+                }
+                catch (RejectedExecutionException e) {
+                    this.drainRequests.set(0);
+                }
+            }
+        }
+
+        private void drainLoop() {
+            int missedDrainRequests = 1;
+            while (true) {
+                while (!this.cancelled) {
+                    T message = null;
+                    Throwable error;
+                    synchronized (this.buffer) {
+                        error = this.error;
+                        if (error == null && this.requested.get() > 0) {
+                            message = this.buffer.pollFirst();
+                        }
+                    }
+                    if (error != null) {
+                        this.cancel();
+                        this.subscriber.onError(error);
+                    }
+                    else if (message != null) {
+                        if (this.requested.get() != Long.MAX_VALUE) {
+                            this.requested.decrementAndGet();
+                        }
+                        try {
+                            this.subscriber.onNext(message);
+                        }
+                        catch (Exception e) {
+                            TPMessagePublisher.LOGGER.log(Level.SEVERE, "Subscriber onNext failed, cancelling its subscription", e);
+                            this.cancel();
+                        }
+                    }
+                    else {
+                        break;
+                    }
+                }
+                missedDrainRequests = this.drainRequests.addAndGet(-missedDrainRequests);
+                if (missedDrainRequests == 0) {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * {@link TPTransport} over a TCP SocketChannel, the one used by the Touch Portal Plugin System
+ */
+public class TPSocketTransport implements TPTransport {
+    private final String host;
+    private final int port;
+
+    /**
+     * Constructor
+     *
+     * @param host String
+     * @param port int
+     */
+    public TPSocketTransport(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    public TPConnection connect() throws IOException {
+        SocketChannel socketChannel = SocketChannel.open(new InetSocketAddress(this.host, this.port));
+        // Detect a dead peer at the TCP level and do not delay the small messages
+        socketChannel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+        socketChannel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        return new SocketChannelConnection(socketChannel);
+    }
+
+    /**
+     * {@link TPConnection} over a blocking SocketChannel
+     * <p>
+     * The streams call the channel directly instead of going through {@link java.nio.channels.Channels},
+     * whose streams share the blocking lock of the channel and would block a write while a read is pending
+     * </p>
+     */
+    private static class SocketChannelConnection implements TPConnection {
+        private final SocketChannel socketChannel;
+        private final InputStream inputStream;
+        private final OutputStream outputStream;
+
+        private SocketChannelConnection(SocketChannel socketChannel) {
+            this.socketChannel = socketChannel;
+            this.inputStream = new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    byte[] singleByte = new byte[1];
+                    int readCount = this.read(singleByte, 0, 1);
+                    return readCount < 0 ? -1 : singleByte[0] & 0xFF;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int readCount = 0;
+                    if (length > 0) {
+                        readCount = SocketChannelConnection.this.socketChannel.read(ByteBuffer.wrap(buffer, offset, length));
+                    }
+                    return readCount;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    SocketChannelConnection.this.socketChannel.close();
+                }
+            };
+            this.outputStream = new OutputStream() {
+                @Override
+                public void write(int singleByte) throws IOException {
+                    this.write(new byte[]{(byte) singleByte}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] buffer, int offset, int length) throws IOException {
+                    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, offset, length);
+                    while (byteBuffer.hasRemaining()) {
+                        SocketChannelConnection.this.socketChannel.write(byteBuffer);
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    SocketChannelConnection.this.socketChannel.close();
+                }
+            };
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return this.inputStream;
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return this.outputStream;
+        }
+
+        @Override
+        public ReadableByteChannel getReadableChannel() {
+            return this.socketChannel;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return this.socketChannel.isOpen() && this.socketChannel.isConnected();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.socketChannel.close();
+        }
+    }
+}
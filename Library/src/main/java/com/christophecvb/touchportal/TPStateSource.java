@@ -0,0 +1,111 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.util.function.Supplier;
+
+/**
+ * State polled periodically, its value is only sent when it changed
+ * <p>
+ * Registered with {@link TouchPortalPlugin#registerStateSource(String, Supplier, long)}, all the sources are polled by one shared scheduler.
+ * </p>
+ */
+public class TPStateSource {
+    private final String stateId;
+    private final Supplier<?> supplier;
+    private final long refreshIntervalMillis;
+    private final TouchPortalPlugin.SendPriority sendPriority;
+    private final StateSourceScheduler stateSourceScheduler;
+    private volatile boolean cancelled = false;
+    /**
+     * Next poll time, only accessed under the scheduler lock
+     */
+    long nextPollMillis;
+
+    /**
+     * Constructor
+     *
+     * @param stateId               String
+     * @param supplier              Supplier&lt;?&gt;
+     * @param refreshIntervalMillis long
+     * @param sendPriority          {@link TouchPortalPlugin.SendPriority}
+     * @param stateSourceScheduler  {@link StateSourceScheduler}
+     */
+    TPStateSource(String stateId, Supplier<?> supplier, long refreshIntervalMillis, TouchPortalPlugin.SendPriority sendPriority, StateSourceScheduler stateSourceScheduler) {
+        this.stateId = stateId;
+        this.supplier = supplier;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.sendPriority = sendPriority;
+        this.stateSourceScheduler = stateSourceScheduler;
+    }
+
+    /**
+     * Get the State ID
+     *
+     * @return String stateId
+     */
+    public String getStateId() {
+        return this.stateId;
+    }
+
+    /**
+     * Get the refresh interval
+     *
+     * @return long refreshIntervalMillis
+     */
+    public long getRefreshInterval() {
+        return this.refreshIntervalMillis;
+    }
+
+    /**
+     * Get the priority of the State updates
+     *
+     * @return {@link TouchPortalPlugin.SendPriority} sendPriority
+     */
+    public TouchPortalPlugin.SendPriority getSendPriority() {
+        return this.sendPriority;
+    }
+
+    /**
+     * Is the source cancelled
+     *
+     * @return boolean isCancelled
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Stop polling the source
+     */
+    public void cancel() {
+        this.cancelled = true;
+        this.stateSourceScheduler.remove(this);
+    }
+
+    /**
+     * Internal - Poll the current value
+     *
+     * @return Object value
+     */
+    Object poll() {
+        return this.supplier.get();
+    }
+}
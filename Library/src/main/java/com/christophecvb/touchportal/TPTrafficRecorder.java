@@ -0,0 +1,212 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records the lines received from and sent to Touch Portal to a compact append-only file
+ * <p>
+ * The file starts with the {@link #MAGIC} bytes and the {@link #FORMAT_VERSION}, then holds one record per line:
+ * the direction byte, the nanoseconds elapsed since the previous record and the length of the line as unsigned variable length integers,
+ * then the UTF-8 bytes of the line without its delimiter. Timestamps are taken from {@link System#nanoTime()} when the line is recorded,
+ * so records are always in increasing time order. A record cut short by a crash is ignored when reading.
+ * Read a recording with {@link TPTrafficRecording}.
+ * </p>
+ *
+ * @see TouchPortalPlugin#startTrafficRecording(Path)
+ */
+public class TPTrafficRecorder implements Closeable {
+    /**
+     * Logger
+     */
+    private final static Logger LOGGER = Logger.getLogger(TouchPortalPlugin.class.getName());
+    /**
+     * First bytes of a recording
+     */
+    static final byte[] MAGIC = {'T', 'P', 'T', 'R'};
+    /**
+     * Version of the recording format
+     */
+    static final int FORMAT_VERSION = 1;
+    /**
+     * Direction of a line received from Touch Portal
+     */
+    static final int DIRECTION_INBOUND = 0;
+    /**
+     * Direction of a line sent to Touch Portal
+     */
+    static final int DIRECTION_OUTBOUND = 1;
+    /**
+     * Size of the file output buffer
+     */
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final OutputStream outputStream;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    /**
+     * Bytes of the last encoded outbound line, reused
+     */
+    private ByteBuffer encodedLine = ByteBuffer.allocate(1024);
+    private long lastRecordNanos;
+    private long recordedCount = 0;
+    private boolean closed = false;
+
+    private TPTrafficRecorder(Path path, OutputStream outputStream) {
+        this.path = path;
+        this.outputStream = outputStream;
+        this.lastRecordNanos = System.nanoTime();
+    }
+
+    /**
+     * Create a recording, replacing the file if it exists
+     *
+     * @param path Path
+     * @return {@link TPTrafficRecorder} trafficRecorder
+     * @throws IOException If the file could not be created
+     */
+    public static TPTrafficRecorder create(Path path) throws IOException {
+        // Not an interruptible channel, the recording must survive the interrupted Threads of a closing Plugin
+        OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(path.toFile()), TPTrafficRecorder.OUTPUT_BUFFER_SIZE);
+        outputStream.write(TPTrafficRecorder.MAGIC);
+        outputStream.write(TPTrafficRecorder.FORMAT_VERSION);
+        return new TPTrafficRecorder(path, outputStream);
+    }
+
+    /**
+     * Get the recording file
+     *
+     * @return Path path
+     */
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Get the number of recorded lines
+     *
+     * @return long recordedCount
+     */
+    public synchronized long getRecordedCount() {
+        return this.recordedCount;
+    }
+
+    /**
+     * Internal - Record a received line
+     *
+     * @param line   byte[] - UTF-8 bytes of the line
+     * @param length int
+     */
+    synchronized void recordInbound(byte[] line, int length) {
+        this.record(TPTrafficRecorder.DIRECTION_INBOUND, line, length);
+    }
+
+    /**
+     * Internal - Record a sent line
+     *
+     * @param line String
+     */
+    synchronized void recordOutbound(String line) {
+        if (!this.closed) {
+            int maxLength = (int) Math.ceil(line.length() * this.encoder.maxBytesPerChar());
+            if (this.encodedLine.capacity() < maxLength) {
+                this.encodedLine = ByteBuffer.allocate(Math.max(this.encodedLine.capacity() * 2, maxLength));
+            }
+            this.encodedLine.clear();
+            this.encoder.reset();
+            this.encoder.encode(CharBuffer.wrap(line), this.encodedLine, true);
+            this.encoder.flush(this.encodedLine);
+            this.record(TPTrafficRecorder.DIRECTION_OUTBOUND, this.encodedLine.array(), this.encodedLine.position());
+        }
+    }
+
+    private void record(int direction, byte[] line, int length) {
+        if (!this.closed) {
+            long nowNanos = System.nanoTime();
+            try {
+                this.outputStream.write(direction);
+                TPTrafficRecorder.writeVarLong(this.outputStream, Math.max(0, nowNanos - this.lastRecordNanos));
+                TPTrafficRecorder.writeVarLong(this.outputStream, length);
+                this.outputStream.write(line, 0, length);
+                this.lastRecordNanos = nowNanos;
+                this.recordedCount++;
+            }
+            catch (IOException ioException) {
+                TPTrafficRecorder.LOGGER.log(Level.WARNING, "Traffic recording to " + this.path + " failed, recording stopped", ioException);
+                this.close();
+            }
+        }
+    }
+
+    /**
+     * Internal - Write an unsigned variable length integer, 7 bits per byte, lowest bits first
+     *
+     * @param outputStream OutputStream
+     * @param value        long - Positive
+     * @throws IOException If writing failed
+     */
+    static void writeVarLong(OutputStream outputStream, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            outputStream.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        outputStream.write((int) value);
+    }
+
+    /**
+     * Write the buffered records to the file
+     */
+    public synchronized void flush() {
+        if (!this.closed) {
+            try {
+                this.outputStream.flush();
+            }
+            catch (IOException ioException) {
+                TPTrafficRecorder.LOGGER.log(Level.WARNING, "Traffic recording to " + this.path + " failed, recording stopped", ioException);
+                this.close();
+            }
+        }
+    }
+
+    /**
+     * Write the buffered records and close the file, further lines are not recorded
+     */
+    @Override
+    public synchronized void close() {
+        if (!this.closed) {
+            this.closed = true;
+            try {
+                this.outputStream.close();
+            }
+            catch (IOException ioException) {
+                TPTrafficRecorder.LOGGER.log(Level.WARNING, "Traffic recording to " + this.path + " could not be closed", ioException);
+            }
+        }
+    }
+}
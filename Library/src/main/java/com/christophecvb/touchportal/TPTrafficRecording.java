@@ -0,0 +1,166 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Reads a recording written by a {@link TPTrafficRecorder}, one line at a time
+ * <pre>
+ * try (TPTrafficRecording trafficRecording = TPTrafficRecording.open(path)) {
+ *     TPTrafficRecording.Record record;
+ *     while ((record = trafficRecording.next()) != null) {
+ *         System.out.println(record.getNanos() + (record.isInbound() ? " &lt; " : " &gt; ") + record.getLine());
+ *     }
+ * }
+ * </pre>
+ */
+public class TPTrafficRecording implements Closeable {
+    private final DataInputStream inputStream;
+    private long nanos = 0;
+
+    private TPTrafficRecording(DataInputStream inputStream) {
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * Open a recording
+     *
+     * @param path Path
+     * @return {@link TPTrafficRecording} trafficRecording
+     * @throws IOException If the file could not be read or is not a recording
+     */
+    public static TPTrafficRecording open(Path path) throws IOException {
+        DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(path.toFile())));
+        try {
+            byte[] magic = new byte[TPTrafficRecorder.MAGIC.length];
+            inputStream.readFully(magic);
+            if (!Arrays.equals(magic, TPTrafficRecorder.MAGIC)) {
+                throw new IOException(path + " is not a traffic recording");
+            }
+            int formatVersion = inputStream.readUnsignedByte();
+            if (formatVersion != TPTrafficRecorder.FORMAT_VERSION) {
+                throw new IOException(path + " has the unsupported format version " + formatVersion);
+            }
+        }
+        catch (IOException ioException) {
+            inputStream.close();
+            throw ioException;
+        }
+        return new TPTrafficRecording(inputStream);
+    }
+
+    /**
+     * Read the next record
+     *
+     * @return {@link Record} record - null at the end of the recording, or at a record cut short
+     * @throws IOException If reading failed
+     */
+    public Record next() throws IOException {
+        Record record = null;
+        int direction = this.inputStream.read();
+        if (direction >= 0) {
+            try {
+                long deltaNanos = TPTrafficRecording.readVarLong(this.inputStream);
+                int length = (int) TPTrafficRecording.readVarLong(this.inputStream);
+                byte[] line = new byte[length];
+                this.inputStream.readFully(line);
+                this.nanos += deltaNanos;
+                record = new Record(direction == TPTrafficRecorder.DIRECTION_INBOUND, this.nanos, new String(line, StandardCharsets.UTF_8));
+            }
+            catch (EOFException ignored) {}
+        }
+        return record;
+    }
+
+    private static long readVarLong(DataInputStream inputStream) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int readByte;
+        do {
+            if (shift > 63) {
+                throw new IOException("Malformed traffic recording");
+            }
+            readByte = inputStream.readUnsignedByte();
+            value |= (long) (readByte & 0x7F) << shift;
+            shift += 7;
+        } while ((readByte & 0x80) != 0);
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.inputStream.close();
+    }
+
+    /**
+     * Line received from or sent to Touch Portal
+     */
+    public static class Record {
+        private final boolean inbound;
+        private final long nanos;
+        private final String line;
+
+        private Record(boolean inbound, long nanos, String line) {
+            this.inbound = inbound;
+            this.nanos = nanos;
+            this.line = line;
+        }
+
+        /**
+         * Was the line received from Touch Portal
+         *
+         * @return boolean inbound - false if it was sent to Touch Portal
+         */
+        public boolean isInbound() {
+            return this.inbound;
+        }
+
+        /**
+         * Get when the line was recorded
+         *
+         * @return long nanos - Elapsed since the recording started
+         */
+        public long getNanos() {
+            return this.nanos;
+        }
+
+        /**
+         * Get the line
+         *
+         * @return String line - Without its delimiter
+         */
+        public String getLine() {
+            return this.line;
+        }
+
+        @Override
+        public String toString() {
+            return "Record{" +
+                    "inbound=" + this.inbound +
+                    ", nanos=" + this.nanos +
+                    ", line='" + this.line + '\'' +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal;
+
+import java.io.IOException;
+
+/**
+ * Opens the connections to the Touch Portal Plugin System
+ * <p>
+ * {@link TPSocketTransport} is used by default, {@link TPInMemoryTransport} drives a Plugin without any Socket, for tests and benchmarks.
+ * </p>
+ *
+ * @see TouchPortalPlugin#setTransport(TPTransport)
+ */
+public interface TPTransport {
+    /**
+     * Open a new connection
+     *
+     * @return {@link TPConnection} connection
+     * @throws IOException If the connection could not be opened
+     */
+    TPConnection connect() throws IOException;
+}
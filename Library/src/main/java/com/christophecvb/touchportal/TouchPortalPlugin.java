@@ -28,22 +28,39 @@ import com.google.gson.*;
 import okhttp3.*;
 
 import javax.imageio.ImageIO;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import java.awt.image.BufferedImage;
 import java.io.*;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.*;
-import java.net.InetAddress;
-import java.net.Socket;
 import java.net.SocketException;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.logging.*;
+import java.util.stream.Collectors;
 
 /**
  * This is the class you need to extend in order to create a Touch Portal Plugin
+ * <p>
+ * On runtimes with JDK Flight Recorder, the Plugin emits the <code>com.christophecvb.touchportal.MessageReceived</code>,
+ * <code>HandlerDispatched</code> and <code>MessageSent</code> events under the Touch Portal category.
+ * They cost nothing until a recording enables them, for example with <code>jcmd &lt;pid&gt; JFR.start</code>
+ * </p>
  *
  * @see <a href="https://www.touch-portal.com/api/index.php">Documentation: Touch Portal API</a>
  */
@@ -64,6 +81,14 @@ public abstract class TouchPortalPlugin {
      * Socket Server Port used by the Touch Portal Plugin System
      */
     private static final int SOCKET_PORT = 12136;
+    /**
+     * Default maximum size in bytes of a received message
+     */
+    private static final int DEFAULT_MAX_MESSAGE_SIZE = 1024 * 1024;
+    /**
+     * Number of handlers in the handler accounting log
+     */
+    private static final int HANDLER_ACCOUNTING_LOG_SIZE = 10;
     /**
      * Plugin Version Property Key
      */
@@ -71,7 +96,7 @@ public abstract class TouchPortalPlugin {
 
     static {
         LOGGER.setUseParentHandlers(false);
-        LOGGER.addHandler(new CustomConsoleHandler());
+        LOGGER.addHandler(new AsyncConsoleHandler());
     }
 
     /**
@@ -86,17 +111,25 @@ public abstract class TouchPortalPlugin {
      */
     private String touchPortalPluginFolder;
     /**
-     * Touch Portal Socket Client connection
+     * Transport opening the connections to the Touch Portal Plugin System
      */
-    private Socket touchPortalSocket;
+    private TPTransport transport = new TPSocketTransport(TouchPortalPlugin.SOCKET_IP, TouchPortalPlugin.SOCKET_PORT);
+    /**
+     * Touch Portal connection
+     */
+    private TPConnection touchPortalConnection;
     /**
      * Writer used to send messages to the Touch Portal Plugin System
      */
-    private PrintWriter printWriter;
+    private MessageWriter messageWriter;
+    /**
+     * Reader splitting the messages received from the Touch Portal Plugin System
+     */
+    private MessageFrameReader frameReader;
     /**
-     * Buffer used to read messages from Touch Portal Plugin System
+     * Maximum size in bytes of a received message, larger ones are skipped
      */
-    private BufferedReader bufferedReader;
+    private int maxMessageSize = TouchPortalPlugin.DEFAULT_MAX_MESSAGE_SIZE;
     /**
      * Properties
      */
@@ -109,6 +142,38 @@ public abstract class TouchPortalPlugin {
      * Listener used for the callbacks
      */
     private TouchPortalPluginListener touchPortalPluginListener;
+    /**
+     * Registered {@link OnDisconnectedListener}s
+     */
+    private final List<OnDisconnectedListener> disconnectedListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Registered {@link OnReceivedListener}s
+     */
+    private final List<OnReceivedListener> receivedListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Registered {@link OnInfoListener}s
+     */
+    private final List<OnInfoListener> infoListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Registered {@link OnListChangedListener}s
+     */
+    private final List<OnListChangedListener> listChangedListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Registered {@link OnBroadcastListener}s
+     */
+    private final List<OnBroadcastListener> broadcastListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Registered {@link OnSettingsListener}s
+     */
+    private final List<OnSettingsListener> settingsListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Registered {@link OnNotificationOptionClickedListener}s
+     */
+    private final List<OnNotificationOptionClickedListener> notificationOptionClickedListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Reconnected Listeners
+     */
+    private final List<OnReconnectedListener> reconnectedListeners = new CopyOnWriteArrayList<>();
     /**
      * Thread that continuously reads messages coming from Touch Portal Plugin System
      */
@@ -129,18 +194,154 @@ public abstract class TouchPortalPlugin {
      * Last sent Choices HashMap (Key, Value)
      */
     private final HashMap<String, String[]> currentChoices = new HashMap<>();
+    /**
+     * Last sent Specific Choices HashMap (ChoiceId, (InstanceId, Value))
+     */
+    private final HashMap<String, HashMap<String, String[]>> currentSpecificChoices = new HashMap<>();
+    /**
+     * Action Methods of the Plugin HashMap (ActionId, Method), resolved once so that a received Action does not scan the Plugin class
+     */
+    private final HashMap<String, Method> actionMethods = new HashMap<>();
+    /**
+     * Connector Methods of the Plugin HashMap (ConnectorId, Method)
+     */
+    private final HashMap<String, Method> connectorMethods = new HashMap<>();
     /**
      * Current Held Actions States
      */
     private final HashMap<String, Boolean> heldActionsStates = new HashMap<>();
+    /**
+     * Current Hold Sessions of the held Actions
+     */
+    private final ConcurrentHashMap<String, TPHoldSession> holdSessions = new ConcurrentHashMap<>();
+    /**
+     * Timer repeating the held Actions having a repeat interval
+     */
+    private final HashedWheelTimer repeatTimer = new HashedWheelTimer("TPRepeatTimer", 10, 512);
+    /**
+     * Scheduler polling the registered {@link TPStateSource}s
+     */
+    private final StateSourceScheduler stateSourceScheduler = new StateSourceScheduler(this::pollStateSources);
+    /**
+     * A batch of {@link TPStateSource}s is being polled
+     */
+    private final AtomicBoolean pollingStateSources = new AtomicBoolean(false);
+    /**
+     * Publishers of the incoming messages, per message Class
+     */
+    private final ConcurrentHashMap<Class<? extends TPMessage>, TPMessagePublisher<? extends TPMessage>> publishers = new ConcurrentHashMap<>();
+    /**
+     * Overflow policy of the new subscriptions
+     */
+    private volatile TPFlow.OverflowPolicy publisherOverflowPolicy = TPFlow.OverflowPolicy.DROP_OLDEST;
+    /**
+     * Buffer size of the new subscriptions
+     */
+    private volatile int publisherBufferSize = 256;
     /**
      * Map containing image urls and their base64 representation
      */
     private final HashMap<String, String> base64Images = new HashMap<>();
     /**
-     * Executor Service for callbacks
+     * Executors for callbacks, one per {@link DispatchLane}
+     */
+    private final EnumMap<DispatchLane, DispatchLaneExecutor> dispatchLaneExecutors = new EnumMap<>(DispatchLane.class);
+    /**
+     * Executor for {@link ExecutionPolicy#VIRTUAL} callbacks, one Thread per callback
+     */
+    private final ExecutorService threadPerCallbackExecutor = TouchPortalPlugin.newThreadPerCallbackExecutor();
+    /**
+     * Executors for {@link ExecutionPolicy#SERIAL} callbacks, one per Action or Connector ID
+     */
+    private final ConcurrentHashMap<String, SerialExecutor> serialExecutors = new ConcurrentHashMap<>();
+    /**
+     * Watchdog of the Actions and Connectors handlers
+     */
+    private final HandlerWatchdog handlerWatchdog = new HandlerWatchdog();
+    /**
+     * Counters and histograms of the Plugin runtime
+     */
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+    /**
+     * Name of the registered Metrics MBean, if any
+     */
+    private ObjectName metricsObjectName;
+    /**
+     * Trace the latency from a received Action or Connector change to its first feedback
+     */
+    private volatile boolean latencyTracing = false;
+    /**
+     * Sampling of the log lines written for the sent updates
+     */
+    private final LogSampler logSampler = new LogSampler(TouchPortalPlugin.LOGGER, Level.INFO);
+    /**
+     * Interval of the sent updates summary log, 0 when disabled
+     */
+    private volatile long logSummaryIntervalMillis = 0;
+    /**
+     * Next sent updates summary log, if any
+     */
+    private volatile HashedWheelTimer.Timeout logSummaryTimeout;
+    /**
+     * CPU time and allocated bytes of the Actions and Connectors handlers
      */
-    private final ExecutorService callbacksExecutor;
+    private final HandlerAccounting handlerAccounting = new HandlerAccounting();
+    /**
+     * Interval of the handler accounting log, 0 when disabled
+     */
+    private volatile long handlerAccountingLogIntervalMillis = 0;
+    /**
+     * Next handler accounting log, if any
+     */
+    private volatile HashedWheelTimer.Timeout handlerAccountingLogTimeout;
+    /**
+     * Recorder of the received and sent lines, if recording
+     */
+    private volatile TPTrafficRecorder trafficRecorder;
+    /**
+     * Timeout of the handlers not setting one in their annotation, 0 when disabled
+     */
+    private volatile long defaultHandlerTimeoutMillis = 0;
+    /**
+     * Number of {@link ExecutionPolicy#VIRTUAL} callbacks submitted and not completed yet
+     */
+    private final AtomicInteger threadPerCallbackPendingCount = new AtomicInteger();
+    /**
+     * Maximum duration of the drain phase on close
+     */
+    private volatile long closeDrainTimeoutMillis = 2000;
+    /**
+     * Incoming messages are ignored while closing
+     */
+    private volatile boolean closing = false;
+    /**
+     * A close is draining outside the Plugin monitor, guarded by the Plugin monitor
+     */
+    private boolean closeInProgress = false;
+    /**
+     * Report of the last drain phase
+     */
+    private DrainReport lastDrainReport;
+    /**
+     * Reconnect automatically when the connection is lost
+     */
+    private volatile boolean autoReconnect = false;
+    /**
+     * Delay before the first reconnection attempt, doubled after each failed attempt
+     */
+    private volatile long reconnectInitialBackoffMillis = 250;
+    /**
+     * Maximum delay between two reconnection attempts
+     */
+    private volatile long reconnectMaxBackoffMillis = 30000;
+    /**
+     * Thread reconnecting after the connection was lost
+     */
+    private Thread reconnectThread;
+    /**
+     * The close Message has been received, the Plugin must not reconnect
+     */
+    private volatile boolean closePluginReceived = false;
     /**
      * Registered {@link TPInvokable}s
      */
@@ -157,10 +358,33 @@ public abstract class TouchPortalPlugin {
 
     /**
      * Constructor
+     * <p>
+     * When not parallelized, every callback runs on a single thread shared by both {@link DispatchLane}s.
+     * </p>
      *
      * @param parallelizeActions boolean - Parallelize Actions execution
      */
     protected TouchPortalPlugin(boolean parallelizeActions) {
+        this(new DispatchLaneExecutor(DispatchLane.INTERACTIVE, parallelizeActions ? 5 : 1), parallelizeActions ? new DispatchLaneExecutor(DispatchLane.BACKGROUND, 1) : null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param interactiveLaneSize int - Number of threads running Actions and Connectors callbacks
+     * @param backgroundLaneSize  int - Number of threads running the other callbacks
+     */
+    protected TouchPortalPlugin(int interactiveLaneSize, int backgroundLaneSize) {
+        this(TouchPortalPlugin.newDispatchLaneExecutor(DispatchLane.INTERACTIVE, interactiveLaneSize), TouchPortalPlugin.newDispatchLaneExecutor(DispatchLane.BACKGROUND, backgroundLaneSize));
+    }
+
+    /**
+     * Internal - Constructor
+     *
+     * @param interactiveLaneExecutor {@link DispatchLaneExecutor} - Executor of the Actions and Connectors callbacks
+     * @param backgroundLaneExecutor  {@link DispatchLaneExecutor} - Executor of the other callbacks, null to share the interactive one
+     */
+    private TouchPortalPlugin(DispatchLaneExecutor interactiveLaneExecutor, DispatchLaneExecutor backgroundLaneExecutor) {
         try {
             this.touchPortalPluginFolder = new File(".").getCanonicalPath();
         }
@@ -171,7 +395,30 @@ public abstract class TouchPortalPlugin {
             }
         }
         this.pluginClass = this.getClass();
-        this.callbacksExecutor = Executors.newFixedThreadPool(parallelizeActions ? 5 : 1);
+        for (Method method : this.pluginClass.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(Action.class)) {
+                this.actionMethods.putIfAbsent(ActionHelper.getActionId(this.pluginClass, method), method);
+            }
+            if (method.isAnnotationPresent(Connector.class)) {
+                this.connectorMethods.putIfAbsent(ConnectorHelper.getConnectorId(this.pluginClass, method), method);
+            }
+        }
+        this.dispatchLaneExecutors.put(DispatchLane.INTERACTIVE, interactiveLaneExecutor);
+        this.dispatchLaneExecutors.put(DispatchLane.BACKGROUND, backgroundLaneExecutor != null ? backgroundLaneExecutor : interactiveLaneExecutor);
+    }
+
+    /**
+     * Internal - Create the Executor of a {@link DispatchLane}
+     *
+     * @param dispatchLane {@link DispatchLane}
+     * @param size         int - Number of threads
+     * @return {@link DispatchLaneExecutor} dispatchLaneExecutor
+     */
+    private static DispatchLaneExecutor newDispatchLaneExecutor(DispatchLane dispatchLane, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Dispatch lanes need at least one thread");
+        }
+        return new DispatchLaneExecutor(dispatchLane, size);
     }
 
     /**
@@ -180,11 +427,13 @@ public abstract class TouchPortalPlugin {
      * @return Thread listenerThread
      */
     private Thread createListenerThread() {
+        TPConnection listenedConnection = this.touchPortalConnection;
         return new Thread(() -> {
-            while (true) {
+            // A new listener Thread is created for each connection
+            while (listenedConnection == this.touchPortalConnection) {
                 try {
-                    if (this.bufferedReader == null) {
-                        this.bufferedReader = new BufferedReader(new InputStreamReader(this.touchPortalSocket.getInputStream(), StandardCharsets.UTF_8));
+                    if (this.frameReader == null) {
+                        this.frameReader = new MessageFrameReader(listenedConnection.getReadableChannel(), this.maxMessageSize);
                     }
                     if (this.gson == null) {
                         TPMessageDeserializer tpMessageDeserializer = new TPMessageDeserializer();
@@ -201,14 +450,18 @@ public abstract class TouchPortalPlugin {
                         tpMessageDeserializer.registerTPMessageType(ReceivedMessageHelper.TYPE_SHORT_CONNECTOR_ID_NOTIFICATION, TPShortConnectorIdNotification.class);
                         this.gson = new GsonBuilder().registerTypeAdapter(TPMessage.class, tpMessageDeserializer).create();
                     }
-                    String socketMessage = this.bufferedReader.readLine();
-                    if (socketMessage == null) {
+                    Reader messageReader = this.frameReader.nextFrame();
+                    if (messageReader == null) {
                         throw new SocketException("Server Socket Closed");
                     }
-                    this.onMessage(socketMessage);
+                    TPTrafficRecorder trafficRecorder = this.trafficRecorder;
+                    if (trafficRecorder != null) {
+                        trafficRecorder.recordInbound(this.frameReader.getLastFrame(), this.frameReader.getLastFrameSize());
+                    }
+                    this.onMessage(messageReader, this.frameReader.getLastFrameSize(), System.nanoTime());
                 }
                 catch (IOException ioException) {
-                    this.close(ioException);
+                    this.onConnectionLost(listenedConnection, ioException);
                     break;
                 }
                 catch (Exception ignored) {}
@@ -216,12 +469,18 @@ public abstract class TouchPortalPlugin {
         });
     }
 
-    private void onMessage(String socketMessage) throws SocketException, JsonParseException {
-        if (!socketMessage.isEmpty()) {
-            TPMessage tpMessage = this.gson.fromJson(socketMessage, TPMessage.class);
+    private void onMessage(Reader messageReader, int messageSize, long receivedAt) throws SocketException, JsonParseException {
+        if (!this.closing) {
+            Object messageReceivedEvent = FlightRecorderEvents.beginMessageReceived();
+            // Parsed once, the tree is used for both the typed message and the raw JsonObject
+            JsonElement jsonElement = JsonParser.parseReader(messageReader);
+            TPMessage tpMessage = this.gson.fromJson(jsonElement, TPMessage.class);
+            FlightRecorderEvents.commitMessageReceived(messageReceivedEvent, tpMessage != null ? tpMessage.type : null, messageSize);
             if (tpMessage != null && tpMessage.type != null) {
+                this.metricsRegistry.recordInbound(tpMessage.type);
                 switch (tpMessage.type) {
                     case ReceivedMessageHelper.TYPE_CLOSE_PLUGIN:
+                        this.closePluginReceived = true;
                         throw new SocketException("Close Message Received");
 
                     case ReceivedMessageHelper.TYPE_INFO:
@@ -229,11 +488,9 @@ public abstract class TouchPortalPlugin {
 
                         this.updateSettingFields(this.tpInfoMessage.settings);
 
-                        if (this.touchPortalPluginListener != null) {
-                            this.callbacksExecutor.submit(() -> {
-                                this.touchPortalPluginListener.onInfo(this.tpInfoMessage);
-                            });
-                        }
+                        TPInfoMessage tpInfoMessage = this.tpInfoMessage;
+                        this.notifyListeners(DispatchLane.BACKGROUND, this.infoListeners, listener -> listener.onInfo(tpInfoMessage));
+                        this.publish(tpInfoMessage);
                         break;
 
                     case ReceivedMessageHelper.TYPE_LIST_CHANGED:
@@ -243,28 +500,27 @@ public abstract class TouchPortalPlugin {
                             try {
                                 TPInvokable tpInvokable = this.instantiateTPInvokable(invokableClass);
 
-                                this.callbacksExecutor.submit(() -> {
-                                    tpInvokable.onListChanged(tpListChangedMessage);
+                                this.dispatch(DispatchLane.BACKGROUND, () -> {
+                                    try {
+                                        tpInvokable.onListChanged(tpListChangedMessage);
+                                    }
+                                    catch (Exception e) {
+                                        TouchPortalPlugin.LOGGER.log(Level.WARNING, "Invokable onListChanged failed", e);
+                                    }
                                 });
                             }
                             catch (ReflectiveOperationException e) {
                                 TouchPortalPlugin.LOGGER.log(Level.WARNING, "Invokable could not be created or its onListChanged could not be invoked", e);
                             }
                         }
-                        if (this.touchPortalPluginListener != null) {
-                            this.callbacksExecutor.submit(() -> {
-                                this.touchPortalPluginListener.onListChanged(tpListChangedMessage);
-                            });
-                        }
+                        this.notifyListeners(DispatchLane.BACKGROUND, this.listChangedListeners, listener -> listener.onListChanged(tpListChangedMessage));
+                        this.publish(tpListChangedMessage);
                         break;
 
                     case ReceivedMessageHelper.TYPE_BROADCAST:
                         TPBroadcastMessage tpBroadcastMessage = (TPBroadcastMessage) tpMessage;
-                        if (this.touchPortalPluginListener != null) {
-                            this.callbacksExecutor.submit(() -> {
-                                this.touchPortalPluginListener.onBroadcast(tpBroadcastMessage);
-                            });
-                        }
+                        this.notifyListeners(DispatchLane.BACKGROUND, this.broadcastListeners, listener -> listener.onBroadcast(tpBroadcastMessage));
+                        this.publish(tpBroadcastMessage);
                         break;
 
                     case ReceivedMessageHelper.TYPE_SETTINGS:
@@ -272,55 +528,54 @@ public abstract class TouchPortalPlugin {
 
                         this.updateSettingFields(tpSettingsMessage.settings);
 
-                        if (this.touchPortalPluginListener != null) {
-                            this.callbacksExecutor.submit(() -> {
-                                this.touchPortalPluginListener.onSettings(tpSettingsMessage);
-                            });
-                        }
+                        this.notifyListeners(DispatchLane.BACKGROUND, this.settingsListeners, listener -> listener.onSettings(tpSettingsMessage));
+                        this.publish(tpSettingsMessage);
                         break;
 
                     case ReceivedMessageHelper.TYPE_NOTIFICATION_OPTION_CLICKED:
                         TPNotificationOptionClickedMessage tpNotificationOptionClickedMessage = (TPNotificationOptionClickedMessage) tpMessage;
-                        if (this.touchPortalPluginListener != null) {
-                            this.callbacksExecutor.submit(() -> {
-                                this.touchPortalPluginListener.onNotificationOptionClicked(tpNotificationOptionClickedMessage);
-                            });
-                        }
+                        this.notifyListeners(DispatchLane.BACKGROUND, this.notificationOptionClickedListeners, listener -> listener.onNotificationOptionClicked(tpNotificationOptionClickedMessage));
+                        this.publish(tpNotificationOptionClickedMessage);
                         break;
 
                     case ReceivedMessageHelper.TYPE_SHORT_CONNECTOR_ID_NOTIFICATION:
                         TPShortConnectorIdNotification tpShortConnectorIdNotification = (TPShortConnectorIdNotification) tpMessage;
                         this.connectorIdsMapping.put(tpShortConnectorIdNotification.connectorId, tpShortConnectorIdNotification.shortId);
+                        this.publish(tpShortConnectorIdNotification);
                         break;
 
                     default:
-                        JsonObject jsonMessage = JsonParser.parseString(socketMessage).getAsJsonObject();
+                        JsonObject jsonMessage = jsonElement.getAsJsonObject();
                         if (this.pluginClass.getName().equals(jsonMessage.get(ReceivedMessageHelper.PLUGIN_ID).getAsString())) {
+                            this.publish(tpMessage);
                             boolean called = false;
-                            switch (tpMessage.type) {
-                                case ReceivedMessageHelper.TYPE_ACTION:
-                                    called = this.onActionReceived((TPActionMessage) tpMessage, jsonMessage, null);
-                                    break;
-
-                                case ReceivedMessageHelper.TYPE_HOLD_DOWN:
-                                    called = this.onActionReceived((TPActionMessage) tpMessage, jsonMessage, true);
-                                    break;
-
-                                case ReceivedMessageHelper.TYPE_HOLD_UP:
-                                    called = this.onActionReceived((TPActionMessage) tpMessage, jsonMessage, false);
-                                    break;
-
-                                case ReceivedMessageHelper.TYPE_CONNECTOR_CHANGE:
-                                    called = this.onConnectorChangeReceived((TPConnectorChangeMessage) tpMessage, jsonMessage);
-                                    break;
-                            }
-                            if (!called) {
-                                if (this.touchPortalPluginListener != null) {
-                                    this.callbacksExecutor.submit(() -> {
-                                        this.touchPortalPluginListener.onReceived(jsonMessage);
-                                    });
+                            // Bound while dispatching, so the handlers and listeners carry it
+                            LatencyTrace previousLatencyTrace = LatencyTrace.bind(this.startLatencyTrace(tpMessage, receivedAt));
+                            try {
+                                switch (tpMessage.type) {
+                                    case ReceivedMessageHelper.TYPE_ACTION:
+                                        called = this.onActionReceived((TPActionMessage) tpMessage, jsonMessage, null);
+                                        break;
+
+                                    case ReceivedMessageHelper.TYPE_HOLD_DOWN:
+                                        called = this.onActionReceived((TPActionMessage) tpMessage, jsonMessage, true);
+                                        break;
+
+                                    case ReceivedMessageHelper.TYPE_HOLD_UP:
+                                        called = this.onActionReceived((TPActionMessage) tpMessage, jsonMessage, false);
+                                        break;
+
+                                    case ReceivedMessageHelper.TYPE_CONNECTOR_CHANGE:
+                                        called = this.onConnectorChangeReceived((TPConnectorChangeMessage) tpMessage, jsonMessage);
+                                        break;
+                                }
+                                if (!called) {
+                                    this.notifyListeners(DispatchLane.INTERACTIVE, this.receivedListeners, listener -> listener.onReceived(jsonMessage));
                                 }
                             }
+                            finally {
+                                LatencyTrace.bind(previousLatencyTrace);
+                            }
                         }
                         break;
                 }
@@ -328,6 +583,223 @@ public abstract class TouchPortalPlugin {
         }
     }
 
+    /**
+     * Internal - Start the latency trace of a received Action or Connector change if tracing is enabled
+     *
+     * @param tpMessage  {@link TPMessage}
+     * @param receivedAt long - System.nanoTime() when the message line was read
+     * @return {@link LatencyTrace} latencyTrace - null if not traced
+     */
+    private LatencyTrace startLatencyTrace(TPMessage tpMessage, long receivedAt) {
+        LatencyTrace latencyTrace = null;
+        if (this.latencyTracing) {
+            if (tpMessage instanceof TPActionMessage) {
+                latencyTrace = new LatencyTrace(((TPActionMessage) tpMessage).actionId, receivedAt);
+            }
+            else if (tpMessage instanceof TPConnectorChangeMessage) {
+                latencyTrace = new LatencyTrace(((TPConnectorChangeMessage) tpMessage).connectorId, receivedAt);
+            }
+        }
+        return latencyTrace;
+    }
+
+    /**
+     * Internal - Publish a message to the subscribers of its type
+     *
+     * @param tpMessage {@link TPMessage}
+     * @param <T>       Message Type
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends TPMessage> void publish(T tpMessage) {
+        TPMessagePublisher<T> publisher = (TPMessagePublisher<T>) this.publishers.get(tpMessage.getClass());
+        if (publisher != null && publisher.hasSubscribers()) {
+            publisher.publish(tpMessage);
+        }
+    }
+
+    /**
+     * Get the Publisher of an incoming message type
+     * <p>
+     * For example {@link TPActionMessage} (Actions, Hold Down and Hold Up), {@link TPConnectorChangeMessage}, {@link TPBroadcastMessage},
+     * {@link TPListChangedMessage}, {@link TPSettingsMessage}, {@link TPInfoMessage} or {@link TPNotificationOptionClickedMessage}.
+     * Messages are published in addition to the listeners and the annotated methods, and only delivered as requested by the subscribers.
+     * Actions and Connectors messages are delivered on the {@link DispatchLane#INTERACTIVE} lane, the others on the {@link DispatchLane#BACKGROUND} lane.
+     * </p>
+     *
+     * @param messageClass Class&lt;T&gt;
+     * @param <T>          Message Type
+     * @return {@link TPFlow.Publisher} publisher
+     * @see #setPublisherOverflowPolicy(TPFlow.OverflowPolicy, int)
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends TPMessage> TPFlow.Publisher<T> getPublisher(Class<T> messageClass) {
+        DispatchLane dispatchLane = TPActionMessage.class.equals(messageClass) || TPConnectorChangeMessage.class.equals(messageClass) ? DispatchLane.INTERACTIVE : DispatchLane.BACKGROUND;
+        return (TPFlow.Publisher<T>) this.publishers.computeIfAbsent(messageClass, publisherMessageClass -> new TPMessagePublisher<>(callback -> this.dispatch(dispatchLane, callback), this.publisherOverflowPolicy, this.publisherBufferSize));
+    }
+
+    /**
+     * Set what happens to the messages received while a subscriber is not requesting
+     * <p>
+     * Applies to the subscriptions created afterwards. Default is {@link TPFlow.OverflowPolicy#DROP_OLDEST} with a buffer of 256 messages
+     * </p>
+     *
+     * @param overflowPolicy {@link TPFlow.OverflowPolicy}
+     * @param bufferSize     int - Maximum number of buffered messages per subscription, ignored by {@link TPFlow.OverflowPolicy#BUFFER}
+     */
+    public void setPublisherOverflowPolicy(TPFlow.OverflowPolicy overflowPolicy, int bufferSize) {
+        if (overflowPolicy == null || bufferSize < 1) {
+            throw new IllegalArgumentException("Overflow policy needs a positive buffer size");
+        }
+        this.publisherOverflowPolicy = overflowPolicy;
+        this.publisherBufferSize = bufferSize;
+        for (TPMessagePublisher<? extends TPMessage> publisher : this.publishers.values()) {
+            publisher.setOverflowPolicy(overflowPolicy, bufferSize);
+        }
+    }
+
+    /**
+     * Internal - Notify the registered listeners of an event type
+     * <p>
+     * Nothing is submitted to the callbacks executor when no listener is registered for this event type
+     * </p>
+     *
+     * @param dispatchLane {@link DispatchLane}
+     * @param listeners    List&lt;L&gt;
+     * @param notification Consumer&lt;L&gt;
+     * @param <L>          Listener Type
+     */
+    private <L> void notifyListeners(DispatchLane dispatchLane, List<L> listeners, Consumer<L> notification) {
+        if (!listeners.isEmpty()) {
+            this.dispatch(dispatchLane, () -> {
+                for (L listener : listeners) {
+                    try {
+                        notification.accept(listener);
+                    }
+                    catch (Exception e) {
+                        TouchPortalPlugin.LOGGER.log(Level.SEVERE, "Listener could not be notified", e);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Internal - Run a callback on a {@link DispatchLane}
+     *
+     * @param dispatchLane {@link DispatchLane}
+     * @param callback     Runnable
+     */
+    private void dispatch(DispatchLane dispatchLane, Runnable callback) {
+        this.dispatchLaneExecutors.get(dispatchLane).execute(LatencyTrace.propagate(callback));
+    }
+
+    /**
+     * Internal - Run an Action or Connector callback according to its {@link ExecutionPolicy}, watched by the {@link HandlerWatchdog}
+     *
+     * @param invokableElement AnnotatedElement - Action or Connector Method or Class
+     * @param invokableId      String - Action or Connector ID
+     * @param callback         Runnable
+     */
+    private void dispatch(AnnotatedElement invokableElement, String invokableId, Runnable callback) {
+        this.dispatch(invokableElement, invokableId, false, callback);
+    }
+
+    /**
+     * Internal - Run an Action or Connector callback according to its {@link ExecutionPolicy}, watched by the {@link HandlerWatchdog}
+     * <p>
+     * A held Action repetition is triggered by the shared repeat timer, so an {@link ExecutionPolicy#INLINE} one runs on the interactive lane instead
+     * </p>
+     *
+     * @param invokableElement AnnotatedElement - Action or Connector Method or Class
+     * @param invokableId      String - Action or Connector ID
+     * @param repetition       boolean - The callback repeats a held Action
+     * @param callback         Runnable
+     */
+    private void dispatch(AnnotatedElement invokableElement, String invokableId, boolean repetition, Runnable callback) {
+        long timeoutMillis = this.defaultHandlerTimeoutMillis;
+        boolean interruptOnTimeout = false;
+        ExecutionPolicy executionPolicy = ExecutionPolicy.POOLED;
+        if (invokableElement.isAnnotationPresent(Action.class)) {
+            Action action = invokableElement.getAnnotation(Action.class);
+            timeoutMillis = action.timeout() > 0 ? action.timeout() : timeoutMillis;
+            interruptOnTimeout = action.interruptOnTimeout();
+            executionPolicy = action.executionPolicy();
+        }
+        else if (invokableElement.isAnnotationPresent(Connector.class)) {
+            Connector connector = invokableElement.getAnnotation(Connector.class);
+            timeoutMillis = connector.timeout() > 0 ? connector.timeout() : timeoutMillis;
+            interruptOnTimeout = connector.interruptOnTimeout();
+            executionPolicy = connector.executionPolicy();
+        }
+        if (repetition && executionPolicy == ExecutionPolicy.INLINE) {
+            executionPolicy = ExecutionPolicy.POOLED;
+        }
+        // Interrupting an inline handler would interrupt the Thread reading the messages and close its channel
+        interruptOnTimeout = interruptOnTimeout && executionPolicy != ExecutionPolicy.INLINE;
+        long dispatchedAt = System.nanoTime();
+        Runnable timedCallback = LatencyTrace.propagate(callback);
+        callback = this.handlerWatchdog.watch(invokableId, timeoutMillis, interruptOnTimeout, () -> {
+            long startedAt = System.nanoTime();
+            long startCpuTimeNanos = this.handlerAccounting.currentThreadCpuTime();
+            long startAllocatedBytes = this.handlerAccounting.currentThreadAllocatedBytes();
+            Object handlerDispatchedEvent = FlightRecorderEvents.beginHandlerDispatched();
+            try {
+                timedCallback.run();
+            }
+            finally {
+                this.handlerAccounting.record(invokableId, startCpuTimeNanos, startAllocatedBytes, System.nanoTime() - startedAt);
+                FlightRecorderEvents.commitHandlerDispatched(handlerDispatchedEvent, invokableId, startedAt - dispatchedAt);
+                this.metricsRegistry.recordDispatchLatency(invokableId, System.nanoTime() - dispatchedAt);
+            }
+        });
+
+        switch (executionPolicy) {
+            case INLINE:
+                callback.run();
+                break;
+
+            case VIRTUAL:
+                Runnable threadPerCallback = callback;
+                this.threadPerCallbackPendingCount.incrementAndGet();
+                this.threadPerCallbackExecutor.execute(() -> {
+                    try {
+                        threadPerCallback.run();
+                    }
+                    finally {
+                        this.threadPerCallbackPendingCount.decrementAndGet();
+                    }
+                });
+                break;
+
+            case SERIAL:
+                this.serialExecutors.computeIfAbsent(invokableId, id -> new SerialExecutor(this.dispatchLaneExecutors.get(DispatchLane.INTERACTIVE))).execute(callback);
+                break;
+
+            default:
+                this.dispatch(DispatchLane.INTERACTIVE, callback);
+                break;
+        }
+    }
+
+    /**
+     * Internal - Create the Executor used for {@link ExecutionPolicy#VIRTUAL} callbacks
+     * <p>
+     * Virtual Threads are used when the runtime supports them, platform Threads otherwise
+     * </p>
+     *
+     * @return ExecutorService threadPerCallbackExecutor
+     */
+    private static ExecutorService newThreadPerCallbackExecutor() {
+        ExecutorService threadPerCallbackExecutor;
+        try {
+            threadPerCallbackExecutor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            threadPerCallbackExecutor = Executors.newCachedThreadPool();
+        }
+        return threadPerCallbackExecutor;
+    }
+
     private TPInvokable instantiateTPInvokable(Class<? extends TPInvokable> invokableClass) throws NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
         Class<? extends TouchPortalPlugin> typedTouchPortalPlugin = (Class<? extends TouchPortalPlugin>) ((ParameterizedType) invokableClass.getGenericSuperclass()).getActualTypeArguments()[0];
         Constructor<? extends TPInvokable> constructor = invokableClass.getConstructor(typedTouchPortalPlugin);
@@ -356,6 +828,7 @@ public abstract class TouchPortalPlugin {
     private boolean onActionReceived(TPActionMessage tpActionMessage, JsonObject jsonAction, Boolean held) {
         boolean invoked = false;
         if (tpActionMessage.actionId != null && !tpActionMessage.actionId.isEmpty()) {
+            TPHoldSession tpHoldSession = this.updateHoldSession(tpActionMessage.actionId, held);
             if (this.registeredInvokables.containsKey(tpActionMessage.actionId)) {
                 Class<? extends TPInvokable> invokableClass = this.registeredInvokables.get(tpActionMessage.actionId);
                 try {
@@ -375,21 +848,32 @@ public abstract class TouchPortalPlugin {
                             declaredField.setAccessible(true);
                             declaredField.set(tpInvokable, tpActionMessage);
                         }
+                        else if (declaredField.getType().isAssignableFrom(TPHoldSession.class)) {
+                            declaredField.setAccessible(true);
+                            declaredField.set(tpInvokable, tpHoldSession);
+                        }
                     }
 
-                    this.heldActionsStates.put(tpActionMessage.actionId, held);
-                    this.callbacksExecutor.submit(() -> {
+                    Runnable invocation = () -> {
                         try {
                             tpInvokable.onInvoke();
                         }
                         catch (Exception e) {
                             TouchPortalPlugin.LOGGER.log(Level.SEVERE, "Action could not be invoked", e);
                         }
+                    };
+                    this.heldActionsStates.put(tpActionMessage.actionId, held);
+                    this.dispatch(invokableClass, tpActionMessage.actionId, () -> {
+                        try {
+                            invocation.run();
+                        }
                         finally {
+                            tpHoldSession.detach();
                             if (held == null || !held) {
                                 this.heldActionsStates.remove(tpActionMessage.actionId);
                             }
                         }
+                        this.repeatWhileHeld(invokableClass, tpActionMessage.actionId, tpHoldSession, invocation);
                     });
 
                     invoked = true;
@@ -399,49 +883,55 @@ public abstract class TouchPortalPlugin {
                 }
             }
             else {
-                Method[] pluginActionMethods = Arrays.stream(this.pluginClass.getDeclaredMethods()).filter(method -> method.isAnnotationPresent(Action.class)).toArray(Method[]::new);
-                for (Method method : pluginActionMethods) {
-                    String methodActionId = ActionHelper.getActionId(this.pluginClass, method);
-                    if (tpActionMessage.actionId.equals(methodActionId)) {
-                        try {
-                            Parameter[] parameters = method.getParameters();
-                            Object[] arguments = new Object[parameters.length];
-                            for (int parameterIndex = 0; parameterIndex < parameters.length; parameterIndex++) {
-                                Parameter parameter = parameters[parameterIndex];
-                                if (parameter.isAnnotationPresent(Data.class)) {
-                                    arguments[parameterIndex] = tpActionMessage.getTypedDataValue(this.pluginClass, method, parameter);
-                                }
-                                else if (parameter.getType().isAssignableFrom(JsonObject.class)) {
-                                    arguments[parameterIndex] = jsonAction;
-                                }
-                                else if (parameter.getType().isAssignableFrom(TPActionMessage.class)) {
-                                    arguments[parameterIndex] = tpActionMessage;
-                                }
-                                if (arguments[parameterIndex] == null) {
-                                    throw new MethodDataParameterException(method, parameter);
-                                }
+                Method method = this.actionMethods.get(tpActionMessage.actionId);
+                if (method != null) {
+                    try {
+                        Parameter[] parameters = method.getParameters();
+                        Object[] arguments = new Object[parameters.length];
+                        for (int parameterIndex = 0; parameterIndex < parameters.length; parameterIndex++) {
+                            Parameter parameter = parameters[parameterIndex];
+                            if (parameter.isAnnotationPresent(Data.class)) {
+                                arguments[parameterIndex] = tpActionMessage.getTypedDataValue(this.pluginClass, method, parameter);
+                            }
+                            else if (parameter.getType().isAssignableFrom(JsonObject.class)) {
+                                arguments[parameterIndex] = jsonAction;
+                            }
+                            else if (parameter.getType().isAssignableFrom(TPActionMessage.class)) {
+                                arguments[parameterIndex] = tpActionMessage;
+                            }
+                            else if (parameter.getType().isAssignableFrom(TPHoldSession.class)) {
+                                arguments[parameterIndex] = tpHoldSession;
+                            }
+                            if (arguments[parameterIndex] == null) {
+                                throw new MethodDataParameterException(method, parameter);
                             }
-                            this.heldActionsStates.put(tpActionMessage.actionId, held);
-                            this.callbacksExecutor.submit(() -> {
-                                try {
-                                    method.setAccessible(true);
-                                    method.invoke(this, arguments);
-                                }
-                                catch (Exception e) {
-                                    TouchPortalPlugin.LOGGER.log(Level.SEVERE, "Action method could not be invoked", e);
-                                }
-                                finally {
-                                    if (held == null || !held) {
-                                        this.heldActionsStates.remove(tpActionMessage.actionId);
-                                    }
-                                }
-                            });
-                            invoked = true;
-                        }
-                        catch (MethodDataParameterException e) {
-                            TouchPortalPlugin.LOGGER.log(Level.WARNING, "Action method data parameters could not be retrieved", e);
                         }
-                        break;
+                        Runnable invocation = () -> {
+                            try {
+                                method.setAccessible(true);
+                                method.invoke(this, arguments);
+                            }
+                            catch (Exception e) {
+                                TouchPortalPlugin.LOGGER.log(Level.SEVERE, "Action method could not be invoked", e);
+                            }
+                        };
+                        this.heldActionsStates.put(tpActionMessage.actionId, held);
+                        this.dispatch(method, tpActionMessage.actionId, () -> {
+                            try {
+                                invocation.run();
+                            }
+                            finally {
+                                tpHoldSession.detach();
+                                if (held == null || !held) {
+                                    this.heldActionsStates.remove(tpActionMessage.actionId);
+                                }
+                            }
+                            this.repeatWhileHeld(method, tpActionMessage.actionId, tpHoldSession, invocation);
+                        });
+                        invoked = true;
+                    }
+                    catch (MethodDataParameterException e) {
+                        TouchPortalPlugin.LOGGER.log(Level.WARNING, "Action method data parameters could not be retrieved", e);
                     }
                 }
             }
@@ -449,17 +939,66 @@ public abstract class TouchPortalPlugin {
         return invoked;
     }
 
-    private boolean onConnectorChangeReceived(TPConnectorChangeMessage tpConnectorChangeMessage, JsonObject jsonConnectorChange) {
-        boolean invoked = false;
-        if (tpConnectorChangeMessage.connectorId != null && !tpConnectorChangeMessage.connectorId.isEmpty()) {
-            if (this.registeredInvokables.containsKey(tpConnectorChangeMessage.connectorId)) {
-                Class<? extends TPInvokable> invokableClass = this.registeredInvokables.get(tpConnectorChangeMessage.connectorId);
-                try {
-                    TPInvokable tpInvokable = this.instantiateTPInvokable(invokableClass);
-
-                    for (Field declaredField : invokableClass.getDeclaredFields()) {
-                        if (declaredField.isAnnotationPresent(Data.class)) {
-                            declaredField.setAccessible(true);
+    /**
+     * Internal - Repeat the invocation of a held Action having a repeat interval until its Hold Up
+     * <p>
+     * Called once the Hold Down invocation completed, so the first repetition never overlaps it.
+     * The Action stays held in the heldActionsStates during the repetitions
+     * </p>
+     *
+     * @param invokableElement AnnotatedElement - Method or Class annotated with {@link Action}
+     * @param actionId         String
+     * @param tpHoldSession    {@link TPHoldSession}
+     * @param invocation       Runnable - Invokes the Action
+     */
+    private void repeatWhileHeld(AnnotatedElement invokableElement, String actionId, TPHoldSession tpHoldSession, Runnable invocation) {
+        Action action = invokableElement.getAnnotation(Action.class);
+        if (action != null && action.repeatInterval() > 0 && tpHoldSession.isHeld()) {
+            long repeatDelay = action.repeatDelay() > 0 ? action.repeatDelay() : action.repeatInterval();
+            HeldActionRepeat heldActionRepeat = new HeldActionRepeat(this.repeatTimer, tpHoldSession, action.repeatInterval(), repetition -> this.dispatch(invokableElement, actionId, true, repetition), invocation);
+            heldActionRepeat.start(repeatDelay);
+        }
+    }
+
+    /**
+     * Internal - Start or release the {@link TPHoldSession} of an Action
+     *
+     * @param actionId String
+     * @param held     Boolean - null for a Press, true for a Hold Down and false for a Hold Up
+     * @return {@link TPHoldSession} tpHoldSession - Released for a Press or a Hold Up
+     */
+    private TPHoldSession updateHoldSession(String actionId, Boolean held) {
+        TPHoldSession tpHoldSession;
+        if (held != null && held) {
+            tpHoldSession = new TPHoldSession(actionId);
+            TPHoldSession previousTPHoldSession = this.holdSessions.put(actionId, tpHoldSession);
+            if (previousTPHoldSession != null) {
+                previousTPHoldSession.release();
+            }
+        }
+        else {
+            tpHoldSession = held != null ? this.holdSessions.remove(actionId) : null;
+            if (tpHoldSession != null) {
+                tpHoldSession.release();
+            }
+            else {
+                tpHoldSession = TPHoldSession.released(actionId);
+            }
+        }
+        return tpHoldSession;
+    }
+
+    private boolean onConnectorChangeReceived(TPConnectorChangeMessage tpConnectorChangeMessage, JsonObject jsonConnectorChange) {
+        boolean invoked = false;
+        if (tpConnectorChangeMessage.connectorId != null && !tpConnectorChangeMessage.connectorId.isEmpty()) {
+            if (this.registeredInvokables.containsKey(tpConnectorChangeMessage.connectorId)) {
+                Class<? extends TPInvokable> invokableClass = this.registeredInvokables.get(tpConnectorChangeMessage.connectorId);
+                try {
+                    TPInvokable tpInvokable = this.instantiateTPInvokable(invokableClass);
+
+                    for (Field declaredField : invokableClass.getDeclaredFields()) {
+                        if (declaredField.isAnnotationPresent(Data.class)) {
+                            declaredField.setAccessible(true);
                             Object fieldValue = tpConnectorChangeMessage.getTypedDataValue(this.pluginClass, declaredField);
                             declaredField.set(tpInvokable, fieldValue);
                         }
@@ -478,7 +1017,7 @@ public abstract class TouchPortalPlugin {
                     }
 
                     this.currentConnectorValues.put(tpConnectorChangeMessage.getConstructedId(), tpConnectorChangeMessage.value);
-                    this.callbacksExecutor.submit(() -> {
+                    this.dispatch(invokableClass, tpConnectorChangeMessage.connectorId, () -> {
                         try {
                             tpInvokable.onInvoke();
                         }
@@ -494,49 +1033,45 @@ public abstract class TouchPortalPlugin {
                 }
             }
             else {
-                Method[] pluginConnectorMethods = Arrays.stream(this.pluginClass.getDeclaredMethods()).filter(method -> method.isAnnotationPresent(Connector.class)).toArray(Method[]::new);
-                for (Method method : pluginConnectorMethods) {
-                    String methodConnectorId = ConnectorHelper.getConnectorId(this.pluginClass, method);
-                    if (tpConnectorChangeMessage.connectorId.equals(methodConnectorId)) {
-                        try {
-                            Parameter[] parameters = method.getParameters();
-                            Object[] arguments = new Object[parameters.length];
-                            for (int parameterIndex = 0; parameterIndex < parameters.length; parameterIndex++) {
-                                Parameter parameter = parameters[parameterIndex];
-                                if (parameter.isAnnotationPresent(Data.class)) {
-                                    arguments[parameterIndex] = tpConnectorChangeMessage.getTypedDataValue(this.pluginClass, method, parameter);
-                                }
-                                else if (parameter.isAnnotationPresent(ConnectorValue.class)) {
-                                    arguments[parameterIndex] = tpConnectorChangeMessage.value;
-                                }
-                                else if (parameter.getType().isAssignableFrom(JsonObject.class)) {
-                                    arguments[parameterIndex] = jsonConnectorChange;
-                                }
-                                else if (parameter.getType().isAssignableFrom(TPConnectorChangeMessage.class)) {
-                                    arguments[parameterIndex] = tpConnectorChangeMessage;
-                                }
-                                if (arguments[parameterIndex] == null) {
-                                    throw new MethodDataParameterException(method, parameter);
-                                }
+                Method method = this.connectorMethods.get(tpConnectorChangeMessage.connectorId);
+                if (method != null) {
+                    try {
+                        Parameter[] parameters = method.getParameters();
+                        Object[] arguments = new Object[parameters.length];
+                        for (int parameterIndex = 0; parameterIndex < parameters.length; parameterIndex++) {
+                            Parameter parameter = parameters[parameterIndex];
+                            if (parameter.isAnnotationPresent(Data.class)) {
+                                arguments[parameterIndex] = tpConnectorChangeMessage.getTypedDataValue(this.pluginClass, method, parameter);
+                            }
+                            else if (parameter.isAnnotationPresent(ConnectorValue.class)) {
+                                arguments[parameterIndex] = tpConnectorChangeMessage.value;
+                            }
+                            else if (parameter.getType().isAssignableFrom(JsonObject.class)) {
+                                arguments[parameterIndex] = jsonConnectorChange;
                             }
+                            else if (parameter.getType().isAssignableFrom(TPConnectorChangeMessage.class)) {
+                                arguments[parameterIndex] = tpConnectorChangeMessage;
+                            }
+                            if (arguments[parameterIndex] == null) {
+                                throw new MethodDataParameterException(method, parameter);
+                            }
+                        }
 
-                            this.currentConnectorValues.put(tpConnectorChangeMessage.getConstructedId(), tpConnectorChangeMessage.value);
-                            this.callbacksExecutor.submit(() -> {
-                                try {
-                                    method.setAccessible(true);
-                                    method.invoke(this, arguments);
-                                }
-                                catch (Exception e) {
-                                    TouchPortalPlugin.LOGGER.log(Level.SEVERE, "Connector method could not be invoked", e);
-                                }
-                            });
+                        this.currentConnectorValues.put(tpConnectorChangeMessage.getConstructedId(), tpConnectorChangeMessage.value);
+                        this.dispatch(method, tpConnectorChangeMessage.connectorId, () -> {
+                            try {
+                                method.setAccessible(true);
+                                method.invoke(this, arguments);
+                            }
+                            catch (Exception e) {
+                                TouchPortalPlugin.LOGGER.log(Level.SEVERE, "Connector method could not be invoked", e);
+                            }
+                        });
 
-                            invoked = true;
-                        }
-                        catch (MethodDataParameterException e) {
-                            TouchPortalPlugin.LOGGER.log(Level.WARNING, e.getMessage(), e);
-                        }
-                        break;
+                        invoked = true;
+                    }
+                    catch (MethodDataParameterException e) {
+                        TouchPortalPlugin.LOGGER.log(Level.WARNING, e.getMessage(), e);
                     }
                 }
             }
@@ -554,7 +1089,7 @@ public abstract class TouchPortalPlugin {
         pairingMessage.addProperty(SentMessageHelper.TYPE, SentMessageHelper.TYPE_PAIR);
         pairingMessage.addProperty(SentMessageHelper.ID, PluginHelper.getPluginId(this.pluginClass));
 
-        boolean paired = this.send(pairingMessage);
+        boolean paired = this.send(pairingMessage, SendPriority.HIGH);
         TouchPortalPlugin.LOGGER.log(Level.INFO, "Pairing Message Sent");
 
         return paired;
@@ -582,50 +1117,323 @@ public abstract class TouchPortalPlugin {
     /**
      * Close the Socket connection
      * <p>
+     * Incoming messages are ignored from now on, then pending callbacks and messages are drained until the close drain timeout.
+     * The drain does not hold the Plugin lock, so callbacks can still send while it runs.
      * The {@link TouchPortalPluginListener}.onDisconnect method will be called if the connection was alive.
      * </p>
      *
      * @param exception Exception
+     * @see #setCloseDrainTimeout(long)
+     * @see #getLastDrainReport()
      */
-    public synchronized void close(Exception exception) {
+    public void close(Exception exception) {
         TouchPortalPlugin.LOGGER.log(Level.INFO, "Closing" + (exception != null ? " because " + exception.getMessage() : ""));
 
-        if (this.touchPortalSocket != null) {
-            this.storeProperties();
-
-            if (this.listenerThread != null) {
-                this.listenerThread.interrupt();
-                this.listenerThread = null;
+        boolean closed = false;
+        synchronized (this) {
+            boolean reconnecting = this.reconnectThread != null;
+            if (reconnecting) {
+                this.reconnectThread.interrupt();
+                this.reconnectThread = null;
             }
-            if (!this.callbacksExecutor.isShutdown()) {
-                this.callbacksExecutor.shutdownNow();
+            if ((this.touchPortalConnection != null || reconnecting) && !this.closeInProgress) {
+                this.closeInProgress = true;
+                this.closing = true;
+                this.storeProperties();
+                this.releaseHeldActions();
+                closed = true;
             }
-            if (this.printWriter != null) {
-                this.printWriter.close();
-                this.printWriter = null;
+        }
+        if (closed) {
+            this.lastDrainReport = this.drain(this.closeDrainTimeoutMillis);
+            TouchPortalPlugin.LOGGER.log(Level.INFO, "Drained " + this.lastDrainReport);
+            this.releaseConnection();
+
+            for (OnDisconnectedListener disconnectedListener : this.disconnectedListeners) {
+                disconnectedListener.onDisconnected(exception);
             }
-            if (this.bufferedReader != null) {
-                try {
-                    this.bufferedReader.close();
-                }
-                catch (IOException ignored) {}
-                this.bufferedReader = null;
+        }
+    }
+
+    /**
+     * Internal - Stop listening and close the connection once drained
+     */
+    private synchronized void releaseConnection() {
+        if (this.listenerThread != null) {
+            this.listenerThread.interrupt();
+            this.listenerThread = null;
+        }
+        this.handlerWatchdog.close();
+        if (this.frameReader != null) {
+            try {
+                this.frameReader.close();
             }
+            catch (IOException ignored) {}
+            this.frameReader = null;
+        }
 
+        if (this.touchPortalConnection != null) {
             try {
-                this.touchPortalSocket.close();
+                this.touchPortalConnection.close();
             }
             catch (IOException ignored) {}
-            this.touchPortalSocket = null;
+            this.touchPortalConnection = null;
+        }
 
-            if (this.touchPortalPluginListener != null) {
-                this.touchPortalPluginListener.onDisconnected(exception);
+        if (this.metricsObjectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.metricsObjectName);
             }
+            catch (JMException ignored) {}
+            this.metricsObjectName = null;
         }
+
+        TPTrafficRecorder trafficRecorder = this.trafficRecorder;
+        if (trafficRecorder != null) {
+            trafficRecorder.flush();
+        }
+        this.closeInProgress = false;
     }
 
     /**
-     * Connect to the Touch Portal Plugin System Socket Server.
+     * Internal - Release the held Actions and stop the periodic work bound to the connection
+     * <p>
+     * No Hold Up will be received anymore
+     * </p>
+     */
+    private void releaseHeldActions() {
+        this.heldActionsStates.clear();
+        for (String heldActionId : new ArrayList<>(this.holdSessions.keySet())) {
+            TPHoldSession tpHoldSession = this.holdSessions.remove(heldActionId);
+            if (tpHoldSession != null) {
+                tpHoldSession.release();
+            }
+        }
+        this.repeatTimer.stop();
+        this.stateSourceScheduler.stop();
+    }
+
+    /**
+     * Internal - Called when reading or writing a connection failed
+     * <p>
+     * Closes the Plugin, unless auto reconnect is enabled and the close Message has not been received.
+     * In that case, the connection is torn down without draining the callbacks and a reconnection is attempted with an exponential backoff.
+     * </p>
+     *
+     * @param lostConnection {@link TPConnection} - Ignored if it is not the current connection anymore
+     * @param exception      Exception
+     */
+    private void onConnectionLost(TPConnection lostConnection, Exception exception) {
+        boolean closeNeeded = false;
+        MessageWriter lostMessageWriter = null;
+        synchronized (this) {
+            if (lostConnection != null && lostConnection == this.touchPortalConnection && !this.closeInProgress) {
+                if (!this.autoReconnect || this.closePluginReceived) {
+                    closeNeeded = true;
+                }
+                else {
+                    TouchPortalPlugin.LOGGER.log(Level.WARNING, "Connection lost, reconnecting", exception);
+                    this.closing = true;
+                    this.releaseHeldActions();
+                    lostMessageWriter = this.messageWriter;
+                    this.messageWriter = null;
+                    if (this.frameReader != null) {
+                        try {
+                            this.frameReader.close();
+                        }
+                        catch (IOException ignored) {}
+                        this.frameReader = null;
+                    }
+                    try {
+                        this.touchPortalConnection.close();
+                    }
+                    catch (IOException ignored) {}
+                    this.touchPortalConnection = null;
+                    this.listenerThread = null;
+
+                    this.reconnectThread = new Thread(this::reconnect, "TPReconnect");
+                    this.reconnectThread.setDaemon(true);
+                    this.reconnectThread.start();
+                }
+            }
+        }
+        if (lostMessageWriter != null) {
+            lostMessageWriter.close(0);
+        }
+        if (closeNeeded) {
+            this.close(exception);
+        }
+    }
+
+    /**
+     * Internal - Reconnection loop, waits between the attempts with an exponential backoff and jitter
+     */
+    private void reconnect() {
+        Thread currentThread = Thread.currentThread();
+        long backoffMillis = this.reconnectInitialBackoffMillis;
+        int attempts = 0;
+        try {
+            while (true) {
+                // Up to 20% of jitter so several Plugins do not reconnect at the same time
+                Thread.sleep(backoffMillis + ThreadLocalRandom.current().nextLong(backoffMillis / 5 + 1));
+                attempts++;
+                synchronized (this) {
+                    if (this.reconnectThread != currentThread) {
+                        break;
+                    }
+                    if (this.connectThenPair() && this.listen()) {
+                        this.reconnectThread = null;
+                        TouchPortalPlugin.LOGGER.log(Level.INFO, "Reconnected after " + attempts + " attempt(s)");
+                        this.resync();
+                        int reconnectAttempts = attempts;
+                        this.notifyListeners(DispatchLane.BACKGROUND, this.reconnectedListeners, listener -> listener.onReconnected(reconnectAttempts));
+                        break;
+                    }
+                    else if (this.touchPortalConnection != null) {
+                        // Connected but not paired
+                        try {
+                            this.touchPortalConnection.close();
+                        }
+                        catch (IOException ignored) {}
+                        this.touchPortalConnection = null;
+                    }
+                }
+                backoffMillis = Math.min(backoffMillis * 2, this.reconnectMaxBackoffMillis);
+            }
+        }
+        catch (InterruptedException ignored) {}
+    }
+
+    /**
+     * Internal - Send again the last sent States, Choices and Connector values in a single batch
+     */
+    private void resync() {
+        List<JsonObject> resyncMessages = new ArrayList<>();
+        for (Map.Entry<String, String> currentState : new HashMap<>(this.currentStates).entrySet()) {
+            resyncMessages.add(this.createStateUpdateMessage(currentState.getKey(), currentState.getValue(), true, true));
+        }
+        for (Map.Entry<String, String[]> currentChoice : new HashMap<>(this.currentChoices).entrySet()) {
+            JsonObject choiceUpdateMessage = this.createChoiceUpdateMessage(currentChoice.getKey(), currentChoice.getValue(), true, true);
+            if (choiceUpdateMessage != null) {
+                resyncMessages.add(choiceUpdateMessage);
+            }
+        }
+        for (Map.Entry<String, HashMap<String, String[]>> currentSpecificChoice : new HashMap<>(this.currentSpecificChoices).entrySet()) {
+            for (Map.Entry<String, String[]> currentInstanceChoice : new HashMap<>(currentSpecificChoice.getValue()).entrySet()) {
+                JsonObject specificChoiceUpdateMessage = this.createSpecificChoiceUpdateMessage(currentSpecificChoice.getKey(), currentInstanceChoice.getKey(), currentInstanceChoice.getValue(), true, true);
+                if (specificChoiceUpdateMessage != null) {
+                    resyncMessages.add(specificChoiceUpdateMessage);
+                }
+            }
+        }
+        for (Map.Entry<String, Integer> currentConnectorValue : new HashMap<>(this.currentConnectorValues).entrySet()) {
+            JsonObject connectorUpdateMessage = this.createConnectorUpdateMessage(currentConnectorValue.getKey(), currentConnectorValue.getValue(), true);
+            if (connectorUpdateMessage != null) {
+                resyncMessages.add(connectorUpdateMessage);
+            }
+        }
+        if (!resyncMessages.isEmpty()) {
+            boolean sent = this.send(resyncMessages, SendPriority.HIGH);
+            TouchPortalPlugin.LOGGER.log(Level.INFO, "Resync " + resyncMessages.size() + " values Sent [" + sent + "]");
+        }
+    }
+
+    /**
+     * Reconnect automatically when the connection is lost, with the default backoff (250 milliseconds up to 30 seconds)
+     *
+     * @param autoReconnect boolean
+     * @see #setAutoReconnect(boolean, long, long)
+     */
+    public void setAutoReconnect(boolean autoReconnect) {
+        this.setAutoReconnect(autoReconnect, this.reconnectInitialBackoffMillis, this.reconnectMaxBackoffMillis);
+    }
+
+    /**
+     * Reconnect automatically when the connection is lost
+     * <p>
+     * When enabled, losing the connection does not close the Plugin: the {@link OnDisconnectedListener}s are not called,
+     * held Actions are released, then reconnection is attempted until it succeeds or {@link #close(Exception)} is called.
+     * The delay between two attempts starts at the initial backoff and doubles up to the maximum backoff.
+     * Once paired again, the last sent States, Choices and Connector values are sent again in a single batch, then the {@link OnReconnectedListener}s are called.
+     * Receiving the close Message still closes the Plugin.
+     * </p>
+     *
+     * @param autoReconnect        boolean
+     * @param initialBackoffMillis long
+     * @param maxBackoffMillis     long
+     */
+    public void setAutoReconnect(boolean autoReconnect, long initialBackoffMillis, long maxBackoffMillis) {
+        if (initialBackoffMillis < 1 || maxBackoffMillis < initialBackoffMillis) {
+            throw new IllegalArgumentException("Backoff must be positive and the maximum backoff must not be lower than the initial one");
+        }
+        this.reconnectInitialBackoffMillis = initialBackoffMillis;
+        this.reconnectMaxBackoffMillis = maxBackoffMillis;
+        this.autoReconnect = autoReconnect;
+    }
+
+    /**
+     * Is the Plugin trying to reconnect
+     *
+     * @return boolean isReconnecting
+     */
+    public synchronized boolean isReconnecting() {
+        return this.reconnectThread != null;
+    }
+
+    /**
+     * Internal - Let the pending callbacks complete then write the pending messages
+     * <p>
+     * Callbacks still queued and messages still pending at the deadline are dropped.
+     * When called from a callback, the callbacks of its lane complete after the drain.
+     * </p>
+     *
+     * @param timeoutMillis long - Maximum duration of the drain
+     * @return {@link DrainReport} drainReport
+     */
+    private DrainReport drain(long timeoutMillis) {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        int pendingCallbacks = this.threadPerCallbackPendingCount.get();
+        // Both lanes share one Executor when the Actions are not parallelized
+        Set<DispatchLaneExecutor> dispatchLaneExecutors = new LinkedHashSet<>(this.dispatchLaneExecutors.values());
+        for (DispatchLaneExecutor dispatchLaneExecutor : dispatchLaneExecutors) {
+            pendingCallbacks += dispatchLaneExecutor.getActiveCount() + dispatchLaneExecutor.getQueue().size();
+            dispatchLaneExecutor.shutdown();
+        }
+        this.threadPerCallbackExecutor.shutdown();
+
+        int droppedCallbacks = 0;
+        List<ExecutorService> executors = new ArrayList<>(dispatchLaneExecutors);
+        executors.add(this.threadPerCallbackExecutor);
+        for (ExecutorService executor : executors) {
+            if (executor instanceof DispatchLaneExecutor && ((DispatchLaneExecutor) executor).isCurrentThreadInLane()) {
+                continue;
+            }
+            try {
+                if (!executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    droppedCallbacks += executor.shutdownNow().size();
+                }
+            }
+            catch (InterruptedException interruptedException) {
+                droppedCallbacks += executor.shutdownNow().size();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        int pendingMessages = 0;
+        int droppedMessages = 0;
+        if (this.messageWriter != null) {
+            pendingMessages = this.messageWriter.getPendingCount();
+            droppedMessages = this.messageWriter.close(Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            this.messageWriter = null;
+        }
+
+        return new DrainReport(pendingCallbacks - droppedCallbacks, droppedCallbacks, pendingMessages - droppedMessages, droppedMessages, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    /**
+     * Connect to the Touch Portal Plugin System through the {@link TPTransport}.
      * Then, Send the Pairing message.
      *
      * @return boolean pluginIsConnectedAndPaired
@@ -636,8 +1444,17 @@ public abstract class TouchPortalPlugin {
 
         if (!connectedAndPaired) {
             try {
-                this.touchPortalSocket = new Socket(InetAddress.getByName(TouchPortalPlugin.SOCKET_IP), TouchPortalPlugin.SOCKET_PORT);
+                TPConnection connection = this.transport.connect();
+                this.touchPortalConnection = connection;
+                this.closing = false;
+                this.closePluginReceived = false;
+                this.messageWriter = new MessageWriter(this.metricsRegistry.countWrittenBytes(connection.getOutputStream()), ioException -> this.onConnectionLost(connection, ioException), this::onMessageWritten);
                 connectedAndPaired = this.isConnected() && this.sendPair();
+                if (connectedAndPaired) {
+                    this.stateSourceScheduler.start();
+                    this.scheduleLogSummary();
+                    this.scheduleHandlerAccountingLog();
+                }
             }
             catch (IOException ignored) {}
         }
@@ -671,34 +1488,397 @@ public abstract class TouchPortalPlugin {
      * @return boolean pluginIsConnectedPairedAndListening
      */
     public boolean connectThenPairAndListen(TouchPortalPluginListener touchPortalPluginListener) {
-        this.touchPortalPluginListener = touchPortalPluginListener;
+        this.setTouchPortalPluginListener(touchPortalPluginListener);
 
         return this.connectThenPair() && this.listen();
     }
 
+    /**
+     * Internal - Replace the {@link TouchPortalPluginListener}
+     * <p>
+     * The listener is only registered for the event types it overrides when it is a {@link TouchPortalPluginListenerAdapter}
+     * </p>
+     *
+     * @param touchPortalPluginListener {@link TouchPortalPluginListener}
+     */
+    private void setTouchPortalPluginListener(TouchPortalPluginListener touchPortalPluginListener) {
+        if (this.touchPortalPluginListener != null) {
+            this.removeDisconnectedListener(this.touchPortalPluginListener);
+            this.removeReceivedListener(this.touchPortalPluginListener);
+            this.removeInfoListener(this.touchPortalPluginListener);
+            this.removeListChangedListener(this.touchPortalPluginListener);
+            this.removeBroadcastListener(this.touchPortalPluginListener);
+            this.removeSettingsListener(this.touchPortalPluginListener);
+            this.removeNotificationOptionClickedListener(this.touchPortalPluginListener);
+        }
+        this.touchPortalPluginListener = touchPortalPluginListener;
+        if (touchPortalPluginListener != null) {
+            if (TouchPortalPlugin.isListenerMethodOverridden(touchPortalPluginListener, "onDisconnected", Exception.class)) {
+                this.addDisconnectedListener(touchPortalPluginListener);
+            }
+            if (TouchPortalPlugin.isListenerMethodOverridden(touchPortalPluginListener, "onReceived", JsonObject.class)) {
+                this.addReceivedListener(touchPortalPluginListener);
+            }
+            if (TouchPortalPlugin.isListenerMethodOverridden(touchPortalPluginListener, "onInfo", TPInfoMessage.class)) {
+                this.addInfoListener(touchPortalPluginListener);
+            }
+            if (TouchPortalPlugin.isListenerMethodOverridden(touchPortalPluginListener, "onListChanged", TPListChangedMessage.class)) {
+                this.addListChangedListener(touchPortalPluginListener);
+            }
+            if (TouchPortalPlugin.isListenerMethodOverridden(touchPortalPluginListener, "onBroadcast", TPBroadcastMessage.class)) {
+                this.addBroadcastListener(touchPortalPluginListener);
+            }
+            if (TouchPortalPlugin.isListenerMethodOverridden(touchPortalPluginListener, "onSettings", TPSettingsMessage.class)) {
+                this.addSettingsListener(touchPortalPluginListener);
+            }
+            if (TouchPortalPlugin.isListenerMethodOverridden(touchPortalPluginListener, "onNotificationOptionClicked", TPNotificationOptionClickedMessage.class)) {
+                this.addNotificationOptionClickedListener(touchPortalPluginListener);
+            }
+        }
+    }
+
+    /**
+     * Internal - Check if a listener method is overridden or inherited from {@link TouchPortalPluginListenerAdapter}
+     *
+     * @param touchPortalPluginListener {@link TouchPortalPluginListener}
+     * @param methodName                String
+     * @param parameterType             Class&lt;?&gt;
+     * @return boolean isOverridden
+     */
+    private static boolean isListenerMethodOverridden(TouchPortalPluginListener touchPortalPluginListener, String methodName, Class<?> parameterType) {
+        boolean isOverridden = true;
+        try {
+            isOverridden = touchPortalPluginListener.getClass().getMethod(methodName, parameterType).getDeclaringClass() != TouchPortalPluginListenerAdapter.class;
+        }
+        catch (NoSuchMethodException ignored) {}
+        return isOverridden;
+    }
+
+    /**
+     * Register an {@link OnDisconnectedListener}
+     *
+     * @param onDisconnectedListener {@link OnDisconnectedListener}
+     */
+    public void addDisconnectedListener(OnDisconnectedListener onDisconnectedListener) {
+        if (onDisconnectedListener != null) {
+            this.disconnectedListeners.add(onDisconnectedListener);
+        }
+    }
+
+    /**
+     * Unregister an {@link OnDisconnectedListener}
+     *
+     * @param onDisconnectedListener {@link OnDisconnectedListener}
+     */
+    public void removeDisconnectedListener(OnDisconnectedListener onDisconnectedListener) {
+        this.disconnectedListeners.remove(onDisconnectedListener);
+    }
+
+    /**
+     * Register an {@link OnReceivedListener}
+     *
+     * @param onReceivedListener {@link OnReceivedListener}
+     */
+    public void addReceivedListener(OnReceivedListener onReceivedListener) {
+        if (onReceivedListener != null) {
+            this.receivedListeners.add(onReceivedListener);
+        }
+    }
+
+    /**
+     * Unregister an {@link OnReceivedListener}
+     *
+     * @param onReceivedListener {@link OnReceivedListener}
+     */
+    public void removeReceivedListener(OnReceivedListener onReceivedListener) {
+        this.receivedListeners.remove(onReceivedListener);
+    }
+
+    /**
+     * Register an {@link OnInfoListener}
+     *
+     * @param onInfoListener {@link OnInfoListener}
+     */
+    public void addInfoListener(OnInfoListener onInfoListener) {
+        if (onInfoListener != null) {
+            this.infoListeners.add(onInfoListener);
+        }
+    }
+
+    /**
+     * Unregister an {@link OnInfoListener}
+     *
+     * @param onInfoListener {@link OnInfoListener}
+     */
+    public void removeInfoListener(OnInfoListener onInfoListener) {
+        this.infoListeners.remove(onInfoListener);
+    }
+
+    /**
+     * Register an {@link OnListChangedListener}
+     *
+     * @param onListChangedListener {@link OnListChangedListener}
+     */
+    public void addListChangedListener(OnListChangedListener onListChangedListener) {
+        if (onListChangedListener != null) {
+            this.listChangedListeners.add(onListChangedListener);
+        }
+    }
+
+    /**
+     * Unregister an {@link OnListChangedListener}
+     *
+     * @param onListChangedListener {@link OnListChangedListener}
+     */
+    public void removeListChangedListener(OnListChangedListener onListChangedListener) {
+        this.listChangedListeners.remove(onListChangedListener);
+    }
+
+    /**
+     * Register an {@link OnBroadcastListener}
+     *
+     * @param onBroadcastListener {@link OnBroadcastListener}
+     */
+    public void addBroadcastListener(OnBroadcastListener onBroadcastListener) {
+        if (onBroadcastListener != null) {
+            this.broadcastListeners.add(onBroadcastListener);
+        }
+    }
+
+    /**
+     * Unregister an {@link OnBroadcastListener}
+     *
+     * @param onBroadcastListener {@link OnBroadcastListener}
+     */
+    public void removeBroadcastListener(OnBroadcastListener onBroadcastListener) {
+        this.broadcastListeners.remove(onBroadcastListener);
+    }
+
+    /**
+     * Register an {@link OnSettingsListener}
+     *
+     * @param onSettingsListener {@link OnSettingsListener}
+     */
+    public void addSettingsListener(OnSettingsListener onSettingsListener) {
+        if (onSettingsListener != null) {
+            this.settingsListeners.add(onSettingsListener);
+        }
+    }
+
+    /**
+     * Unregister an {@link OnSettingsListener}
+     *
+     * @param onSettingsListener {@link OnSettingsListener}
+     */
+    public void removeSettingsListener(OnSettingsListener onSettingsListener) {
+        this.settingsListeners.remove(onSettingsListener);
+    }
+
+    /**
+     * Register an {@link OnNotificationOptionClickedListener}
+     *
+     * @param onNotificationOptionClickedListener {@link OnNotificationOptionClickedListener}
+     */
+    public void addNotificationOptionClickedListener(OnNotificationOptionClickedListener onNotificationOptionClickedListener) {
+        if (onNotificationOptionClickedListener != null) {
+            this.notificationOptionClickedListeners.add(onNotificationOptionClickedListener);
+        }
+    }
+
+    /**
+     * Unregister an {@link OnNotificationOptionClickedListener}
+     *
+     * @param onNotificationOptionClickedListener {@link OnNotificationOptionClickedListener}
+     */
+    public void removeNotificationOptionClickedListener(OnNotificationOptionClickedListener onNotificationOptionClickedListener) {
+        this.notificationOptionClickedListeners.remove(onNotificationOptionClickedListener);
+    }
+
+    /**
+     * Register an {@link OnReconnectedListener}
+     *
+     * @param onReconnectedListener {@link OnReconnectedListener}
+     * @see #setAutoReconnect(boolean)
+     */
+    public void addReconnectedListener(OnReconnectedListener onReconnectedListener) {
+        if (onReconnectedListener != null) {
+            this.reconnectedListeners.add(onReconnectedListener);
+        }
+    }
+
+    /**
+     * Unregister an {@link OnReconnectedListener}
+     *
+     * @param onReconnectedListener {@link OnReconnectedListener}
+     */
+    public void removeReconnectedListener(OnReconnectedListener onReconnectedListener) {
+        this.reconnectedListeners.remove(onReconnectedListener);
+    }
+
     /**
      * Internal - Send a Message to the Touch Portal Plugin System
      *
-     * @param message {@link JsonObject}
+     * @param message      {@link JsonObject}
+     * @param sendPriority {@link SendPriority}
      * @return boolean isMessageSent
      */
-    private boolean send(JsonObject message) {
+    private boolean send(JsonObject message, SendPriority sendPriority) {
         boolean sent = false;
-        if (this.isConnected()) {
-            try {
-                if (this.printWriter == null) {
-                    this.printWriter = new PrintWriter(new OutputStreamWriter(this.touchPortalSocket.getOutputStream(), StandardCharsets.UTF_8), true);
-                }
-                this.printWriter.println(message);
+        MessageWriter messageWriter = this.messageWriter;
+        if (this.isConnected() && messageWriter != null) {
+            String serializedMessage = message.toString();
+            Object messageSentEvent = FlightRecorderEvents.beginMessageSent();
+            LatencyTrace latencyTrace = this.getFeedbackLatencyTrace(message);
+            if (messageSentEvent == null && latencyTrace == null) {
+                sent = messageWriter.write(serializedMessage, TouchPortalPlugin.getOrderingKey(message), sendPriority);
+            }
+            else {
+                CompletableFuture<Boolean> flushed = messageWriter.writeAsync(serializedMessage, TouchPortalPlugin.getOrderingKey(message), sendPriority);
+                sent = !flushed.isCompletedExceptionally();
+                this.onFlushed(flushed, messageSentEvent, latencyTrace, message, serializedMessage);
+            }
+            if (sent) {
+                this.recordOutbound(message);
+            }
+        }
+
+        return sent;
+    }
 
-                sent = true;
+    /**
+     * Internal - Send a Message to the Touch Portal Plugin System and get notified once it is flushed to the socket
+     *
+     * @param message      {@link JsonObject}
+     * @param sendPriority {@link SendPriority}
+     * @return CompletableFuture&lt;Boolean&gt; flushed - Completes with true once flushed, exceptionally with an IOException if it could not be written
+     */
+    private CompletableFuture<Boolean> sendAsync(JsonObject message, SendPriority sendPriority) {
+        CompletableFuture<Boolean> flushed;
+        MessageWriter messageWriter = this.messageWriter;
+        if (this.isConnected() && messageWriter != null) {
+            String serializedMessage = message.toString();
+            Object messageSentEvent = FlightRecorderEvents.beginMessageSent();
+            flushed = messageWriter.writeAsync(serializedMessage, TouchPortalPlugin.getOrderingKey(message), sendPriority);
+            if (!flushed.isCompletedExceptionally()) {
+                this.recordOutbound(message);
+            }
+            this.onFlushed(flushed, messageSentEvent, this.getFeedbackLatencyTrace(message), message, serializedMessage);
+        }
+        else {
+            flushed = new CompletableFuture<>();
+            flushed.completeExceptionally(new IOException("Not connected"));
+        }
+
+        return flushed;
+    }
+
+    /**
+     * Internal - Send Messages in a single batch to the Touch Portal Plugin System
+     *
+     * @param messages     List&lt;{@link JsonObject}&gt;
+     * @param sendPriority {@link SendPriority}
+     * @return boolean areMessagesSent
+     */
+    private boolean send(List<JsonObject> messages, SendPriority sendPriority) {
+        boolean sent = false;
+        MessageWriter messageWriter = this.messageWriter;
+        if (this.isConnected() && messageWriter != null) {
+            List<String> serializedMessages = messages.stream().map(JsonObject::toString).collect(Collectors.toList());
+            List<String> orderingKeys = messages.stream().map(TouchPortalPlugin::getOrderingKey).collect(Collectors.toList());
+            Object firstMessageSentEvent = FlightRecorderEvents.beginMessageSent();
+            if (firstMessageSentEvent == null && LatencyTrace.current() == null) {
+                sent = messageWriter.write(serializedMessages, orderingKeys, sendPriority);
+            }
+            else {
+                List<CompletableFuture<Boolean>> flushed = messageWriter.writeAsync(serializedMessages, orderingKeys, sendPriority);
+                sent = flushed.stream().noneMatch(CompletableFuture::isCompletedExceptionally);
+                for (int i = 0; i < messages.size(); i++) {
+                    Object messageSentEvent = i == 0 ? firstMessageSentEvent : FlightRecorderEvents.beginMessageSent();
+                    this.onFlushed(flushed.get(i), messageSentEvent, this.getFeedbackLatencyTrace(messages.get(i)), messages.get(i), serializedMessages.get(i));
+                }
+            }
+            if (sent) {
+                messages.forEach(this::recordOutbound);
             }
-            catch (IOException ignored) {}
         }
 
         return sent;
     }
 
+    /**
+     * Internal - Get the ID of the State, Choice or Connector a Message updates, so that it is never written before an earlier Message for the same ID
+     *
+     * @param message {@link JsonObject}
+     * @return String orderingKey - null if the Message does not update an ID
+     */
+    private static String getOrderingKey(JsonObject message) {
+        JsonElement orderingKey = message.get(SentMessageHelper.ID);
+        if (orderingKey == null) {
+            orderingKey = message.get(SentMessageHelper.CONNECTOR_ID);
+        }
+        if (orderingKey == null) {
+            orderingKey = message.get(SentMessageHelper.SHORT_ID);
+        }
+        return orderingKey != null && orderingKey.isJsonPrimitive() ? orderingKey.getAsString() : null;
+    }
+
+    /**
+     * Internal - Get the latency trace a Message is the feedback of
+     *
+     * @param message {@link JsonObject}
+     * @return {@link LatencyTrace} latencyTrace - null if the Message is not a State or Connector update sent while handling a traced message
+     */
+    private LatencyTrace getFeedbackLatencyTrace(JsonObject message) {
+        LatencyTrace latencyTrace = LatencyTrace.current();
+        if (latencyTrace != null) {
+            JsonElement type = message.get(SentMessageHelper.TYPE);
+            if (type == null || !(SentMessageHelper.TYPE_STATE_UPDATE.equals(type.getAsString()) || SentMessageHelper.TYPE_CONNECTOR_UPDATE.equals(type.getAsString()))) {
+                latencyTrace = null;
+            }
+        }
+        return latencyTrace;
+    }
+
+    /**
+     * Internal - Commit the JFR event and complete the latency trace of a sent Message once it is flushed
+     *
+     * @param flushed           CompletableFuture&lt;Boolean&gt;
+     * @param messageSentEvent  Object - null if not recorded
+     * @param latencyTrace      {@link LatencyTrace} - null if not traced
+     * @param message           {@link JsonObject}
+     * @param serializedMessage String
+     */
+    private void onFlushed(CompletableFuture<Boolean> flushed, Object messageSentEvent, LatencyTrace latencyTrace, JsonObject message, String serializedMessage) {
+        if (latencyTrace != null) {
+            flushed.thenRun(() -> {
+                long latencyNanos = latencyTrace.complete(System.nanoTime());
+                if (latencyNanos >= 0) {
+                    this.metricsRegistry.recordFeedbackLatency(latencyTrace.getInvokableId(), latencyNanos);
+                }
+            });
+        }
+        if (messageSentEvent != null) {
+            flushed.thenRun(() -> {
+                JsonElement type = message.get(SentMessageHelper.TYPE);
+                JsonElement id = message.has(SentMessageHelper.ID) ? message.get(SentMessageHelper.ID) : message.has(SentMessageHelper.SHORT_ID) ? message.get(SentMessageHelper.SHORT_ID) : message.get(SentMessageHelper.CONNECTOR_ID);
+                // The trailing line break is part of the written bytes
+                FlightRecorderEvents.commitMessageSent(messageSentEvent, type != null ? type.getAsString() : null, id != null ? id.getAsString() : null, FlightRecorderEvents.utf8Length(serializedMessage) + 1);
+            });
+        }
+    }
+
+    /**
+     * Internal - Count a queued Message by type
+     *
+     * @param message {@link JsonObject}
+     */
+    private void recordOutbound(JsonObject message) {
+        JsonElement type = message.get(SentMessageHelper.TYPE);
+        if (type != null) {
+            this.metricsRegistry.recordOutbound(type.getAsString());
+        }
+    }
+
     /**
      * Send a Choice Update Message to the Touch Portal Plugin System without allowing empty array values
      *
@@ -712,6 +1892,9 @@ public abstract class TouchPortalPlugin {
 
     /**
      * Send a Choice Update Message to the Touch Portal Plugin System
+     * <p>
+     * Sent with {@link SendPriority#LOW} so that a large list never delays the feedback of the Actions
+     * </p>
      *
      * @param listId                String
      * @param values                String[]
@@ -719,10 +1902,68 @@ public abstract class TouchPortalPlugin {
      * @return boolean choiceUpdateMessageSent
      */
     public boolean sendChoiceUpdate(String listId, String[] values, boolean allowEmptyArrayValues) {
+        return this.sendChoiceUpdate(listId, values, allowEmptyArrayValues, SendPriority.LOW);
+    }
+
+    /**
+     * Send a Choice Update Message to the Touch Portal Plugin System
+     *
+     * @param listId                String
+     * @param values                String[]
+     * @param allowEmptyArrayValues boolean
+     * @param sendPriority          {@link SendPriority}
+     * @return boolean choiceUpdateMessageSent
+     */
+    public boolean sendChoiceUpdate(String listId, String[] values, boolean allowEmptyArrayValues, SendPriority sendPriority) {
         boolean sent = false;
+        JsonObject choiceUpdateMessage = this.createChoiceUpdateMessage(listId, values, allowEmptyArrayValues, false);
+        if (choiceUpdateMessage != null) {
+            sent = this.send(choiceUpdateMessage, sendPriority);
+            if (sent) {
+                this.currentChoices.put(listId, values);
+            }
+            this.logSampler.log(SentMessageHelper.TYPE_CHOICE_UPDATE, listId, sent, () -> "Update Choices [" + listId + "]");
+        }
+
+        return sent;
+    }
+
+    /**
+     * Send a Choice Update Message to the Touch Portal Plugin System and get notified once it is flushed to the socket
+     *
+     * @param listId                String
+     * @param values                String[]
+     * @param allowEmptyArrayValues boolean
+     * @param sendPriority          {@link SendPriority}
+     * @return CompletableFuture&lt;Boolean&gt; flushed - Completes with false if there was nothing to send, with true once flushed, exceptionally with an IOException if it could not be written
+     */
+    public CompletableFuture<Boolean> sendChoiceUpdateAsync(String listId, String[] values, boolean allowEmptyArrayValues, SendPriority sendPriority) {
+        CompletableFuture<Boolean> flushed = CompletableFuture.completedFuture(false);
+        JsonObject choiceUpdateMessage = this.createChoiceUpdateMessage(listId, values, allowEmptyArrayValues, false);
+        if (choiceUpdateMessage != null) {
+            flushed = this.sendAsync(choiceUpdateMessage, sendPriority);
+            if (!flushed.isCompletedExceptionally()) {
+                this.currentChoices.put(listId, values);
+            }
+        }
+
+        return flushed;
+    }
+
+    /**
+     * Internal - Create a Choice Update Message if the values changed since the last sent ones
+     *
+     * @param listId                String
+     * @param values                String[]
+     * @param allowEmptyArrayValues boolean
+     * @param forceUpdate           boolean
+     * @return JsonObject choiceUpdateMessage - null if there is nothing to send
+     */
+    private JsonObject createChoiceUpdateMessage(String listId, String[] values, boolean allowEmptyArrayValues, boolean forceUpdate) {
+        JsonObject choiceUpdateMessage = null;
         if (listId != null && !listId.isEmpty() && (allowEmptyArrayValues || (values != null && values.length > 0))) {
-            if (!this.currentChoices.containsKey(listId) || !Arrays.equals(this.currentChoices.get(listId), values)) {
-                JsonObject choiceUpdateMessage = new JsonObject();
+            if (forceUpdate || !this.currentChoices.containsKey(listId) || !Arrays.equals(this.currentChoices.get(listId), values)) {
+                choiceUpdateMessage = new JsonObject();
                 choiceUpdateMessage.addProperty(SentMessageHelper.TYPE, SentMessageHelper.TYPE_CHOICE_UPDATE);
                 choiceUpdateMessage.addProperty(SentMessageHelper.ID, listId);
                 JsonArray jsonValues = new JsonArray();
@@ -737,15 +1978,13 @@ public abstract class TouchPortalPlugin {
                     }
                 }
                 choiceUpdateMessage.add(SentMessageHelper.VALUE, jsonValues);
-                sent = this.send(choiceUpdateMessage);
-                if (sent) {
-                    this.currentChoices.put(listId, values);
-                }
-                TouchPortalPlugin.LOGGER.log(Level.INFO, "Update Choices [" + listId + "] Sent [" + sent + "]");
+            }
+            else {
+                this.metricsRegistry.recordChoiceDedupHit();
             }
         }
 
-        return sent;
+        return choiceUpdateMessage;
     }
 
     /**
@@ -770,11 +2009,48 @@ public abstract class TouchPortalPlugin {
      * @return boolean specificChoiceUpdateMessageSent
      */
     public boolean sendSpecificChoiceUpdate(String choiceId, String instanceId, String[] values, boolean allowEmptyArrayValues) {
+        return this.sendSpecificChoiceUpdate(choiceId, instanceId, values, allowEmptyArrayValues, SendPriority.LOW);
+    }
+
+    /**
+     * Send a Specific Choice Update Message to the Touch Portal Plugin System
+     *
+     * @param choiceId              String
+     * @param instanceId            String
+     * @param values                String[]
+     * @param allowEmptyArrayValues boolean
+     * @param sendPriority          {@link SendPriority}
+     * @return boolean specificChoiceUpdateMessageSent
+     */
+    public boolean sendSpecificChoiceUpdate(String choiceId, String instanceId, String[] values, boolean allowEmptyArrayValues, SendPriority sendPriority) {
         boolean sent = false;
-        String choiceKey = choiceId + ":" + instanceId;
+        JsonObject specificChoiceUpdateMessage = this.createSpecificChoiceUpdateMessage(choiceId, instanceId, values, allowEmptyArrayValues, false);
+        if (specificChoiceUpdateMessage != null) {
+            sent = this.send(specificChoiceUpdateMessage, sendPriority);
+            if (sent) {
+                this.currentSpecificChoices.computeIfAbsent(choiceId, id -> new HashMap<>()).put(instanceId, values);
+            }
+            this.logSampler.log(SentMessageHelper.TYPE_CHOICE_UPDATE, choiceId, sent, () -> "Update Specific Choices [" + choiceId + "]");
+        }
+        return sent;
+    }
+
+    /**
+     * Internal - Create a Specific Choice Update Message if the values changed since the last sent ones for this instance
+     *
+     * @param choiceId              String
+     * @param instanceId            String
+     * @param values                String[]
+     * @param allowEmptyArrayValues boolean
+     * @param forceUpdate           boolean
+     * @return JsonObject specificChoiceUpdateMessage - null if there is nothing to send
+     */
+    private JsonObject createSpecificChoiceUpdateMessage(String choiceId, String instanceId, String[] values, boolean allowEmptyArrayValues, boolean forceUpdate) {
+        JsonObject specificChoiceUpdateMessage = null;
         if (choiceId != null && !choiceId.isEmpty() && instanceId != null && !instanceId.isEmpty() && (allowEmptyArrayValues || (values != null && values.length > 0))) {
-            if (!this.currentChoices.containsKey(choiceKey) || !Arrays.equals(this.currentChoices.get(choiceKey), values)) {
-                JsonObject specificChoiceUpdateMessage = new JsonObject();
+            HashMap<String, String[]> currentInstanceChoices = this.currentSpecificChoices.get(choiceId);
+            if (forceUpdate || currentInstanceChoices == null || !currentInstanceChoices.containsKey(instanceId) || !Arrays.equals(currentInstanceChoices.get(instanceId), values)) {
+                specificChoiceUpdateMessage = new JsonObject();
                 specificChoiceUpdateMessage.addProperty(SentMessageHelper.TYPE, SentMessageHelper.TYPE_CHOICE_UPDATE);
                 specificChoiceUpdateMessage.addProperty(SentMessageHelper.ID, choiceId);
                 specificChoiceUpdateMessage.addProperty(SentMessageHelper.INSTANCE_ID, instanceId);
@@ -790,14 +2066,13 @@ public abstract class TouchPortalPlugin {
                     }
                 }
                 specificChoiceUpdateMessage.add(SentMessageHelper.VALUE, jsonValues);
-                sent = this.send(specificChoiceUpdateMessage);
-                if (sent) {
-                    this.currentChoices.put(choiceKey, values);
-                }
-                TouchPortalPlugin.LOGGER.log(Level.INFO, "Update Specific Choices [" + choiceId + "] Sent [" + sent + "]");
+            }
+            else {
+                this.metricsRegistry.recordChoiceDedupHit();
             }
         }
-        return sent;
+
+        return specificChoiceUpdateMessage;
     }
 
     /**
@@ -821,22 +2096,184 @@ public abstract class TouchPortalPlugin {
      * @return boolean stateUpdateMessageSent
      */
     public boolean sendStateUpdate(String stateId, Object value, boolean allowEmptyValue, boolean forceUpdate) {
+        return this.sendStateUpdate(stateId, value, allowEmptyValue, forceUpdate, SendPriority.HIGH);
+    }
+
+    /**
+     * Send a State Update Message to the Touch Portal Plugin System
+     * <p>
+     * Use {@link SendPriority#LOW} for bulk refreshes so they do not delay the feedback of the Actions
+     * </p>
+     *
+     * @param stateId         String
+     * @param value           Object
+     * @param allowEmptyValue boolean
+     * @param forceUpdate     boolean
+     * @param sendPriority    {@link SendPriority}
+     * @return boolean stateUpdateMessageSent
+     */
+    public boolean sendStateUpdate(String stateId, Object value, boolean allowEmptyValue, boolean forceUpdate, SendPriority sendPriority) {
         boolean sent = false;
+        JsonObject stateUpdateMessage = this.createStateUpdateMessage(stateId, value, allowEmptyValue, forceUpdate);
+        if (stateUpdateMessage != null) {
+            sent = this.send(stateUpdateMessage, sendPriority);
+            if (sent) {
+                this.currentStates.put(stateId, stateUpdateMessage.get(SentMessageHelper.VALUE).getAsString());
+            }
+            this.logSampler.log(SentMessageHelper.TYPE_STATE_UPDATE, stateId, sent, () -> "Update State [" + stateId + "]");
+        }
+        return sent;
+    }
+
+    /**
+     * Send a State Update Message to the Touch Portal Plugin System not allowing empty value and get notified once it is flushed to the socket
+     *
+     * @param stateId String
+     * @param value   Object
+     * @return CompletableFuture&lt;Boolean&gt; flushed - Completes with false if there was nothing to send, with true once flushed, exceptionally with an IOException if it could not be written
+     * @see #sendStateUpdateAsync(String, Object, boolean, boolean, SendPriority)
+     */
+    public CompletableFuture<Boolean> sendStateUpdateAsync(String stateId, Object value) {
+        return this.sendStateUpdateAsync(stateId, value, false, false, SendPriority.HIGH);
+    }
+
+    /**
+     * Send a State Update Message to the Touch Portal Plugin System and get notified once it is flushed to the socket
+     * <p>
+     * Unlike {@link #sendStateUpdate(String, Object, boolean, boolean, SendPriority)}, the future tells whether the message actually reached the socket.
+     * Many updates can be sent without blocking and joined afterwards, for example with CompletableFuture.allOf.
+     * </p>
+     *
+     * @param stateId         String
+     * @param value           Object
+     * @param allowEmptyValue boolean
+     * @param forceUpdate     boolean
+     * @param sendPriority    {@link SendPriority}
+     * @return CompletableFuture&lt;Boolean&gt; flushed - Completes with false if there was nothing to send, with true once flushed, exceptionally with an IOException if it could not be written
+     */
+    public CompletableFuture<Boolean> sendStateUpdateAsync(String stateId, Object value, boolean allowEmptyValue, boolean forceUpdate, SendPriority sendPriority) {
+        CompletableFuture<Boolean> flushed = CompletableFuture.completedFuture(false);
+        JsonObject stateUpdateMessage = this.createStateUpdateMessage(stateId, value, allowEmptyValue, forceUpdate);
+        if (stateUpdateMessage != null) {
+            flushed = this.sendAsync(stateUpdateMessage, sendPriority);
+            if (!flushed.isCompletedExceptionally()) {
+                this.currentStates.put(stateId, stateUpdateMessage.get(SentMessageHelper.VALUE).getAsString());
+            }
+        }
+        return flushed;
+    }
+
+    /**
+     * Internal - Create a State Update Message if the value changed since the last sent one
+     *
+     * @param stateId         String
+     * @param value           Object
+     * @param allowEmptyValue boolean
+     * @param forceUpdate     boolean
+     * @return JsonObject stateUpdateMessage - null if there is nothing to send
+     */
+    private JsonObject createStateUpdateMessage(String stateId, Object value, boolean allowEmptyValue, boolean forceUpdate) {
+        JsonObject stateUpdateMessage = null;
         String valueStr = value != null ? String.valueOf(value) : null;
         if (stateId != null && !stateId.isEmpty() && valueStr != null && (allowEmptyValue || !valueStr.isEmpty())) {
             if (forceUpdate || (!this.currentStates.containsKey(stateId) || !this.currentStates.get(stateId).equals(valueStr))) {
-                JsonObject stateUpdateMessage = new JsonObject();
+                stateUpdateMessage = new JsonObject();
                 stateUpdateMessage.addProperty(SentMessageHelper.TYPE, SentMessageHelper.TYPE_STATE_UPDATE);
                 stateUpdateMessage.addProperty(SentMessageHelper.ID, stateId);
                 stateUpdateMessage.addProperty(SentMessageHelper.VALUE, valueStr);
-                sent = this.send(stateUpdateMessage);
-                if (sent) {
-                    this.currentStates.put(stateId, valueStr);
-                }
-                TouchPortalPlugin.LOGGER.log(Level.INFO, "Update State [" + stateId + "] Sent [" + sent + "]");
+            }
+            else {
+                this.metricsRegistry.recordStateDedupHit();
+            }
+        }
+        return stateUpdateMessage;
+    }
+
+    /**
+     * Register a State Source polled every refresh interval with {@link SendPriority#LOW}
+     *
+     * @param stateId               String
+     * @param supplier              Supplier&lt;?&gt; - Must not block, returning null skips the update
+     * @param refreshIntervalMillis long
+     * @return {@link TPStateSource} tpStateSource
+     * @see #registerStateSource(String, Supplier, long, SendPriority)
+     */
+    public TPStateSource registerStateSource(String stateId, Supplier<?> supplier, long refreshIntervalMillis) {
+        return this.registerStateSource(stateId, supplier, refreshIntervalMillis, SendPriority.LOW);
+    }
+
+    /**
+     * Register a State Source polled every refresh interval
+     * <p>
+     * All the sources are polled by one shared scheduler, on the {@link DispatchLane#BACKGROUND} lane.
+     * Sources due at about the same time are polled together and their changed values are sent in a single batch.
+     * Polling starts once connected and stops on close.
+     * </p>
+     *
+     * @param stateId               String
+     * @param supplier              Supplier&lt;?&gt; - Must not block, returning null skips the update
+     * @param refreshIntervalMillis long
+     * @param sendPriority          {@link SendPriority}
+     * @return {@link TPStateSource} tpStateSource - Cancel it to stop polling
+     */
+    public TPStateSource registerStateSource(String stateId, Supplier<?> supplier, long refreshIntervalMillis, SendPriority sendPriority) {
+        if (stateId == null || stateId.isEmpty() || supplier == null) {
+            throw new IllegalArgumentException("State Source needs a State ID and a Supplier");
+        }
+        if (refreshIntervalMillis < 1) {
+            throw new IllegalArgumentException("Refresh interval must be positive");
+        }
+        TPStateSource tpStateSource = new TPStateSource(stateId, supplier, refreshIntervalMillis, sendPriority, this.stateSourceScheduler);
+        this.stateSourceScheduler.add(tpStateSource);
+        return tpStateSource;
+    }
+
+    /**
+     * Internal - Poll the due State Sources and send their changed values, one batch per priority
+     * <p>
+     * Ticks happening while the previous batch is still being polled are skipped
+     * </p>
+     *
+     * @param dueStateSources List&lt;{@link TPStateSource}&gt;
+     */
+    private void pollStateSources(List<TPStateSource> dueStateSources) {
+        if (this.pollingStateSources.compareAndSet(false, true)) {
+            try {
+                this.dispatch(DispatchLane.BACKGROUND, () -> {
+                    try {
+                        EnumMap<SendPriority, List<JsonObject>> stateUpdateMessages = new EnumMap<>(SendPriority.class);
+                        for (TPStateSource tpStateSource : dueStateSources) {
+                            if (!tpStateSource.isCancelled()) {
+                                try {
+                                    JsonObject stateUpdateMessage = this.createStateUpdateMessage(tpStateSource.getStateId(), tpStateSource.poll(), false, false);
+                                    if (stateUpdateMessage != null) {
+                                        stateUpdateMessages.computeIfAbsent(tpStateSource.getSendPriority(), sendPriority -> new ArrayList<>()).add(stateUpdateMessage);
+                                    }
+                                }
+                                catch (Exception e) {
+                                    TouchPortalPlugin.LOGGER.log(Level.WARNING, "State Source [" + tpStateSource.getStateId() + "] could not be polled", e);
+                                }
+                            }
+                        }
+                        for (Map.Entry<SendPriority, List<JsonObject>> stateUpdateMessagesEntry : stateUpdateMessages.entrySet()) {
+                            boolean sent = this.send(stateUpdateMessagesEntry.getValue(), stateUpdateMessagesEntry.getKey());
+                            if (sent) {
+                                for (JsonObject stateUpdateMessage : stateUpdateMessagesEntry.getValue()) {
+                                    this.currentStates.put(stateUpdateMessage.get(SentMessageHelper.ID).getAsString(), stateUpdateMessage.get(SentMessageHelper.VALUE).getAsString());
+                                }
+                            }
+                            TouchPortalPlugin.LOGGER.log(Level.FINE, "Update " + stateUpdateMessagesEntry.getValue().size() + " States Sent [" + sent + "]");
+                        }
+                    }
+                    finally {
+                        this.pollingStateSources.set(false);
+                    }
+                });
+            }
+            catch (RejectedExecutionException e) {
+                this.pollingStateSources.set(false);
             }
         }
-        return sent;
     }
 
     /**
@@ -923,11 +2360,12 @@ public abstract class TouchPortalPlugin {
                     createStateMessage.addProperty(SentMessageHelper.PARENT_GROUP, parentGroup);
                 }
 
-                sent = this.send(createStateMessage);
+                sent = this.send(createStateMessage, SendPriority.HIGH);
                 if (sent) {
                     this.currentStates.put(stateId, valueStr);
                 }
-                TouchPortalPlugin.LOGGER.info("Create State [" + stateId + "] Sent [" + sent + "]");
+                String createdStateId = stateId;
+                this.logSampler.log(SentMessageHelper.TYPE_CREATE_STATE, createdStateId, sent, () -> "Create State [" + createdStateId + "]");
             }
             else {
                 sent = this.sendStateUpdate(stateId, value, allowEmptyValue, forceUpdate);
@@ -950,11 +2388,12 @@ public abstract class TouchPortalPlugin {
             JsonObject removeStateMessage = new JsonObject();
             removeStateMessage.addProperty(SentMessageHelper.TYPE, SentMessageHelper.TYPE_REMOVE_STATE);
             removeStateMessage.addProperty(SentMessageHelper.ID, stateId);
-            sent = this.send(removeStateMessage);
+            sent = this.send(removeStateMessage, SendPriority.HIGH);
             if (sent) {
                 this.currentStates.remove(stateId);
             }
-            TouchPortalPlugin.LOGGER.log(Level.INFO, "Remove State [" + stateId + "] Sent [" + sent + "]");
+            String removedStateId = stateId;
+            this.logSampler.log(SentMessageHelper.TYPE_REMOVE_STATE, removedStateId, sent, () -> "Remove State [" + removedStateId + "]");
         }
         return sent;
     }
@@ -982,8 +2421,8 @@ public abstract class TouchPortalPlugin {
             }
             actionDataUpdate.add(SentMessageHelper.DATA, actionDataUpdateDataObject);
 
-            sent = this.send(actionDataUpdate);
-            TouchPortalPlugin.LOGGER.log(Level.INFO, "Action Data Update [" + actionDataId + "] Sent [" + sent + "]");
+            sent = this.send(actionDataUpdate, SendPriority.HIGH);
+            this.logSampler.log(SentMessageHelper.TYPE_ACTION_DATA_UPDATE, actionDataId, sent, () -> "Action Data Update [" + actionDataId + "]");
         }
 
         return sent;
@@ -1005,11 +2444,11 @@ public abstract class TouchPortalPlugin {
                 settingUpdateMessage.addProperty(SentMessageHelper.TYPE, SentMessageHelper.TYPE_SETTING_UPDATE);
                 settingUpdateMessage.addProperty(SentMessageHelper.NAME, settingName);
                 settingUpdateMessage.addProperty(SentMessageHelper.VALUE, value);
-                sent = this.send(settingUpdateMessage);
+                sent = this.send(settingUpdateMessage, SendPriority.HIGH);
                 if (sent) {
                     this.tpInfoMessage.settings.put(settingName, value);
                 }
-                TouchPortalPlugin.LOGGER.log(Level.INFO, "Update Setting [" + settingName + "] Sent [" + sent + "]");
+                this.logSampler.log(SentMessageHelper.TYPE_SETTING_UPDATE, settingName, sent, () -> "Update Setting [" + settingName + "]");
             }
         }
         return sent;
@@ -1043,8 +2482,8 @@ public abstract class TouchPortalPlugin {
             }
             showNotificationMessage.add(SentMessageHelper.OPTIONS, jsonOptions);
 
-            sent = this.send(showNotificationMessage);
-            TouchPortalPlugin.LOGGER.info("Show Notification [" + notificationId + "] Sent [" + sent + "]");
+            sent = this.send(showNotificationMessage, SendPriority.HIGH);
+            this.logSampler.log(SentMessageHelper.TYPE_SHOW_NOTIFICATION, notificationId, sent, () -> "Show Notification [" + notificationId + "]");
         }
 
         return sent;
@@ -1073,8 +2512,8 @@ public abstract class TouchPortalPlugin {
                 triggerEventMessage.add(SentMessageHelper.STATES, jsonStates);
             }
 
-            sent = this.send(triggerEventMessage);
-            TouchPortalPlugin.LOGGER.info("Trigger Event [" + eventId + "] Sent [" + sent + "]");
+            sent = this.send(triggerEventMessage, SendPriority.HIGH);
+            this.logSampler.log(SentMessageHelper.TYPE_TRIGGER_EVENT, eventId, sent, () -> "Trigger Event [" + eventId + "]");
         }
 
         return sent;
@@ -1102,30 +2541,72 @@ public abstract class TouchPortalPlugin {
      */
     private boolean sendConnectorUpdate(String constructedConnectorId, Integer value) {
         boolean sent = false;
-        if (constructedConnectorId != null && !constructedConnectorId.isEmpty() && value != null && value >= 0 && value <= 100 && !value.equals(this.currentConnectorValues.get(constructedConnectorId))) {
-            JsonObject connectorUpdateMessage = new JsonObject();
-            connectorUpdateMessage.addProperty(SentMessageHelper.TYPE, SentMessageHelper.TYPE_CONNECTOR_UPDATE);
-            String shortId = this.getConnectorShortId(constructedConnectorId);
-            if (shortId != null) {
-                connectorUpdateMessage.addProperty(SentMessageHelper.SHORT_ID, shortId);
-            }
-            else if (constructedConnectorId.length() <= 200){
-                connectorUpdateMessage.addProperty(SentMessageHelper.CONNECTOR_ID, constructedConnectorId);
+        JsonObject connectorUpdateMessage = this.createConnectorUpdateMessage(constructedConnectorId, value, false);
+        if (connectorUpdateMessage != null) {
+            sent = this.send(connectorUpdateMessage, SendPriority.HIGH);
+            if (sent) {
+                this.currentConnectorValues.put(constructedConnectorId, value);
             }
-            connectorUpdateMessage.addProperty(SentMessageHelper.VALUE, value);
+            this.logSampler.log(SentMessageHelper.TYPE_CONNECTOR_UPDATE, constructedConnectorId, sent, () -> "Connector Update [" + constructedConnectorId + "]");
+        }
 
-            if (connectorUpdateMessage.has(SentMessageHelper.SHORT_ID) || connectorUpdateMessage.has(SentMessageHelper.CONNECTOR_ID)) {
-                sent = this.send(connectorUpdateMessage);
-            }
-            if (sent) {
+        return sent;
+    }
+
+    /**
+     * Send a Connector Update Message to the Touch Portal Plugin System and get notified once it is flushed to the socket
+     *
+     * @param pluginId      String
+     * @param connectorId   String
+     * @param value         Integer
+     * @param data          Map&lt;String, Object&gt;
+     * @return CompletableFuture&lt;Boolean&gt; flushed - Completes with false if there was nothing to send, with true once flushed, exceptionally with an IOException if it could not be written
+     */
+    public CompletableFuture<Boolean> sendConnectorUpdateAsync(String pluginId, String connectorId, Integer value, Map<String, Object> data) {
+        CompletableFuture<Boolean> flushed = CompletableFuture.completedFuture(false);
+        String constructedConnectorId = ConnectorHelper.getConstructedId(pluginId, connectorId, value, data);
+        JsonObject connectorUpdateMessage = this.createConnectorUpdateMessage(constructedConnectorId, value, false);
+        if (connectorUpdateMessage != null) {
+            flushed = this.sendAsync(connectorUpdateMessage, SendPriority.HIGH);
+            if (!flushed.isCompletedExceptionally()) {
                 this.currentConnectorValues.put(constructedConnectorId, value);
             }
-            if (shortId != null || constructedConnectorId.length() <= 200) {
-                TouchPortalPlugin.LOGGER.log(Level.INFO, "Connector Update [" + constructedConnectorId + "] Sent [" + sent + "]");
+        }
+
+        return flushed;
+    }
+
+    /**
+     * Internal - Create a Connector Update Message if the value changed since the last sent one
+     *
+     * @param constructedConnectorId    String
+     * @param value                     Integer
+     * @param forceUpdate               boolean
+     * @return JsonObject connectorUpdateMessage - null if there is nothing to send or the Connector ID is too long without a Short ID
+     */
+    private JsonObject createConnectorUpdateMessage(String constructedConnectorId, Integer value, boolean forceUpdate) {
+        JsonObject connectorUpdateMessage = null;
+        if (constructedConnectorId != null && !constructedConnectorId.isEmpty() && value != null && value >= 0 && value <= 100) {
+            if (!forceUpdate && value.equals(this.currentConnectorValues.get(constructedConnectorId))) {
+                this.metricsRegistry.recordConnectorValueDedupHit();
+            }
+            else {
+                String shortId = this.getConnectorShortId(constructedConnectorId);
+                if (shortId != null || constructedConnectorId.length() <= 200) {
+                    connectorUpdateMessage = new JsonObject();
+                    connectorUpdateMessage.addProperty(SentMessageHelper.TYPE, SentMessageHelper.TYPE_CONNECTOR_UPDATE);
+                    if (shortId != null) {
+                        connectorUpdateMessage.addProperty(SentMessageHelper.SHORT_ID, shortId);
+                    }
+                    else {
+                        connectorUpdateMessage.addProperty(SentMessageHelper.CONNECTOR_ID, constructedConnectorId);
+                    }
+                    connectorUpdateMessage.addProperty(SentMessageHelper.VALUE, value);
+                }
             }
         }
 
-        return sent;
+        return connectorUpdateMessage;
     }
 
     private String getConnectorShortId(String constructedConnectorId) {
@@ -1153,7 +2634,107 @@ public abstract class TouchPortalPlugin {
      * @return boolean isPluginConnected
      */
     public boolean isConnected() {
-        return this.touchPortalSocket != null && this.touchPortalSocket.isConnected();
+        TPConnection connection = this.touchPortalConnection;
+        return connection != null && connection.isOpen();
+    }
+
+    /**
+     * Replace the {@link TPTransport} used by the next connections
+     * <p>
+     * Default is a {@link TPSocketTransport} to the Touch Portal Plugin System, on 127.0.0.1:12136
+     * </p>
+     *
+     * @param transport {@link TPTransport}
+     */
+    public void setTransport(TPTransport transport) {
+        if (transport == null) {
+            throw new IllegalArgumentException("Transport is null");
+        }
+        this.transport = transport;
+    }
+
+    /**
+     * Set the maximum size of a received message
+     * <p>
+     * Larger messages are skipped instead of being buffered, so a corrupt stream cannot allocate unbounded memory.
+     * Default is 1 MB, applied from the next connection
+     * </p>
+     *
+     * @param maxMessageSize int - Size in bytes
+     */
+    public void setMaxMessageSize(int maxMessageSize) {
+        if (maxMessageSize <= 0) {
+            throw new IllegalArgumentException("Max message size must be positive");
+        }
+        this.maxMessageSize = maxMessageSize;
+    }
+
+    /**
+     * Trace the latency from a received Action or Connector change to its first feedback
+     * <p>
+     * The latency goes from the message line being read to the first State or Connector update sent while handling it being flushed.
+     * Updates sent from its Action or Connector handler, or from the received listeners notified of it, are attributed to it.
+     * They are recorded by Action or Connector ID in {@link MetricsSnapshot#getFeedbackLatencies()}. Disabled by default
+     * </p>
+     *
+     * @param latencyTracing boolean
+     */
+    public void setLatencyTracing(boolean latencyTracing) {
+        this.latencyTracing = latencyTracing;
+    }
+
+    /**
+     * Set the sampling of the log lines written for the sent updates of a message type
+     * <p>
+     * Every update is logged by default. Use {@link LogSampling#oneIn(long)} or {@link LogSampling#maxPerSecondPerId(int)} for high frequency States or Connectors.
+     * The sampled out updates are still counted in the summary, see {@link #setLogSummaryInterval(long)}. Can be changed at runtime
+     * </p>
+     *
+     * @param messageType String - One of the SentMessageHelper TYPE_* constants
+     * @param logSampling {@link LogSampling}
+     */
+    public void setLogSampling(String messageType, LogSampling logSampling) {
+        this.logSampler.setSampling(messageType, logSampling);
+    }
+
+    /**
+     * Set the interval of the summary log counting the sent, not sent and logged updates by message type
+     * <p>
+     * Disabled by default, a summary is only logged if updates were sent during the interval
+     * </p>
+     *
+     * @param logSummaryIntervalMillis long - 0 to disable
+     */
+    public void setLogSummaryInterval(long logSummaryIntervalMillis) {
+        this.logSummaryIntervalMillis = Math.max(0, logSummaryIntervalMillis);
+        HashedWheelTimer.Timeout logSummaryTimeout = this.logSummaryTimeout;
+        if (logSummaryTimeout != null) {
+            logSummaryTimeout.cancel();
+        }
+        if (this.isConnected()) {
+            this.scheduleLogSummary();
+        }
+    }
+
+    /**
+     * Internal - Schedule the next sent updates summary log while connected
+     */
+    private void scheduleLogSummary() {
+        long logSummaryIntervalMillis = this.logSummaryIntervalMillis;
+        if (logSummaryIntervalMillis > 0) {
+            this.logSummaryTimeout = this.repeatTimer.schedule(() -> {
+                String summary = this.logSampler.summarize();
+                if (summary != null) {
+                    TouchPortalPlugin.LOGGER.log(Level.INFO, summary);
+                }
+                if (this.isConnected()) {
+                    this.scheduleLogSummary();
+                }
+            }, logSummaryIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        else {
+            this.logSummaryTimeout = null;
+        }
     }
 
     /**
@@ -1355,11 +2936,254 @@ public abstract class TouchPortalPlugin {
         return isUpdateAvailable;
     }
 
+    /**
+     * Get the queue latency metrics of a {@link DispatchLane}
+     *
+     * @param dispatchLane {@link DispatchLane}
+     * @return {@link DispatchLaneStats} dispatchLaneStats
+     */
+    public DispatchLaneStats getDispatchLaneStats(DispatchLane dispatchLane) {
+        return this.dispatchLaneExecutors.get(dispatchLane).getStats();
+    }
+
+    /**
+     * Set the maximum duration of the drain phase on close
+     * <p>
+     * Callbacks and messages still pending after it are dropped, 0 drops them right away
+     * </p>
+     *
+     * @param closeDrainTimeoutMillis long
+     */
+    public void setCloseDrainTimeout(long closeDrainTimeoutMillis) {
+        this.closeDrainTimeoutMillis = closeDrainTimeoutMillis;
+    }
+
+    /**
+     * Get the report of the drain phase of the last close
+     *
+     * @return {@link DrainReport} lastDrainReport - null if the connection was never closed
+     */
+    public DrainReport getLastDrainReport() {
+        return this.lastDrainReport;
+    }
+
+    /**
+     * Set the timeout of the Actions and Connectors handlers not setting one in their annotation
+     * <p>
+     * Handlers running past their timeout are reported in {@link #getSlowHandlerReports()}.
+     * The default timeout is 0, only the handlers setting a timeout in their annotation are watched until it is set.
+     * </p>
+     *
+     * @param defaultHandlerTimeoutMillis long
+     */
+    public void setDefaultHandlerTimeout(long defaultHandlerTimeoutMillis) {
+        this.defaultHandlerTimeoutMillis = defaultHandlerTimeoutMillis;
+    }
+
+    /**
+     * Get the latest reports of the Actions and Connectors handlers that ran past their timeout
+     *
+     * @return List&lt;{@link SlowHandlerReport}&gt; slowHandlerReports
+     */
+    public List<SlowHandlerReport> getSlowHandlerReports() {
+        return this.handlerWatchdog.getSlowHandlerReports();
+    }
+
+    /**
+     * Account the CPU time and allocated bytes of each Action and Connector handler run, by Action or Connector ID
+     * <p>
+     * The Thread running the handler is measured with the JVM ThreadMXBean, work handed off to other Threads is not accounted.
+     * Enabling it also enables the Thread CPU time and allocated memory measurements of the JVM. Disabled by default
+     * </p>
+     *
+     * @param handlerAccounting boolean
+     * @see #getHandlerAccountingReports()
+     */
+    public void setHandlerAccounting(boolean handlerAccounting) {
+        this.handlerAccounting.setEnabled(handlerAccounting);
+    }
+
+    /**
+     * Get the CPU time and allocated bytes accounted to the Actions and Connectors handlers since accounting was enabled or reset, highest CPU time first
+     *
+     * @return List&lt;{@link HandlerAccountingReport}&gt; handlerAccountingReports
+     */
+    public List<HandlerAccountingReport> getHandlerAccountingReports() {
+        return this.handlerAccounting.getReports();
+    }
+
+    /**
+     * Forget the CPU time and allocated bytes accounted to the Actions and Connectors handlers
+     */
+    public void resetHandlerAccounting() {
+        this.handlerAccounting.reset();
+    }
+
+    /**
+     * Set the interval of the log of the handlers accounting the most CPU time
+     * <p>
+     * Disabled by default, only logged while the accounting is enabled
+     * </p>
+     *
+     * @param handlerAccountingLogIntervalMillis long - 0 to disable
+     * @see #setHandlerAccounting(boolean)
+     */
+    public void setHandlerAccountingLogInterval(long handlerAccountingLogIntervalMillis) {
+        this.handlerAccountingLogIntervalMillis = Math.max(0, handlerAccountingLogIntervalMillis);
+        HashedWheelTimer.Timeout handlerAccountingLogTimeout = this.handlerAccountingLogTimeout;
+        if (handlerAccountingLogTimeout != null) {
+            handlerAccountingLogTimeout.cancel();
+        }
+        if (this.isConnected()) {
+            this.scheduleHandlerAccountingLog();
+        }
+    }
+
+    /**
+     * Internal - Schedule the next handler accounting log while connected
+     */
+    private void scheduleHandlerAccountingLog() {
+        long handlerAccountingLogIntervalMillis = this.handlerAccountingLogIntervalMillis;
+        if (handlerAccountingLogIntervalMillis > 0) {
+            this.handlerAccountingLogTimeout = this.repeatTimer.schedule(() -> {
+                if (this.handlerAccounting.isEnabled()) {
+                    List<HandlerAccountingReport> handlerAccountingReports = this.handlerAccounting.getReports();
+                    if (!handlerAccountingReports.isEmpty()) {
+                        StringBuilder handlerAccountingLog = new StringBuilder("Handlers by CPU time:");
+                        for (int i = 0; i < Math.min(TouchPortalPlugin.HANDLER_ACCOUNTING_LOG_SIZE, handlerAccountingReports.size()); i++) {
+                            HandlerAccountingReport handlerAccountingReport = handlerAccountingReports.get(i);
+                            handlerAccountingLog.append(i == 0 ? " " : ", ").append(handlerAccountingReport.getHandlerId())
+                                    .append(" [runs ").append(handlerAccountingReport.getInvocationCount())
+                                    .append(", cpu ").append(TimeUnit.NANOSECONDS.toMillis(handlerAccountingReport.getCpuTimeNanos())).append(" ms")
+                                    .append(", allocated ").append(handlerAccountingReport.getAllocatedBytes() / 1024).append(" KB")
+                                    .append(", wall ").append(TimeUnit.NANOSECONDS.toMillis(handlerAccountingReport.getWallTimeNanos())).append(" ms]");
+                        }
+                        TouchPortalPlugin.LOGGER.log(Level.INFO, handlerAccountingLog.toString());
+                    }
+                }
+                if (this.isConnected()) {
+                    this.scheduleHandlerAccountingLog();
+                }
+            }, handlerAccountingLogIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        else {
+            this.handlerAccountingLogTimeout = null;
+        }
+    }
+
+    /**
+     * Start recording every line received from and sent to Touch Portal, with its timestamp, to a file
+     * <p>
+     * The recording keeps going across reconnections until {@link #stopTrafficRecording()}, and replaces any previous one.
+     * It can be read with {@link TPTrafficRecording} and replayed by the TestKit MockTouchPortalServer, to compare the latencies
+     * and allocations of a real session across versions. Lines are recorded as they are read and written, the file may contain private data
+     * </p>
+     *
+     * @param path Path - The file is replaced if it exists
+     * @throws IOException If the file could not be created
+     */
+    public synchronized void startTrafficRecording(Path path) throws IOException {
+        TPTrafficRecorder previousTrafficRecorder = this.trafficRecorder;
+        this.trafficRecorder = TPTrafficRecorder.create(path);
+        if (previousTrafficRecorder != null) {
+            previousTrafficRecorder.close();
+        }
+        TouchPortalPlugin.LOGGER.log(Level.INFO, "Recording traffic to " + path);
+    }
+
+    /**
+     * Stop recording the traffic and close the recording file
+     *
+     * @return long recordedCount - Number of recorded lines, 0 if not recording
+     */
+    public synchronized long stopTrafficRecording() {
+        long recordedCount = 0;
+        TPTrafficRecorder trafficRecorder = this.trafficRecorder;
+        if (trafficRecorder != null) {
+            this.trafficRecorder = null;
+            trafficRecorder.close();
+            recordedCount = trafficRecorder.getRecordedCount();
+            TouchPortalPlugin.LOGGER.log(Level.INFO, "Recorded " + recordedCount + " lines to " + trafficRecorder.getPath());
+        }
+        return recordedCount;
+    }
+
+    /**
+     * Is the traffic being recorded
+     *
+     * @return boolean isTrafficRecording
+     */
+    public boolean isTrafficRecording() {
+        return this.trafficRecorder != null;
+    }
+
+    /**
+     * Internal - Called on the writer Thread with each message written to Touch Portal
+     *
+     * @param serializedMessage String
+     */
+    private void onMessageWritten(String serializedMessage) {
+        TPTrafficRecorder trafficRecorder = this.trafficRecorder;
+        if (trafficRecorder != null) {
+            trafficRecorder.recordOutbound(serializedMessage);
+        }
+    }
+
+    /**
+     * Take a snapshot of the Plugin runtime metrics
+     * <p>
+     * Received and sent messages by type, bytes written, updates skipped because their value did not change, cache sizes,
+     * dispatch latencies by Action or Connector ID and the queue depth and wait time of each {@link DispatchLane}
+     * </p>
+     *
+     * @return {@link MetricsSnapshot} metricsSnapshot
+     */
+    public MetricsSnapshot getMetrics() {
+        Map<String, Integer> cacheSizes = new TreeMap<>();
+        cacheSizes.put("states", this.currentStates.size());
+        cacheSizes.put("choices", this.currentChoices.size());
+        cacheSizes.put("specificChoices", this.currentSpecificChoices.values().stream().mapToInt(HashMap::size).sum());
+        cacheSizes.put("connectorValues", this.currentConnectorValues.size());
+        cacheSizes.put("connectorIds", this.connectorIdsMapping.size());
+        cacheSizes.put("base64Images", this.base64Images.size());
+        cacheSizes.put("holdSessions", this.holdSessions.size());
+        Map<DispatchLane, DispatchLaneStats> dispatchLaneStats = new EnumMap<>(DispatchLane.class);
+        for (DispatchLane dispatchLane : DispatchLane.values()) {
+            dispatchLaneStats.put(dispatchLane, this.getDispatchLaneStats(dispatchLane));
+        }
+
+        return this.metricsRegistry.getSnapshot(cacheSizes, dispatchLaneStats);
+    }
+
+    /**
+     * Register a {@link MetricsMXBean} in the platform MBean Server, unregistered on close
+     * <p>
+     * Its name is <code>com.christophecvb.touchportal:type=Metrics,name=&lt;Plugin ID&gt;</code>
+     * </p>
+     *
+     * @return boolean isRegistered
+     */
+    public synchronized boolean registerMetricsMBean() {
+        if (this.metricsObjectName == null) {
+            try {
+                ObjectName metricsObjectName = new ObjectName("com.christophecvb.touchportal:type=Metrics,name=" + this.pluginClass.getName());
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsRegistry.LiveMetrics(this::getMetrics), metricsObjectName);
+                this.metricsObjectName = metricsObjectName;
+            }
+            catch (JMException e) {
+                TouchPortalPlugin.LOGGER.log(Level.WARNING, "Metrics MBean could not be registered", e);
+            }
+        }
+
+        return this.metricsObjectName != null;
+    }
+
     /**
      * Returns null if the Action has been triggered from a Press or true/false if it's been triggered by a Hold (Down or Up)
      *
      * @param actionId String
      * @return Boolean isActionBeingHeld
+     * @see TPHoldSession
      */
     public Boolean isActionBeingHeld(String actionId) {
         return this.heldActionsStates.get(actionId);
@@ -1401,51 +3225,117 @@ public abstract class TouchPortalPlugin {
     }
 
     /**
-     * Interface Definition for Callbacks
+     * Lanes on which callbacks are dispatched
+     * <p>
+     * Each lane has its own threads and queue so a slow background callback never delays the next Action.
+     * A Plugin constructed without parallelized Actions runs both lanes on the same single thread.
+     * </p>
+     */
+    public enum DispatchLane {
+        /**
+         * Actions (press, hold down and up), Connectors changes and messages falling back to {@link OnReceivedListener}
+         */
+        INTERACTIVE,
+        /**
+         * Info, List Changes, Broadcasts, Settings and Notification Options Clicks
+         */
+        BACKGROUND
+    }
+
+    /**
+     * Priorities of the messages sent to the Touch Portal Plugin System
+     * <p>
+     * Pending high priority messages are written before pending low priority ones, messages of the same priority keep their order.
+     * A high priority message for a State, Choice or Connector ID is never written before a pending low priority one for the same ID.
+     * </p>
+     */
+    public enum SendPriority {
+        /**
+         * Feedback of the Actions and Connectors: States, Connectors, Events, Settings... (default)
+         */
+        HIGH,
+        /**
+         * Bulk updates: Choices (default) and State refreshes
+         */
+        LOW
+    }
+
+    /**
+     * Interface Definition for the Disconnected Callback
      */
-    public interface TouchPortalPluginListener {
+    public interface OnDisconnectedListener {
         /**
          * Called when the Socket connection is lost or the plugin has received the close Message
          *
          * @param exception {@link Exception} raised or null if disconnection comes from the close Message
          */
         void onDisconnected(Exception exception);
+    }
 
+    /**
+     * Interface Definition for the Received Callback
+     */
+    public interface OnReceivedListener {
         /**
          * Called when receiving a message from the Touch Portal Plugin System
          *
          * @param jsonMessage {@link JsonObject}
          */
         void onReceived(JsonObject jsonMessage);
+    }
 
+    /**
+     * Interface Definition for the Info Callback
+     */
+    public interface OnInfoListener {
         /**
          * Called when the Info Message is received when Touch Portal confirms our initial connection is successful
          *
          * @param tpInfoMessage {@link TPInfoMessage}
          */
         void onInfo(TPInfoMessage tpInfoMessage);
+    }
 
+    /**
+     * Interface Definition for the List Changed Callback
+     */
+    public interface OnListChangedListener {
         /**
          * Called when a List Change Message is received
          *
          * @param tpListChangedMessage TPListChangeMessage
          */
         void onListChanged(TPListChangedMessage tpListChangedMessage);
+    }
 
+    /**
+     * Interface Definition for the Broadcast Callback
+     */
+    public interface OnBroadcastListener {
         /**
          * Called when a Broadcast Message is received
          *
          * @param tpBroadcastMessage TPBroadcastMessage
          */
         void onBroadcast(TPBroadcastMessage tpBroadcastMessage);
+    }
 
+    /**
+     * Interface Definition for the Settings Callback
+     */
+    public interface OnSettingsListener {
         /**
          * Called when a Settings Message is received
          *
          * @param tpSettingsMessage TPSettingsMessage
          */
         void onSettings(TPSettingsMessage tpSettingsMessage);
+    }
 
+    /**
+     * Interface Definition for the Notification Option Clicked Callback
+     */
+    public interface OnNotificationOptionClickedListener {
         /**
          * Called when a Notification Option Clicked Message is received
          *
@@ -1454,6 +3344,53 @@ public abstract class TouchPortalPlugin {
         void onNotificationOptionClicked(TPNotificationOptionClickedMessage tpNotificationOptionClickedMessage);
     }
 
+    /**
+     * Interface Definition for the Reconnected Callback
+     */
+    public interface OnReconnectedListener {
+        /**
+         * Called when the Plugin is paired again after the connection was lost, the last sent values have already been sent again
+         *
+         * @param attempts int - Number of reconnection attempts
+         */
+        void onReconnected(int attempts);
+    }
+
+    /**
+     * Interface Definition for Callbacks
+     */
+    public interface TouchPortalPluginListener extends OnDisconnectedListener, OnReceivedListener, OnInfoListener, OnListChangedListener, OnBroadcastListener, OnSettingsListener, OnNotificationOptionClickedListener {
+    }
+
+    /**
+     * {@link TouchPortalPluginListener} with empty default implementations
+     * <p>
+     * Only override the callbacks you need, the SDK will not submit any work for the others
+     * </p>
+     */
+    public interface TouchPortalPluginListenerAdapter extends TouchPortalPluginListener {
+        @Override
+        default void onDisconnected(Exception exception) {}
+
+        @Override
+        default void onReceived(JsonObject jsonMessage) {}
+
+        @Override
+        default void onInfo(TPInfoMessage tpInfoMessage) {}
+
+        @Override
+        default void onListChanged(TPListChangedMessage tpListChangedMessage) {}
+
+        @Override
+        default void onBroadcast(TPBroadcastMessage tpBroadcastMessage) {}
+
+        @Override
+        default void onSettings(TPSettingsMessage tpSettingsMessage) {}
+
+        @Override
+        default void onNotificationOptionClicked(TPNotificationOptionClickedMessage tpNotificationOptionClickedMessage) {}
+    }
+
     /**
      * Signals that the @Action Annotated Method have a parameter which is not @Data Annotated.
      */
@@ -1468,9 +3405,13 @@ public abstract class TouchPortalPlugin {
             super("Impossible to retrieve Action Data Item for Method [" + method.getName() + "] and parameter [" + parameter.getName() + "]");
         }
     }
+
     /**
      * Custom ConsoleHandler
+     *
+     * @deprecated Formats and writes on the logging Thread, use {@link AsyncConsoleHandler}
      */
+    @Deprecated
     public static class CustomConsoleHandler extends ConsoleHandler {
         public CustomConsoleHandler() {
             super();
@@ -20,40 +20,102 @@
 
 package com.christophecvb.touchportal.test;
 
+import com.christophecvb.touchportal.AsyncConsoleHandler;
+import com.christophecvb.touchportal.DispatchLaneStats;
+import com.christophecvb.touchportal.DrainReport;
+import com.christophecvb.touchportal.HandlerAccountingReport;
+import com.christophecvb.touchportal.LatencyStats;
+import com.christophecvb.touchportal.LogSampling;
+import com.christophecvb.touchportal.MetricsSnapshot;
+import com.christophecvb.touchportal.SlowHandlerReport;
+import com.christophecvb.touchportal.TPConnection;
+import com.christophecvb.touchportal.TPFlow;
+import com.christophecvb.touchportal.TPHoldSession;
+import com.christophecvb.touchportal.TPInMemoryTransport;
+import com.christophecvb.touchportal.TPStateSource;
+import com.christophecvb.touchportal.TPTrafficRecording;
 import com.christophecvb.touchportal.TouchPortalPlugin;
+import com.christophecvb.touchportal.annotations.ExecutionPolicy;
 import com.christophecvb.touchportal.helpers.*;
 import com.christophecvb.touchportal.model.*;
 import com.christophecvb.touchportal.oauth2.OAuth2LocalServerReceiver;
+import com.christophecvb.touchportal.testkit.LoadProfile;
+import com.christophecvb.touchportal.testkit.LoadReport;
+import com.christophecvb.touchportal.testkit.MockTouchPortalServer;
+import com.christophecvb.touchportal.testkit.ReplayReport;
+import com.christophecvb.touchportal.testkit.ReplaySpeed;
+import com.christophecvb.touchportal.testkit.TouchPortalMessages;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import okhttp3.*;
 import org.junit.After;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Handler;
 import java.util.logging.Level;
+import java.util.logging.LogRecord;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import javax.management.ObjectName;
 
 import static org.junit.Assert.*;
 
 public class LibraryTests {
     private static final Logger LOGGER = Logger.getLogger(LibraryTests.class.getSimpleName());
     private static final long REASONABLE_TIME = 100;
+    /**
+     * Operations run to warm up before measuring, then measured
+     */
+    private static final int ALLOCATION_OPERATION_COUNT = 10000;
+    /**
+     * Bytes allocated per operation once warmed up, about 1.5 times the steady state measured on Java 8 to 21
+     */
+    private static final long DEDUPLICATED_STATE_UPDATE_ALLOCATION_BUDGET = 64;
+    private static final long CHANGED_STATE_UPDATE_ALLOCATION_BUDGET = 2560;
+    private static final long CONNECTOR_UPDATE_ALLOCATION_BUDGET = 6144;
+    private static final long ACTION_DISPATCH_ALLOCATION_BUDGET = 16384;
     private ServerSocket serverSocket;
     private Socket serverSocketClient;
     private TouchPortalPluginTest touchPortalPluginTest;
@@ -219,6 +281,42 @@ public class LibraryTests {
         this.touchPortalPluginTest.close(null);
     }
 
+    @Test
+    public void testCloseDrain() throws IOException, InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        AtomicInteger completedBroadcasts = new AtomicInteger();
+        this.touchPortalPluginTest.addBroadcastListener(tpBroadcastMessage -> {
+            try {
+                Thread.sleep(REASONABLE_TIME * 2);
+                completedBroadcasts.incrementAndGet();
+            }
+            catch (InterruptedException ignored) {}
+        });
+
+        JsonObject jsonBroadcast = new JsonObject();
+        jsonBroadcast.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_BROADCAST);
+        jsonBroadcast.addProperty(ReceivedMessageHelper.EVENT, ReceivedMessageHelper.EVENT_PAGE_CHANGE);
+        jsonBroadcast.addProperty(ReceivedMessageHelper.PAGE_NAME, "Page ONE");
+
+        PrintWriter out = new PrintWriter(this.serverSocketClient.getOutputStream(), true);
+        out.println(jsonBroadcast);
+        out.println(jsonBroadcast);
+        out.println(jsonBroadcast);
+        Thread.sleep(REASONABLE_TIME / 2);
+
+        // The first Broadcast completes, the second one is interrupted and the third one never runs
+        this.touchPortalPluginTest.setCloseDrainTimeout(REASONABLE_TIME * 3);
+        this.touchPortalPluginTest.close(null);
+
+        DrainReport drainReport = this.touchPortalPluginTest.getLastDrainReport();
+        assertNotNull(drainReport);
+        assertEquals(2, drainReport.getDrainedCallbacks());
+        assertEquals(1, drainReport.getDroppedCallbacks());
+        assertEquals(0, drainReport.getDroppedMessages());
+        assertEquals(1, completedBroadcasts.get());
+        assertFalse(this.touchPortalPluginTest.isConnected());
+    }
+
     @Test
     public void testServerSocketCloses() throws IOException, InterruptedException {
         LOGGER.log(Level.FINE, "Now");
@@ -384,6 +482,270 @@ public class LibraryTests {
         assertTrue(this.touchPortalPluginTest.sendRemoveState("BaseCategory", "StateId"));
     }
 
+    @Test
+    public void testSendPriorities() throws IOException {
+        LOGGER.log(Level.FINE, "Now");
+        char[] chars = new char[1024];
+        Arrays.fill(chars, 'x');
+        String largeValue = new String(chars);
+        int choiceUpdatesCount = 5000;
+        for (int i = 0; i < choiceUpdatesCount; i++) {
+            assertTrue(this.touchPortalPluginTest.sendChoiceUpdate("listId" + i, new String[]{largeValue}));
+        }
+        assertTrue(this.touchPortalPluginTest.sendStateUpdate(TouchPortalPluginTestConstants.BaseCategory.States.CustomState.ID, "Feedback"));
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(this.serverSocketClient.getInputStream(), StandardCharsets.UTF_8));
+        int choiceUpdatesBeforeState = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            String type = JsonParser.parseString(line).getAsJsonObject().get(SentMessageHelper.TYPE).getAsString();
+            if (SentMessageHelper.TYPE_STATE_UPDATE.equals(type)) {
+                break;
+            }
+            else if (SentMessageHelper.TYPE_CHOICE_UPDATE.equals(type)) {
+                choiceUpdatesBeforeState++;
+            }
+        }
+
+        // The State Update has been written before the remaining Choice Updates
+        assertTrue(choiceUpdatesBeforeState < choiceUpdatesCount);
+    }
+
+    @Test
+    public void testSendPrioritiesKeepOrderPerId() throws IOException {
+        LOGGER.log(Level.FINE, "Now");
+        char[] chars = new char[1024];
+        Arrays.fill(chars, 'x');
+        String largeValue = new String(chars);
+        int choiceUpdatesCount = 5000;
+        for (int i = 0; i < choiceUpdatesCount; i++) {
+            assertTrue(this.touchPortalPluginTest.sendChoiceUpdate("listId" + i, new String[]{largeValue}));
+        }
+        String stateId = TouchPortalPluginTestConstants.BaseCategory.States.CustomState.ID;
+        assertTrue(this.touchPortalPluginTest.sendStateUpdate(stateId, "Refresh", false, false, TouchPortalPlugin.SendPriority.LOW));
+        assertTrue(this.touchPortalPluginTest.sendStateUpdate(stateId, "Feedback", false, false, TouchPortalPlugin.SendPriority.HIGH));
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(this.serverSocketClient.getInputStream(), StandardCharsets.UTF_8));
+        List<String> stateValues = new ArrayList<>();
+        int choiceUpdatesRead = 0;
+        String line;
+        while (choiceUpdatesRead < choiceUpdatesCount && (line = in.readLine()) != null) {
+            JsonObject message = JsonParser.parseString(line).getAsJsonObject();
+            String type = message.get(SentMessageHelper.TYPE).getAsString();
+            if (SentMessageHelper.TYPE_STATE_UPDATE.equals(type)) {
+                stateValues.add(message.get(SentMessageHelper.VALUE).getAsString());
+            }
+            else if (SentMessageHelper.TYPE_CHOICE_UPDATE.equals(type)) {
+                choiceUpdatesRead++;
+            }
+        }
+
+        // The pending low priority update of the State has been written before the high priority one, not after
+        assertEquals(Arrays.asList("Refresh", "Feedback"), stateValues);
+        assertEquals("Feedback", this.touchPortalPluginTest.getLastStateValue(stateId));
+    }
+
+    @Test
+    public void testStateSources() throws IOException, InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        AtomicInteger counter = new AtomicInteger();
+        TPStateSource constantStateSource = this.touchPortalPluginTest.registerStateSource("constantStateId", () -> "Constant", 50);
+        TPStateSource counterStateSource = this.touchPortalPluginTest.registerStateSource("counterStateId", counter::incrementAndGet, 50);
+        assertEquals(TouchPortalPlugin.SendPriority.LOW, counterStateSource.getSendPriority());
+
+        Thread.sleep(REASONABLE_TIME * 5);
+        constantStateSource.cancel();
+        counterStateSource.cancel();
+        assertTrue(counterStateSource.isCancelled());
+        // Let an already started poll complete
+        Thread.sleep(REASONABLE_TIME);
+        int polledCount = counter.get();
+        assertTrue(polledCount > 1);
+
+        this.serverSocketClient.setSoTimeout((int) REASONABLE_TIME * 2);
+        BufferedReader in = new BufferedReader(new InputStreamReader(this.serverSocketClient.getInputStream(), StandardCharsets.UTF_8));
+        int constantUpdates = 0;
+        int counterUpdates = 0;
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                JsonObject message = JsonParser.parseString(line).getAsJsonObject();
+                if (SentMessageHelper.TYPE_STATE_UPDATE.equals(message.get(SentMessageHelper.TYPE).getAsString())) {
+                    if ("constantStateId".equals(message.get(SentMessageHelper.ID).getAsString())) {
+                        constantUpdates++;
+                    }
+                    else if ("counterStateId".equals(message.get(SentMessageHelper.ID).getAsString())) {
+                        counterUpdates++;
+                    }
+                }
+            }
+        }
+        catch (SocketTimeoutException ignored) {}
+
+        // Unchanged values are only sent once
+        assertEquals(1, constantUpdates);
+        assertEquals(polledCount, counterUpdates);
+        // Cancelled sources are not polled anymore
+        assertEquals(polledCount, counter.get());
+
+        assertThrows(IllegalArgumentException.class, () -> this.touchPortalPluginTest.registerStateSource("stateId", () -> "Value", 0));
+    }
+
+    @Test
+    public void testInMemoryTransport() throws IOException, InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        TPInMemoryTransport inMemoryTransport = new TPInMemoryTransport();
+        TouchPortalPluginTest inMemoryPlugin = new TouchPortalPluginTest();
+        inMemoryPlugin.setTransport(inMemoryTransport);
+        assertTrue(inMemoryPlugin.connectThenPairAndListen(this.touchPortalPluginListener));
+
+        TPConnection peerConnection = inMemoryTransport.accept(REASONABLE_TIME, TimeUnit.MILLISECONDS);
+        assertNotNull(peerConnection);
+        BufferedReader in = new BufferedReader(new InputStreamReader(peerConnection.getInputStream(), StandardCharsets.UTF_8));
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(peerConnection.getOutputStream(), StandardCharsets.UTF_8), true);
+        assertEquals(SentMessageHelper.TYPE_PAIR, JsonParser.parseString(in.readLine()).getAsJsonObject().get(SentMessageHelper.TYPE).getAsString());
+
+        // Incoming messages are decoded and dispatched
+        TPInfoMessage sentTPInfoMessage = new TPInfoMessage();
+        sentTPInfoMessage.status = "paired";
+        sentTPInfoMessage.tpVersionString = "4.0.000";
+        JsonObject jsonInfo = new Gson().toJsonTree(sentTPInfoMessage).getAsJsonObject();
+        jsonInfo.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_INFO);
+        jsonInfo.add(ReceivedMessageHelper.SETTINGS, new JsonArray());
+        out.println(jsonInfo);
+        Thread.sleep(REASONABLE_TIME);
+        assertNotNull(inMemoryPlugin.getTPInfo());
+        assertEquals("4.0.000", inMemoryPlugin.getTPInfo().tpVersionString);
+
+        // Outgoing messages are encoded
+        assertTrue(inMemoryPlugin.sendStateUpdate(TouchPortalPluginTestConstants.BaseCategory.States.CustomState.ID, "In Memory"));
+        JsonObject stateUpdate = JsonParser.parseString(in.readLine()).getAsJsonObject();
+        assertEquals("In Memory", stateUpdate.get(SentMessageHelper.VALUE).getAsString());
+
+        // The peer closing is detected like a Socket
+        peerConnection.close();
+        Thread.sleep(REASONABLE_TIME);
+        assertFalse(inMemoryPlugin.isConnected());
+    }
+
+    @Test
+    public void testMaxMessageSize() throws IOException, InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        TPInMemoryTransport inMemoryTransport = new TPInMemoryTransport();
+        TouchPortalPluginTest inMemoryPlugin = new TouchPortalPluginTest();
+        inMemoryPlugin.setTransport(inMemoryTransport);
+        inMemoryPlugin.setMaxMessageSize(1024);
+        assertTrue(inMemoryPlugin.connectThenPairAndListen(this.touchPortalPluginListener));
+
+        TPConnection peerConnection = inMemoryTransport.accept(REASONABLE_TIME, TimeUnit.MILLISECONDS);
+        assertNotNull(peerConnection);
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(peerConnection.getOutputStream(), StandardCharsets.UTF_8), true);
+
+        TPInfoMessage sentTPInfoMessage = new TPInfoMessage();
+        sentTPInfoMessage.status = "paired";
+        sentTPInfoMessage.tpVersionString = new String(new char[4096]).replace('\0', 'x');
+        JsonObject jsonInfo = new Gson().toJsonTree(sentTPInfoMessage).getAsJsonObject();
+        jsonInfo.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_INFO);
+        jsonInfo.add(ReceivedMessageHelper.SETTINGS, new JsonArray());
+
+        // The oversized message is skipped, the following ones are still received
+        out.println(jsonInfo);
+        jsonInfo.addProperty("tpVersionString", "4.0.000");
+        out.print(jsonInfo + "\r\n\n");
+        out.flush();
+        Thread.sleep(REASONABLE_TIME);
+        assertNotNull(inMemoryPlugin.getTPInfo());
+        assertEquals("4.0.000", inMemoryPlugin.getTPInfo().tpVersionString);
+        assertTrue(inMemoryPlugin.isConnected());
+
+        peerConnection.close();
+        Thread.sleep(REASONABLE_TIME);
+        assertFalse(inMemoryPlugin.isConnected());
+    }
+
+    @Test
+    public void testSendAsync() throws Exception {
+        LOGGER.log(Level.FINE, "Now");
+        List<CompletableFuture<Boolean>> flushedUpdates = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            flushedUpdates.add(this.touchPortalPluginTest.sendStateUpdateAsync("asyncStateId" + i, "Value " + i));
+        }
+        flushedUpdates.add(this.touchPortalPluginTest.sendChoiceUpdateAsync("asyncListId", new String[]{"1", "2"}, false, TouchPortalPlugin.SendPriority.LOW));
+        CompletableFuture.allOf(flushedUpdates.toArray(new CompletableFuture[0])).get(REASONABLE_TIME, TimeUnit.MILLISECONDS);
+        for (CompletableFuture<Boolean> flushedUpdate : flushedUpdates) {
+            assertTrue(flushedUpdate.get());
+        }
+
+        // Nothing to send for an unchanged value
+        assertFalse(this.touchPortalPluginTest.sendStateUpdateAsync("asyncStateId0", "Value 0").get());
+
+        this.touchPortalPluginTest.close(null);
+        CompletableFuture<Boolean> failedUpdate = this.touchPortalPluginTest.sendStateUpdateAsync("asyncStateId0", "New Value");
+        assertTrue(failedUpdate.isCompletedExceptionally());
+        try {
+            failedUpdate.get();
+            fail("Update should have failed");
+        }
+        catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testAutoReconnect() throws IOException, InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        AtomicInteger reconnections = new AtomicInteger();
+        this.touchPortalPluginTest.addReconnectedListener(attempts -> reconnections.incrementAndGet());
+        this.touchPortalPluginTest.setAutoReconnect(true, REASONABLE_TIME / 2, REASONABLE_TIME * 2);
+        assertTrue(this.touchPortalPluginTest.sendStateUpdate(TouchPortalPluginTestConstants.BaseCategory.States.CustomState.ID, "Resynced"));
+        assertTrue(this.touchPortalPluginTest.sendChoiceUpdate("resyncListId", new String[]{"1", "2"}));
+        assertTrue(this.touchPortalPluginTest.sendSpecificChoiceUpdate("resyncListId", "resyncInstanceId", new String[]{"3"}));
+        Thread.sleep(REASONABLE_TIME);
+
+        // The server closes the connection then accepts a new one
+        this.serverSocketAccept();
+        Thread.sleep(REASONABLE_TIME * 3);
+
+        assertTrue(this.touchPortalPluginTest.isConnected());
+        assertFalse(this.touchPortalPluginTest.isReconnecting());
+        assertEquals(1, reconnections.get());
+
+        // Paired again, then the last sent values are sent again
+        this.serverSocketClient.setSoTimeout((int) REASONABLE_TIME);
+        BufferedReader in = new BufferedReader(new InputStreamReader(this.serverSocketClient.getInputStream(), StandardCharsets.UTF_8));
+        assertEquals(SentMessageHelper.TYPE_PAIR, JsonParser.parseString(in.readLine()).getAsJsonObject().get(SentMessageHelper.TYPE).getAsString());
+        boolean stateResynced = false;
+        boolean choicesResynced = false;
+        boolean specificChoicesResynced = false;
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                JsonObject message = JsonParser.parseString(line).getAsJsonObject();
+                String type = message.get(SentMessageHelper.TYPE).getAsString();
+                if (SentMessageHelper.TYPE_STATE_UPDATE.equals(type)) {
+                    stateResynced |= "Resynced".equals(message.get(SentMessageHelper.VALUE).getAsString());
+                }
+                else if (SentMessageHelper.TYPE_CHOICE_UPDATE.equals(type) && message.has(SentMessageHelper.INSTANCE_ID)) {
+                    specificChoicesResynced |= "resyncListId".equals(message.get(SentMessageHelper.ID).getAsString())
+                            && "resyncInstanceId".equals(message.get(SentMessageHelper.INSTANCE_ID).getAsString())
+                            && "3".equals(message.get(SentMessageHelper.VALUE).getAsJsonArray().get(0).getAsString());
+                }
+                else if (SentMessageHelper.TYPE_CHOICE_UPDATE.equals(type)) {
+                    choicesResynced |= "resyncListId".equals(message.get(SentMessageHelper.ID).getAsString());
+                }
+            }
+        }
+        catch (SocketTimeoutException ignored) {}
+        assertTrue(stateResynced);
+        assertTrue(choicesResynced);
+        assertTrue(specificChoicesResynced);
+
+        // Closing stops reconnecting
+        this.touchPortalPluginTest.close(null);
+        assertFalse(this.touchPortalPluginTest.isConnected());
+        assertFalse(this.touchPortalPluginTest.isReconnecting());
+    }
+
     @Test
     public void testSendFail() {
         LOGGER.log(Level.FINE, "Now");
@@ -660,6 +1022,778 @@ public class LibraryTests {
         assertTrue(this.touchPortalPluginTest.isListening());
     }
 
+    @Test
+    public void testExecutionPolicies() throws IOException, InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        assertEquals(ExecutionPolicy.INLINE.name(), TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionInline.EXECUTION_POLICY);
+        assertEquals(ExecutionPolicy.VIRTUAL.name(), TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionVirtual.EXECUTION_POLICY);
+        assertEquals(ExecutionPolicy.POOLED.name(), TouchPortalPluginTestConstants.BaseCategory.Actions.DummyWithTPActionMessage.EXECUTION_POLICY);
+        assertEquals(ExecutionPolicy.SERIAL.name(), TouchPortalPluginTestConstants.AdvancedCategory.Connectors.ConnectorSerial.EXECUTION_POLICY);
+
+        PrintWriter out = new PrintWriter(this.serverSocketClient.getOutputStream(), true);
+
+        JsonObject jsonInlineAction = new JsonObject();
+        jsonInlineAction.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+        jsonInlineAction.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_ACTION);
+        jsonInlineAction.addProperty(ReceivedMessageHelper.ACTION_ID, TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionInline.ID);
+        out.println(jsonInlineAction);
+
+        JsonObject jsonPooledAction = new JsonObject();
+        jsonPooledAction.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+        jsonPooledAction.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_ACTION);
+        jsonPooledAction.addProperty(ReceivedMessageHelper.ACTION_ID, TouchPortalPluginTestConstants.BaseCategory.Actions.DummyWithTPActionMessage.ID);
+        out.println(jsonPooledAction);
+
+        Thread.sleep(REASONABLE_TIME);
+
+        // The inline Action runs on the reader Thread, the pooled Action is not read while it runs
+        assertEquals(1, this.touchPortalPluginTest.actionInlineInvocations.get());
+        assertEquals(0, this.touchPortalPluginTest.getDispatchLaneStats(TouchPortalPlugin.DispatchLane.INTERACTIVE).getDispatchedCount());
+
+        this.touchPortalPluginTest.actionInlineRelease.countDown();
+        Thread.sleep(REASONABLE_TIME);
+
+        assertEquals(1, this.touchPortalPluginTest.getDispatchLaneStats(TouchPortalPlugin.DispatchLane.INTERACTIVE).getDispatchedCount());
+
+        JsonObject jsonVirtualAction = new JsonObject();
+        jsonVirtualAction.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+        jsonVirtualAction.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_ACTION);
+        jsonVirtualAction.addProperty(ReceivedMessageHelper.ACTION_ID, TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionVirtual.ID);
+        out.println(jsonVirtualAction);
+
+        // Serial callbacks never overlap, even with several interactive lane threads
+        int serialChangeCount = 5;
+        for (int value = 0; value < serialChangeCount; value++) {
+            JsonObject jsonSerialConnectorChange = new JsonObject();
+            jsonSerialConnectorChange.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+            jsonSerialConnectorChange.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_CONNECTOR_CHANGE);
+            jsonSerialConnectorChange.addProperty(ReceivedMessageHelper.CONNECTOR_ID, TouchPortalPluginTestConstants.AdvancedCategory.Connectors.ConnectorSerial.ID);
+            jsonSerialConnectorChange.addProperty(ReceivedMessageHelper.VALUE, value);
+            jsonSerialConnectorChange.add(ConnectorHelper.DATA, new JsonArray());
+            out.println(jsonSerialConnectorChange);
+        }
+
+        Thread.sleep(REASONABLE_TIME * 3);
+
+        Thread actionVirtualThread = this.touchPortalPluginTest.actionVirtualThread;
+        assertNotNull(actionVirtualThread);
+        assertFalse(actionVirtualThread.getName().startsWith("TPDispatch-"));
+        assertEquals(serialChangeCount, this.touchPortalPluginTest.connectorSerialInvocations.get());
+        assertEquals(1, this.touchPortalPluginTest.connectorSerialMaxRunning.get());
+        assertTrue(this.touchPortalPluginTest.isConnected());
+        assertTrue(this.touchPortalPluginTest.isListening());
+    }
+
+    @Test
+    public void testHandlerWatchdog() throws IOException, InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        this.touchPortalPluginTest.setDefaultHandlerTimeout(REASONABLE_TIME / 2);
+        PrintWriter out = new PrintWriter(this.serverSocketClient.getOutputStream(), true);
+
+        JsonObject jsonMessageHoldDown = new JsonObject();
+        jsonMessageHoldDown.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+        jsonMessageHoldDown.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_HOLD_DOWN);
+        jsonMessageHoldDown.addProperty(ReceivedMessageHelper.ACTION_ID, TouchPortalPluginTestConstants.BaseCategory.Actions.ActionHoldable.ID);
+        out.println(jsonMessageHoldDown);
+
+        // Let the watchdog check at least once
+        Thread.sleep(REASONABLE_TIME * 4);
+
+        List<SlowHandlerReport> slowHandlerReports = this.touchPortalPluginTest.getSlowHandlerReports();
+        assertEquals(1, slowHandlerReports.size());
+        SlowHandlerReport slowHandlerReport = slowHandlerReports.get(0);
+        assertEquals(TouchPortalPluginTestConstants.BaseCategory.Actions.ActionHoldable.ID, slowHandlerReport.getHandlerId());
+        assertFalse(slowHandlerReport.getStackSamples().isEmpty());
+        assertFalse(slowHandlerReport.isCompleted());
+        assertFalse(slowHandlerReport.isInterrupted());
+
+        JsonObject jsonMessageHoldUp = new JsonObject();
+        jsonMessageHoldUp.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+        jsonMessageHoldUp.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_HOLD_UP);
+        jsonMessageHoldUp.addProperty(ReceivedMessageHelper.ACTION_ID, TouchPortalPluginTestConstants.BaseCategory.Actions.ActionHoldable.ID);
+        out.println(jsonMessageHoldUp);
+
+        Thread.sleep(REASONABLE_TIME * 2);
+
+        assertTrue(slowHandlerReport.isCompleted());
+        assertTrue(slowHandlerReport.getElapsedMillis() >= REASONABLE_TIME / 2);
+    }
+
+    @Test
+    public void testHoldSession() throws IOException, InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        PrintWriter out = new PrintWriter(this.serverSocketClient.getOutputStream(), true);
+
+        JsonObject jsonMessageHoldDown = new JsonObject();
+        jsonMessageHoldDown.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+        jsonMessageHoldDown.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_HOLD_DOWN);
+        jsonMessageHoldDown.addProperty(ReceivedMessageHelper.ACTION_ID, TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionHoldSession.ID);
+        out.println(jsonMessageHoldDown);
+
+        Thread.sleep(REASONABLE_TIME);
+
+        TPHoldSession tpHoldSession = this.touchPortalPluginTest.lastTPHoldSession;
+        assertNotNull(tpHoldSession);
+        assertEquals(TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionHoldSession.ID, tpHoldSession.getActionId());
+        assertTrue(tpHoldSession.isHeld());
+        assertFalse(tpHoldSession.awaitRelease(1, TimeUnit.MILLISECONDS));
+
+        AtomicInteger releaseHooks = new AtomicInteger();
+        tpHoldSession.onRelease(releaseHooks::incrementAndGet);
+
+        JsonObject jsonMessageHoldUp = new JsonObject();
+        jsonMessageHoldUp.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+        jsonMessageHoldUp.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_HOLD_UP);
+        jsonMessageHoldUp.addProperty(ReceivedMessageHelper.ACTION_ID, TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionHoldSession.ID);
+        out.println(jsonMessageHoldUp);
+
+        assertTrue(tpHoldSession.awaitRelease(REASONABLE_TIME, TimeUnit.MILLISECONDS));
+        assertFalse(tpHoldSession.isHeld());
+        assertTrue(tpHoldSession.getReleaseFuture().isDone());
+        assertEquals(1, releaseHooks.get());
+
+        // A hook registered after the release runs immediately
+        tpHoldSession.onRelease(releaseHooks::incrementAndGet);
+        assertEquals(2, releaseHooks.get());
+    }
+
+    @Test
+    public void testRepeatWhileHeld() throws IOException, InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        PrintWriter out = new PrintWriter(this.serverSocketClient.getOutputStream(), true);
+
+        JsonObject jsonMessageHoldDown = new JsonObject();
+        jsonMessageHoldDown.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+        jsonMessageHoldDown.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_HOLD_DOWN);
+        jsonMessageHoldDown.addProperty(ReceivedMessageHelper.ACTION_ID, TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionRepeatable.ID);
+        out.println(jsonMessageHoldDown);
+
+        // Hold Down invocation, then a repetition after the delay and every interval
+        Thread.sleep(400);
+
+        JsonObject jsonMessageHoldUp = new JsonObject();
+        jsonMessageHoldUp.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+        jsonMessageHoldUp.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_HOLD_UP);
+        jsonMessageHoldUp.addProperty(ReceivedMessageHelper.ACTION_ID, TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionRepeatable.ID);
+        out.println(jsonMessageHoldUp);
+
+        Thread.sleep(REASONABLE_TIME);
+
+        int invocations = this.touchPortalPluginTest.actionRepeatableInvocations.get();
+        assertTrue(invocations >= 5);
+        assertTrue(invocations <= 10);
+
+        // No repetition after the Hold Up
+        Thread.sleep(REASONABLE_TIME * 2);
+        assertEquals(invocations, this.touchPortalPluginTest.actionRepeatableInvocations.get());
+        assertNull(this.touchPortalPluginTest.isActionBeingHeld(TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionRepeatable.ID));
+    }
+
+    @Test
+    public void testRepeatInlineWhileHeld() throws IOException, InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        PrintWriter out = new PrintWriter(this.serverSocketClient.getOutputStream(), true);
+
+        JsonObject jsonMessageHoldDown = new JsonObject();
+        jsonMessageHoldDown.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+        jsonMessageHoldDown.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_HOLD_DOWN);
+        jsonMessageHoldDown.addProperty(ReceivedMessageHelper.ACTION_ID, TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionRepeatInline.ID);
+        out.println(jsonMessageHoldDown);
+
+        Thread.sleep(REASONABLE_TIME * 3);
+
+        List<String> threadNames = new ArrayList<>(this.touchPortalPluginTest.actionRepeatInlineThreadNames);
+        int maxRunning = this.touchPortalPluginTest.actionRepeatInlineMaxRunning.get();
+
+        JsonObject jsonMessageHoldUp = new JsonObject();
+        jsonMessageHoldUp.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+        jsonMessageHoldUp.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_HOLD_UP);
+        jsonMessageHoldUp.addProperty(ReceivedMessageHelper.ACTION_ID, TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionRepeatInline.ID);
+        out.println(jsonMessageHoldUp);
+
+        // The Hold Down runs inline, then the repetitions run on the interactive lane, never on the repeat timer Thread
+        assertTrue(threadNames.size() >= 3);
+        assertFalse(threadNames.get(0).startsWith("TPDispatch-"));
+        for (String repetitionThreadName : threadNames.subList(1, threadNames.size())) {
+            assertTrue(repetitionThreadName, repetitionThreadName.startsWith("TPDispatch-interactive-"));
+        }
+        // The first repetition waits for the Hold Down invocation, and a repetition is skipped while the previous one runs
+        assertEquals(1, maxRunning);
+
+        Thread.sleep(REASONABLE_TIME);
+        assertNull(this.touchPortalPluginTest.isActionBeingHeld(TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionRepeatInline.ID));
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        LOGGER.log(Level.FINE, "Now");
+        assertTrue(this.touchPortalPluginTest.sendStateUpdate(TouchPortalPluginTestConstants.BaseCategory.States.CustomState.ID, "Metrics"));
+        assertFalse(this.touchPortalPluginTest.sendStateUpdate(TouchPortalPluginTestConstants.BaseCategory.States.CustomState.ID, "Metrics"));
+
+        JsonObject jsonMessage = new JsonObject();
+        jsonMessage.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+        jsonMessage.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_ACTION);
+        jsonMessage.addProperty(ReceivedMessageHelper.ACTION_ID, TouchPortalPluginTestConstants.BaseCategory.Actions.DummyWithJsonObject.ID);
+        PrintWriter out = new PrintWriter(this.serverSocketClient.getOutputStream(), true);
+        out.println(jsonMessage);
+        Thread.sleep(REASONABLE_TIME);
+
+        MetricsSnapshot metricsSnapshot = this.touchPortalPluginTest.getMetrics();
+        assertEquals(Long.valueOf(1), metricsSnapshot.getInboundMessageCounts().get(ReceivedMessageHelper.TYPE_ACTION));
+        assertEquals(Long.valueOf(1), metricsSnapshot.getOutboundMessageCounts().get(SentMessageHelper.TYPE_PAIR));
+        assertEquals(Long.valueOf(1), metricsSnapshot.getOutboundMessageCounts().get(SentMessageHelper.TYPE_STATE_UPDATE));
+        assertTrue(metricsSnapshot.getBytesWritten() > 0);
+        assertEquals(1, metricsSnapshot.getStateDedupHits());
+        assertEquals(Integer.valueOf(1), metricsSnapshot.getCacheSizes().get("states"));
+        LatencyStats latencyStats = metricsSnapshot.getDispatchLatencies().get(TouchPortalPluginTestConstants.BaseCategory.Actions.DummyWithJsonObject.ID);
+        assertNotNull(latencyStats);
+        assertEquals(1, latencyStats.getCount());
+        assertTrue(latencyStats.getMedianNanos() <= latencyStats.getMaxNanos());
+        assertNotNull(metricsSnapshot.getDispatchLaneStats().get(TouchPortalPlugin.DispatchLane.INTERACTIVE));
+
+        // Exposed through JMX until closed
+        assertTrue(this.touchPortalPluginTest.registerMetricsMBean());
+        ObjectName metricsObjectName = new ObjectName("com.christophecvb.touchportal:type=Metrics,name=" + TouchPortalPluginTestConstants.ID);
+        assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(metricsObjectName, "StateDedupHits"));
+        this.touchPortalPluginTest.close(null);
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(metricsObjectName));
+    }
+
+    @Test
+    public void testLatencyTracing() throws IOException, InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        AtomicInteger feedbackCount = new AtomicInteger();
+        this.touchPortalPluginTest.addReceivedListener(jsonMessage -> this.touchPortalPluginTest.sendStateUpdate(TouchPortalPluginTestConstants.BaseCategory.States.CustomState.ID, "Feedback " + feedbackCount.incrementAndGet()));
+        PrintWriter out = new PrintWriter(this.serverSocketClient.getOutputStream(), true);
+        JsonObject jsonMessage = new JsonObject();
+        jsonMessage.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+        jsonMessage.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_ACTION);
+        jsonMessage.addProperty(ReceivedMessageHelper.ACTION_ID, "tracedActionId");
+
+        // Not traced until enabled
+        out.println(jsonMessage);
+        Thread.sleep(REASONABLE_TIME);
+        assertEquals(1, feedbackCount.get());
+        assertTrue(this.touchPortalPluginTest.getMetrics().getFeedbackLatencies().isEmpty());
+
+        this.touchPortalPluginTest.setLatencyTracing(true);
+        out.println(jsonMessage);
+        out.println(jsonMessage);
+        Thread.sleep(REASONABLE_TIME);
+        // Updates sent outside of a handler are not attributed
+        assertTrue(this.touchPortalPluginTest.sendStateUpdate(TouchPortalPluginTestConstants.BaseCategory.States.CustomState.ID, "Not a feedback"));
+        Thread.sleep(REASONABLE_TIME);
+
+        assertEquals(3, feedbackCount.get());
+        LatencyStats feedbackLatency = this.touchPortalPluginTest.getMetrics().getFeedbackLatencies().get("tracedActionId");
+        assertNotNull(feedbackLatency);
+        assertEquals(2, feedbackLatency.getCount());
+        assertTrue(feedbackLatency.getMaxNanos() > 0);
+        assertTrue(feedbackLatency.getMaxNanos() < TimeUnit.MILLISECONDS.toNanos(REASONABLE_TIME));
+    }
+
+    @Test
+    public void testAsyncConsoleHandler() {
+        LOGGER.log(Level.FINE, "Now");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AsyncConsoleHandler asyncConsoleHandler = new AsyncConsoleHandler(output, 2048);
+        Logger logger = Logger.getLogger("AsyncConsoleHandlerTest");
+        logger.setUseParentHandlers(false);
+        logger.addHandler(asyncConsoleHandler);
+        try {
+            logger.log(Level.INFO, "Flushed");
+            asyncConsoleHandler.flush();
+            assertEquals("[INFO   ] LibraryTests.testAsyncConsoleHandler Flushed " + System.lineSeparator(), output.toString());
+            output.reset();
+
+            // Every record fits in the buffer, so all of them are drained in the order they were logged
+            for (int i = 0; i < 1000; i++) {
+                logger.log(Level.INFO, "Record " + i);
+            }
+            logger.log(Level.FINE, "Not loggable");
+            asyncConsoleHandler.flush();
+            String[] lines = output.toString().split(System.lineSeparator());
+            assertEquals(0, asyncConsoleHandler.getDroppedCount());
+            assertEquals(1000, lines.length);
+            for (int i = 0; i < 1000; i++) {
+                assertEquals("[INFO   ] LibraryTests.testAsyncConsoleHandler Record " + i + " ", lines[i]);
+            }
+        }
+        finally {
+            logger.removeHandler(asyncConsoleHandler);
+            asyncConsoleHandler.close();
+        }
+
+        // Kept as a ConsoleHandler for the existing callers
+        assertTrue(ConsoleHandler.class.isAssignableFrom(TouchPortalPlugin.CustomConsoleHandler.class));
+    }
+
+    @Test
+    public void testAsyncConsoleHandlerDropping() {
+        LOGGER.log(Level.FINE, "Now");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AsyncConsoleHandler asyncConsoleHandler = new AsyncConsoleHandler(output, 8);
+        Logger logger = Logger.getLogger("AsyncConsoleHandlerDroppingTest");
+        logger.setUseParentHandlers(false);
+        logger.addHandler(asyncConsoleHandler);
+        for (int i = 0; i < 1000; i++) {
+            logger.log(Level.INFO, "Record " + i);
+        }
+        logger.removeHandler(asyncConsoleHandler);
+        asyncConsoleHandler.close();
+
+        // Records are either written, still in order, or dropped and reported
+        String[] lines = output.toString().split(System.lineSeparator());
+        List<Integer> writtenRecords = Arrays.stream(lines)
+                .filter(line -> line.startsWith("[INFO   ] LibraryTests.testAsyncConsoleHandlerDropping Record "))
+                .map(line -> Integer.parseInt(line.substring(line.lastIndexOf("Record ") + 7).trim()))
+                .collect(Collectors.toList());
+        assertEquals(1000, writtenRecords.size() + asyncConsoleHandler.getDroppedCount());
+        assertEquals(Integer.valueOf(0), writtenRecords.get(0));
+        for (int i = 1; i < writtenRecords.size(); i++) {
+            assertTrue(writtenRecords.get(i - 1) < writtenRecords.get(i));
+        }
+        if (asyncConsoleHandler.getDroppedCount() > 0) {
+            assertTrue(Arrays.stream(lines).anyMatch(line -> line.startsWith("[WARNING] ") && line.endsWith(" log records dropped")));
+        }
+    }
+
+    @Test
+    public void testAsyncConsoleHandlerClose() {
+        LOGGER.log(Level.FINE, "Now");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AsyncConsoleHandler asyncConsoleHandler = new AsyncConsoleHandler(output, 256);
+        Logger logger = Logger.getLogger("AsyncConsoleHandlerCloseTest");
+        logger.setUseParentHandlers(false);
+        logger.addHandler(asyncConsoleHandler);
+        for (int i = 0; i < 100; i++) {
+            logger.log(Level.INFO, "Record " + i);
+        }
+
+        // Closing without flushing first still writes every queued record
+        asyncConsoleHandler.close();
+        String[] lines = output.toString().split(System.lineSeparator());
+        assertEquals(0, asyncConsoleHandler.getDroppedCount());
+        assertEquals(100, lines.length);
+        assertEquals("[INFO   ] LibraryTests.testAsyncConsoleHandlerClose Record 99 ", lines[99]);
+
+        // Records published once closed are ignored
+        logger.log(Level.INFO, "After close");
+        logger.removeHandler(asyncConsoleHandler);
+        assertFalse(output.toString().contains("After close"));
+        assertEquals(0, asyncConsoleHandler.getDroppedCount());
+    }
+
+    @Test
+    public void testLogSampling() throws InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        List<LogRecord> logRecords = new CopyOnWriteArrayList<>();
+        Handler capturingHandler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                logRecords.add(record);
+            }
+
+            @Override
+            public void flush() {}
+
+            @Override
+            public void close() {}
+        };
+        Logger pluginLogger = Logger.getLogger(TouchPortalPlugin.class.getName());
+        pluginLogger.addHandler(capturingHandler);
+
+        this.touchPortalPluginTest.setLogSampling(SentMessageHelper.TYPE_STATE_UPDATE, LogSampling.oneIn(5));
+        this.touchPortalPluginTest.setLogSampling(SentMessageHelper.TYPE_CONNECTOR_UPDATE, LogSampling.NONE);
+        this.touchPortalPluginTest.setLogSummaryInterval(REASONABLE_TIME);
+        this.touchPortalPluginTest.setLogSampling(SentMessageHelper.TYPE_TRIGGER_EVENT, LogSampling.NONE);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(this.touchPortalPluginTest.sendStateUpdate(TouchPortalPluginTestConstants.BaseCategory.States.CustomState.ID, "Sampled " + i));
+            assertTrue(this.touchPortalPluginTest.sendTriggerEvent(TouchPortalPluginTestConstants.BaseCategory.Events.CustomState.ID, null));
+        }
+        Thread.sleep(REASONABLE_TIME * 3);
+        pluginLogger.removeHandler(capturingHandler);
+        this.touchPortalPluginTest.setLogSummaryInterval(0);
+
+        long stateUpdateLogCount = logRecords.stream().filter(logRecord -> logRecord.getMessage().startsWith("Update State [")).count();
+        assertEquals(2, stateUpdateLogCount);
+        assertTrue(logRecords.stream()
+                .filter(logRecord -> logRecord.getMessage().startsWith("Update State ["))
+                .allMatch(logRecord -> logRecord.getMessage().endsWith("] Sent [true]")
+                        && TouchPortalPlugin.class.getName().equals(logRecord.getSourceClassName())
+                        && "sendStateUpdate".equals(logRecord.getSourceMethodName())));
+        assertTrue(logRecords.stream().anyMatch(logRecord -> logRecord.getMessage().contains("stateUpdate [sent 10, not sent 0, logged 2]")));
+        assertTrue(logRecords.stream().noneMatch(logRecord -> logRecord.getMessage().startsWith("Trigger Event [")));
+        assertTrue(logRecords.stream().anyMatch(logRecord -> logRecord.getMessage().contains("triggerEvent [sent 10, not sent 0, logged 0]")));
+    }
+
+    @Test
+    public void testHandlerAccounting() throws IOException, InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        this.touchPortalPluginTest.setHandlerAccounting(true);
+        JsonObject jsonMessage = new JsonObject();
+        jsonMessage.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+        jsonMessage.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_ACTION);
+        jsonMessage.addProperty(ReceivedMessageHelper.ACTION_ID, TouchPortalPluginTestConstants.BaseCategory.Actions.DummyWithJsonObject.ID);
+        PrintWriter out = new PrintWriter(this.serverSocketClient.getOutputStream(), true);
+        for (int i = 0; i < 3; i++) {
+            out.println(jsonMessage);
+        }
+        Thread.sleep(REASONABLE_TIME);
+
+        List<HandlerAccountingReport> handlerAccountingReports = this.touchPortalPluginTest.getHandlerAccountingReports();
+        HandlerAccountingReport handlerAccountingReport = handlerAccountingReports.stream()
+                .filter(report -> TouchPortalPluginTestConstants.BaseCategory.Actions.DummyWithJsonObject.ID.equals(report.getHandlerId()))
+                .findFirst().orElse(null);
+        assertNotNull(handlerAccountingReport);
+        assertEquals(3, handlerAccountingReport.getInvocationCount());
+        assertTrue(handlerAccountingReport.getCpuTimeNanos() != 0);
+        assertTrue(handlerAccountingReport.getWallTimeNanos() > 0);
+
+        this.touchPortalPluginTest.resetHandlerAccounting();
+        assertTrue(this.touchPortalPluginTest.getHandlerAccountingReports().isEmpty());
+        this.touchPortalPluginTest.setHandlerAccounting(false);
+    }
+
+    @Test
+    public void testMockTouchPortalServerLoad() throws IOException, TimeoutException {
+        LOGGER.log(Level.FINE, "Now");
+        TPInMemoryTransport inMemoryTransport = new TPInMemoryTransport();
+        TouchPortalPluginTest loadedPlugin = new TouchPortalPluginTest();
+        loadedPlugin.setTransport(inMemoryTransport);
+        String loadActionId = "loadAction";
+        AtomicInteger answeredCount = new AtomicInteger();
+        loadedPlugin.addReceivedListener(jsonMessage -> {
+            if (ReceivedMessageHelper.isTypeAction(jsonMessage) && loadActionId.equals(jsonMessage.get(ReceivedMessageHelper.ACTION_ID).getAsString())) {
+                loadedPlugin.sendStateUpdate(TouchPortalPluginTestConstants.BaseCategory.States.CustomState.ID, String.valueOf(answeredCount.incrementAndGet()));
+            }
+        });
+        assertTrue(loadedPlugin.connectThenPairAndListen(this.touchPortalPluginListener));
+
+        try (MockTouchPortalServer mockTouchPortalServer = MockTouchPortalServer.inMemory(inMemoryTransport)) {
+            mockTouchPortalServer.acceptAndPair(REASONABLE_TIME * 10, TimeUnit.MILLISECONDS);
+            assertEquals(TouchPortalPluginTestConstants.ID, mockTouchPortalServer.getPluginId());
+
+            LoadProfile loadProfile = new LoadProfile.Builder()
+                    .setRatePerSecond(500)
+                    .setDuration(1, TimeUnit.SECONDS)
+                    .setSeed(42)
+                    .addAction(loadActionId, Collections.emptyMap(), 6, message -> SentMessageHelper.TYPE_STATE_UPDATE.equals(message.get(SentMessageHelper.TYPE).getAsString()))
+                    .addHold(TouchPortalPluginTestConstants.BaseCategory.Actions.ActionHoldable.ID, Collections.emptyMap(), 20, 1)
+                    .addConnectorChangeBurst(TouchPortalPluginTestConstants.BaseCategory.Connectors.ConnectorForSlider.ID, Collections.emptyMap(), 10, 1)
+                    .addListChange(loadActionId, "list", new String[]{"Value 1", "Value 2"}, 1)
+                    .addBroadcast(new String[]{"Page 1", "Page 2"}, 1)
+                    .build();
+            LoadReport loadReport = mockTouchPortalServer.runLoad(loadProfile);
+            LOGGER.log(Level.INFO, loadReport.toString());
+
+            assertEquals(500, loadReport.getOperationCount());
+            assertTrue(loadReport.getSentCount() > loadReport.getOperationCount());
+            assertEquals(0, loadReport.getUnansweredCount());
+            assertEquals(answeredCount.get(), loadReport.getResponseCount());
+            assertTrue(loadReport.getResponseCount() > 0);
+            assertTrue(loadReport.getP50LatencyNanos() > 0);
+            assertTrue(loadReport.getP50LatencyNanos() <= loadReport.getP99LatencyNanos());
+            assertTrue(loadReport.getP99LatencyNanos() <= loadReport.getP999LatencyNanos());
+            assertTrue(loadReport.getP999LatencyNanos() <= loadReport.getMaxLatencyNanos());
+        }
+        loadedPlugin.close(null);
+    }
+
+    @Test
+    public void testTrafficRecordingReplay() throws IOException, TimeoutException {
+        LOGGER.log(Level.FINE, "Now");
+        Path recordingPath = Files.createTempFile("traffic", ".tptr");
+        String recordedActionId = "recordedAction";
+        try {
+            TPInMemoryTransport recordedTransport = new TPInMemoryTransport();
+            TouchPortalPluginTest recordedPlugin = new TouchPortalPluginTest();
+            recordedPlugin.setTransport(recordedTransport);
+            AtomicInteger recordedCounter = new AtomicInteger();
+            recordedPlugin.addReceivedListener(jsonMessage -> {
+                if (ReceivedMessageHelper.isTypeAction(jsonMessage) && recordedActionId.equals(jsonMessage.get(ReceivedMessageHelper.ACTION_ID).getAsString())) {
+                    recordedPlugin.sendStateUpdate(TouchPortalPluginTestConstants.BaseCategory.States.CustomState.ID, String.valueOf(recordedCounter.incrementAndGet()));
+                }
+            });
+            recordedPlugin.startTrafficRecording(recordingPath);
+            assertTrue(recordedPlugin.isTrafficRecording());
+            assertTrue(recordedPlugin.connectThenPairAndListen(this.touchPortalPluginListener));
+            try (MockTouchPortalServer mockTouchPortalServer = MockTouchPortalServer.inMemory(recordedTransport)) {
+                mockTouchPortalServer.acceptAndPair(REASONABLE_TIME * 10, TimeUnit.MILLISECONDS);
+                for (int i = 0; i < 5; i++) {
+                    mockTouchPortalServer.send(TouchPortalMessages.action(TouchPortalPluginTestConstants.ID, recordedActionId, Collections.emptyMap()));
+                }
+                // Pair and the 5 State updates
+                assertTrue(mockTouchPortalServer.awaitReceivedCount(6, REASONABLE_TIME * 10, TimeUnit.MILLISECONDS));
+            }
+            // Pair, Info, 5 Actions and their 5 State updates
+            assertEquals(12, recordedPlugin.stopTrafficRecording());
+            assertFalse(recordedPlugin.isTrafficRecording());
+            recordedPlugin.close(null);
+
+            try (TPTrafficRecording trafficRecording = TPTrafficRecording.open(recordingPath)) {
+                TPTrafficRecording.Record pairRecord = trafficRecording.next();
+                assertNotNull(pairRecord);
+                assertFalse(pairRecord.isInbound());
+                assertEquals(SentMessageHelper.TYPE_PAIR, JsonParser.parseString(pairRecord.getLine()).getAsJsonObject().get(SentMessageHelper.TYPE).getAsString());
+                TPTrafficRecording.Record infoRecord = trafficRecording.next();
+                assertNotNull(infoRecord);
+                assertTrue(infoRecord.isInbound());
+                assertTrue(infoRecord.getNanos() >= pairRecord.getNanos());
+            }
+
+            // Replayed as fast as possible into a new Plugin, which sends the same messages
+            TPInMemoryTransport replayedTransport = new TPInMemoryTransport();
+            TouchPortalPluginTest replayedPlugin = new TouchPortalPluginTest();
+            replayedPlugin.setTransport(replayedTransport);
+            AtomicInteger replayedCounter = new AtomicInteger();
+            replayedPlugin.addReceivedListener(jsonMessage -> {
+                if (ReceivedMessageHelper.isTypeAction(jsonMessage) && recordedActionId.equals(jsonMessage.get(ReceivedMessageHelper.ACTION_ID).getAsString())) {
+                    replayedPlugin.sendStateUpdate(TouchPortalPluginTestConstants.BaseCategory.States.CustomState.ID, String.valueOf(replayedCounter.incrementAndGet()));
+                }
+            });
+            assertTrue(replayedPlugin.connectThenPairAndListen(this.touchPortalPluginListener));
+            try (MockTouchPortalServer mockTouchPortalServer = MockTouchPortalServer.inMemory(replayedTransport)) {
+                mockTouchPortalServer.accept(REASONABLE_TIME * 10, TimeUnit.MILLISECONDS);
+                ReplayReport replayReport = mockTouchPortalServer.replay(recordingPath, ReplaySpeed.AS_FAST_AS_POSSIBLE, REASONABLE_TIME * 10, TimeUnit.MILLISECONDS);
+                LOGGER.log(Level.INFO, replayReport.toString());
+                assertEquals(6, replayReport.getReplayedCount());
+                assertEquals(5, replayReport.getRecordedSentCount());
+                assertTrue(replayReport.matchesRecording());
+                assertNotNull(replayedPlugin.getTPInfo());
+            }
+            replayedPlugin.close(null);
+        }
+        finally {
+            Files.deleteIfExists(recordingPath);
+        }
+    }
+
+    @Test
+    public void testAllocationBudgets() throws IOException, TimeoutException {
+        LOGGER.log(Level.FINE, "Now");
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        Assume.assumeTrue("The budgets were measured on HotSpot Java 8 to 21 with the Serial, Parallel or G1 collector", LibraryTests.isAllocationBudgetPlatform());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        // The log lines are not part of the measured paths
+        Logger pluginLogger = Logger.getLogger(TouchPortalPlugin.class.getName());
+        Level previousLevel = pluginLogger.getLevel();
+        pluginLogger.setLevel(Level.WARNING);
+        TPInMemoryTransport inMemoryTransport = new TPInMemoryTransport();
+        TouchPortalPluginTest measuredPlugin = new TouchPortalPluginTest();
+        measuredPlugin.setTransport(inMemoryTransport);
+        assertTrue(measuredPlugin.connectThenPairAndListen(this.touchPortalPluginListener));
+        try (MockTouchPortalServer mockTouchPortalServer = MockTouchPortalServer.inMemory(inMemoryTransport)) {
+            mockTouchPortalServer.acceptAndPair(REASONABLE_TIME * 10, TimeUnit.MILLISECONDS);
+            String stateId = TouchPortalPluginTestConstants.BaseCategory.States.CustomState.ID;
+            String[] stateValues = {"Value 1", "Value 2"};
+
+            measuredPlugin.sendStateUpdate(stateId, "Deduplicated");
+            long deduplicatedStateUpdateAllocation = LibraryTests.measureAllocatedBytesPerOperation(threadMXBean, false, i -> measuredPlugin.sendStateUpdate(stateId, "Deduplicated"));
+            assertTrue("Deduplicated sendStateUpdate allocates " + deduplicatedStateUpdateAllocation + " bytes", deduplicatedStateUpdateAllocation <= DEDUPLICATED_STATE_UPDATE_ALLOCATION_BUDGET);
+
+            long changedStateUpdateAllocation = LibraryTests.measureAllocatedBytesPerOperation(threadMXBean, false, i -> measuredPlugin.sendStateUpdate(stateId, stateValues[i % stateValues.length]));
+            assertTrue("Changed sendStateUpdate allocates " + changedStateUpdateAllocation + " bytes", changedStateUpdateAllocation <= CHANGED_STATE_UPDATE_ALLOCATION_BUDGET);
+
+            long connectorUpdateAllocation = LibraryTests.measureAllocatedBytesPerOperation(threadMXBean, false, i -> measuredPlugin.sendConnectorUpdate(TouchPortalPluginTestConstants.ID, TouchPortalPluginTestConstants.BaseCategory.Connectors.ConnectorForSlider.ID, i % 101, null));
+            assertTrue("sendConnectorUpdate allocates " + connectorUpdateAllocation + " bytes", connectorUpdateAllocation <= CONNECTOR_UPDATE_ALLOCATION_BUDGET);
+
+            // Decoded and dispatched on the Plugin Threads, measured on all the other Threads while the sent Actions are handled
+            JsonObject countedAction = TouchPortalMessages.action(TouchPortalPluginTestConstants.ID, TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionCounted.ID, Collections.emptyMap());
+            AtomicInteger sentActionCount = new AtomicInteger();
+            long actionDispatchAllocation = LibraryTests.measureAllocatedBytesPerOperation(threadMXBean, true, i -> {
+                try {
+                    mockTouchPortalServer.send(countedAction);
+                    int sentActions = sentActionCount.incrementAndGet();
+                    if (i == ALLOCATION_OPERATION_COUNT - 1) {
+                        while (measuredPlugin.actionCountedInvocations.get() < sentActions) {
+                            Thread.yield();
+                        }
+                    }
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            assertTrue("Action dispatch allocates " + actionDispatchAllocation + " bytes", actionDispatchAllocation <= ACTION_DISPATCH_ALLOCATION_BUDGET);
+        }
+        finally {
+            measuredPlugin.close(null);
+            pluginLogger.setLevel(previousLevel);
+        }
+    }
+
+    /**
+     * Check if the JVM and garbage collector are the ones the allocation budgets were measured on
+     *
+     * @return boolean allocationBudgetPlatform
+     */
+    private static boolean isAllocationBudgetPlatform() {
+        String specificationVersion = System.getProperty("java.specification.version");
+        int javaVersion = Integer.parseInt(specificationVersion.startsWith("1.") ? specificationVersion.substring(2) : specificationVersion);
+        String vmName = System.getProperty("java.vm.name", "");
+        boolean measuredVm = javaVersion >= 8 && javaVersion <= 21 && (vmName.contains("HotSpot") || vmName.contains("OpenJDK"));
+        boolean measuredGc = ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .map(GarbageCollectorMXBean::getName)
+                .allMatch(gcName -> gcName.startsWith("G1 ") || gcName.startsWith("PS ") || gcName.equals("Copy") || gcName.equals("MarkSweepCompact"));
+
+        return measuredVm && measuredGc;
+    }
+
+    /**
+     * Run an operation to warm it up, then measure the bytes it allocates
+     *
+     * @param threadMXBean com.sun.management.ThreadMXBean
+     * @param allThreads   boolean - Measure the allocations of every other Thread instead of the calling one
+     * @param operation    IntConsumer - Called with the operation index
+     * @return long allocatedBytesPerOperation
+     */
+    private static long measureAllocatedBytesPerOperation(com.sun.management.ThreadMXBean threadMXBean, boolean allThreads, IntConsumer operation) {
+        for (int i = 0; i < ALLOCATION_OPERATION_COUNT; i++) {
+            operation.accept(i);
+        }
+        long allocatedBytes = LibraryTests.getAllocatedBytes(threadMXBean, allThreads);
+        for (int i = 0; i < ALLOCATION_OPERATION_COUNT; i++) {
+            operation.accept(i);
+        }
+        return (LibraryTests.getAllocatedBytes(threadMXBean, allThreads) - allocatedBytes) / ALLOCATION_OPERATION_COUNT;
+    }
+
+    private static long getAllocatedBytes(com.sun.management.ThreadMXBean threadMXBean, boolean allThreads) {
+        long allocatedBytes = 0;
+        long currentThreadId = Thread.currentThread().getId();
+        if (allThreads) {
+            long[] threadIds = threadMXBean.getAllThreadIds();
+            long[] threadsAllocatedBytes = threadMXBean.getThreadAllocatedBytes(threadIds);
+            for (int i = 0; i < threadIds.length; i++) {
+                if (threadIds[i] != currentThreadId && threadsAllocatedBytes[i] > 0) {
+                    allocatedBytes += threadsAllocatedBytes[i];
+                }
+            }
+        }
+        else {
+            allocatedBytes = threadMXBean.getThreadAllocatedBytes(currentThreadId);
+        }
+        return allocatedBytes;
+    }
+
+    @Test
+    public void testFlightRecorderEvents() throws IOException, InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        Recording recording = new Recording();
+        recording.enable("com.christophecvb.touchportal.MessageReceived");
+        recording.enable("com.christophecvb.touchportal.HandlerDispatched");
+        recording.enable("com.christophecvb.touchportal.MessageSent");
+        recording.start();
+
+        JsonObject jsonMessage = new JsonObject();
+        jsonMessage.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+        jsonMessage.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_ACTION);
+        jsonMessage.addProperty(ReceivedMessageHelper.ACTION_ID, TouchPortalPluginTestConstants.BaseCategory.Actions.DummyWithJsonObject.ID);
+        PrintWriter out = new PrintWriter(this.serverSocketClient.getOutputStream(), true);
+        out.println(jsonMessage);
+        assertTrue(this.touchPortalPluginTest.sendStateUpdate(TouchPortalPluginTestConstants.BaseCategory.States.CustomState.ID, "Recorded"));
+        Thread.sleep(REASONABLE_TIME);
+
+        recording.stop();
+        Path recordingPath = Files.createTempFile("touchportal", ".jfr");
+        recording.dump(recordingPath);
+        recording.close();
+        List<RecordedEvent> recordedEvents = RecordingFile.readAllEvents(recordingPath);
+        Files.delete(recordingPath);
+
+        assertTrue(recordedEvents.stream().anyMatch(recordedEvent -> recordedEvent.getEventType().getName().equals("com.christophecvb.touchportal.MessageReceived")
+                && ReceivedMessageHelper.TYPE_ACTION.equals(recordedEvent.getString("type")) && recordedEvent.getInt("size") == jsonMessage.toString().length()));
+        assertTrue(recordedEvents.stream().anyMatch(recordedEvent -> recordedEvent.getEventType().getName().equals("com.christophecvb.touchportal.HandlerDispatched")
+                && TouchPortalPluginTestConstants.BaseCategory.Actions.DummyWithJsonObject.ID.equals(recordedEvent.getString("handlerId"))));
+        assertTrue(recordedEvents.stream().anyMatch(recordedEvent -> recordedEvent.getEventType().getName().equals("com.christophecvb.touchportal.MessageSent")
+                && SentMessageHelper.TYPE_STATE_UPDATE.equals(recordedEvent.getString("type"))
+                && TouchPortalPluginTestConstants.BaseCategory.States.CustomState.ID.equals(recordedEvent.getString("id")) && recordedEvent.getInt("bytes") > 0));
+    }
+
+    @Test
+    public void testPublisher() throws IOException, InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        List<TPActionMessage> receivedMessages = new CopyOnWriteArrayList<>();
+        List<Throwable> receivedErrors = new CopyOnWriteArrayList<>();
+        TPFlow.Subscription[] subscriptions = new TPFlow.Subscription[2];
+        TPFlow.Publisher<TPActionMessage> actionPublisher = this.touchPortalPluginTest.getPublisher(TPActionMessage.class);
+        assertSame(actionPublisher, this.touchPortalPluginTest.getPublisher(TPActionMessage.class));
+        actionPublisher.subscribe(new TPFlow.Subscriber<TPActionMessage>() {
+            @Override
+            public void onSubscribe(TPFlow.Subscription subscription) {
+                subscriptions[0] = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(TPActionMessage item) {
+                receivedMessages.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                receivedErrors.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {}
+        });
+
+        // Subscriptions created from now on only keep the first pending message
+        this.touchPortalPluginTest.setPublisherOverflowPolicy(TPFlow.OverflowPolicy.DROP_LATEST, 1);
+        List<TPActionMessage> receivedDroppingMessages = new CopyOnWriteArrayList<>();
+        actionPublisher.subscribe(new TPFlow.Subscriber<TPActionMessage>() {
+            @Override
+            public void onSubscribe(TPFlow.Subscription subscription) {
+                subscriptions[1] = subscription;
+            }
+
+            @Override
+            public void onNext(TPActionMessage item) {
+                receivedDroppingMessages.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {}
+
+            @Override
+            public void onComplete() {}
+        });
+
+        PrintWriter out = new PrintWriter(this.serverSocketClient.getOutputStream(), true);
+        for (int i = 0; i < 3; i++) {
+            JsonObject jsonMessage = new JsonObject();
+            jsonMessage.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_ACTION);
+            jsonMessage.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+            jsonMessage.addProperty(ReceivedMessageHelper.ACTION_ID, TouchPortalPluginTestConstants.BaseCategory.Actions.DummyWithTPActionMessage.ID);
+            out.println(jsonMessage);
+        }
+        Thread.sleep(REASONABLE_TIME);
+
+        // Only what has been requested is delivered
+        assertEquals(1, receivedMessages.size());
+        assertEquals(0, receivedDroppingMessages.size());
+
+        subscriptions[0].request(Long.MAX_VALUE);
+        subscriptions[1].request(Long.MAX_VALUE);
+        Thread.sleep(REASONABLE_TIME);
+
+        assertEquals(3, receivedMessages.size());
+        assertEquals(TouchPortalPluginTestConstants.BaseCategory.Actions.DummyWithTPActionMessage.ID, receivedMessages.get(0).actionId);
+        assertEquals(1, receivedDroppingMessages.size());
+
+        // Invalid requests fail the subscription
+        subscriptions[0].request(0);
+        Thread.sleep(REASONABLE_TIME);
+        assertEquals(1, receivedErrors.size());
+        assertTrue(receivedErrors.get(0) instanceof IllegalArgumentException);
+        subscriptions[1].cancel();
+    }
+
     @Test
     public void testReceiveConnectorForSlider() throws IOException, InterruptedException {
         LOGGER.log(Level.FINE, "Now");
@@ -982,6 +2116,104 @@ public class LibraryTests {
         out.println(jsonMessage);
     }
 
+    @Test
+    public void testListenerAdapterAndPerTypeListeners() throws IOException, InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        AtomicInteger adapterBroadcasts = new AtomicInteger();
+        List<TPSettingsMessage> adapterSettings = new CopyOnWriteArrayList<>();
+        // Replaces the listener registered in the @Before
+        this.touchPortalPluginTest.connectThenPairAndListen(new TouchPortalPlugin.TouchPortalPluginListenerAdapter() {
+            @Override
+            public void onBroadcast(TPBroadcastMessage tpBroadcastMessage) {
+                adapterBroadcasts.incrementAndGet();
+            }
+
+            @Override
+            public void onSettings(TPSettingsMessage tpSettingsMessage) {
+                adapterSettings.add(tpSettingsMessage);
+            }
+        });
+
+        AtomicInteger broadcasts = new AtomicInteger();
+        TouchPortalPlugin.OnBroadcastListener onBroadcastListener = tpBroadcastMessage -> broadcasts.incrementAndGet();
+        this.touchPortalPluginTest.addBroadcastListener(onBroadcastListener);
+
+        JsonObject jsonMessage = new JsonObject();
+        jsonMessage.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_BROADCAST);
+        jsonMessage.addProperty(ReceivedMessageHelper.EVENT, ReceivedMessageHelper.EVENT_PAGE_CHANGE);
+        jsonMessage.addProperty(ReceivedMessageHelper.PAGE_NAME, "Page ONE");
+
+        PrintWriter out = new PrintWriter(this.serverSocketClient.getOutputStream(), true);
+        out.println(jsonMessage);
+        Thread.sleep(REASONABLE_TIME);
+
+        this.touchPortalPluginTest.removeBroadcastListener(onBroadcastListener);
+        out.println(jsonMessage);
+        JsonArray jsonSettings = new JsonArray();
+        JsonObject jsonSettingIP = new JsonObject();
+        jsonSettingIP.addProperty(TouchPortalPluginTestConstants.Settings.IpSetting.NAME, "192.168.0.2");
+        jsonSettings.add(jsonSettingIP);
+        JsonObject jsonSettingsMessage = new JsonObject();
+        jsonSettingsMessage.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_SETTINGS);
+        jsonSettingsMessage.add(ReceivedMessageHelper.VALUES, jsonSettings);
+        out.println(jsonSettingsMessage);
+        Thread.sleep(REASONABLE_TIME);
+
+        assertEquals(2, adapterBroadcasts.get());
+        assertEquals(1, broadcasts.get());
+        assertEquals(1, adapterSettings.size());
+        assertEquals("192.168.0.2", adapterSettings.get(0).settings.get(TouchPortalPluginTestConstants.Settings.IpSetting.NAME));
+    }
+
+    @Test
+    public void testDispatchLanes() throws IOException, InterruptedException {
+        LOGGER.log(Level.FINE, "Now");
+        CountDownLatch broadcastLatch = new CountDownLatch(1);
+        this.touchPortalPluginTest.addBroadcastListener(tpBroadcastMessage -> {
+            try {
+                broadcastLatch.await();
+            }
+            catch (InterruptedException ignored) {}
+        });
+
+        JsonObject jsonBroadcast = new JsonObject();
+        jsonBroadcast.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_BROADCAST);
+        jsonBroadcast.addProperty(ReceivedMessageHelper.EVENT, ReceivedMessageHelper.EVENT_PAGE_CHANGE);
+        jsonBroadcast.addProperty(ReceivedMessageHelper.PAGE_NAME, "Page ONE");
+
+        JsonObject jsonAction = new JsonObject();
+        jsonAction.addProperty(ReceivedMessageHelper.PLUGIN_ID, TouchPortalPluginTestConstants.ID);
+        jsonAction.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_ACTION);
+        jsonAction.addProperty(ReceivedMessageHelper.ACTION_ID, TouchPortalPluginTestConstants.BaseCategory.Actions.DummyWithJsonObject.ID);
+
+        PrintWriter out = new PrintWriter(this.serverSocketClient.getOutputStream(), true);
+        out.println(jsonBroadcast);
+        out.println(jsonBroadcast);
+        out.println(jsonAction);
+        Thread.sleep(REASONABLE_TIME);
+
+        // The Action is not stuck behind the blocked Broadcast
+        DispatchLaneStats interactiveStats = this.touchPortalPluginTest.getDispatchLaneStats(TouchPortalPlugin.DispatchLane.INTERACTIVE);
+        assertEquals(1, interactiveStats.getDispatchedCount());
+        assertEquals(0, interactiveStats.getQueuedCount());
+
+        DispatchLaneStats backgroundStats = this.touchPortalPluginTest.getDispatchLaneStats(TouchPortalPlugin.DispatchLane.BACKGROUND);
+        assertEquals(1, backgroundStats.getDispatchedCount());
+        assertEquals(1, backgroundStats.getQueuedCount());
+        assertEquals(1, backgroundStats.getActiveCount());
+        assertEquals(1, backgroundStats.getSaturatedCount());
+
+        // The second Broadcast is already queued, so it waits at least this long
+        Thread.sleep(REASONABLE_TIME);
+        broadcastLatch.countDown();
+        Thread.sleep(REASONABLE_TIME);
+
+        backgroundStats = this.touchPortalPluginTest.getDispatchLaneStats(TouchPortalPlugin.DispatchLane.BACKGROUND);
+        assertEquals(2, backgroundStats.getDispatchedCount());
+        assertEquals(0, backgroundStats.getQueuedCount());
+        assertTrue(backgroundStats.getMaxQueueLatencyNanos() >= TimeUnit.MILLISECONDS.toNanos(REASONABLE_TIME));
+    }
+
     @Test
     public void testReceiveSettings() throws IOException, InterruptedException {
         LOGGER.log(Level.FINE, "Now");
@@ -1104,7 +2336,7 @@ public class LibraryTests {
 
         // Categories
         JsonArray jsonCategories = entry.getAsJsonArray(PluginHelper.CATEGORIES);
-        assertEquals(1, jsonCategories.size());
+        assertEquals(2, jsonCategories.size());
 
         // Base Category
         JsonObject baseCategory = jsonCategories.get(0).getAsJsonObject();
@@ -1164,6 +2396,25 @@ public class LibraryTests {
         // Base Category Connector ConnectorForSlider
         JsonObject baseCategoryConnectorConnectorForSlider = baseCategoryConnectors.get(0).getAsJsonObject();
         assertEquals(TouchPortalPluginTestConstants.BaseCategory.Connectors.ConnectorForSlider.ID, baseCategoryConnectorConnectorForSlider.get(ConnectorHelper.ID).getAsString());
+
+        // Advanced Category
+        JsonObject advancedCategory = jsonCategories.get(1).getAsJsonObject();
+        assertEquals(TouchPortalPluginTestConstants.AdvancedCategory.ID, advancedCategory.get(CategoryHelper.ID).getAsString());
+
+        // Advanced Category Actions
+        JsonArray advancedCategoryActions = advancedCategory.getAsJsonArray(CategoryHelper.ACTIONS);
+        assertEquals(6, advancedCategoryActions.size());
+        assertEquals(TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionInline.ID, advancedCategoryActions.get(0).getAsJsonObject().get(ActionHelper.ID).getAsString());
+        assertEquals(TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionVirtual.ID, advancedCategoryActions.get(1).getAsJsonObject().get(ActionHelper.ID).getAsString());
+        assertEquals(TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionHoldSession.ID, advancedCategoryActions.get(2).getAsJsonObject().get(ActionHelper.ID).getAsString());
+        assertEquals(TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionRepeatable.ID, advancedCategoryActions.get(3).getAsJsonObject().get(ActionHelper.ID).getAsString());
+        assertEquals(TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionRepeatInline.ID, advancedCategoryActions.get(4).getAsJsonObject().get(ActionHelper.ID).getAsString());
+        assertEquals(TouchPortalPluginTestConstants.AdvancedCategory.Actions.ActionCounted.ID, advancedCategoryActions.get(5).getAsJsonObject().get(ActionHelper.ID).getAsString());
+
+        // Advanced Category Connectors
+        JsonArray advancedCategoryConnectors = advancedCategory.getAsJsonArray(CategoryHelper.CONNECTORS);
+        assertEquals(1, advancedCategoryConnectors.size());
+        assertEquals(TouchPortalPluginTestConstants.AdvancedCategory.Connectors.ConnectorSerial.ID, advancedCategoryConnectors.get(0).getAsJsonObject().get(ConnectorHelper.ID).getAsString());
     }
 
     @Test
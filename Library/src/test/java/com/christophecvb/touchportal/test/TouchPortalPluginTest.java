@@ -21,12 +21,18 @@
 package com.christophecvb.touchportal.test;
 
 import com.christophecvb.touchportal.annotations.*;
+import com.christophecvb.touchportal.TPHoldSession;
 import com.christophecvb.touchportal.TouchPortalPlugin;
 import com.christophecvb.touchportal.model.TPActionMessage;
 import com.christophecvb.touchportal.model.TPConnectorChangeMessage;
 import com.google.gson.JsonObject;
 
 import java.io.File;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @SuppressWarnings("unused")
 @Plugin(version = 6000, colorDark = "#203060", colorLight = "#4070F0")
@@ -62,6 +68,66 @@ public class TouchPortalPluginTest extends TouchPortalPlugin {
     @Setting(defaultValue = "This is not editable by the user", isReadOnly = true)
     String readOnlySetting = "This is not editable by the user";
 
+    /**
+     * Last held Hold Session received by actionHoldSession
+     */
+    TPHoldSession lastTPHoldSession;
+
+    /**
+     * Number of invocations of actionRepeatable
+     */
+    final AtomicInteger actionRepeatableInvocations = new AtomicInteger();
+
+    /**
+     * Names of the Threads running actionRepeatInline, in invocation order
+     */
+    final List<String> actionRepeatInlineThreadNames = new CopyOnWriteArrayList<>();
+
+    /**
+     * Number of actionRepeatInline invocations running
+     */
+    final AtomicInteger actionRepeatInlineRunning = new AtomicInteger();
+
+    /**
+     * Highest number of actionRepeatInline invocations running at the same time
+     */
+    final AtomicInteger actionRepeatInlineMaxRunning = new AtomicInteger();
+
+    /**
+     * Number of invocations of actionCounted
+     */
+    final AtomicInteger actionCountedInvocations = new AtomicInteger();
+
+    /**
+     * Released by the tests to let actionInline return
+     */
+    final CountDownLatch actionInlineRelease = new CountDownLatch(1);
+
+    /**
+     * Number of invocations of actionInline
+     */
+    final AtomicInteger actionInlineInvocations = new AtomicInteger();
+
+    /**
+     * Thread that ran actionVirtual
+     */
+    volatile Thread actionVirtualThread;
+
+    /**
+     * Number of connectorSerial invocations running
+     */
+    final AtomicInteger connectorSerialRunning = new AtomicInteger();
+
+    /**
+     * Highest number of connectorSerial invocations running at the same time
+     */
+    final AtomicInteger connectorSerialMaxRunning = new AtomicInteger();
+
+    /**
+     * Number of invocations of connectorSerial
+     */
+    final AtomicInteger connectorSerialInvocations = new AtomicInteger();
+
     /**
      * Constructor calling super
      */
@@ -166,11 +232,77 @@ public class TouchPortalPluginTest extends TouchPortalPlugin {
         System.out.printf("connectorForSliderWithNonData: value[%d]%n", value);
     }
 
+    @Action(name = "Inline", categoryId = "AdvancedCategory", executionPolicy = ExecutionPolicy.INLINE)
+    private void actionInline() {
+        this.actionInlineInvocations.incrementAndGet();
+        try {
+            // Blocks the reading of the next messages until released
+            this.actionInlineRelease.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException ignored) {}
+    }
+
+    @Action(name = "Virtual", categoryId = "AdvancedCategory", executionPolicy = ExecutionPolicy.VIRTUAL)
+    private void actionVirtual() {
+        this.actionVirtualThread = Thread.currentThread();
+    }
+
+    @Action(name = "Hold My Session!", hasHoldFunctionality = true, categoryId = "AdvancedCategory")
+    private void actionHoldSession(TPHoldSession tpHoldSession) {
+        if (tpHoldSession.isHeld()) {
+            this.lastTPHoldSession = tpHoldSession;
+            try {
+                tpHoldSession.awaitRelease();
+            }
+            catch (InterruptedException ignored) {}
+        }
+    }
+
+    @Action(name = "Repeat Me!", hasHoldFunctionality = true, categoryId = "AdvancedCategory", repeatInterval = 50, repeatDelay = 100)
+    private void actionRepeatable() {
+        this.actionRepeatableInvocations.incrementAndGet();
+    }
+
+    @Action(name = "Repeat Me Inline!", hasHoldFunctionality = true, categoryId = "AdvancedCategory", executionPolicy = ExecutionPolicy.INLINE, repeatInterval = 20, repeatDelay = 20)
+    private void actionRepeatInline() {
+        this.actionRepeatInlineThreadNames.add(Thread.currentThread().getName());
+        int running = this.actionRepeatInlineRunning.incrementAndGet();
+        this.actionRepeatInlineMaxRunning.accumulateAndGet(running, Math::max);
+        try {
+            // Longer than the repeat interval
+            Thread.sleep(50);
+        }
+        catch (InterruptedException ignored) {}
+        this.actionRepeatInlineRunning.decrementAndGet();
+    }
+
+    @Action(name = "Count Me!", categoryId = "AdvancedCategory", executionPolicy = ExecutionPolicy.INLINE)
+    private void actionCounted() {
+        this.actionCountedInvocations.incrementAndGet();
+    }
+
+    @Connector(format = "Slide Me Serially!", categoryId = "AdvancedCategory", executionPolicy = ExecutionPolicy.SERIAL)
+    private void connectorSerial(@ConnectorValue Integer value) {
+        int running = this.connectorSerialRunning.incrementAndGet();
+        this.connectorSerialMaxRunning.accumulateAndGet(running, Math::max);
+        try {
+            Thread.sleep(20);
+        }
+        catch (InterruptedException ignored) {}
+        this.connectorSerialRunning.decrementAndGet();
+        this.connectorSerialInvocations.incrementAndGet();
+    }
+
     private enum Categories {
         /**
          * Category definition example
          */
         @Category()
-        BaseCategory
+        BaseCategory,
+        /**
+         * Category of the Actions and Connectors using the dispatch options
+         */
+        @Category()
+        AdvancedCategory
     }
 }
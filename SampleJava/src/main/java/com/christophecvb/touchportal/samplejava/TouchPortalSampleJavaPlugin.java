@@ -20,6 +20,7 @@
 
 package com.christophecvb.touchportal.samplejava;
 
+import com.christophecvb.touchportal.TPHoldSession;
 import com.christophecvb.touchportal.TouchPortalPlugin;
 import com.christophecvb.touchportal.annotations.*;
 import com.christophecvb.touchportal.helpers.PluginHelper;
@@ -30,6 +31,7 @@ import com.christophecvb.touchportal.samplejava.invokable.connector.ExampleClass
 import com.google.gson.JsonObject;
 
 import java.io.File;
+import java.lang.management.ManagementFactory;
 import java.util.HashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -115,6 +117,9 @@ public class TouchPortalSampleJavaPlugin extends TouchPortalPlugin implements To
                 touchPortalSampleJavaPlugin.registerInvokable(TouchPortalSampleJavaPluginConstants.BaseCategory.Actions.ExampleClassAction.ID, ExampleClassAction.class);
                 touchPortalSampleJavaPlugin.registerInvokable(TouchPortalSampleJavaPluginConstants.BaseCategory.Connectors.ExampleClassConnector.ID, ExampleClassConnector.class);
 
+                // Register a State Source, polled every second and only sent when its value changed
+                touchPortalSampleJavaPlugin.registerStateSource(TouchPortalSampleJavaPluginConstants.SecondCategory.States.CustomStateText.ID, () -> "Uptime " + ManagementFactory.getRuntimeMXBean().getUptime() / 1000 + "s", 1000);
+
                 // Load a properties File
                 touchPortalSampleJavaPlugin.loadProperties("plugin.config");
 
@@ -263,18 +268,18 @@ public class TouchPortalSampleJavaPlugin extends TouchPortalPlugin implements To
         TouchPortalSampleJavaPlugin.LOGGER.log(Level.INFO, "Action actionWithColor received: " + color);
     }
 
-    @Action(name = "Hold Me!", hasHoldFunctionality = true, categoryId = "BaseCategory")
-    private void actionHoldable() {
+    @Action(name = "Hold Me!", hasHoldFunctionality = true, categoryId = "BaseCategory", executionPolicy = ExecutionPolicy.VIRTUAL)
+    private void actionHoldable(TPHoldSession tpHoldSession) {
         Boolean isHeld = this.isActionBeingHeld(TouchPortalSampleJavaPluginConstants.BaseCategory.Actions.ActionHoldable.ID);
         if (isHeld != null) {
             // Action is triggered by a Hold
-            while (isHeld != null && isHeld) {
+            if (isHeld) {
                 TouchPortalSampleJavaPlugin.LOGGER.log(Level.INFO, "actionHoldable has been triggered by a HOLD");
                 try {
-                    Thread.sleep(100);
+                    tpHoldSession.awaitRelease();
+                    TouchPortalSampleJavaPlugin.LOGGER.log(Level.INFO, "actionHoldable has been released");
                 } catch (InterruptedException ignored) {
                 }
-                isHeld = this.isActionBeingHeld(TouchPortalSampleJavaPluginConstants.BaseCategory.Actions.ActionHoldable.ID);
             }
         } else {
             // Action is triggered by a Press
@@ -282,6 +287,12 @@ public class TouchPortalSampleJavaPlugin extends TouchPortalPlugin implements To
         }
     }
 
+    @Action(name = "Volume Up", hasHoldFunctionality = true, categoryId = "BaseCategory", repeatInterval = 100, repeatDelay = 400)
+    private void actionRepeatable() {
+        // Invoked on Press, then every 100ms after 400ms while held
+        TouchPortalSampleJavaPlugin.LOGGER.log(Level.INFO, "actionRepeatable has been triggered");
+    }
+
     @Action(format = "Do Action with Choice {$choices$}", categoryId = "SecondCategory")
     private void actionWithDataStateId(@Data(stateId = "customStateChoice") String[] choices) {
         LOGGER.log(Level.INFO, "Action with Data State Id received: " + choices[0]);
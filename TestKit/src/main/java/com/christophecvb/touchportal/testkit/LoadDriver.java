@@ -0,0 +1,212 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.testkit;
+
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Sends the operations of a {@link LoadProfile} at its rate and matches the Plugin responses
+ */
+class LoadDriver implements Consumer<RecordedMessage> {
+    /**
+     * Instance ID sent in the List Change messages
+     */
+    static final String LIST_INSTANCE_ID = "mockInstance";
+
+    private final MockTouchPortalServer server;
+    private final LoadProfile loadProfile;
+    private final int totalWeight;
+    private final Map<LoadProfile.Operation, ArrayDeque<Long>> pendingByOperation = new IdentityHashMap<>();
+    private final PriorityQueue<PendingHoldUp> pendingHoldUps = new PriorityQueue<>(Comparator.comparingLong(pendingHoldUp -> pendingHoldUp.dueNanos));
+    private long[] latencies = new long[1024];
+    private int latencyCount = 0;
+    private int pendingCount = 0;
+    private long receivedCount = 0;
+    private long sentCount = 0;
+
+    LoadDriver(MockTouchPortalServer server, LoadProfile loadProfile) {
+        this.server = server;
+        this.loadProfile = loadProfile;
+        int totalWeight = 0;
+        for (LoadProfile.Operation operation : loadProfile.getOperations()) {
+            totalWeight += operation.weight;
+            if (operation.responseMatcher != null) {
+                this.pendingByOperation.put(operation, new ArrayDeque<>());
+            }
+        }
+        this.totalWeight = totalWeight;
+    }
+
+    LoadReport run() throws IOException {
+        Random random = new Random(this.loadProfile.getSeed());
+        int ratePerSecond = this.loadProfile.getRatePerSecond();
+        long operationCount = Math.max(1, this.loadProfile.getDurationNanos() * ratePerSecond / TimeUnit.SECONDS.toNanos(1));
+        long startNanos;
+        long sendEndNanos;
+        long endNanos;
+
+        this.server.addMessageListener(this);
+        try {
+            startNanos = System.nanoTime();
+            for (long i = 0; i < operationCount; i++) {
+                long intendedNanos = startNanos + i * TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+                this.sendHoldUpsDueBy(intendedNanos);
+                LoadDriver.waitUntil(intendedNanos);
+                this.send(this.pick(random), intendedNanos, random);
+            }
+            this.sendHoldUpsDueBy(Long.MAX_VALUE);
+            sendEndNanos = System.nanoTime();
+
+            long drainDeadline = sendEndNanos + this.loadProfile.getDrainTimeoutNanos();
+            synchronized (this) {
+                long remainingNanos;
+                while (this.pendingCount > 0 && (remainingNanos = drainDeadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running the load", e);
+        }
+        finally {
+            this.server.removeMessageListener(this);
+        }
+        endNanos = System.nanoTime();
+
+        synchronized (this) {
+            long[] sortedLatencies = Arrays.copyOf(this.latencies, this.latencyCount);
+            Arrays.sort(sortedLatencies);
+            return new LoadReport(operationCount, this.sentCount, this.receivedCount, sendEndNanos - startNanos, endNanos - startNanos, this.pendingCount, sortedLatencies);
+        }
+    }
+
+    private LoadProfile.Operation pick(Random random) {
+        LoadProfile.Operation pickedOperation = null;
+        int remainingWeight = random.nextInt(this.totalWeight);
+        Iterator<LoadProfile.Operation> operationIterator = this.loadProfile.getOperations().iterator();
+        while (pickedOperation == null) {
+            LoadProfile.Operation operation = operationIterator.next();
+            remainingWeight -= operation.weight;
+            if (remainingWeight < 0) {
+                pickedOperation = operation;
+            }
+        }
+        return pickedOperation;
+    }
+
+    private void send(LoadProfile.Operation operation, long intendedNanos, Random random) throws IOException {
+        String pluginId = this.server.getPluginId();
+        if (operation.responseMatcher != null) {
+            synchronized (this) {
+                this.pendingByOperation.get(operation).add(intendedNanos);
+                this.pendingCount++;
+            }
+        }
+        switch (operation.type) {
+            case ACTION:
+                this.sendMessage(TouchPortalMessages.action(pluginId, operation.id, operation.data));
+                break;
+
+            case HOLD:
+                this.sendMessage(TouchPortalMessages.holdDown(pluginId, operation.id, operation.data));
+                this.pendingHoldUps.add(new PendingHoldUp(intendedNanos + operation.holdNanos, operation));
+                break;
+
+            case CONNECTOR_CHANGE_BURST:
+                for (int i = 0; i < operation.burstSize; i++) {
+                    int value = operation.burstSize > 1 ? i * 100 / (operation.burstSize - 1) : random.nextInt(101);
+                    this.sendMessage(TouchPortalMessages.connectorChange(pluginId, operation.id, value, operation.data));
+                }
+                break;
+
+            case LIST_CHANGE:
+                this.sendMessage(TouchPortalMessages.listChange(pluginId, operation.id, operation.listId, LoadDriver.LIST_INSTANCE_ID, operation.values[random.nextInt(operation.values.length)]));
+                break;
+
+            case BROADCAST:
+                this.sendMessage(TouchPortalMessages.pageChangeBroadcast(operation.values[random.nextInt(operation.values.length)]));
+                break;
+        }
+    }
+
+    private void sendHoldUpsDueBy(long limitNanos) throws IOException {
+        PendingHoldUp pendingHoldUp;
+        while ((pendingHoldUp = this.pendingHoldUps.peek()) != null && pendingHoldUp.dueNanos <= limitNanos) {
+            this.pendingHoldUps.poll();
+            LoadDriver.waitUntil(pendingHoldUp.dueNanos);
+            this.sendMessage(TouchPortalMessages.holdUp(this.server.getPluginId(), pendingHoldUp.operation.id, pendingHoldUp.operation.data));
+        }
+    }
+
+    private void sendMessage(JsonObject message) throws IOException {
+        this.server.send(message);
+        this.sentCount++;
+    }
+
+    private static void waitUntil(long deadlineNanos) {
+        long remainingNanos;
+        while ((remainingNanos = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remainingNanos);
+        }
+    }
+
+    @Override
+    public synchronized void accept(RecordedMessage recordedMessage) {
+        this.receivedCount++;
+        boolean matched = false;
+        for (Iterator<Map.Entry<LoadProfile.Operation, ArrayDeque<Long>>> iterator = this.pendingByOperation.entrySet().iterator(); iterator.hasNext() && !matched; ) {
+            Map.Entry<LoadProfile.Operation, ArrayDeque<Long>> pendingEntry = iterator.next();
+            if (!pendingEntry.getValue().isEmpty() && pendingEntry.getKey().responseMatcher.test(recordedMessage.getMessage())) {
+                this.addLatency(recordedMessage.getReceivedAtNanos() - pendingEntry.getValue().poll());
+                matched = true;
+            }
+        }
+        if (matched && --this.pendingCount == 0) {
+            this.notifyAll();
+        }
+    }
+
+    private void addLatency(long latencyNanos) {
+        if (this.latencyCount == this.latencies.length) {
+            this.latencies = Arrays.copyOf(this.latencies, this.latencies.length * 2);
+        }
+        this.latencies[this.latencyCount++] = latencyNanos;
+    }
+
+    /**
+     * Hold Up message due after its Hold Down
+     */
+    private static class PendingHoldUp {
+        private final long dueNanos;
+        private final LoadProfile.Operation operation;
+
+        private PendingHoldUp(long dueNanos, LoadProfile.Operation operation) {
+            this.dueNanos = dueNanos;
+            this.operation = operation;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.testkit;
+
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Mix of messages sent to the Plugin by {@link MockTouchPortalServer#runLoad(LoadProfile)}
+ * <p>
+ * Each operation is picked at random according to its weight and sent at a fixed rate.
+ * An operation given a response matcher is answered by the first following Plugin message it matches,
+ * and its latency is measured from the time it was due to be sent, so a Plugin falling behind is not hidden by the pacing.
+ * </p>
+ */
+public class LoadProfile {
+    private final int ratePerSecond;
+    private final long durationNanos;
+    private final long seed;
+    private final long drainTimeoutNanos;
+    private final List<Operation> operations;
+
+    private LoadProfile(Builder builder) {
+        this.ratePerSecond = builder.ratePerSecond;
+        this.durationNanos = builder.durationNanos;
+        this.seed = builder.seed;
+        this.drainTimeoutNanos = builder.drainTimeoutNanos;
+        this.operations = Collections.unmodifiableList(new ArrayList<>(builder.operations));
+    }
+
+    int getRatePerSecond() {
+        return this.ratePerSecond;
+    }
+
+    long getDurationNanos() {
+        return this.durationNanos;
+    }
+
+    long getSeed() {
+        return this.seed;
+    }
+
+    long getDrainTimeoutNanos() {
+        return this.drainTimeoutNanos;
+    }
+
+    List<Operation> getOperations() {
+        return this.operations;
+    }
+
+    /**
+     * Kind of operation
+     */
+    enum OperationType {
+        ACTION,
+        HOLD,
+        CONNECTOR_CHANGE_BURST,
+        LIST_CHANGE,
+        BROADCAST
+    }
+
+    /**
+     * Operation of a load profile
+     */
+    static final class Operation {
+        final OperationType type;
+        final String id;
+        final Map<String, String> data;
+        final String listId;
+        final String[] values;
+        final long holdNanos;
+        final int burstSize;
+        final int weight;
+        final Predicate<JsonObject> responseMatcher;
+
+        private Operation(OperationType type, String id, Map<String, String> data, String listId, String[] values, long holdNanos, int burstSize, int weight, Predicate<JsonObject> responseMatcher) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("Weight must be at least 1");
+            }
+            this.type = type;
+            this.id = id;
+            this.data = data != null ? data : Collections.emptyMap();
+            this.listId = listId;
+            this.values = values;
+            this.holdNanos = holdNanos;
+            this.burstSize = burstSize;
+            this.weight = weight;
+            this.responseMatcher = responseMatcher;
+        }
+    }
+
+    /**
+     * Builder of {@link LoadProfile}
+     */
+    public static final class Builder {
+        private int ratePerSecond = 1000;
+        private long durationNanos = TimeUnit.SECONDS.toNanos(5);
+        private long seed = 0;
+        private long drainTimeoutNanos = TimeUnit.SECONDS.toNanos(5);
+        private final List<Operation> operations = new ArrayList<>();
+
+        /**
+         * Set the number of operations sent per second
+         *
+         * @param ratePerSecond int - Default is 1000
+         * @return Builder builder
+         */
+        public Builder setRatePerSecond(int ratePerSecond) {
+            this.ratePerSecond = ratePerSecond;
+
+            return this;
+        }
+
+        /**
+         * Set how long operations are sent
+         *
+         * @param duration long - Default is 5 seconds
+         * @param unit     TimeUnit
+         * @return Builder builder
+         */
+        public Builder setDuration(long duration, TimeUnit unit) {
+            this.durationNanos = unit.toNanos(duration);
+
+            return this;
+        }
+
+        /**
+         * Set the seed of the operation picks, so that runs send the same sequence
+         *
+         * @param seed long - Default is 0
+         * @return Builder builder
+         */
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+
+            return this;
+        }
+
+        /**
+         * Set how long to wait for the pending responses once every operation is sent
+         *
+         * @param drainTimeout long - Default is 5 seconds
+         * @param unit         TimeUnit
+         * @return Builder builder
+         */
+        public Builder setDrainTimeout(long drainTimeout, TimeUnit unit) {
+            this.drainTimeoutNanos = unit.toNanos(drainTimeout);
+
+            return this;
+        }
+
+        /**
+         * Add an Action message to the mix
+         *
+         * @param actionId String
+         * @param data     Map&lt;String, String&gt; - Data values by Data ID
+         * @param weight   int
+         * @return Builder builder
+         */
+        public Builder addAction(String actionId, Map<String, String> data, int weight) {
+            return this.addAction(actionId, data, weight, null);
+        }
+
+        /**
+         * Add an Action message to the mix, answered by the Plugin
+         *
+         * @param actionId        String
+         * @param data            Map&lt;String, String&gt; - Data values by Data ID
+         * @param weight          int
+         * @param responseMatcher Predicate&lt;JsonObject&gt; - Matches the Plugin message answering the Action
+         * @return Builder builder
+         */
+        public Builder addAction(String actionId, Map<String, String> data, int weight, Predicate<JsonObject> responseMatcher) {
+            this.operations.add(new Operation(OperationType.ACTION, actionId, data, null, null, 0, 1, weight, responseMatcher));
+
+            return this;
+        }
+
+        /**
+         * Add a Hold Down message followed by its Hold Up message to the mix
+         *
+         * @param actionId   String
+         * @param data       Map&lt;String, String&gt; - Data values by Data ID
+         * @param holdMillis long - Delay between the Hold Down and the Hold Up messages
+         * @param weight     int
+         * @return Builder builder
+         */
+        public Builder addHold(String actionId, Map<String, String> data, long holdMillis, int weight) {
+            return this.addHold(actionId, data, holdMillis, weight, null);
+        }
+
+        /**
+         * Add a Hold Down message followed by its Hold Up message to the mix, the Hold Down being answered by the Plugin
+         *
+         * @param actionId        String
+         * @param data            Map&lt;String, String&gt; - Data values by Data ID
+         * @param holdMillis      long - Delay between the Hold Down and the Hold Up messages
+         * @param weight          int
+         * @param responseMatcher Predicate&lt;JsonObject&gt; - Matches the Plugin message answering the Hold Down
+         * @return Builder builder
+         */
+        public Builder addHold(String actionId, Map<String, String> data, long holdMillis, int weight, Predicate<JsonObject> responseMatcher) {
+            this.operations.add(new Operation(OperationType.HOLD, actionId, data, null, null, TimeUnit.MILLISECONDS.toNanos(holdMillis), 1, weight, responseMatcher));
+
+            return this;
+        }
+
+        /**
+         * Add a burst of Connector Change messages to the mix, their values sweeping from 0 to 100 like a dragged slider
+         *
+         * @param connectorId String
+         * @param data        Map&lt;String, String&gt; - Data values by Data ID
+         * @param burstSize   int - Number of messages sent at once
+         * @param weight      int
+         * @return Builder builder
+         */
+        public Builder addConnectorChangeBurst(String connectorId, Map<String, String> data, int burstSize, int weight) {
+            return this.addConnectorChangeBurst(connectorId, data, burstSize, weight, null);
+        }
+
+        /**
+         * Add a burst of Connector Change messages to the mix, the burst being answered by the Plugin
+         *
+         * @param connectorId     String
+         * @param data            Map&lt;String, String&gt; - Data values by Data ID
+         * @param burstSize       int - Number of messages sent at once
+         * @param weight          int
+         * @param responseMatcher Predicate&lt;JsonObject&gt; - Matches the Plugin message answering the burst
+         * @return Builder builder
+         */
+        public Builder addConnectorChangeBurst(String connectorId, Map<String, String> data, int burstSize, int weight, Predicate<JsonObject> responseMatcher) {
+            if (burstSize < 1) {
+                throw new IllegalArgumentException("Burst size must be at least 1");
+            }
+            this.operations.add(new Operation(OperationType.CONNECTOR_CHANGE_BURST, connectorId, data, null, null, 0, burstSize, weight, responseMatcher));
+
+            return this;
+        }
+
+        /**
+         * Add a List Change message to the mix
+         *
+         * @param actionId String
+         * @param listId   String
+         * @param values   String[] - Picked at random
+         * @param weight   int
+         * @return Builder builder
+         */
+        public Builder addListChange(String actionId, String listId, String[] values, int weight) {
+            if (values.length == 0) {
+                throw new IllegalArgumentException("List Change needs values");
+            }
+            this.operations.add(new Operation(OperationType.LIST_CHANGE, actionId, null, listId, values.clone(), 0, 1, weight, null));
+
+            return this;
+        }
+
+        /**
+         * Add a Page Change Broadcast message to the mix
+         *
+         * @param pageNames String[] - Picked at random
+         * @param weight    int
+         * @return Builder builder
+         */
+        public Builder addBroadcast(String[] pageNames, int weight) {
+            if (pageNames.length == 0) {
+                throw new IllegalArgumentException("Broadcast needs page names");
+            }
+            this.operations.add(new Operation(OperationType.BROADCAST, null, null, null, pageNames.clone(), 0, 1, weight, null));
+
+            return this;
+        }
+
+        /**
+         * Build the {@link LoadProfile}
+         *
+         * @return {@link LoadProfile} loadProfile
+         */
+        public LoadProfile build() {
+            if (this.ratePerSecond < 1) {
+                throw new IllegalArgumentException("Rate must be at least 1 per second");
+            }
+            if (this.durationNanos <= 0) {
+                throw new IllegalArgumentException("Duration must be positive");
+            }
+            if (this.operations.isEmpty()) {
+                throw new IllegalArgumentException("Load profile needs at least one operation");
+            }
+            return new LoadProfile(this);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.testkit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latencies measured by {@link MockTouchPortalServer#runLoad(LoadProfile)}
+ */
+public class LoadReport {
+    private final long operationCount;
+    private final long sentCount;
+    private final long receivedCount;
+    private final long sendDurationNanos;
+    private final long totalDurationNanos;
+    private final long unansweredCount;
+    private final long[] sortedLatenciesNanos;
+
+    LoadReport(long operationCount, long sentCount, long receivedCount, long sendDurationNanos, long totalDurationNanos, long unansweredCount, long[] sortedLatenciesNanos) {
+        this.operationCount = operationCount;
+        this.sentCount = sentCount;
+        this.receivedCount = receivedCount;
+        this.sendDurationNanos = sendDurationNanos;
+        this.totalDurationNanos = totalDurationNanos;
+        this.unansweredCount = unansweredCount;
+        this.sortedLatenciesNanos = sortedLatenciesNanos;
+    }
+
+    /**
+     * Get the number of operations picked from the profile
+     *
+     * @return long operationCount
+     */
+    public long getOperationCount() {
+        return this.operationCount;
+    }
+
+    /**
+     * Get the number of messages sent to the Plugin, a burst or a hold counting several
+     *
+     * @return long sentCount
+     */
+    public long getSentCount() {
+        return this.sentCount;
+    }
+
+    /**
+     * Get the number of messages received from the Plugin during the run
+     *
+     * @return long receivedCount
+     */
+    public long getReceivedCount() {
+        return this.receivedCount;
+    }
+
+    /**
+     * Get how long sending took
+     *
+     * @return long sendDurationNanos
+     */
+    public long getSendDurationNanos() {
+        return this.sendDurationNanos;
+    }
+
+    /**
+     * Get how long the run took, including waiting for the pending responses
+     *
+     * @return long totalDurationNanos
+     */
+    public long getTotalDurationNanos() {
+        return this.totalDurationNanos;
+    }
+
+    /**
+     * Get the achieved sending throughput
+     *
+     * @return double sentPerSecond
+     */
+    public double getSentPerSecond() {
+        return LoadReport.perSecond(this.sentCount, this.sendDurationNanos);
+    }
+
+    /**
+     * Get the throughput of the Plugin messages
+     *
+     * @return double receivedPerSecond
+     */
+    public double getReceivedPerSecond() {
+        return LoadReport.perSecond(this.receivedCount, this.totalDurationNanos);
+    }
+
+    /**
+     * Get the number of operations answered by the Plugin
+     *
+     * @return long responseCount
+     */
+    public long getResponseCount() {
+        return this.sortedLatenciesNanos.length;
+    }
+
+    /**
+     * Get the number of operations still unanswered when the drain timeout elapsed
+     *
+     * @return long unansweredCount
+     */
+    public long getUnansweredCount() {
+        return this.unansweredCount;
+    }
+
+    /**
+     * Get a latency percentile, using the nearest rank
+     *
+     * @param percentile double - Between 0 and 100
+     * @return long latencyNanos - -1 if no operation was answered
+     */
+    public long getLatencyPercentileNanos(double percentile) {
+        long latencyNanos = -1;
+        if (this.sortedLatenciesNanos.length > 0) {
+            int rank = (int) Math.ceil(percentile / 100 * this.sortedLatenciesNanos.length);
+            latencyNanos = this.sortedLatenciesNanos[Math.min(this.sortedLatenciesNanos.length, Math.max(1, rank)) - 1];
+        }
+        return latencyNanos;
+    }
+
+    /**
+     * Get the median latency
+     *
+     * @return long latencyNanos - -1 if no operation was answered
+     */
+    public long getP50LatencyNanos() {
+        return this.getLatencyPercentileNanos(50);
+    }
+
+    /**
+     * Get the 99th percentile latency
+     *
+     * @return long latencyNanos - -1 if no operation was answered
+     */
+    public long getP99LatencyNanos() {
+        return this.getLatencyPercentileNanos(99);
+    }
+
+    /**
+     * Get the 99.9th percentile latency
+     *
+     * @return long latencyNanos - -1 if no operation was answered
+     */
+    public long getP999LatencyNanos() {
+        return this.getLatencyPercentileNanos(99.9);
+    }
+
+    /**
+     * Get the maximum latency
+     *
+     * @return long latencyNanos - -1 if no operation was answered
+     */
+    public long getMaxLatencyNanos() {
+        return this.getLatencyPercentileNanos(100);
+    }
+
+    private static double perSecond(long count, long durationNanos) {
+        return durationNanos > 0 ? count * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos : 0;
+    }
+
+    private static String millis(long nanos) {
+        return nanos < 0 ? "n/a" : String.format("%.3f ms", nanos / 1_000_000d);
+    }
+
+    @Override
+    public String toString() {
+        return "LoadReport{" +
+                "operations=" + this.operationCount +
+                ", sent=" + this.sentCount + String.format(" (%.1f/s)", this.getSentPerSecond()) +
+                ", received=" + this.receivedCount + String.format(" (%.1f/s)", this.getReceivedPerSecond()) +
+                ", answered=" + this.getResponseCount() +
+                ", unanswered=" + this.unansweredCount +
+                ", p50=" + LoadReport.millis(this.getP50LatencyNanos()) +
+                ", p99=" + LoadReport.millis(this.getP99LatencyNanos()) +
+                ", p999=" + LoadReport.millis(this.getP999LatencyNanos()) +
+                ", max=" + LoadReport.millis(this.getMaxLatencyNanos()) +
+                '}';
+    }
+}
@@ -0,0 +1,493 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.testkit;
+
+import com.christophecvb.touchportal.TPConnection;
+import com.christophecvb.touchportal.TPInMemoryTransport;
+import com.christophecvb.touchportal.helpers.SentMessageHelper;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Simulates the Touch Portal Plugin System for tests and local load tests
+ * <p>
+ * It accepts the Plugin connection, answers its pairing with an Info message, records every message the Plugin sends
+ * and sends messages to the Plugin, one by one or as a {@link LoadProfile} driven at a target rate.
+ * The Plugin connects to it on a local port with the default transport, or through a {@link TPInMemoryTransport}.
+ * </p>
+ * <pre>
+ * try (MockTouchPortalServer server = MockTouchPortalServer.listen(MockTouchPortalServer.DEFAULT_PORT)) {
+ *     plugin.connectThenPairAndListen(listener);
+ *     server.acceptAndPair(5, TimeUnit.SECONDS);
+ *     LoadReport loadReport = server.runLoad(loadProfile);
+ * }
+ * </pre>
+ */
+public class MockTouchPortalServer implements Closeable {
+    /**
+     * Port of the Touch Portal Plugin System
+     */
+    public static final int DEFAULT_PORT = 12136;
+
+    private final PeerAcceptor peerAcceptor;
+    private final List<RecordedMessage> receivedMessages = new ArrayList<>();
+    private final List<Consumer<RecordedMessage>> messageListeners = new CopyOnWriteArrayList<>();
+    private final Map<String, String> settings = new LinkedHashMap<>();
+    private long pluginVersion = 1;
+    private String tpVersionString = "3.1.13.0";
+    private long tpVersionCode = 301013;
+    private volatile TPConnection connection;
+    private Writer writer;
+    private Thread readerThread;
+    private String pluginId;
+
+    private MockTouchPortalServer(PeerAcceptor peerAcceptor) {
+        this.peerAcceptor = peerAcceptor;
+    }
+
+    /**
+     * Listen for the Plugin on a local port
+     *
+     * @param port int - {@link #DEFAULT_PORT} for the Plugins using the default transport
+     * @return {@link MockTouchPortalServer} mockTouchPortalServer
+     * @throws IOException If the port could not be bound
+     */
+    public static MockTouchPortalServer listen(int port) throws IOException {
+        ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getByName("127.0.0.1"));
+        return new MockTouchPortalServer(new PeerAcceptor() {
+            @Override
+            public TPConnection accept(long timeout, TimeUnit unit) throws IOException {
+                TPConnection connection = null;
+                serverSocket.setSoTimeout((int) Math.max(1, unit.toMillis(timeout)));
+                try {
+                    connection = new SocketConnection(serverSocket.accept());
+                }
+                catch (SocketTimeoutException ignored) {}
+                return connection;
+            }
+
+            @Override
+            public void close() throws IOException {
+                serverSocket.close();
+            }
+        });
+    }
+
+    /**
+     * Serve the Plugin connecting through an in-memory transport, set with <code>plugin.setTransport(transport)</code>
+     *
+     * @param transport {@link TPInMemoryTransport}
+     * @return {@link MockTouchPortalServer} mockTouchPortalServer
+     */
+    public static MockTouchPortalServer inMemory(TPInMemoryTransport transport) {
+        return new MockTouchPortalServer(new PeerAcceptor() {
+            @Override
+            public TPConnection accept(long timeout, TimeUnit unit) throws InterruptedIOException {
+                try {
+                    return transport.accept(timeout, unit);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while accepting");
+                }
+            }
+
+            @Override
+            public void close() {}
+        });
+    }
+
+    /**
+     * Set the versions sent in the Info message
+     *
+     * @param pluginVersion   long - Version of the Plugin as installed in Touch Portal
+     * @param tpVersionString String
+     * @param tpVersionCode   long
+     */
+    public void setVersions(long pluginVersion, String tpVersionString, long tpVersionCode) {
+        this.pluginVersion = pluginVersion;
+        this.tpVersionString = tpVersionString;
+        this.tpVersionCode = tpVersionCode;
+    }
+
+    /**
+     * Set a Setting value sent in the Info message
+     *
+     * @param settingName String
+     * @param value       String
+     */
+    public void setSetting(String settingName, String value) {
+        this.settings.put(settingName, value);
+    }
+
+    /**
+     * Accept the Plugin connection and start recording its messages, without answering its pairing
+     *
+     * @param timeout long
+     * @param unit    TimeUnit
+     * @throws IOException      If the connection failed
+     * @throws TimeoutException If the Plugin did not connect in time
+     * @see #replay(Path, ReplaySpeed, long, TimeUnit)
+     */
+    public void accept(long timeout, TimeUnit unit) throws IOException, TimeoutException {
+        TPConnection connection = this.peerAcceptor.accept(timeout, unit);
+        if (connection == null) {
+            throw new TimeoutException("Plugin did not connect");
+        }
+        this.connection = connection;
+        this.writer = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+        this.readerThread = new Thread(() -> this.read(reader), "MockTouchPortalServerReader");
+        this.readerThread.setDaemon(true);
+        this.readerThread.start();
+    }
+
+    /**
+     * Accept the Plugin connection, wait for its pairing message and answer it with the Info message
+     *
+     * @param timeout long
+     * @param unit    TimeUnit
+     * @throws IOException      If the connection failed
+     * @throws TimeoutException If the Plugin did not connect or pair in time
+     */
+    public void acceptAndPair(long timeout, TimeUnit unit) throws IOException, TimeoutException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        this.accept(timeout, unit);
+        this.awaitPair(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        this.send(TouchPortalMessages.info(this.pluginVersion, this.tpVersionString, this.tpVersionCode, this.settings));
+    }
+
+    /**
+     * Internal - Wait for the pairing message and keep the Plugin ID
+     *
+     * @param timeout long
+     * @param unit    TimeUnit
+     * @return {@link RecordedMessage} pairMessage
+     * @throws TimeoutException If the Plugin did not pair in time
+     */
+    RecordedMessage awaitPair(long timeout, TimeUnit unit) throws TimeoutException {
+        RecordedMessage pairMessage = this.awaitMessage(message -> message.has(SentMessageHelper.TYPE) && SentMessageHelper.TYPE_PAIR.equals(message.get(SentMessageHelper.TYPE).getAsString()), timeout, unit);
+        if (pairMessage == null) {
+            throw new TimeoutException("Plugin did not pair");
+        }
+        this.pluginId = pairMessage.getMessage().get(SentMessageHelper.ID).getAsString();
+        return pairMessage;
+    }
+
+    private void read(BufferedReader reader) {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                long receivedAt = System.nanoTime();
+                try {
+                    JsonElement jsonElement = JsonParser.parseString(line);
+                    if (jsonElement.isJsonObject()) {
+                        RecordedMessage recordedMessage = new RecordedMessage(receivedAt, jsonElement.getAsJsonObject());
+                        synchronized (this.receivedMessages) {
+                            this.receivedMessages.add(recordedMessage);
+                            this.receivedMessages.notifyAll();
+                        }
+                        for (Consumer<RecordedMessage> messageListener : this.messageListeners) {
+                            messageListener.accept(recordedMessage);
+                        }
+                    }
+                }
+                catch (JsonParseException ignored) {}
+            }
+        }
+        catch (IOException ignored) {}
+    }
+
+    /**
+     * Get the ID sent by the Plugin in its pairing message
+     *
+     * @return String pluginId - null until paired
+     */
+    public String getPluginId() {
+        return this.pluginId;
+    }
+
+    /**
+     * Is the Plugin connected
+     *
+     * @return boolean isConnected
+     */
+    public boolean isConnected() {
+        TPConnection connection = this.connection;
+        return connection != null && connection.isOpen();
+    }
+
+    /**
+     * Send a message to the Plugin
+     *
+     * @param message JsonObject - See {@link TouchPortalMessages}
+     * @throws IOException If the Plugin is not connected
+     */
+    public void send(JsonObject message) throws IOException {
+        this.sendLine(message.toString());
+    }
+
+    /**
+     * Internal - Send a message line to the Plugin as is
+     *
+     * @param line String - Without its delimiter
+     * @throws IOException If the Plugin is not connected
+     */
+    void sendLine(String line) throws IOException {
+        if (this.writer == null) {
+            throw new IOException("Plugin not connected");
+        }
+        synchronized (this.writer) {
+            this.writer.write(line);
+            this.writer.write('\n');
+            this.writer.flush();
+        }
+    }
+
+    /**
+     * Get the messages sent by the Plugin since it connected or since the last clear
+     *
+     * @return List&lt;{@link RecordedMessage}&gt; receivedMessages
+     */
+    public List<RecordedMessage> getReceivedMessages() {
+        synchronized (this.receivedMessages) {
+            return new ArrayList<>(this.receivedMessages);
+        }
+    }
+
+    /**
+     * Get the number of messages sent by the Plugin since it connected or since the last clear
+     *
+     * @return int receivedCount
+     */
+    public int getReceivedCount() {
+        synchronized (this.receivedMessages) {
+            return this.receivedMessages.size();
+        }
+    }
+
+    /**
+     * Forget the recorded messages
+     */
+    public void clearReceivedMessages() {
+        synchronized (this.receivedMessages) {
+            this.receivedMessages.clear();
+        }
+    }
+
+    /**
+     * Wait for a recorded message matching a predicate, including the ones already recorded
+     *
+     * @param predicate Predicate&lt;JsonObject&gt;
+     * @param timeout   long
+     * @param unit      TimeUnit
+     * @return {@link RecordedMessage} recordedMessage - null if none matched in time
+     */
+    public RecordedMessage awaitMessage(Predicate<JsonObject> predicate, long timeout, TimeUnit unit) {
+        RecordedMessage matchingMessage = null;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int checkedCount = 0;
+        synchronized (this.receivedMessages) {
+            try {
+                while (matchingMessage == null) {
+                    for (; checkedCount < this.receivedMessages.size() && matchingMessage == null; checkedCount++) {
+                        RecordedMessage recordedMessage = this.receivedMessages.get(checkedCount);
+                        if (predicate.test(recordedMessage.getMessage())) {
+                            matchingMessage = recordedMessage;
+                        }
+                    }
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (matchingMessage == null) {
+                        if (remainingNanos <= 0) {
+                            break;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this.receivedMessages, remainingNanos);
+                    }
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return matchingMessage;
+    }
+
+    /**
+     * Wait until a number of messages sent by the Plugin are recorded
+     *
+     * @param count   int - Including the ones already recorded
+     * @param timeout long
+     * @param unit    TimeUnit
+     * @return boolean reached - false if fewer messages were recorded in time
+     */
+    public boolean awaitReceivedCount(int count, long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (this.receivedMessages) {
+            try {
+                long remainingNanos;
+                while (this.receivedMessages.size() < count && (remainingNanos = deadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this.receivedMessages, remainingNanos);
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return this.receivedMessages.size() >= count;
+        }
+    }
+
+    /**
+     * Add a listener notified of each message sent by the Plugin, on the reading Thread
+     *
+     * @param messageListener Consumer&lt;{@link RecordedMessage}&gt;
+     */
+    public void addMessageListener(Consumer<RecordedMessage> messageListener) {
+        this.messageListeners.add(messageListener);
+    }
+
+    /**
+     * Remove a message listener
+     *
+     * @param messageListener Consumer&lt;{@link RecordedMessage}&gt;
+     */
+    public void removeMessageListener(Consumer<RecordedMessage> messageListener) {
+        this.messageListeners.remove(messageListener);
+    }
+
+    /**
+     * Drive a load profile against the paired Plugin and report its throughput and latencies
+     *
+     * @param loadProfile {@link LoadProfile}
+     * @return {@link LoadReport} loadReport
+     * @throws IOException If sending to the Plugin failed
+     */
+    public LoadReport runLoad(LoadProfile loadProfile) throws IOException {
+        if (this.pluginId == null) {
+            throw new IllegalStateException("Plugin not paired");
+        }
+        return new LoadDriver(this, loadProfile).run();
+    }
+
+    /**
+     * Replay the lines received by a Plugin in a recording made with <code>plugin.startTrafficRecording(path)</code>
+     * <p>
+     * Accept the Plugin connection with {@link #accept(long, TimeUnit)} first, the recorded Info message answers its pairing.
+     * The recorded lines are sent as is, relative to the pairing message, and the replay waits until the Plugin sent
+     * as many messages as in the recording or the drain timeout elapses.
+     * </p>
+     *
+     * @param recordingPath Path
+     * @param replaySpeed   {@link ReplaySpeed}
+     * @param drainTimeout  long - Also the time to wait for the pairing message
+     * @param unit          TimeUnit
+     * @return {@link ReplayReport} replayReport
+     * @throws IOException      If the recording could not be read or sending to the Plugin failed
+     * @throws TimeoutException If the Plugin did not pair in time
+     */
+    public ReplayReport replay(Path recordingPath, ReplaySpeed replaySpeed, long drainTimeout, TimeUnit unit) throws IOException, TimeoutException {
+        if (this.connection == null) {
+            throw new IllegalStateException("Plugin not connected");
+        }
+        return new TrafficReplayer(this, recordingPath, replaySpeed, unit.toNanos(drainTimeout)).run();
+    }
+
+    /**
+     * Close the Plugin connection and stop listening
+     *
+     * @throws IOException If closing failed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            TPConnection connection = this.connection;
+            if (connection != null) {
+                connection.close();
+            }
+        }
+        finally {
+            this.peerAcceptor.close();
+        }
+        if (this.readerThread != null) {
+            try {
+                this.readerThread.join(1000);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Accepts the Plugin end of the connection
+     */
+    private interface PeerAcceptor extends Closeable {
+        TPConnection accept(long timeout, TimeUnit unit) throws IOException;
+    }
+
+    /**
+     * {@link TPConnection} over an accepted Socket
+     */
+    private static class SocketConnection implements TPConnection {
+        private final Socket socket;
+
+        private SocketConnection(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return this.socket.getInputStream();
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            return this.socket.getOutputStream();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !this.socket.isClosed();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.socket.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.testkit;
+
+import com.christophecvb.touchportal.helpers.SentMessageHelper;
+import com.google.gson.JsonObject;
+
+/**
+ * Message sent by the Plugin and recorded by the {@link MockTouchPortalServer}
+ */
+public class RecordedMessage {
+    private final long receivedAtNanos;
+    private final JsonObject message;
+
+    RecordedMessage(long receivedAtNanos, JsonObject message) {
+        this.receivedAtNanos = receivedAtNanos;
+        this.message = message;
+    }
+
+    /**
+     * Get when the message was read
+     *
+     * @return long receivedAtNanos - Based on {@link System#nanoTime()}
+     */
+    public long getReceivedAtNanos() {
+        return this.receivedAtNanos;
+    }
+
+    /**
+     * Get the message
+     *
+     * @return JsonObject message
+     */
+    public JsonObject getMessage() {
+        return this.message;
+    }
+
+    /**
+     * Get the message type
+     *
+     * @return String type - null if the message has none
+     */
+    public String getType() {
+        return this.message.has(SentMessageHelper.TYPE) ? this.message.get(SentMessageHelper.TYPE).getAsString() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "RecordedMessage{" +
+                "receivedAtNanos=" + this.receivedAtNanos +
+                ", message=" + this.message +
+                '}';
+    }
+}
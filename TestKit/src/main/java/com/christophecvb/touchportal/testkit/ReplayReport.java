@@ -0,0 +1,146 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.testkit;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Outcome of {@link MockTouchPortalServer#replay(java.nio.file.Path, ReplaySpeed, long, java.util.concurrent.TimeUnit)}
+ * <p>
+ * The messages sent by the Plugin during the replay are compared by type with the ones it sent in the recording, pairing messages excluded.
+ * Measure the latencies and allocations of the replay with the Plugin metrics and handler accounting.
+ * </p>
+ */
+public class ReplayReport {
+    private final long replayedCount;
+    private final long recordedSentCount;
+    private final long sentCount;
+    private final Map<String, Long> recordedSentCounts;
+    private final Map<String, Long> sentCounts;
+    private final long recordedDurationNanos;
+    private final long replayDurationNanos;
+    private final long totalDurationNanos;
+
+    ReplayReport(long replayedCount, long recordedSentCount, long sentCount, Map<String, Long> recordedSentCounts, Map<String, Long> sentCounts, long recordedDurationNanos, long replayDurationNanos, long totalDurationNanos) {
+        this.replayedCount = replayedCount;
+        this.recordedSentCount = recordedSentCount;
+        this.sentCount = sentCount;
+        this.recordedSentCounts = Collections.unmodifiableMap(recordedSentCounts);
+        this.sentCounts = Collections.unmodifiableMap(sentCounts);
+        this.recordedDurationNanos = recordedDurationNanos;
+        this.replayDurationNanos = replayDurationNanos;
+        this.totalDurationNanos = totalDurationNanos;
+    }
+
+    /**
+     * Get the number of recorded lines sent to the Plugin
+     *
+     * @return long replayedCount
+     */
+    public long getReplayedCount() {
+        return this.replayedCount;
+    }
+
+    /**
+     * Get the number of messages the Plugin sent in the recording, pairing excluded
+     *
+     * @return long recordedSentCount
+     */
+    public long getRecordedSentCount() {
+        return this.recordedSentCount;
+    }
+
+    /**
+     * Get the number of messages the Plugin sent since it connected, pairing excluded
+     *
+     * @return long sentCount
+     */
+    public long getSentCount() {
+        return this.sentCount;
+    }
+
+    /**
+     * Get the number of messages the Plugin sent in the recording by type, pairing excluded
+     *
+     * @return Map&lt;String, Long&gt; recordedSentCounts
+     */
+    public Map<String, Long> getRecordedSentCounts() {
+        return this.recordedSentCounts;
+    }
+
+    /**
+     * Get the number of messages the Plugin sent since it connected by type, pairing excluded
+     *
+     * @return Map&lt;String, Long&gt; sentCounts
+     */
+    public Map<String, Long> getSentCounts() {
+        return this.sentCounts;
+    }
+
+    /**
+     * Did the Plugin send as many messages of each type as in the recording
+     *
+     * @return boolean matchesRecording
+     */
+    public boolean matchesRecording() {
+        return Objects.equals(this.recordedSentCounts, this.sentCounts);
+    }
+
+    /**
+     * Get the time between the recorded pairing, or the first record, and the last recorded line received by the Plugin
+     *
+     * @return long recordedDurationNanos
+     */
+    public long getRecordedDurationNanos() {
+        return this.recordedDurationNanos;
+    }
+
+    /**
+     * Get how long sending the recorded lines took
+     *
+     * @return long replayDurationNanos
+     */
+    public long getReplayDurationNanos() {
+        return this.replayDurationNanos;
+    }
+
+    /**
+     * Get how long the replay took, including waiting for the Plugin messages
+     *
+     * @return long totalDurationNanos
+     */
+    public long getTotalDurationNanos() {
+        return this.totalDurationNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ReplayReport{" +
+                "replayed=" + this.replayedCount +
+                ", recordedSent=" + this.recordedSentCounts +
+                ", sent=" + this.sentCounts +
+                ", recordedDuration=" + String.format("%.3f ms", this.recordedDurationNanos / 1_000_000d) +
+                ", replayDuration=" + String.format("%.3f ms", this.replayDurationNanos / 1_000_000d) +
+                ", totalDuration=" + String.format("%.3f ms", this.totalDurationNanos / 1_000_000d) +
+                '}';
+    }
+}
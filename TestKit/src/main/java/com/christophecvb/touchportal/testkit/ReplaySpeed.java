@@ -0,0 +1,36 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.testkit;
+
+/**
+ * Pace of a replayed recording
+ *
+ * @see MockTouchPortalServer#replay(java.nio.file.Path, ReplaySpeed, long, java.util.concurrent.TimeUnit)
+ */
+public enum ReplaySpeed {
+    /**
+     * Lines are sent with their recorded delays
+     */
+    ORIGINAL,
+    /**
+     * Lines are sent one after the other
+     */
+    AS_FAST_AS_POSSIBLE
+}
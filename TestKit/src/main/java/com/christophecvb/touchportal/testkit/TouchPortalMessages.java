@@ -0,0 +1,228 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.testkit;
+
+import com.christophecvb.touchportal.helpers.ActionHelper;
+import com.christophecvb.touchportal.helpers.ConnectorHelper;
+import com.christophecvb.touchportal.helpers.ReceivedMessageHelper;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Messages sent by the Touch Portal Plugin System to a Plugin
+ */
+public final class TouchPortalMessages {
+    private TouchPortalMessages() {}
+
+    /**
+     * Create the Info message answering the pairing
+     *
+     * @param pluginVersion   long
+     * @param tpVersionString String
+     * @param tpVersionCode   long
+     * @param settings        Map&lt;String, String&gt; - Setting values by name
+     * @return JsonObject infoMessage
+     */
+    public static JsonObject info(long pluginVersion, String tpVersionString, long tpVersionCode, Map<String, String> settings) {
+        JsonObject infoMessage = new JsonObject();
+        infoMessage.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_INFO);
+        infoMessage.addProperty("status", "paired");
+        infoMessage.addProperty("sdkVersion", 6);
+        infoMessage.addProperty("tpVersionString", tpVersionString);
+        infoMessage.addProperty("tpVersionCode", tpVersionCode);
+        infoMessage.addProperty("pluginVersion", pluginVersion);
+        infoMessage.add(ReceivedMessageHelper.SETTINGS, TouchPortalMessages.settingsArray(settings));
+
+        return infoMessage;
+    }
+
+    /**
+     * Create a Settings message, sent when the user saves the Plugin settings
+     *
+     * @param settings Map&lt;String, String&gt; - Setting values by name
+     * @return JsonObject settingsMessage
+     */
+    public static JsonObject settings(Map<String, String> settings) {
+        JsonObject settingsMessage = new JsonObject();
+        settingsMessage.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_SETTINGS);
+        settingsMessage.add(ReceivedMessageHelper.VALUES, TouchPortalMessages.settingsArray(settings));
+
+        return settingsMessage;
+    }
+
+    /**
+     * Create an Action message
+     *
+     * @param pluginId String
+     * @param actionId String
+     * @param data     Map&lt;String, String&gt; - Data values by Data ID
+     * @return JsonObject actionMessage
+     */
+    public static JsonObject action(String pluginId, String actionId, Map<String, String> data) {
+        return TouchPortalMessages.actionMessage(ReceivedMessageHelper.TYPE_ACTION, pluginId, actionId, data);
+    }
+
+    /**
+     * Create the Hold Down message of an Action
+     *
+     * @param pluginId String
+     * @param actionId String
+     * @param data     Map&lt;String, String&gt; - Data values by Data ID
+     * @return JsonObject holdDownMessage
+     */
+    public static JsonObject holdDown(String pluginId, String actionId, Map<String, String> data) {
+        return TouchPortalMessages.actionMessage(ReceivedMessageHelper.TYPE_HOLD_DOWN, pluginId, actionId, data);
+    }
+
+    /**
+     * Create the Hold Up message of an Action
+     *
+     * @param pluginId String
+     * @param actionId String
+     * @param data     Map&lt;String, String&gt; - Data values by Data ID
+     * @return JsonObject holdUpMessage
+     */
+    public static JsonObject holdUp(String pluginId, String actionId, Map<String, String> data) {
+        return TouchPortalMessages.actionMessage(ReceivedMessageHelper.TYPE_HOLD_UP, pluginId, actionId, data);
+    }
+
+    /**
+     * Create a Connector change message
+     *
+     * @param pluginId    String
+     * @param connectorId String
+     * @param value       int - Between 0 and 100
+     * @param data        Map&lt;String, String&gt; - Data values by Data ID
+     * @return JsonObject connectorChangeMessage
+     */
+    public static JsonObject connectorChange(String pluginId, String connectorId, int value, Map<String, String> data) {
+        JsonObject connectorChangeMessage = new JsonObject();
+        connectorChangeMessage.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_CONNECTOR_CHANGE);
+        connectorChangeMessage.addProperty(ReceivedMessageHelper.PLUGIN_ID, pluginId);
+        connectorChangeMessage.addProperty(ReceivedMessageHelper.CONNECTOR_ID, connectorId);
+        connectorChangeMessage.addProperty(ReceivedMessageHelper.VALUE, value);
+        connectorChangeMessage.add(ConnectorHelper.DATA, TouchPortalMessages.dataArray(data));
+
+        return connectorChangeMessage;
+    }
+
+    /**
+     * Create a Short Connector ID notification
+     *
+     * @param pluginId               String
+     * @param constructedConnectorId String
+     * @param shortId                String
+     * @return JsonObject shortConnectorIdNotification
+     */
+    public static JsonObject shortConnectorIdNotification(String pluginId, String constructedConnectorId, String shortId) {
+        JsonObject shortConnectorIdNotification = new JsonObject();
+        shortConnectorIdNotification.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_SHORT_CONNECTOR_ID_NOTIFICATION);
+        shortConnectorIdNotification.addProperty(ReceivedMessageHelper.PLUGIN_ID, pluginId);
+        shortConnectorIdNotification.addProperty(ReceivedMessageHelper.CONNECTOR_ID, constructedConnectorId);
+        shortConnectorIdNotification.addProperty(ReceivedMessageHelper.SHORT_ID, shortId);
+
+        return shortConnectorIdNotification;
+    }
+
+    /**
+     * Create a List change message, sent when the user selects a value in an Action Choice list
+     *
+     * @param pluginId   String
+     * @param actionId   String
+     * @param listId     String
+     * @param instanceId String
+     * @param value      String
+     * @return JsonObject listChangeMessage
+     */
+    public static JsonObject listChange(String pluginId, String actionId, String listId, String instanceId, String value) {
+        JsonObject listChangeMessage = new JsonObject();
+        listChangeMessage.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_LIST_CHANGED);
+        listChangeMessage.addProperty(ReceivedMessageHelper.PLUGIN_ID, pluginId);
+        listChangeMessage.addProperty(ReceivedMessageHelper.ACTION_ID, actionId);
+        listChangeMessage.addProperty(ReceivedMessageHelper.LIST_ID, listId);
+        listChangeMessage.addProperty(ReceivedMessageHelper.INSTANCE_ID, instanceId);
+        listChangeMessage.addProperty(ReceivedMessageHelper.VALUE, value);
+
+        return listChangeMessage;
+    }
+
+    /**
+     * Create a page change Broadcast message
+     *
+     * @param pageName String
+     * @return JsonObject broadcastMessage
+     */
+    public static JsonObject pageChangeBroadcast(String pageName) {
+        JsonObject broadcastMessage = new JsonObject();
+        broadcastMessage.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_BROADCAST);
+        broadcastMessage.addProperty(ReceivedMessageHelper.EVENT, ReceivedMessageHelper.EVENT_PAGE_CHANGE);
+        broadcastMessage.addProperty(ReceivedMessageHelper.PAGE_NAME, pageName);
+
+        return broadcastMessage;
+    }
+
+    /**
+     * Create the Close Plugin message
+     *
+     * @param pluginId String
+     * @return JsonObject closePluginMessage
+     */
+    public static JsonObject closePlugin(String pluginId) {
+        JsonObject closePluginMessage = new JsonObject();
+        closePluginMessage.addProperty(ReceivedMessageHelper.TYPE, ReceivedMessageHelper.TYPE_CLOSE_PLUGIN);
+        closePluginMessage.addProperty(ReceivedMessageHelper.PLUGIN_ID, pluginId);
+
+        return closePluginMessage;
+    }
+
+    private static JsonObject actionMessage(String type, String pluginId, String actionId, Map<String, String> data) {
+        JsonObject actionMessage = new JsonObject();
+        actionMessage.addProperty(ReceivedMessageHelper.TYPE, type);
+        actionMessage.addProperty(ReceivedMessageHelper.PLUGIN_ID, pluginId);
+        actionMessage.addProperty(ReceivedMessageHelper.ACTION_ID, actionId);
+        actionMessage.add(ActionHelper.DATA, TouchPortalMessages.dataArray(data));
+
+        return actionMessage;
+    }
+
+    private static JsonArray dataArray(Map<String, String> data) {
+        JsonArray dataArray = new JsonArray();
+        for (Map.Entry<String, String> datum : (data != null ? data : Collections.<String, String>emptyMap()).entrySet()) {
+            JsonObject jsonDatum = new JsonObject();
+            jsonDatum.addProperty(ReceivedMessageHelper.ACTION_DATA_ID, datum.getKey());
+            jsonDatum.addProperty(ReceivedMessageHelper.ACTION_DATA_VALUE, datum.getValue());
+            dataArray.add(jsonDatum);
+        }
+        return dataArray;
+    }
+
+    private static JsonArray settingsArray(Map<String, String> settings) {
+        JsonArray settingsArray = new JsonArray();
+        for (Map.Entry<String, String> setting : (settings != null ? settings : Collections.<String, String>emptyMap()).entrySet()) {
+            JsonObject jsonSetting = new JsonObject();
+            jsonSetting.addProperty(setting.getKey(), setting.getValue());
+            settingsArray.add(jsonSetting);
+        }
+        return settingsArray;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Touch Portal Plugin SDK
+ *
+ * Copyright 2020 Christophe Carvalho Vilas-Boas
+ * christophe.carvalhovilasboas@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.christophecvb.touchportal.testkit;
+
+import com.christophecvb.touchportal.TPTrafficRecording;
+import com.christophecvb.touchportal.helpers.SentMessageHelper;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends the received lines of a traffic recording to the Plugin and compares what it sends back with the recording
+ */
+class TrafficReplayer {
+    private final MockTouchPortalServer server;
+    private final Path recordingPath;
+    private final ReplaySpeed replaySpeed;
+    private final long drainTimeoutNanos;
+
+    TrafficReplayer(MockTouchPortalServer server, Path recordingPath, ReplaySpeed replaySpeed, long drainTimeoutNanos) {
+        this.server = server;
+        this.recordingPath = recordingPath;
+        this.replaySpeed = replaySpeed;
+        this.drainTimeoutNanos = drainTimeoutNanos;
+    }
+
+    ReplayReport run() throws IOException, TimeoutException {
+        // First pass: count the recorded sent messages and find the recorded pairing the replay is aligned on,
+        // or the first record when the recording started after the pairing. Pairing messages are not compared
+        Map<String, Long> recordedSentCounts = new TreeMap<>();
+        long recordedSentCount = 0;
+        long pairNanos = -1;
+        long firstRecordNanos = -1;
+        long lastInboundNanos = -1;
+        try (TPTrafficRecording trafficRecording = TPTrafficRecording.open(this.recordingPath)) {
+            TPTrafficRecording.Record record;
+            while ((record = trafficRecording.next()) != null) {
+                if (firstRecordNanos < 0) {
+                    firstRecordNanos = record.getNanos();
+                }
+                if (record.isInbound()) {
+                    lastInboundNanos = record.getNanos();
+                }
+                else {
+                    String type = TrafficReplayer.getType(record.getLine());
+                    if (SentMessageHelper.TYPE_PAIR.equals(type)) {
+                        if (pairNanos < 0) {
+                            pairNanos = record.getNanos();
+                        }
+                    }
+                    else {
+                        recordedSentCounts.merge(String.valueOf(type), 1L, Long::sum);
+                        recordedSentCount++;
+                    }
+                }
+            }
+        }
+        long recordingBaseNanos = Math.max(0, pairNanos >= 0 ? pairNanos : firstRecordNanos);
+
+        RecordedMessage pairMessage = this.server.awaitPair(this.drainTimeoutNanos, TimeUnit.NANOSECONDS);
+        long replayBaseNanos = pairMessage.getReceivedAtNanos();
+        long startNanos = System.nanoTime();
+
+        // Second pass: send the received lines
+        long replayedCount = 0;
+        try (TPTrafficRecording trafficRecording = TPTrafficRecording.open(this.recordingPath)) {
+            TPTrafficRecording.Record record;
+            while ((record = trafficRecording.next()) != null) {
+                if (record.isInbound()) {
+                    if (this.replaySpeed == ReplaySpeed.ORIGINAL) {
+                        TrafficReplayer.waitUntil(replayBaseNanos + record.getNanos() - recordingBaseNanos);
+                    }
+                    this.server.sendLine(record.getLine());
+                    replayedCount++;
+                }
+            }
+        }
+        long replayEndNanos = System.nanoTime();
+
+        // The pairing message is already received
+        this.server.awaitReceivedCount((int) Math.min(Integer.MAX_VALUE, recordedSentCount + 1), this.drainTimeoutNanos, TimeUnit.NANOSECONDS);
+        long endNanos = System.nanoTime();
+
+        Map<String, Long> sentCounts = new TreeMap<>();
+        long sentCount = 0;
+        for (RecordedMessage recordedMessage : this.server.getReceivedMessages()) {
+            if (!SentMessageHelper.TYPE_PAIR.equals(recordedMessage.getType())) {
+                sentCounts.merge(String.valueOf(recordedMessage.getType()), 1L, Long::sum);
+                sentCount++;
+            }
+        }
+
+        return new ReplayReport(replayedCount, recordedSentCount, sentCount, recordedSentCounts, sentCounts,
+                Math.max(0, lastInboundNanos - recordingBaseNanos), replayEndNanos - startNanos, endNanos - startNanos);
+    }
+
+    private static String getType(String line) {
+        String type = null;
+        try {
+            JsonElement jsonElement = JsonParser.parseString(line);
+            if (jsonElement.isJsonObject() && jsonElement.getAsJsonObject().has(SentMessageHelper.TYPE)) {
+                type = jsonElement.getAsJsonObject().get(SentMessageHelper.TYPE).getAsString();
+            }
+        }
+        catch (JsonParseException ignored) {}
+        return type;
+    }
+
+    private static void waitUntil(long deadlineNanos) {
+        long remainingNanos;
+        while ((remainingNanos = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remainingNanos);
+        }
+    }
+}